@@ -0,0 +1,245 @@
+package org.example.DAOs.OneToManyToOne_Bidirectional.Category;
+
+import jakarta.persistence.criteria.*;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ListAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.example.Entities.DTOs.CategorySummary;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Entities.OneToManyToOne_Bidirectional.ProductEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Criteria queries of {@link CategoryDAOCriteria}, built once per SessionFactory and reused by all the calls. <br>
+ * Per call only the parameters are bound (by name, {@code PARAM_*}): the trees (CriteriaQuery, Root, Predicate...)
+ * aren't allocated again. The selects are created with {@code setQueryPlanCacheable(true)} by the DAO
+ * ({@code CategoryDAOCriteria.select}): the key of the query plan cache of a criteria query is the instance of the tree,
+ * so the SQM to SQL translation of the shared instance is reused by the next calls (a new tree per call would be
+ * translated every time). It requires {@code hibernate.criteria.copy_tree=false} (default outside JPA compliance),
+ * with it enabled every query copies the tree and isn't cached. <br>
+ * The attributes are resolved once from the metamodel instead of {@code root.get(String)} on every call.
+ * <p>
+ * PD: The queries are shared between threads, they mustn't be modified after being built
+ * (e.g. {@code query.where(...)}), create a new query instead.
+ */
+final class CategoryCriteriaQueries {
+    private static final Map<SessionFactory, CategoryCriteriaQueries> CACHE = new ConcurrentHashMap<>();
+
+    static final String PARAM_ID = "id";
+    static final String PARAM_IDS = "ids";
+    static final String PARAM_NAME = "name";
+    static final String PARAM_NAMES = "names";
+    static final String PARAM_LAST_ID = "lastId";
+    static final String PARAM_LAST_NAME = "lastName";
+
+    //=============================== Attributes ==================================\\
+    private final SingularAttribute<? super CategoryEntity, Long> id;
+    private final SingularAttribute<? super CategoryEntity, String> name;
+    private final SingularAttribute<? super CategoryEntity, Long> version;
+    private final ListAttribute<? super CategoryEntity, ProductEntity> products;
+    private final SingularAttribute<? super ProductEntity, Long> productId;
+    private final SingularAttribute<? super ProductEntity, BigDecimal> productPrice;
+
+    //=============================== Queries ==================================\\
+    final CriteriaQuery<CategoryEntity> findById;
+    final CriteriaQuery<CategoryEntity> findByName;
+    final CriteriaQuery<CategoryEntity> listAll;
+    final CriteriaQuery<CategoryEntity> getByIdEager;
+    final CriteriaQuery<CategoryEntity> getByIdsEager;
+    final CriteriaQuery<String> existingNames;
+    final CriteriaQuery<CategorySummary> listSummaries;
+    final CriteriaQuery<CategorySummary> findSummaryById;
+    final CriteriaQuery<CategoryEntity> firstPageById;
+    final CriteriaQuery<CategoryEntity> nextPageById;
+    final CriteriaQuery<CategoryEntity> firstPageByNameId;
+    final CriteriaQuery<CategoryEntity> nextPageByNameId;
+    final CriteriaDelete<CategoryEntity> deleteById;
+    final CriteriaUpdate<CategoryEntity> merge;
+
+    private CategoryCriteriaQueries(SessionFactory sessionFactory) {
+        EntityType<CategoryEntity> category = sessionFactory.getMetamodel().entity(CategoryEntity.class);
+        EntityType<ProductEntity> product = sessionFactory.getMetamodel().entity(ProductEntity.class);
+        id = category.getSingularAttribute(CategoryEntity.ATTR_ID, Long.class);
+        name = category.getSingularAttribute(CategoryEntity.ATTR_NAME, String.class);
+        version = category.getSingularAttribute(CategoryEntity.ATTR_VERSION, Long.class);
+        products = category.getList(CategoryEntity.ATTR_PRODUCTS, ProductEntity.class);
+        productId = product.getSingularAttribute(ProductEntity.ATTR_ID, Long.class);
+        productPrice = product.getSingularAttribute(ProductEntity.ATTR_PRICE, BigDecimal.class);
+
+        CriteriaBuilder builder = sessionFactory.getCriteriaBuilder();
+        findById = findById(builder);
+        findByName = findByName(builder);
+        listAll = listAll(builder);
+        getByIdEager = getByIdEager(builder);
+        getByIdsEager = getByIdsEager(builder);
+        existingNames = existingNames(builder);
+        listSummaries = summary(builder, false);
+        findSummaryById = summary(builder, true);
+        firstPageById = pageById(builder, false);
+        nextPageById = pageById(builder, true);
+        firstPageByNameId = pageByNameId(builder, false);
+        nextPageByNameId = pageByNameId(builder, true);
+        deleteById = deleteById(builder);
+        merge = merge(builder);
+    }
+
+    /**
+     * @param sessionFactory the SessionFactory of the DAO
+     * @return the queries of the SessionFactory, built the first time and removed when it's closed
+     * (they reference its metamodel, {@code HibernateUtil.shutdown()} would leak it)
+     */
+    static CategoryCriteriaQueries of(SessionFactory sessionFactory) {
+        return CACHE.computeIfAbsent(sessionFactory, factory -> {
+            factory.unwrap(SessionFactoryImplementor.class).addObserver(new SessionFactoryObserver() {
+                @Override
+                public void sessionFactoryClosed(SessionFactory closed) {
+                    CACHE.remove(closed);
+                }
+            });
+            return new CategoryCriteriaQueries(factory);
+        });
+    }
+
+    /**
+     * FROM CategoryEntity c WHERE c.id = :id
+     */
+    private CriteriaQuery<CategoryEntity> findById(CriteriaBuilder builder) {
+        CriteriaQuery<CategoryEntity> query = builder.createQuery(CategoryEntity.class);
+        Root<CategoryEntity> root = query.from(CategoryEntity.class);
+        return query.where(builder.equal(root.get(id), builder.parameter(Long.class, PARAM_ID)));
+    }
+
+    /**
+     * FROM CategoryEntity c WHERE c.name = :name
+     */
+    private CriteriaQuery<CategoryEntity> findByName(CriteriaBuilder builder) {
+        CriteriaQuery<CategoryEntity> query = builder.createQuery(CategoryEntity.class);
+        Root<CategoryEntity> root = query.from(CategoryEntity.class);
+        return query.where(builder.equal(root.get(name), builder.parameter(String.class, PARAM_NAME)));
+    }
+
+    /**
+     * FROM CategoryEntity c
+     */
+    private CriteriaQuery<CategoryEntity> listAll(CriteriaBuilder builder) {
+        CriteriaQuery<CategoryEntity> query = builder.createQuery(CategoryEntity.class);
+        return query.select(query.from(CategoryEntity.class));
+    }
+
+    /**
+     * FROM CategoryEntity c LEFT JOIN FETCH c.products WHERE c.id = :id
+     */
+    private CriteriaQuery<CategoryEntity> getByIdEager(CriteriaBuilder builder) {
+        CriteriaQuery<CategoryEntity> query = builder.createQuery(CategoryEntity.class);
+        Root<CategoryEntity> root = query.from(CategoryEntity.class);
+        root.fetch(products, JoinType.LEFT);
+        return query.where(builder.equal(root.get(id), builder.parameter(Long.class, PARAM_ID)));
+    }
+
+    /**
+     * FROM CategoryEntity c LEFT JOIN FETCH c.products WHERE c.id IN :ids
+     */
+    private CriteriaQuery<CategoryEntity> getByIdsEager(CriteriaBuilder builder) {
+        CriteriaQuery<CategoryEntity> query = builder.createQuery(CategoryEntity.class);
+        Root<CategoryEntity> root = query.from(CategoryEntity.class);
+        root.fetch(products, JoinType.LEFT);
+        return query.where(root.get(id).in(builder.parameter(Collection.class, PARAM_IDS)));
+    }
+
+    /**
+     * SELECT c.name FROM CategoryEntity c WHERE c.name IN :names
+     */
+    private CriteriaQuery<String> existingNames(CriteriaBuilder builder) {
+        CriteriaQuery<String> query = builder.createQuery(String.class);
+        Root<CategoryEntity> root = query.from(CategoryEntity.class);
+        return query.select(root.get(name))
+                .where(root.get(name).in(builder.parameter(Collection.class, PARAM_NAMES)));
+    }
+
+    /**
+     * SELECT new CategorySummary(c.id, c.name, count(p.id), min(p.price), max(p.price))
+     * FROM CategoryEntity c LEFT JOIN c.products p [WHERE c.id = :id] GROUP BY c.id, c.name ORDER BY c.id
+     */
+    private CriteriaQuery<CategorySummary> summary(CriteriaBuilder builder, boolean byId) {
+        CriteriaQuery<CategorySummary> query = builder.createQuery(CategorySummary.class);
+        Root<CategoryEntity> root = query.from(CategoryEntity.class);
+        ListJoin<CategoryEntity, ProductEntity> join = root.join(products, JoinType.LEFT);
+        Path<BigDecimal> price = join.get(productPrice);
+
+        query.select(builder.construct(CategorySummary.class,
+                        root.get(id),
+                        root.get(name),
+                        builder.count(join.get(productId)),
+                        builder.min(price),
+                        builder.max(price)))
+                .groupBy(root.get(id), root.get(name))
+                .orderBy(builder.asc(root.get(id)));
+
+        if (byId) query.where(builder.equal(root.get(id), builder.parameter(Long.class, PARAM_ID)));
+
+        return query;
+    }
+
+    /**
+     * FROM CategoryEntity c [WHERE c.id > :lastId] ORDER BY c.id
+     */
+    private CriteriaQuery<CategoryEntity> pageById(CriteriaBuilder builder, boolean after) {
+        CriteriaQuery<CategoryEntity> query = builder.createQuery(CategoryEntity.class);
+        Root<CategoryEntity> root = query.from(CategoryEntity.class);
+        Path<Long> idPath = root.get(id);
+
+        if (after) query.where(builder.greaterThan(idPath, builder.parameter(Long.class, PARAM_LAST_ID)));
+        return query.orderBy(builder.asc(idPath));
+    }
+
+    /**
+     * FROM CategoryEntity c [WHERE c.name > :lastName OR (c.name = :lastName AND c.id > :lastId)] ORDER BY c.name, c.id
+     */
+    private CriteriaQuery<CategoryEntity> pageByNameId(CriteriaBuilder builder, boolean after) {
+        CriteriaQuery<CategoryEntity> query = builder.createQuery(CategoryEntity.class);
+        Root<CategoryEntity> root = query.from(CategoryEntity.class);
+        Path<Long> idPath = root.get(id);
+        Path<String> namePath = root.get(name);
+
+        if (after) {
+            ParameterExpression<String> lastName = builder.parameter(String.class, PARAM_LAST_NAME);
+            query.where(builder.or(
+                    builder.greaterThan(namePath, lastName),
+                    builder.and(
+                            builder.equal(namePath, lastName),
+                            builder.greaterThan(idPath, builder.parameter(Long.class, PARAM_LAST_ID)))));
+        }
+        return query.orderBy(builder.asc(namePath), builder.asc(idPath));
+    }
+
+    /**
+     * DELETE FROM CategoryEntity c WHERE c.id = :id
+     */
+    private CriteriaDelete<CategoryEntity> deleteById(CriteriaBuilder builder) {
+        CriteriaDelete<CategoryEntity> delete = builder.createCriteriaDelete(CategoryEntity.class);
+        Root<CategoryEntity> root = delete.from(CategoryEntity.class);
+        return delete.where(builder.equal(root.get(id), builder.parameter(Long.class, PARAM_ID)));
+    }
+
+    /**
+     * UPDATE CategoryEntity c SET c.name = :name, c.version = c.version + 1 WHERE c.id = :id
+     */
+    private CriteriaUpdate<CategoryEntity> merge(CriteriaBuilder builder) {
+        CriteriaUpdate<CategoryEntity> update = builder.createCriteriaUpdate(CategoryEntity.class);
+        Root<CategoryEntity> root = update.from(CategoryEntity.class);
+        Path<Long> versionPath = root.get(version);
+
+        return update
+                .set(root.get(name), builder.parameter(String.class, PARAM_NAME))
+                // Increment the version, the optimistic merges of the entity must see this update
+                .set(versionPath, builder.sum(versionPath, 1L))
+                .where(builder.equal(root.get(id), builder.parameter(Long.class, PARAM_ID)));
+    }
+}
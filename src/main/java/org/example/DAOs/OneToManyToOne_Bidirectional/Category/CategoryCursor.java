@@ -0,0 +1,94 @@
+package org.example.DAOs.OneToManyToOne_Bidirectional.Category;
+
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a keyset (seek) pagination over {@link CategoryEntity}. <br>
+ * Instead of {@code OFFSET n} (the DB reads and discards the first n rows) the next page is obtained with
+ * {@code WHERE key > :lastSeenKey ORDER BY key LIMIT :limit}, it is resolved with the index so the cost is
+ * the same for the first and the last page. <br>
+ * The cursor is exposed as an opaque token ({@link #encode()}) that clients send back to get the next page.
+ */
+public class CategoryCursor {
+    /**
+     * Supported orderings, the last column is always the id to make the key unique.
+     */
+    public enum Order {
+        /** {@code ORDER BY id} */
+        ID,
+        /** {@code ORDER BY name, id} */
+        NAME_ID
+    }
+
+    private static final String SEPARATOR = ":";
+
+    private final Order order;
+    private final Long lastId;
+    private final String lastName;
+
+    private CategoryCursor(Order order, Long lastId, String lastName) {
+        this.order = order;
+        this.lastId = lastId;
+        this.lastName = lastName;
+    }
+
+    /**
+     * @param order the ordering of the pages
+     * @param last  the last category of the current page
+     * @return the cursor positioned after {@code last}
+     */
+    public static CategoryCursor after(Order order, CategoryEntity last) {
+        return new CategoryCursor(order, last.getId(), (order == Order.NAME_ID) ? last.getName() : null);
+    }
+
+    /**
+     * Token format (before Base64): {@code ORDER:lastId[:lastName]}
+     *
+     * @return the opaque token of this cursor
+     */
+    public String encode() {
+        String raw = order.name() + SEPARATOR + lastId + ((lastName != null) ? SEPARATOR + lastName : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token a token obtained with {@link #encode()}
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is null or malformed
+     */
+    public static CategoryCursor decode(String token) {
+        if (token == null || token.isEmpty()) throw new IllegalArgumentException("Cursor is null or empty");
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // limit 3: the name can contain the separator
+            String[] parts = raw.split(SEPARATOR, 3);
+            Order order = Order.valueOf(parts[0]);
+            Long lastId = Long.valueOf(parts[1]);
+
+            if (order == Order.NAME_ID) {
+                if (parts.length != 3) throw new IllegalArgumentException("Cursor without name: " + token);
+                return new CategoryCursor(order, lastId, parts[2]);
+            }
+            return new CategoryCursor(order, lastId, null);
+
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+}
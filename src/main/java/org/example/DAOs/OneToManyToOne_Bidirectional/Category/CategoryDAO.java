@@ -1,9 +1,14 @@
 package org.example.DAOs.OneToManyToOne_Bidirectional.Category;
 
+import org.example.Entities.DTOs.CategorySummary;
 import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.BulkResult;
+import org.example.Util.StatelessBulk;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CategoryDAO {
     /**
@@ -30,6 +35,18 @@ public interface CategoryDAO {
      */
     void persist(CategoryEntity category);
 
+    /**
+     * Saves a collection of CategoryEntity objects in a single transaction using JDBC batching
+     * ({@code hibernate.jdbc.batch_size}), the persistence context is flushed and cleared every batch (only flushed in a UnitOfWork). <br>
+     * Invalid categories (null, without name or with id) and the ones whose name already exists (in DB or repeated
+     * in the collection) are skipped, the others are saved.
+     * if the transaction fails nothing is saved and the categories are left without id and version.
+     *
+     * @param categories the CategoryEntity objects to be saved, each one will have id assigned
+     * @return the number of categories saved
+     */
+    int persistAll(Collection<CategoryEntity> categories);
+
     /**
      * <b>For testing purposes.</b>
      * First, delete all rows from CategoryEntity table.
@@ -63,6 +80,15 @@ public interface CategoryDAO {
      */
     List<CategoryEntity> listAll();
 
+    /**
+     * Streams all categories in the database without loading them in memory. <br>
+     * The categories are read-only and detached, the stream must be closed (try-with-resources).
+     *
+     * @param fetchSize rows fetched per round-trip, the persistence context is cleared every {@code fetchSize} rows
+     * @return a stream of all categories in the database, empty if an error occurs
+     */
+    Stream<CategoryEntity> streamAll(int fetchSize);
+
     /**
      * Returns an Optional of a CategoryEntity with the given id, including its associated products(Collection Initialized).
      *
@@ -71,11 +97,103 @@ public interface CategoryDAO {
      */
     Optional<CategoryEntity> getByIdEager(Long id);
 
+    /**
+     * Returns the categories with the given ids, including their associated products(Collections Initialized). <br>
+     * Unlike calling {@link #getByIdEager(Long)} per id (N sessions, N queries), all the categories are loaded in a single
+     * session with a few queries (the categories and the products of all of them), not a query per category. <br>
+     * Null and repeated ids are ignored, the ids that don't exist are skipped.
+     *
+     * @param ids the ids of the categories to retrieve
+     * @return the categories in the same order of the ids, empty if an error occurs
+     */
+    List<CategoryEntity> getByIdsEager(Collection<Long> ids);
+
+    // ---------------------- Projections ------------------------\\
+
+    /**
+     * Returns a summary of each category: its products count and min/max price, computed by the DB with GROUP BY. <br>
+     * The summaries aren't entities, they aren't registered in the persistence context.
+     *
+     * @return the summaries ordered by id, empty if an error occurs
+     */
+    List<CategorySummary> listSummaries();
+
+    /**
+     * Returns the summary of a category, see {@link #listSummaries()}.
+     *
+     * @param id the id of the category
+     * @return an optional containing the summary if the category exists
+     */
+    Optional<CategorySummary> findSummaryById(Long id);
+
     // ---------------------- Pagination ------------------------\\
     int count();
     int countPages(int resultsPerPage);
 
     List<CategoryEntity> listPagination(int pageNum, int resultsPerPage);
 
+    // ---------------------- Keyset (seek) Pagination ------------------------\\
+
+    /**
+     * Returns the first page of a keyset pagination, see {@link CategoryCursor}.
+     *
+     * @param order the ordering of the pages (by id, or by name and id)
+     * @param limit the maximum number of categories of the page
+     * @return the page, with the cursor of the next page if it exists
+     */
+    CategoryPage listFirst(CategoryCursor.Order order, int limit);
+
+    /**
+     * Returns the page after the given cursor, unlike {@link #listPagination(int, int)} the DB doesn't scan
+     * the previous pages, it seeks the last seen key using the index.
+     *
+     * @param cursor the token obtained with {@link CategoryPage#getNextCursor()}, it contains the ordering
+     * @param limit  the maximum number of categories of the page
+     * @return the page, with the cursor of the next page if it exists. Empty if the cursor is invalid
+     */
+    CategoryPage listAfter(String cursor, int limit);
+
+    /**
+     * Bulk insert with a StatelessSession and JDBC batching ({@link StatelessBulk}), without persistence context:
+     * the same in all the implementations. <br>
+     * Invalid categories (null, without name or with id) are skipped. if the transaction fails nothing is saved
+     * and the categories are left without id and version, a repeated name fails the whole transaction.
+     *
+     * @param categories the categories to insert, each one will have id and version assigned
+     * @return rows inserted and rows per second
+     */
+    default BulkResult insertAll(Collection<CategoryEntity> categories) {
+        return StatelessBulk.insertAll(CategoryEntity.class, categories,
+                category -> category.getId() == null && hasName(category));
+    }
+
+    /**
+     * Bulk update of the name with a StatelessSession and JDBC batching ({@link StatelessBulk}),
+     * the version is checked (a stale category fails the whole transaction). <br>
+     * Invalid categories (null, without id, version or name) are skipped.
+     *
+     * @param categories detached categories, each one will have the new version
+     * @return rows updated and rows per second
+     */
+    default BulkResult updateAll(Collection<CategoryEntity> categories) {
+        return StatelessBulk.updateAll(CategoryEntity.class, categories,
+                category -> category.getId() != null && category.getVersion() != null && hasName(category));
+    }
+
+    /**
+     * Bulk delete with a StatelessSession and JDBC batching ({@link StatelessBulk}), the version is checked. <br>
+     * Categories without id or version are skipped.
+     * PD: there is no cascade, a category with products fails the whole transaction (foreign key).
+     *
+     * @param categories detached categories
+     * @return rows deleted and rows per second
+     */
+    default BulkResult deleteAll(Collection<CategoryEntity> categories) {
+        return StatelessBulk.deleteAll(CategoryEntity.class, categories,
+                category -> category.getId() != null && category.getVersion() != null);
+    }
 
+    private static boolean hasName(CategoryEntity category) {
+        return category.getName() != null && !category.getName().isEmpty();
+    }
 }
@@ -2,22 +2,38 @@ package org.example.DAOs.OneToManyToOne_Bidirectional.Category;
 
 import jakarta.persistence.criteria.*;
 import org.example.DAOs.OneToManyToOne_Bidirectional.Category.Exceptions.CategoryAlreadyExistsException;
+import org.example.Entities.DTOs.CategorySummary;
 import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
 import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.DAOMetrics;
+import org.example.Util.StreamUtil;
+import org.example.Util.UnitOfWork;
+import org.example.Util.Upsert;
 import org.hibernate.LazyInitializationException;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.query.MutationQuery;
 import org.hibernate.query.Query;
 
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Database Access Object of {@link CategoryEntity} using Hibernate Criteria. <br>
- * DAO implementation of {@link CategoryDAO},
+ * DAO implementation of {@link CategoryDAO}, <br>
+ * The criteria queries are built once and reused, see {@link CategoryCriteriaQueries}.
  *
  * @author <a href="https://github.com/cris6h16/" rel="Noopener noreferrer" target="_blank">Cristian</a>
  */
@@ -25,9 +41,16 @@ import java.util.logging.Logger;
 public class CategoryDAOCriteria implements CategoryDAO {
     public final SessionFactory sessionFactory;
     public static final Logger LOGGER = Logger.getLogger(CategoryDAOCriteria.class.getName());
+    private final CategoryCriteriaQueries queries;
+    private static final Upsert UPSERT = Upsert.into(CategoryEntity.SCHEMA_NAME + "." + CategoryEntity.TABLE_NAME)
+            .id(CategoryEntity.ATTR_ID, CategoryEntity.SCHEMA_NAME + "." + CategoryEntity.SEQUENCE_NAME)
+            .onConflict(CategoryEntity.ATTR_NAME)
+            .column(CategoryEntity.ATTR_NAME, Types.VARCHAR)
+            .constant(CategoryEntity.ATTR_VERSION, "0");
 
     public CategoryDAOCriteria() {
         this.sessionFactory = HibernateUtil.getSessionFactory();
+        this.queries = CategoryCriteriaQueries.of(sessionFactory);
     }
 
     /**
@@ -42,16 +65,12 @@ public class CategoryDAOCriteria implements CategoryDAO {
 
         int affectedRows = 0;
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
 
-                CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-                CriteriaDelete<CategoryEntity> delete = criteriaBuilder.createCriteriaDelete(CategoryEntity.class);
-                Root<CategoryEntity> root = delete.from(CategoryEntity.class);
-                Predicate predicate = criteriaBuilder.equal(root.get(CategoryEntity.ATTR_ID), id);
-                CriteriaDelete<CategoryEntity> deleteFinal = delete.where(predicate);
-                MutationQuery query = session.createMutationQuery(deleteFinal);
+                MutationQuery query = session.createMutationQuery(queries.deleteById)
+                        .setParameter(CategoryCriteriaQueries.PARAM_ID, id);
                 affectedRows = query.executeUpdate();
 
                 session.getTransaction().commit();
@@ -61,6 +80,7 @@ public class CategoryDAOCriteria implements CategoryDAO {
             }
         } catch (Exception e) {
             LOGGER.severe("Exception in deleteById: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -111,19 +131,15 @@ public class CategoryDAOCriteria implements CategoryDAO {
 
         int affectedRowsCategory = 0;
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
 
-                //Obtain the criteria builder
-                CriteriaBuilder builder = session.getCriteriaBuilder();
-                //Update the category
-                CriteriaUpdate<CategoryEntity> update = builder.createCriteriaUpdate(CategoryEntity.class);
-                Root<CategoryEntity> root = update.from(CategoryEntity.class);
+                //Update the category (and increment its version)
                 affectedRowsCategory = session
-                        .createMutationQuery(update
-                                .where(builder.equal(root.get(CategoryEntity.ATTR_ID), category.getId()))
-                                .set(CategoryEntity.ATTR_NAME, category.getName()))
+                        .createMutationQuery(queries.merge)
+                        .setParameter(CategoryCriteriaQueries.PARAM_NAME, category.getName())
+                        .setParameter(CategoryCriteriaQueries.PARAM_ID, category.getId())
                         .executeUpdate();
 
                 session.getTransaction().commit();
@@ -134,6 +150,7 @@ public class CategoryDAOCriteria implements CategoryDAO {
             }
         } catch (Exception e) {
             LOGGER.severe("Exception in merge: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -142,57 +159,172 @@ public class CategoryDAOCriteria implements CategoryDAO {
 
     /**
      * Saves a CategoryEntity object to the database. if was saved successfully
-     * the category will have id assigned
+     * the category will have id assigned <br>
+     * A single statement, {@code INSERT ... ON CONFLICT (name) DO NOTHING} (MERGE in other dialects, see {@link Upsert}),
+     * instead of a lookup of the name before the insert. If the name already exists nothing is saved
+     * ({@link CategoryAlreadyExistsException}, also when a concurrent persist of the same name wins the race).
      *
      * @param category the CategoryEntity object to be saved
      */
     @Override
     public void persist(CategoryEntity category) {
-        if (category == null) {
-            LOGGER.warning("Category is null");
-            return;
-        }
-        if (category.getName() == null) {
-            LOGGER.warning("Category name is null");
-            return;
-        }
-        if (category.getName().isEmpty()) {
-            LOGGER.warning("Category name is empty");
-            return;
+        if (!isPersistable(category)) return;
+
+        try (Session session = HibernateUtil.openSession()) {
+            try {
+                session.beginTransaction();
+                Long id = UPSERT.execute(session, List.<Object[]>of(new Object[]{category.getName()})).get(0);
+                if (id == null) throw new CategoryAlreadyExistsException(category);
+                session.getTransaction().commit();
+
+                category.setId(id);
+                category.setVersion(0L);
+
+            } catch (CategoryAlreadyExistsException ce) {
+                // Nothing was inserted (DO NOTHING), the unit of work in progress goes on
+                UnitOfWork.rollbackUnchanged(session);
+                throw ce;
+            } catch (Exception e) {
+                session.getTransaction().rollback();
+                if (Upsert.isUniqueViolation(e)) throw new CategoryAlreadyExistsException(category);
+                throw e;
+            }
+            evictFindByName();
+        } catch (CategoryAlreadyExistsException ce) {
+            LOGGER.warning(ce.getMessage());
+        } catch (Exception e) {
+            LOGGER.severe("Exception in persist: " + e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
         }
-        if (category.getId() != null) {
-            LOGGER.warning("Category ID must be null");
-            return;
+    }
+
+    /**
+     * Saves a collection of CategoryEntity objects in a single transaction using JDBC batching
+     * ({@code hibernate.jdbc.batch_size}), the persistence context is flushed and cleared every batch (only flushed in a UnitOfWork). <br>
+     * Invalid categories (null, without name, with id or whose name already exists) are skipped,
+     * the existing names are retrieved with an {@code IN} query per batch instead of one lookup per category
+     * (a single {@code IN} list of tens of thousands of names would exceed the bind parameters of the driver, 32767 in pgjdbc).
+     * if the transaction fails nothing is saved and the categories are left without id and version.
+     *
+     * @param categories the CategoryEntity objects to be saved, each one will have id assigned
+     * @return the number of categories saved
+     */
+    @Override
+    public int persistAll(Collection<CategoryEntity> categories) {
+        if (categories == null) {
+            LOGGER.warning("Categories is null");
+            return 0;
         }
 
+        List<CategoryEntity> toPersist = categories.stream().filter(this::isPersistable).toList();
+        if (toPersist.isEmpty()) return 0;
+
+        int batchSize = HibernateUtil.getJdbcBatchSize();
+        List<CategoryEntity> persisted = new ArrayList<>(toPersist.size());
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
+                session.setJdbcBatchSize(batchSize);
                 session.beginTransaction();
 
-                CriteriaBuilder builder = session.getCriteriaBuilder();
-                CriteriaQuery<CategoryEntity> query = builder.createQuery(CategoryEntity.class);
-                Root<CategoryEntity> root = query.from(CategoryEntity.class);
-                query = query.where(builder.equal(root.get(CategoryEntity.ATTR_NAME), category.getName()));
-                Optional<CategoryEntity> categoryDB = session.createQuery(query).uniqueResultOptional();
-
-                if (categoryDB.isPresent()) {
-                    throw new CategoryAlreadyExistsException(category);
+                Set<String> names = new HashSet<>();
+                for (int from = 0; from < toPersist.size(); from += batchSize) {
+                    List<CategoryEntity> batch = toPersist.subList(from, Math.min(from + batchSize, toPersist.size()));
+                    // Names of the batch already saved
+                    names.addAll(select(session, queries.existingNames)
+                            .setParameter(CategoryCriteriaQueries.PARAM_NAMES, batch.stream().map(CategoryEntity::getName).toList())
+                            .list());
+
+                    for (CategoryEntity category : batch) {
+                        // add() is false if the name exists in DB or is repeated in the collection
+                        if (!names.add(category.getName())) {
+                            LOGGER.warning(new CategoryAlreadyExistsException(category).getMessage());
+                            continue;
+                        }
+
+                        session.persist(category);
+                        persisted.add(category);
+                    }
+                    // Send the batch and release the memory of the persistence context
+                    // (not in a unit of work, it would detach the entities of the caller)
+                    session.flush();
+                    if (!UnitOfWork.isJoined(session)) session.clear();
                 }
-                session.persist(category);
 
                 session.getTransaction().commit();
+            } catch (Exception e) {
+                session.getTransaction().rollback();
+                // Nothing was saved, the ids and versions assigned by the persist and the flushes are discarded
+                persisted.forEach(category -> {
+                    category.setId(null);
+                    category.setVersion(null);
+                });
+                throw e;
+            }
+        } catch (Exception e) {
+            LOGGER.severe("Exception in persistAll: " + e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+            return 0;
+        }
+
+        return persisted.size();
+    }
+
+    /**
+     * Saves a collection of CategoryEntity objects in a single transaction, with a JDBC batch of upserts per
+     * {@code hibernate.jdbc.batch_size} categories (see {@link #persist(CategoryEntity)}). <br>
+     * Unlike {@link #persistAll(Collection)} the existing names aren't queried before: the categories whose name already
+     * exists (in DB or repeated in the collection) are skipped by the database, without racing with concurrent inserts.
+     * if the transaction fails nothing is saved.
+     *
+     * @param categories the CategoryEntity objects to be saved, each saved one will have id assigned
+     * @return the number of categories saved
+     */
+    public int upsertAll(Collection<CategoryEntity> categories) {
+        if (categories == null) {
+            LOGGER.warning("Categories is null");
+            return 0;
+        }
+
+        List<CategoryEntity> toPersist = categories.stream().filter(this::isPersistable).toList();
+        if (toPersist.isEmpty()) return 0;
+
+        int persisted = 0;
+        try (Session session = HibernateUtil.openSession()) {
+            List<Long> ids;
+            try {
+                session.beginTransaction();
+                ids = UPSERT.execute(session, toPersist.stream().map(category -> new Object[]{category.getName()}).toList());
+                session.getTransaction().commit();
 
             } catch (Exception e) {
                 session.getTransaction().rollback();
+                if (Upsert.isUniqueViolation(e)) throw new CategoryAlreadyExistsException(toPersist.get(0));
                 throw e;
             }
+            evictFindByName();
+
+            for (int i = 0; i < toPersist.size(); i++) {
+                CategoryEntity category = toPersist.get(i);
+                if (ids.get(i) == null) {
+                    LOGGER.warning(new CategoryAlreadyExistsException(category).getMessage());
+                    continue;
+                }
+                category.setId(ids.get(i));
+                category.setVersion(0L);
+                persisted++;
+            }
         } catch (CategoryAlreadyExistsException ce) {
-            LOGGER.warning(ce.getMessage());
+            LOGGER.warning("Concurrent insert, nothing saved: " + ce.getMessage());
         } catch (Exception e) {
-            LOGGER.severe("Exception in persist: " + e.getMessage());
+            LOGGER.severe("Exception in upsertAll: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
+
+        return persisted;
     }
 
     /**
@@ -208,7 +340,7 @@ public class CategoryDAOCriteria implements CategoryDAO {
     public List<CategoryEntity> listAllWithEmptyRows() {
         List<CategoryEntity> categories = new ArrayList<>();
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 //Begin the transaction
                 session.beginTransaction();
@@ -236,6 +368,7 @@ public class CategoryDAOCriteria implements CategoryDAO {
             }
         } catch (Exception e) {
             LOGGER.severe("Exception in listAllWithEmptyRows: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
         return categories;
@@ -243,6 +376,8 @@ public class CategoryDAOCriteria implements CategoryDAO {
 
     /**
      * Finds a category by its name.
+     * <p>
+     * PD: The result is cached (query cache, region {@link CategoryEntity#QUERY_BY_NAME_CACHE_REGION}).
      *
      * @param name the name of the category to find
      * @return an optional containing the category if it exists, or an empty optional if no category with the given name exists
@@ -260,22 +395,17 @@ public class CategoryDAOCriteria implements CategoryDAO {
 
         Optional<CategoryEntity> entity = Optional.empty();
 
-        try (Session session = sessionFactory.openSession()) {
-            // Create the criteria builder
-            CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-            CriteriaQuery<CategoryEntity> criteriaQuery = criteriaBuilder.createQuery(CategoryEntity.class);
-            Root<CategoryEntity> root = criteriaQuery.from(CategoryEntity.class);
-
-            // Create the 'name' = name restriction
-            Predicate predicate = criteriaBuilder.equal(root.get(CategoryEntity.ATTR_NAME), name);
-            criteriaQuery = criteriaQuery.where(predicate);
-
-            // Create the query and obtain the result
-            Query<CategoryEntity> query = session.createQuery(criteriaQuery);
+        try (Session session = HibernateUtil.openReadSession()) {
+            // Bind the 'name' = :name restriction and obtain the result
+            Query<CategoryEntity> query = select(session, queries.findByName)
+                    .setParameter(CategoryCriteriaQueries.PARAM_NAME, name)
+                    .setCacheable(true)
+                    .setCacheRegion(CategoryEntity.QUERY_BY_NAME_CACHE_REGION);
             entity = query.uniqueResultOptional();
 
         } catch (Exception e) {
             LOGGER.severe("Exception in findByName: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -294,23 +424,15 @@ public class CategoryDAOCriteria implements CategoryDAO {
 
         Optional<CategoryEntity> entity = Optional.empty();
 
-        try (Session session = sessionFactory.openSession()) {
-            // Create the criteria builder
-            CriteriaBuilder builder = session.getCriteriaBuilder();
-            CriteriaQuery<CategoryEntity> criteriaQuery = builder.createQuery(CategoryEntity.class);
-            Root<CategoryEntity> root = criteriaQuery.from(CategoryEntity.class);
-
-            // Create the 'id' = id restriction
-            Predicate predicate = builder.equal(root.get(CategoryEntity.ATTR_ID), id);
-            criteriaQuery = criteriaQuery.where(predicate);
-
-            //get the category
-            entity = session
-                    .createQuery(criteriaQuery)
+        try (Session session = HibernateUtil.openReadSession()) {
+            //get the category, binding the 'id' = :id restriction
+            entity = select(session, queries.findById)
+                    .setParameter(CategoryCriteriaQueries.PARAM_ID, id)
                     .uniqueResultOptional();
 
         } catch (Exception e) {
             LOGGER.severe("Exception in findById: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -325,23 +447,42 @@ public class CategoryDAOCriteria implements CategoryDAO {
     public List<CategoryEntity> listAll() {
         List<CategoryEntity> categories = new ArrayList<>();
 
-        try (Session session = sessionFactory.openSession()) {
-            // Create the criteria builder
-            CriteriaBuilder builder = session.getCriteriaBuilder();
-            CriteriaQuery<CategoryEntity> query = builder.createQuery(CategoryEntity.class);
-            query.from(CategoryEntity.class);
-
+        try (Session session = HibernateUtil.openReadSession()) {
             // get result
-            Query<CategoryEntity> query2 = session.createQuery(query);
-            categories = query2.list();
+            Query<CategoryEntity> query = select(session, queries.listAll);
+            categories = query.list();
 
         } catch (Exception e) {
             LOGGER.severe("Exception in listAll: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
         return categories;
     }
+    /**
+     * Streams all categories in the database without loading them in memory, see {@link StreamUtil}. <br>
+     * The categories are read-only and detached, the stream must be closed (try-with-resources).
+     *
+     * @param fetchSize rows fetched per round-trip, the persistence context is cleared every {@code fetchSize} rows
+     * @return a stream of all categories in the database, empty if an error occurs
+     */
+    @Override
+    public Stream<CategoryEntity> streamAll(int fetchSize) {
+        Session session = HibernateUtil.openReadSession();
+        try {
+            StreamUtil.beginReadOnly(session);
+            return StreamUtil.stream(session, select(session, queries.listAll), fetchSize);
+
+        } catch (Exception e) {
+            session.close();
+            LOGGER.severe("Exception in streamAll: " + e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+            return Stream.empty();
+        }
+    }
+
     /**
      * Returns an Optional of a CategoryEntity with the given id, including its associated products(Collection Initialized).
      *
@@ -357,23 +498,113 @@ public class CategoryDAOCriteria implements CategoryDAO {
 
         Optional<CategoryEntity> category = Optional.empty();
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
 
-            CriteriaBuilder builder = session.getCriteriaBuilder();
-            CriteriaQuery<CategoryEntity> query = builder.createQuery(CategoryEntity.class);
-            Root<CategoryEntity> root = query.from(CategoryEntity.class);
-            root.fetch(CategoryEntity.ATTR_PRODUCTS, JoinType.LEFT);
-            CriteriaQuery<CategoryEntity> criteriaQuery = query.where(builder.equal(root.get(CategoryEntity.ATTR_ID), id));
-            category = session.createQuery(criteriaQuery).uniqueResultOptional();
+            category = select(session, queries.getByIdEager)
+                    .setParameter(CategoryCriteriaQueries.PARAM_ID, id)
+                    .uniqueResultOptional();
 
         } catch (Exception e) {
             LOGGER.severe("Exception in getByIdEager: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
         return category;
     }
 
+    /**
+     * Returns the categories with the given ids, including their associated products(Collections Initialized). <br>
+     * A {@code LEFT JOIN FETCH} query per {@link CategoryEntity#PRODUCTS_BATCH_SIZE} ids, the ids are bound as a
+     * list parameter (padded IN list, {@code hibernate.query.in_clause_parameter_padding}).
+     *
+     * @param ids the ids of the categories to retrieve
+     * @return the categories in the same order of the ids, empty if an error occurs
+     */
+    @Override
+    public List<CategoryEntity> getByIdsEager(Collection<Long> ids) {
+        if (ids == null) {
+            LOGGER.warning("Ids is null");
+            return new ArrayList<>();
+        }
+
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) return new ArrayList<>();
+
+        Map<Long, CategoryEntity> categoriesById = new HashMap<>();
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            for (int from = 0; from < distinctIds.size(); from += CategoryEntity.PRODUCTS_BATCH_SIZE) {
+                List<Long> chunk = distinctIds.subList(from, Math.min(from + CategoryEntity.PRODUCTS_BATCH_SIZE, distinctIds.size()));
+                select(session, queries.getByIdsEager)
+                        .setParameter(CategoryCriteriaQueries.PARAM_IDS, chunk)
+                        .getResultList()
+                        .forEach(category -> categoriesById.put(category.getId(), category));
+            }
+
+        } catch (Exception e) {
+            LOGGER.severe("Exception in getByIdsEager: " + e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+
+        return distinctIds.stream()
+                .map(categoriesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Returns a summary of each category (products count, min/max price) computed with GROUP BY.
+     *
+     * @return the summaries ordered by id, empty if an error occurs
+     */
+    @Override
+    public List<CategorySummary> listSummaries() {
+        List<CategorySummary> summaries = new ArrayList<>();
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            summaries = select(session, queries.listSummaries).getResultList();
+
+        } catch (Exception e) {
+            LOGGER.severe("Exception in listSummaries: " + e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Returns the summary of a category (products count, min/max price) computed with GROUP BY.
+     *
+     * @param id the id of the category
+     * @return an optional containing the summary if the category exists
+     */
+    @Override
+    public Optional<CategorySummary> findSummaryById(Long id) {
+        if (!isIdValid(id)) {
+            LOGGER.warning("Invalid id: " + id);
+            return Optional.empty();
+        }
+
+        Optional<CategorySummary> summary = Optional.empty();
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            summary = select(session, queries.findSummaryById)
+                    .setParameter(CategoryCriteriaQueries.PARAM_ID, id)
+                    .uniqueResultOptional();
+
+        } catch (Exception e) {
+            LOGGER.severe("Exception in findSummaryById: " + e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+        }
+
+        return summary;
+    }
+
     @Override
     public int count() {
         return 0;
@@ -389,8 +620,116 @@ public class CategoryDAOCriteria implements CategoryDAO {
         return null;
     }
 
+    /**
+     * Returns the first page of a keyset pagination, see {@link CategoryCursor}.
+     *
+     * @param order the ordering of the pages (by id, or by name and id)
+     * @param limit the maximum number of categories of the page
+     * @return the page, with the cursor of the next page if it exists
+     */
+    @Override
+    public CategoryPage listFirst(CategoryCursor.Order order, int limit) {
+        return listPage(order, null, limit);
+    }
+
+    /**
+     * Returns the page after the given cursor, unlike OFFSET pagination the DB doesn't scan
+     * the previous pages, it seeks the last seen key using the index.
+     *
+     * @param cursor the token obtained with {@link CategoryPage#getNextCursor()}, it contains the ordering
+     * @param limit  the maximum number of categories of the page
+     * @return the page, with the cursor of the next page if it exists. Empty if the cursor is invalid
+     */
+    @Override
+    public CategoryPage listAfter(String cursor, int limit) {
+        try {
+            CategoryCursor after = CategoryCursor.decode(cursor);
+            return listPage(after.getOrder(), after, limit);
+        } catch (IllegalArgumentException ie) {
+            LOGGER.warning(ie.getMessage());
+            return CategoryPage.empty();
+        }
+    }
+
+    private CategoryPage listPage(CategoryCursor.Order order, CategoryCursor after, int limit) {
+        if (order == null) {
+            LOGGER.warning("Order is null");
+            return CategoryPage.empty();
+        }
+        if (limit <= 0) {
+            LOGGER.warning("Limit must be greater than 0");
+            return CategoryPage.empty();
+        }
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            Query<CategoryEntity> query = switch (order) {
+                case ID -> (after == null)
+                        ? select(session, queries.firstPageById)
+                        : select(session, queries.nextPageById)
+                        .setParameter(CategoryCriteriaQueries.PARAM_LAST_ID, after.getLastId());
+                // name > :lastName OR (name = :lastName AND id > :lastId)
+                case NAME_ID -> (after == null)
+                        ? select(session, queries.firstPageByNameId)
+                        : select(session, queries.nextPageByNameId)
+                        .setParameter(CategoryCriteriaQueries.PARAM_LAST_NAME, after.getLastName())
+                        .setParameter(CategoryCriteriaQueries.PARAM_LAST_ID, after.getLastId());
+            };
+
+            // limit + 1: the extra row tells if there is a next page (not past Integer.MAX_VALUE, it would overflow)
+            List<CategoryEntity> rows = query
+                    .setMaxResults(limit == Integer.MAX_VALUE ? limit : limit + 1)
+                    .list();
+
+            return CategoryPage.of(rows, limit, order);
+
+        } catch (Exception e) {
+            LOGGER.severe("Exception in listAfter: " + e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+            return CategoryPage.empty();
+        }
+    }
+
+    /**
+     * The upserts bypass Hibernate, a cached "not found" of findByName would be stale.
+     * Evicted once the rows are committed (the unit of work in progress, if any).
+     */
+    private void evictFindByName() {
+        UnitOfWork.afterCommit(() -> sessionFactory.getCache().evictQueryRegion(CategoryEntity.QUERY_BY_NAME_CACHE_REGION));
+    }
+
     private boolean isIdValid(Long id) {
         return id != null && id > 0;
     }
 
+    private boolean isPersistable(CategoryEntity category) {
+        if (category == null) {
+            LOGGER.warning("Category is null");
+            return false;
+        }
+        if (category.getName() == null) {
+            LOGGER.warning("Category name is null");
+            return false;
+        }
+        if (category.getName().isEmpty()) {
+            LOGGER.warning("Category name is empty");
+            return false;
+        }
+        if (category.getId() != null) {
+            LOGGER.warning("Category ID must be null");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the select of a shared criteria query, its translation is cached (see {@link CategoryCriteriaQueries})
+     */
+    private static <T> Query<T> select(Session session, CriteriaQuery<T> criteria) {
+        Query<T> query = session.createQuery(criteria);
+        // Without copy_tree the tree is the shared instance, the key of its cached plan
+        if (!session.unwrap(SharedSessionContractImplementor.class).isCriteriaCopyTreeEnabled()) query.setQueryPlanCacheable(true);
+        return query;
+    }
+
 }
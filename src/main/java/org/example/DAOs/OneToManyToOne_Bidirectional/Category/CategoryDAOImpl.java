@@ -1,19 +1,37 @@
 package org.example.DAOs.OneToManyToOne_Bidirectional.Category;
 
-import jakarta.persistence.LockModeType;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.Exceptions.CategoryAlreadyExistsException;
+import org.example.Entities.DTOs.CategorySummary;
 import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
 import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.DAOMetrics;
+import org.example.Util.Metrics.StatementBudget;
+import org.example.Util.OptimisticLockStats;
+import org.example.Util.RetryPolicy;
+import org.example.Util.SessionFactoryWarmup;
+import org.example.Util.StreamUtil;
+import org.example.Util.UnitOfWork;
+import org.hibernate.Hibernate;
 import org.hibernate.LockMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StaleStateException;
+import org.hibernate.query.Query;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Database Access Object of {@link CategoryEntity} using Hibernate Methods. <br>
@@ -23,12 +41,57 @@ import java.util.logging.Logger;
  */
 
 public class CategoryDAOImpl implements CategoryDAO {
+    //====== HQL of the DAO ======\\
+    private static final String LIST_ALL_HQL = "FROM CategoryEntity";
+    private static final String GET_BY_ID_EAGER_HQL = "FROM CategoryEntity ce LEFT JOIN FETCH ce.products WHERE ce.id = :id";
+    private static final String FIND_BY_NAME_HQL = "FROM CategoryEntity ce WHERE ce.name = :name";
+    private static final String EXISTING_NAMES_HQL = "SELECT c.name FROM CategoryEntity c WHERE c.name IN :names";
+    private static final String DELETE_BY_ID_HQL = "DELETE FROM CategoryEntity c WHERE c.id = :id";
+    private static final String COUNT_HQL = "SELECT COUNT(*) FROM CategoryEntity";
+    private static final String SUMMARY_HQL = "SELECT new org.example.Entities.DTOs.CategorySummary(c.id, c.name, count(p.id), min(p.price), max(p.price)) " +
+            "FROM CategoryEntity c LEFT JOIN c.products p ";
+    private static final String SUMMARY_GROUP_BY_HQL = " GROUP BY c.id, c.name ORDER BY c.id";
+    private static final String LIST_SUMMARIES_HQL = SUMMARY_HQL + SUMMARY_GROUP_BY_HQL;
+    private static final String FIND_SUMMARY_BY_ID_HQL = SUMMARY_HQL + "WHERE c.id = :id" + SUMMARY_GROUP_BY_HQL;
+    private static final String FIRST_PAGE_BY_ID_HQL = "FROM CategoryEntity c ORDER BY c.id";
+    private static final String NEXT_PAGE_BY_ID_HQL = "FROM CategoryEntity c WHERE c.id > :id ORDER BY c.id";
+    private static final String FIRST_PAGE_BY_NAME_ID_HQL = "FROM CategoryEntity c ORDER BY c.name, c.id";
+    private static final String NEXT_PAGE_BY_NAME_ID_HQL = "FROM CategoryEntity c WHERE (c.name, c.id) > (:name, :id) ORDER BY c.name, c.id";
+
+    /**
+     * Queries of the DAO with their result types, parsed by the warm-up of the SessionFactory.
+     */
+    public static final List<SessionFactoryWarmup.Hql> QUERIES = List.of(
+            SessionFactoryWarmup.Hql.select(LIST_ALL_HQL, CategoryEntity.class),
+            SessionFactoryWarmup.Hql.select(GET_BY_ID_EAGER_HQL, CategoryEntity.class),
+            SessionFactoryWarmup.Hql.select(FIND_BY_NAME_HQL, CategoryEntity.class),
+            SessionFactoryWarmup.Hql.select(EXISTING_NAMES_HQL, String.class),
+            SessionFactoryWarmup.Hql.mutation(DELETE_BY_ID_HQL),
+            SessionFactoryWarmup.Hql.select(COUNT_HQL, int.class),
+            SessionFactoryWarmup.Hql.select(LIST_SUMMARIES_HQL, CategorySummary.class),
+            SessionFactoryWarmup.Hql.select(FIND_SUMMARY_BY_ID_HQL, CategorySummary.class),
+            SessionFactoryWarmup.Hql.select(FIRST_PAGE_BY_ID_HQL, CategoryEntity.class),
+            SessionFactoryWarmup.Hql.select(NEXT_PAGE_BY_ID_HQL, CategoryEntity.class),
+            SessionFactoryWarmup.Hql.select(FIRST_PAGE_BY_NAME_ID_HQL, CategoryEntity.class),
+            SessionFactoryWarmup.Hql.select(NEXT_PAGE_BY_NAME_ID_HQL, CategoryEntity.class));
+
     public final SessionFactory sessionFactory;
     public final Logger logger;
+    private final RetryPolicy retryPolicy;
+    private final OptimisticLockStats optimisticLockStats;
 
     public CategoryDAOImpl() {
+        this(RetryPolicy.defaults());
+    }
+
+    /**
+     * @param retryPolicy retries of {@link #mergeOptimistic(CategoryEntity)} when there are conflicts
+     */
+    public CategoryDAOImpl(RetryPolicy retryPolicy) {
         sessionFactory = HibernateUtil.getSessionFactory();
         logger = Logger.getLogger(CategoryDAOImpl.class.getName());
+        this.retryPolicy = retryPolicy;
+        this.optimisticLockStats = new OptimisticLockStats();
     }
 
     /**
@@ -36,47 +99,60 @@ public class CategoryDAOImpl implements CategoryDAO {
      *
      * @return a list of all categories in the database
      */
+    @StatementBudget(1)
     @Override
     public List<CategoryEntity> listAll() {
         List<CategoryEntity> categories = new ArrayList();
 
-
-        try (Session session = sessionFactory.openSession()) {
-            try {
-                session.beginTransaction();
-                categories = session
-                        .createQuery("from CategoryEntity", CategoryEntity.class)
-                        .setLockMode(LockModeType.PESSIMISTIC_READ)
-                        .list();
-
-                session.getTransaction().commit();
-
-            } catch (Exception e) {
-                session.getTransaction().rollback();
-                throw e;
-            }
-
-            categories.forEach(System.out::println);
+        // Without row locks (PESSIMISTIC_READ = SELECT ... FOR SHARE), the readers don't block the writers
+        try (Session session = HibernateUtil.openReadSession()) {
+            categories = session
+                    .createQuery(LIST_ALL_HQL, CategoryEntity.class)
+                    .list();
 
         } catch (Exception he) {
             logger.severe("Error in listAll: " + he.getMessage());
+            DAOMetrics.error();
         }
         return categories;
     }
 
+    /**
+     * Streams all categories in the database without loading them in memory, see {@link StreamUtil}. <br>
+     * The categories are read-only and detached, the stream must be closed (try-with-resources).
+     *
+     * @param fetchSize rows fetched per round-trip, the persistence context is cleared every {@code fetchSize} rows
+     * @return a stream of all categories in the database, empty if an error occurs
+     */
+    @Override
+    public Stream<CategoryEntity> streamAll(int fetchSize) {
+        Session session = HibernateUtil.openReadSession();
+        try {
+            StreamUtil.beginReadOnly(session);
+            return StreamUtil.stream(session, session.createQuery(LIST_ALL_HQL, CategoryEntity.class), fetchSize);
+
+        } catch (Exception e) {
+            session.close();
+            logger.severe("Error in streamAll: " + e.getMessage());
+            DAOMetrics.error();
+            return Stream.empty();
+        }
+    }
+
     /**
      * Returns an Optional of a CategoryEntity with the given id, including its associated products(Collection Initialized).
      *
      * @param id the id of the CategoryEntity to retrieve
      * @return an Optional of a CategoryEntity with the given id, including its associated products
      */
+    @StatementBudget(1)
     @Override
     public Optional<CategoryEntity> getByIdEager(Long id) {
         Optional<CategoryEntity> category = Optional.empty();
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             category = session
-                    .createQuery("FROM CategoryEntity ce LEFT JOIN FETCH ce.products WHERE ce.id = :id", CategoryEntity.class)
+                    .createQuery(GET_BY_ID_EAGER_HQL, CategoryEntity.class)
                     .setParameter("id", id)
                     .uniqueResultOptional();
 
@@ -84,11 +160,111 @@ public class CategoryDAOImpl implements CategoryDAO {
             logger.warning("Invalid id: " + id);
         } catch (Exception e) {
             logger.severe("Error in getByIdEager: " + e.getMessage());
+            DAOMetrics.error();
         }
 
         return category;
     }
 
+    /**
+     * Returns the categories with the given ids, including their associated products(Collections Initialized).
+     * <ul>
+     *     <li>{@code byMultipleIds}: the categories are loaded in a single query (PostgreSQL: {@code id = any(?)}
+     *     with an array parameter), the ones in the second level cache aren't queried.</li>
+     *     <li>{@code SUBSELECT} fetch of {@link CategoryEntity#getProducts()}: initializing the first collection loads the
+     *     products of all the categories of that query.</li>
+     * </ul>
+     * 2 statements whatever the number of ids (fewer with second level cache hits).
+     *
+     * @param ids the ids of the categories to retrieve
+     * @return the categories in the same order of the ids, empty if an error occurs
+     */
+    @StatementBudget(2)
+    @Override
+    public List<CategoryEntity> getByIdsEager(Collection<Long> ids) {
+        if (ids == null) {
+            logger.warning("Ids is null");
+            return new ArrayList<>();
+        }
+
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) return new ArrayList<>();
+
+        List<CategoryEntity> categories = new ArrayList<>();
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            categories = session
+                    .byMultipleIds(CategoryEntity.class)
+                    .enableOrderedReturn(true)
+                    .multiLoad(distinctIds)
+                    .stream()
+                    .filter(Objects::nonNull) // ids that don't exist
+                    .collect(Collectors.toCollection(ArrayList::new));
+
+            categories.forEach(category -> Hibernate.initialize(category.getProducts()));
+
+        } catch (Exception e) {
+            logger.severe("Error in getByIdsEager: " + e.getMessage());
+            DAOMetrics.error();
+            return new ArrayList<>();
+        }
+
+        return categories;
+    }
+
+    /**
+     * Returns a summary of each category (products count, min/max price) computed with GROUP BY.
+     *
+     * @return the summaries ordered by id, empty if an error occurs
+     */
+    @StatementBudget(1)
+    @Override
+    public List<CategorySummary> listSummaries() {
+        List<CategorySummary> summaries = new ArrayList<>();
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            summaries = session
+                    .createQuery(LIST_SUMMARIES_HQL, CategorySummary.class)
+                    .list();
+
+        } catch (Exception e) {
+            logger.severe("Error in listSummaries: " + e.getMessage());
+            DAOMetrics.error();
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Returns the summary of a category (products count, min/max price) computed with GROUP BY.
+     *
+     * @param id the id of the category
+     * @return an optional containing the summary if the category exists
+     */
+    @StatementBudget(1)
+    @Override
+    public Optional<CategorySummary> findSummaryById(Long id) {
+        if (id == null) {
+            logger.warning("Id is null");
+            return Optional.empty();
+        }
+
+        Optional<CategorySummary> summary = Optional.empty();
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            summary = session
+                    .createQuery(FIND_SUMMARY_BY_ID_HQL, CategorySummary.class)
+                    .setParameter("id", id)
+                    .uniqueResultOptional();
+
+        } catch (Exception e) {
+            logger.severe("Error in findSummaryById: " + e.getMessage());
+            DAOMetrics.error();
+        }
+
+        return summary;
+    }
+
 
     /**
      * Finds a category by its ID.
@@ -96,17 +272,19 @@ public class CategoryDAOImpl implements CategoryDAO {
      * @param id the ID of the category to find
      * @return an optional containing the category if it exists, or an empty optional if no category with the given ID exists
      */
+    @StatementBudget(1)
     @Override
     public Optional<CategoryEntity> findById(Long id) {
         Optional<CategoryEntity> category = Optional.empty();
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             category = Optional.ofNullable(session.get(CategoryEntity.class, id));
 
         } catch (IllegalArgumentException ie) {
             logger.warning("Invalid id: " + id);
         } catch (Exception e) {
             logger.severe("Error in findById: " + e.getMessage());
+            DAOMetrics.error();
         }
 
         return category;
@@ -114,23 +292,31 @@ public class CategoryDAOImpl implements CategoryDAO {
 
     /**
      * Finds a category by its name.
+     * <p>
+     * PD: The result is cached (query cache, region {@link CategoryEntity#QUERY_BY_NAME_CACHE_REGION}), it's invalidated
+     * automatically when the categories table is modified through Hibernate.
      *
      * @param name the name of the category to find
      * @return an optional containing the category if it exists, or an empty optional if no category with the given name exists
      */
+    @StatementBudget(1)
     public Optional<CategoryEntity> findByName(String name) {
         Optional<CategoryEntity> category = Optional.empty();
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             category = session
-                    .createQuery("FROM CategoryEntity ce WHERE ce.name = :name", CategoryEntity.class)
+                    .createQuery(FIND_BY_NAME_HQL, CategoryEntity.class)
                     .setParameter("name", name)
+                    // name -> id in the query cache, the entity itself is in the entity cache
+                    .setCacheable(true)
+                    .setCacheRegion(CategoryEntity.QUERY_BY_NAME_CACHE_REGION)
                     .uniqueResultOptional();
 
         } catch (IllegalArgumentException ie) {
             logger.warning("Invalid name: " + name);
         } catch (Exception e) {
             logger.severe("Error in findByName: " + e.getMessage());
+            DAOMetrics.error();
         }
 
         return category;
@@ -148,16 +334,17 @@ public class CategoryDAOImpl implements CategoryDAO {
     public List<CategoryEntity> listAllWithEmptyRows() {
         List<CategoryEntity> categories = new ArrayList<>();
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.beginTransaction();
             //PD: It deletes rows only if we commit the transaction
             session.createMutationQuery("delete from CategoryEntity").executeUpdate();
-            categories = session.createQuery("from CategoryEntity", CategoryEntity.class).list();
+            categories = session.createQuery(LIST_ALL_HQL, CategoryEntity.class).list();
 
             session.getTransaction().rollback();
 
         } catch (Exception e) {
             logger.severe("Error in listAllWithEmptyRows: " + e.getMessage());
+            DAOMetrics.error();
         }
 
         return categories;
@@ -173,40 +360,101 @@ public class CategoryDAOImpl implements CategoryDAO {
      */
     @Override
     public void persist(CategoryEntity category) {
+        if (!isPersistable(category)) return;
 
-        if (category == null) {
-            logger.warning("Category can't be null");
-            return;
-        }
-        if (category.getName() == null) {
-            logger.warning("Category name can't be null");
-            return;
-        }
-        if (category.getName().isEmpty()) {
-            logger.warning("Category name can't be empty");
-            return;
+
+        try (Session session = HibernateUtil.openSession()) {
+            try {
+                session.beginTransaction();
+                session.persist(category);
+                session.getTransaction().commit();
+            } catch (Exception e) {
+                session.getTransaction().rollback();
+                throw e;
+            }
+        } catch (Exception e) {
+            logger.severe("Error in persist: " + e.getMessage());
+            DAOMetrics.error();
         }
-        if (category.getId() != null) {
-            logger.warning("Category id must be null");
-            return;
+    }
+
+    /**
+     * Saves a collection of CategoryEntity objects in a single transaction using JDBC batching
+     * ({@code hibernate.jdbc.batch_size}), the persistence context is flushed and cleared every batch (only flushed in a UnitOfWork). <br>
+     * Invalid categories (null, without name, with id or whose name already exists) are skipped,
+     * the existing names are retrieved with an {@code IN} query per batch instead of one lookup per category
+     * (a single {@code IN} list of tens of thousands of names would exceed the bind parameters of the driver, 32767 in pgjdbc).
+     * if the transaction fails nothing is saved and the categories are left without id and version.
+     *
+     * @param categories the CategoryEntity objects to be saved, each one will have id assigned
+     * @return the number of categories saved
+     */
+    @Override
+    public int persistAll(Collection<CategoryEntity> categories) {
+        if (categories == null) {
+            logger.warning("Categories can't be null");
+            return 0;
         }
 
+        List<CategoryEntity> toPersist = categories.stream().filter(this::isPersistable).toList();
+        if (toPersist.isEmpty()) return 0;
+
+        int batchSize = HibernateUtil.getJdbcBatchSize();
+        List<CategoryEntity> persisted = new ArrayList<>(toPersist.size());
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
+                session.setJdbcBatchSize(batchSize);
                 session.beginTransaction();
-                session.persist(category);
+
+                Set<String> names = new HashSet<>();
+                for (int from = 0; from < toPersist.size(); from += batchSize) {
+                    List<CategoryEntity> batch = toPersist.subList(from, Math.min(from + batchSize, toPersist.size()));
+                    // Names of the batch already saved
+                    names.addAll(session.createQuery(EXISTING_NAMES_HQL, String.class)
+                            .setParameterList("names", batch.stream().map(CategoryEntity::getName).toList())
+                            .list());
+
+                    for (CategoryEntity category : batch) {
+                        // add() is false if the name exists in DB or is repeated in the collection
+                        if (!names.add(category.getName())) {
+                            logger.warning(new CategoryAlreadyExistsException(category).getMessage());
+                            continue;
+                        }
+
+                        session.persist(category);
+                        persisted.add(category);
+                    }
+                    // Send the batch and release the memory of the persistence context
+                    // (not in a unit of work, it would detach the entities of the caller)
+                    session.flush();
+                    if (!UnitOfWork.isJoined(session)) session.clear();
+                }
+
                 session.getTransaction().commit();
             } catch (Exception e) {
                 session.getTransaction().rollback();
+                // Nothing was saved, the ids and versions assigned by the persist and the flushes are discarded
+                persisted.forEach(category -> {
+                    category.setId(null);
+                    category.setVersion(null);
+                });
                 throw e;
             }
         } catch (Exception e) {
-            logger.severe("Error in persist: " + e.getMessage());
+            logger.severe("Error in persistAll: " + e.getMessage());
+            DAOMetrics.error();
+            return 0;
         }
+
+        return persisted.size();
     }
 
     /**
+     * Pessimistic merge: the row is locked ({@code SELECT ... FOR UPDATE}) and the new name is applied over the current state,
+     * concurrent merges of the same category wait for the lock (last writer wins). <br>
+     * After the merge {@code category} has the new version.
+     *
      * @param category if update is manually(Hibernate Criteria) must be Eagerly
      * @return true if category was updated
      */
@@ -230,23 +478,117 @@ public class CategoryDAOImpl implements CategoryDAO {
             return false;
         }
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
-                session.lock(category, LockMode.PESSIMISTIC_WRITE);
-                session.merge(category);
+                CategoryEntity locked = session.get(CategoryEntity.class, category.getId(), LockMode.PESSIMISTIC_WRITE);
+                if (locked == null) {
+                    UnitOfWork.rollbackUnchanged(session);
+                    logger.warning("Category not found, id: " + category.getId());
+                    return false;
+                }
+
+                locked.setName(category.getName());
                 session.getTransaction().commit();
+                category.setVersion(locked.getVersion());
             } catch (Exception e) {
                 session.getTransaction().rollback();
                 throw e;
             }
         } catch (Exception e) {
             logger.severe("Error in merge: " + e.getMessage());
+            DAOMetrics.error();
+            return false;
         }
 
         return true;
     }
 
+    /**
+     * Optimistic merge: no row locks, the UPDATE checks the version ({@code WHERE id = ? AND version = ?}). <br>
+     * If another transaction updated the category first (OptimisticLockException), the current state is reloaded
+     * and the new name applied again, as many times as the {@link RetryPolicy} allows. <br>
+     * If {@code category} has no version (e.g. {@code new CategoryEntity(id, name)}) the current state is loaded from the first attempt.
+     * After the merge {@code category} has the new version. Conflicts and retries are counted in {@link #getOptimisticLockStats()}.
+     * <br>
+     * PD: inside a {@link UnitOfWork} there is a single attempt, without retries: the conflict is detected by the flush
+     * of the transaction of the unit of work, which can't be retried alone. The unit of work becomes rollback-only
+     * and the whole unit of work is the one to retry.
+     *
+     * @param category the category with the id and the new name
+     * @return true if category was updated, false if it doesn't exist or the attempts ran out
+     */
+    public boolean mergeOptimistic(CategoryEntity category) {
+        if (category == null) {
+            logger.warning("Category can't be null");
+            return false;
+        }
+        if (category.getId() == null) {
+            logger.warning("Category id can't be null");
+            return false;
+        }
+        if (category.getName() == null || category.getName().isEmpty()) {
+            logger.warning("Category name can't be null or empty");
+            return false;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try (Session session = HibernateUtil.openSession()) {
+                try {
+                    session.beginTransaction();
+
+                    CategoryEntity merged;
+                    if (attempt == 1 && category.getVersion() != null) {
+                        merged = session.merge(category);
+                    } else {
+                        // Reload the current state (and version) and apply the change again
+                        merged = session.get(CategoryEntity.class, category.getId());
+                        if (merged == null) {
+                            UnitOfWork.rollbackUnchanged(session);
+                            logger.warning("Category not found, id: " + category.getId());
+                            return false;
+                        }
+                        merged.setName(category.getName());
+                    }
+
+                    session.getTransaction().commit();
+                    category.setVersion(merged.getVersion());
+                    optimisticLockStats.merged();
+                    return true;
+
+                } catch (Exception e) {
+                    if (session.getTransaction().isActive()) session.getTransaction().rollback();
+                    throw e;
+                }
+            } catch (OptimisticLockException | StaleStateException oe) {
+                optimisticLockStats.conflict();
+                if (UnitOfWork.current() != null || !retryPolicy.canRetry(attempt)) {
+                    optimisticLockStats.failure();
+                    logger.warning("Conflict in mergeOptimistic, attempts exhausted (" + attempt + "), id: " + category.getId());
+                    return false;
+                }
+                optimisticLockStats.retry();
+                try {
+                    retryPolicy.backoff(attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            } catch (Exception e) {
+                logger.severe("Error in mergeOptimistic: " + e.getMessage());
+                DAOMetrics.error();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return the conflicts and retries of {@link #mergeOptimistic(CategoryEntity)} done by this DAO
+     */
+    public OptimisticLockStats getOptimisticLockStats() {
+        return optimisticLockStats;
+    }
+
     /**
      * Deletes a CategoryEntity from the database.
      *
@@ -261,11 +603,11 @@ public class CategoryDAOImpl implements CategoryDAO {
 
         int affectedRows = 0;
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 affectedRows = session
-                        .createMutationQuery("DELETE FROM CategoryEntity c WHERE c.id = :id")
+                        .createMutationQuery(DELETE_BY_ID_HQL)
                         .setParameter("id", id)
                         .executeUpdate();
 
@@ -276,6 +618,7 @@ public class CategoryDAOImpl implements CategoryDAO {
             }
         } catch (Exception e) {
             logger.severe("Error in deleteById: " + e.getMessage());
+            DAOMetrics.error();
 
         }
 
@@ -287,13 +630,14 @@ public class CategoryDAOImpl implements CategoryDAO {
     public int count() {
         int count = 0;
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             count = session
-                    .createQuery("SELECT COUNT(*) FROM CategoryEntity", int.class)
+                    .createQuery(COUNT_HQL, int.class)
                     .uniqueResult();
 
         } catch (Exception e) {
             logger.severe("Error in count: " + e.getMessage());
+            DAOMetrics.error();
             throw e;
         }
 
@@ -309,23 +653,116 @@ public class CategoryDAOImpl implements CategoryDAO {
     }
 
     //PAGINATION
+    @StatementBudget(1)
     public List<CategoryEntity> listPagination(int pageNum, int resultsPerPage) {
         List<CategoryEntity> categories = new ArrayList<>();
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             categories = session
-                    .createQuery("from CategoryEntity", CategoryEntity.class)
+                    .createQuery(LIST_ALL_HQL, CategoryEntity.class)
                     .setFirstResult(pageNum * resultsPerPage)
                     .setMaxResults(resultsPerPage)
                     .list();
 
         } catch (Exception e) {
             logger.severe("Error in listAll: " + e.getMessage());
+            DAOMetrics.error();
             throw e;
         }
 
         return categories;
     }
 
+    /**
+     * Returns the first page of a keyset pagination, see {@link CategoryCursor}.
+     *
+     * @param order the ordering of the pages (by id, or by name and id)
+     * @param limit the maximum number of categories of the page
+     * @return the page, with the cursor of the next page if it exists
+     */
+    @StatementBudget(1)
+    @Override
+    public CategoryPage listFirst(CategoryCursor.Order order, int limit) {
+        return listPage(order, null, limit);
+    }
+
+    /**
+     * Returns the page after the given cursor, unlike {@link #listPagination(int, int)} the DB doesn't scan
+     * the previous pages, it seeks the last seen key using the index.
+     *
+     * @param cursor the token obtained with {@link CategoryPage#getNextCursor()}, it contains the ordering
+     * @param limit  the maximum number of categories of the page
+     * @return the page, with the cursor of the next page if it exists. Empty if the cursor is invalid
+     */
+    @StatementBudget(1)
+    @Override
+    public CategoryPage listAfter(String cursor, int limit) {
+        try {
+            CategoryCursor after = CategoryCursor.decode(cursor);
+            return listPage(after.getOrder(), after, limit);
+        } catch (IllegalArgumentException ie) {
+            logger.warning(ie.getMessage());
+            return CategoryPage.empty();
+        }
+    }
+
+    private CategoryPage listPage(CategoryCursor.Order order, CategoryCursor after, int limit) {
+        if (order == null) {
+            logger.warning("Order can't be null");
+            return CategoryPage.empty();
+        }
+        if (limit <= 0) {
+            logger.warning("Limit must be greater than 0");
+            return CategoryPage.empty();
+        }
+
+        String hql = switch (order) {
+            case ID -> (after == null)
+                    ? FIRST_PAGE_BY_ID_HQL
+                    : NEXT_PAGE_BY_ID_HQL;
+            case NAME_ID -> (after == null)
+                    ? FIRST_PAGE_BY_NAME_ID_HQL
+                    : NEXT_PAGE_BY_NAME_ID_HQL;
+        };
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            // limit + 1: the extra row tells if there is a next page (not past Integer.MAX_VALUE, it would overflow)
+            Query<CategoryEntity> query = session
+                    .createQuery(hql, CategoryEntity.class)
+                    .setMaxResults(limit == Integer.MAX_VALUE ? limit : limit + 1);
+
+            if (after != null) {
+                query.setParameter("id", after.getLastId());
+                if (order == CategoryCursor.Order.NAME_ID) query.setParameter("name", after.getLastName());
+            }
+
+            return CategoryPage.of(query.list(), limit, order);
+
+        } catch (Exception e) {
+            logger.severe("Error in listAfter: " + e.getMessage());
+            DAOMetrics.error();
+            return CategoryPage.empty();
+        }
+    }
+
+    private boolean isPersistable(CategoryEntity category) {
+        if (category == null) {
+            logger.warning("Category can't be null");
+            return false;
+        }
+        if (category.getName() == null) {
+            logger.warning("Category name can't be null");
+            return false;
+        }
+        if (category.getName().isEmpty()) {
+            logger.warning("Category name can't be empty");
+            return false;
+        }
+        if (category.getId() != null) {
+            logger.warning("Category id must be null");
+            return false;
+        }
+        return true;
+    }
 
 }
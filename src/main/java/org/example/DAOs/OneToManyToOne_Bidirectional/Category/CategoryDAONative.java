@@ -1,14 +1,33 @@
 package org.example.DAOs.OneToManyToOne_Bidirectional.Category;
 
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.Exceptions.CategoryAlreadyExistsException;
+import org.example.Entities.DTOs.CategorySummary;
 import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
 import org.example.Entities.OneToManyToOne_Bidirectional.ProductEntity;
 import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.DAOMetrics;
+import org.example.Util.StreamUtil;
+import org.example.Util.UnitOfWork;
 import org.hibernate.Session;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.query.NativeQuery;
 
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class CategoryDAONative implements CategoryDAO {
     public static final Logger LOGGER = Logger.getLogger(CategoryDAONative.class.getName());
@@ -30,15 +49,10 @@ public class CategoryDAONative implements CategoryDAO {
 
         int affectedRows = 0;
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
-                String deleteSql = String.format("DELETE FROM %s.%s WHERE %s = :id",
-                        CategoryEntity.SCHEMA_NAME,
-                        CategoryEntity.TABLE_NAME,
-                        CategoryEntity.ATTR_ID);
-                affectedRows = session
-                        .createNativeMutationQuery(deleteSql)
+                affectedRows = mutationQuery(session, CategoryNativeSql.DELETE_BY_ID)
                         .setParameter("id", id).executeUpdate();
 
                 session.getTransaction().commit();
@@ -48,6 +62,7 @@ public class CategoryDAONative implements CategoryDAO {
             }
         } catch (Exception e) {
             LOGGER.severe("Exception in deleteById: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -80,18 +95,11 @@ public class CategoryDAONative implements CategoryDAO {
 
         int affectedRows = 0;
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.beginTransaction();
             try {
 
-                String sql = String.format("UPDATE %s.%s SET %s = :name WHERE %s = :id",
-                        CategoryEntity.SCHEMA_NAME,
-                        CategoryEntity.TABLE_NAME,
-                        CategoryEntity.ATTR_NAME,
-                        CategoryEntity.ATTR_ID);
-
-                affectedRows = session
-                        .createNativeMutationQuery(sql)
+                affectedRows = mutationQuery(session, CategoryNativeSql.UPDATE_NAME)
                         .setParameter("name", category.getName())
                         .setParameter("id", category.getId())
                         .executeUpdate();
@@ -105,6 +113,7 @@ public class CategoryDAONative implements CategoryDAO {
 
         } catch (Exception e) {
             LOGGER.severe("Exception in merge: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -133,39 +142,122 @@ public class CategoryDAONative implements CategoryDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.beginTransaction();
             try {
+                // A single statement: INSERT ... RETURNING id (instead of INSERT + SELECT id WHERE name)
+                insertAll(session, List.of(category), 1);
+                session.getTransaction().commit();
+            } catch (Exception e) {
+                session.getTransaction().rollback();
+                category.setId(null);
+                category.setVersion(null);
+                throw e;
+            }
+            evictFindByName();
+        } catch (Exception e) {
+            LOGGER.severe("Exception in persist: " + e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+        }
+    }
 
-                String insertSql = String.format("INSERT INTO %s.%s (%s) VALUES (:name)",
-                        CategoryEntity.SCHEMA_NAME,
-                        CategoryEntity.TABLE_NAME,
-                        CategoryEntity.ATTR_NAME);
-
-                session.createNativeMutationQuery(insertSql)
-                        .setParameter("name", category.getName())
-                        .executeUpdate();
-
-                String getNewIdSql = String.format("SELECT %s FROM %s.%s WHERE %s = :name",
-                        CategoryEntity.ATTR_ID,
-                        CategoryEntity.SCHEMA_NAME,
-                        CategoryEntity.TABLE_NAME,
-                        CategoryEntity.ATTR_NAME);
+    /**
+     * Saves a collection of CategoryEntity objects in a single transaction using multi-row inserts
+     * ({@code INSERT ... VALUES (...), (...), ...}) of {@code hibernate.jdbc.batch_size} rows, a round-trip per batch,
+     * the generated ids are read with {@link PreparedStatement#getGeneratedKeys()}. <br>
+     * Invalid categories (null, without name, with id or whose name already exists) are skipped,
+     * the existing names are retrieved with a single query and an array parameter ({@code name = ANY(?)}) instead of one
+     * lookup per category: an {@code IN} list of tens of thousands of names would exceed the bind parameters of the driver.
+     * if the transaction fails nothing is saved and the categories are left without id and version.
+     *
+     * @param categories the CategoryEntity objects to be saved, each one will have id assigned
+     * @return the number of categories saved
+     */
+    @Override
+    public int persistAll(Collection<CategoryEntity> categories) {
+        if (categories == null) {
+            LOGGER.warning("Categories is null");
+            return 0;
+        }
 
-                category.setId(session
-                        .createNativeQuery(getNewIdSql, java.lang.Long.class)
-                        .setParameter("name", category.getName())
-                        .getSingleResultOrNull());
+        List<CategoryEntity> valid = categories.stream().filter(this::isPersistable).toList();
+        if (valid.isEmpty()) return 0;
 
+        List<CategoryEntity> toPersist = new ArrayList<>(valid.size());
+        try (Session session = HibernateUtil.openSession()) {
+            session.beginTransaction();
+            try {
+                // Names already saved
+                Set<String> names = new HashSet<>(session.createNativeQuery(CategoryNativeSql.SELECT_NAMES_IN, String.class)
+                        .setParameter("names", valid.stream().map(CategoryEntity::getName).toArray(String[]::new))
+                        .list());
+                for (CategoryEntity category : valid) {
+                    // add() is false if the name exists in DB or is repeated in the collection
+                    if (names.add(category.getName())) toPersist.add(category);
+                    else LOGGER.warning(new CategoryAlreadyExistsException(category).getMessage());
+                }
+
+                if (!toPersist.isEmpty()) insertAll(session, toPersist, HibernateUtil.getJdbcBatchSize());
                 session.getTransaction().commit();
             } catch (Exception e) {
                 session.getTransaction().rollback();
+                toPersist.forEach(category -> {
+                    category.setId(null);
+                    category.setVersion(null);
+                });
                 throw e;
             }
+            evictFindByName();
         } catch (Exception e) {
-            LOGGER.severe("Exception in persist: " + e.getMessage());
+            LOGGER.severe("Exception in persistAll: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
+            return 0;
         }
+
+        return toPersist.size();
+    }
+
+    /**
+     * Inserts the categories with multi-row inserts of up to {@code rowsPerStatement} rows, see {@link CategoryNativeSql#insert(int)},
+     * each category gets its generated id and version 0 (without version a merge would consider it a new entity).
+     *
+     * @param session          session with an active transaction
+     * @param categories       the categories to insert
+     * @param rowsPerStatement maximum rows of each INSERT
+     */
+    private static void insertAll(Session session, List<CategoryEntity> categories, int rowsPerStatement) {
+        session.doWork(connection -> {
+            for (int from = 0; from < categories.size(); from += rowsPerStatement) {
+                List<CategoryEntity> batch = categories.subList(from, Math.min(from + rowsPerStatement, categories.size()));
+
+                // The generated keys make the driver return the ids (PostgreSQL: RETURNING "id")
+                try (PreparedStatement statement = connection.prepareStatement(CategoryNativeSql.insert(batch.size()), new String[]{CategoryEntity.ATTR_ID})) {
+                    for (int i = 0; i < batch.size(); i++) {
+                        statement.setString(i + 1, batch.get(i).getName());
+                    }
+                    statement.executeUpdate();
+
+                    // The keys are returned in the same order of the rows
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (CategoryEntity category : batch) {
+                            if (!keys.next()) throw new SQLException("Missing generated id of category: " + category.getName());
+                            category.setId(keys.getLong(1));
+                            category.setVersion(0L);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * The JDBC inserts bypass Hibernate, a cached "not found" of findByName would be stale.
+     * Evicted once the rows are committed (the unit of work in progress, if any).
+     */
+    private static void evictFindByName() {
+        UnitOfWork.afterCommit(() -> HibernateUtil.getSessionFactory().getCache().evictQueryRegion(CategoryEntity.QUERY_BY_NAME_CACHE_REGION));
     }
 
     /**
@@ -179,14 +271,12 @@ public class CategoryDAONative implements CategoryDAO {
     @Override
     public List<CategoryEntity> listAllWithEmptyRows() {
         List<CategoryEntity> categoryEntities = new ArrayList<>();
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.beginTransaction();
             try {
-                String deleteSql = String.format("DELETE FROM %s.%s", CategoryEntity.SCHEMA_NAME, CategoryEntity.TABLE_NAME);
-                session.createNativeMutationQuery(deleteSql).executeUpdate();
+                mutationQuery(session, CategoryNativeSql.DELETE_ALL).executeUpdate();
 
-                String selectAllSql = String.format("SELECT * FROM %s.%s", CategoryEntity.SCHEMA_NAME, CategoryEntity.TABLE_NAME);
-                categoryEntities = session.createNativeQuery(selectAllSql, CategoryEntity.class).list();
+                categoryEntities = session.createNativeQuery(CategoryNativeSql.SELECT_ALL, CategoryEntity.class).list();
 
                 session.getTransaction().rollback();
             } catch (Exception e) {
@@ -195,6 +285,7 @@ public class CategoryDAONative implements CategoryDAO {
             }
         } catch (Exception e) {
             LOGGER.severe("Exception in listAllWithEmptyRows: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -219,18 +310,19 @@ public class CategoryDAONative implements CategoryDAO {
         }
 
         Optional<CategoryEntity> categoryEntity = Optional.empty();
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            String sql = String.format("SELECT * FROM %s.%s WHERE %s = :name",
-                    CategoryEntity.SCHEMA_NAME,
-                    CategoryEntity.TABLE_NAME,
-                    CategoryEntity.ATTR_NAME);
+        try (Session session = HibernateUtil.openReadSession()) {
 
             categoryEntity = session
-                    .createNativeQuery(sql, CategoryEntity.class)
+                    .createNativeQuery(CategoryNativeSql.SELECT_BY_NAME, CategoryEntity.class)
                     .setParameter("name", name)
+                    // Without the synchronized entity the result couldn't be invalidated
+                    .addSynchronizedEntityClass(CategoryEntity.class)
+                    .setCacheable(true)
+                    .setCacheRegion(CategoryEntity.QUERY_BY_NAME_CACHE_REGION)
                     .uniqueResultOptional();
         } catch (Exception e) {
             LOGGER.severe("Exception in findByName: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -251,17 +343,14 @@ public class CategoryDAONative implements CategoryDAO {
         }
 
         Optional<CategoryEntity> categoryEntity = Optional.empty();
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            String sql = String.format("SELECT * FROM %s.%s WHERE %s = :id",
-                    CategoryEntity.SCHEMA_NAME,
-                    CategoryEntity.TABLE_NAME,
-                    CategoryEntity.ATTR_ID);
+        try (Session session = HibernateUtil.openReadSession()) {
             categoryEntity = session
-                    .createNativeQuery(sql, CategoryEntity.class)
+                    .createNativeQuery(CategoryNativeSql.SELECT_BY_ID, CategoryEntity.class)
                     .setParameter("id", id)
                     .uniqueResultOptional();
         } catch (Exception e) {
             LOGGER.severe("Exception in findById: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
         return categoryEntity;
@@ -275,19 +364,42 @@ public class CategoryDAONative implements CategoryDAO {
     @Override
     public List<CategoryEntity> listAll() {
         List<CategoryEntity> categoryEntities = new ArrayList<>();
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            String sql = String.format("SELECT * FROM %s.%s", CategoryEntity.SCHEMA_NAME, CategoryEntity.TABLE_NAME);
+        try (Session session = HibernateUtil.openReadSession()) {
             categoryEntities = session
-                    .createNativeQuery(sql, CategoryEntity.class)
+                    .createNativeQuery(CategoryNativeSql.SELECT_ALL, CategoryEntity.class)
                     .list();
         } catch (Exception e) {
             LOGGER.severe("Exception in listAll: " + e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
         return categoryEntities;
     }
 
+    /**
+     * Streams all categories in the database without loading them in memory, see {@link StreamUtil}. <br>
+     * The categories are read-only and detached, the stream must be closed (try-with-resources).
+     *
+     * @param fetchSize rows fetched per round-trip, the persistence context is cleared every {@code fetchSize} rows
+     * @return a stream of all categories in the database, empty if an error occurs
+     */
+    @Override
+    public Stream<CategoryEntity> streamAll(int fetchSize) {
+        Session session = HibernateUtil.openReadSession();
+        try {
+            StreamUtil.beginReadOnly(session);
+            return StreamUtil.stream(session, session.createNativeQuery(CategoryNativeSql.SELECT_ALL, CategoryEntity.class), fetchSize);
+
+        } catch (Exception e) {
+            session.close();
+            LOGGER.severe("Exception in streamAll: " + e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+            return Stream.empty();
+        }
+    }
+
     /**
      * Returns an Optional of a CategoryEntity with the given id, including its associated products(Collection Initialized).
      *
@@ -300,18 +412,14 @@ public class CategoryDAONative implements CategoryDAO {
         List<ProductEntity> productEntities = new ArrayList<>();
         Optional<CategoryEntity> categoryEntity = Optional.empty();
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             // Get the category
-            String getCategorySql = String.format("SELECT * FROM %s.%s WHERE %s = :id",
-                    CategoryEntity.SCHEMA_NAME, CategoryEntity.TABLE_NAME, CategoryEntity.ATTR_ID);
-            categoryEntity = session.createNativeQuery(getCategorySql, CategoryEntity.class)
+            categoryEntity = session.createNativeQuery(CategoryNativeSql.SELECT_BY_ID, CategoryEntity.class)
                     .setParameter("id", id)
                     .uniqueResultOptional();
 
             // Get the products of the category
-            String getCategoryProductsSql = String.format("SELECT * FROM %s.%s WHERE %s = :id",
-                    CategoryEntity.SCHEMA_NAME, ProductEntity.TABLE_NAME, ProductEntity.FIELD_CATEGORY);
-            productEntities = session.createNativeQuery(getCategoryProductsSql, ProductEntity.class)
+            productEntities = session.createNativeQuery(CategoryNativeSql.SELECT_PRODUCTS_BY_CATEGORY, ProductEntity.class)
                     .setParameter("id", id)
                     .list();
         }
@@ -325,10 +433,132 @@ public class CategoryDAONative implements CategoryDAO {
                         categoryEntity.get().getId(),
                         categoryEntity.get().getName(),
                         productEntities));
+        finalCategoryEntity.get().setVersion(categoryEntity.get().getVersion());
 
         return finalCategoryEntity;
     }
 
+    /**
+     * Returns the categories with the given ids, including their associated products(Collections Initialized). <br>
+     * 2 queries whatever the number of ids: the categories and the products of all of them, the products are grouped
+     * by category in memory. The ids are bound as a single array parameter ({@code = ANY(?)}), not an {@code IN} list
+     * limited by the bind parameters of the driver.
+     *
+     * @param ids the ids of the categories to retrieve
+     * @return the categories in the same order of the ids, empty if an error occurs
+     */
+    @Override
+    public List<CategoryEntity> getByIdsEager(Collection<java.lang.Long> ids) {
+        if (ids == null) {
+            LOGGER.warning("Ids is null");
+            return new ArrayList<>();
+        }
+
+        List<java.lang.Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) return new ArrayList<>();
+
+
+        Map<java.lang.Long, CategoryEntity> categoriesById = new HashMap<>();
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            java.lang.Long[] idsParameter = distinctIds.toArray(java.lang.Long[]::new);
+
+            // Create new CategoryEntities with the products (avoid LazyInitializationException)
+            for (CategoryEntity category : session.createNativeQuery(CategoryNativeSql.SELECT_BY_IDS, CategoryEntity.class)
+                    .setParameter("ids", idsParameter)
+                    .list()) {
+                CategoryEntity copy = new CategoryEntity(category.getId(), category.getName(), new ArrayList<>());
+                copy.setVersion(category.getVersion());
+                categoriesById.put(copy.getId(), copy);
+            }
+
+            // The categories of the products are already in the session, they aren't queried again
+            for (ProductEntity product : session.createNativeQuery(CategoryNativeSql.SELECT_PRODUCTS_BY_CATEGORIES, ProductEntity.class)
+                    .setParameter("ids", idsParameter)
+                    .list()) {
+                categoriesById.get(product.getCategory().getId()).getProducts().add(product);
+            }
+        } catch (Exception e) {
+            LOGGER.severe("Exception in getByIdsEager: " + e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+
+        return distinctIds.stream()
+                .map(categoriesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Returns a summary of each category (products count, min/max price) computed with GROUP BY.
+     *
+     * @return the summaries ordered by id, empty if an error occurs
+     */
+    @Override
+    public List<CategorySummary> listSummaries() {
+        List<CategorySummary> summaries = new ArrayList<>();
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            summaries = session.createNativeQuery(CategoryNativeSql.SELECT_SUMMARIES, Object[].class)
+                    .setTupleTransformer(CategoryDAONative::toSummary)
+                    .list();
+        } catch (Exception e) {
+            LOGGER.severe("Exception in listSummaries: " + e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Returns the summary of a category (products count, min/max price) computed with GROUP BY.
+     *
+     * @param id the id of the category
+     * @return an optional containing the summary if the category exists
+     */
+    @Override
+    public Optional<CategorySummary> findSummaryById(java.lang.Long id) {
+        if (id == null) {
+            LOGGER.warning("Id is null");
+            return Optional.empty();
+        }
+
+        Optional<CategorySummary> summary = Optional.empty();
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            summary = session.createNativeQuery(CategoryNativeSql.SELECT_SUMMARY_BY_ID, Object[].class)
+                    .setParameter("id", id)
+                    .setTupleTransformer(CategoryDAONative::toSummary)
+                    .uniqueResultOptional();
+        } catch (Exception e) {
+            LOGGER.severe("Exception in findSummaryById: " + e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+        }
+
+        return summary;
+    }
+
+    /**
+     * Row of {@link CategoryNativeSql#SELECT_SUMMARIES} to CategorySummary, the numeric types depend on the driver (e.g. COUNT = bigint).
+     */
+    private static CategorySummary toSummary(Object[] row, String[] aliases) {
+        return new CategorySummary(
+                ((Number) row[0]).longValue(),
+                (String) row[1],
+                ((Number) row[2]).longValue(),
+                toBigDecimal(row[3]),
+                toBigDecimal(row[4]));
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null || value instanceof BigDecimal) return (BigDecimal) value;
+        return new BigDecimal(value.toString());
+    }
+
     @Override
     public int count() {
         return 0;
@@ -343,4 +573,105 @@ public class CategoryDAONative implements CategoryDAO {
     public List<CategoryEntity> listPagination(int pageNum, int resultsPerPage) {
         return null;
     }
+
+    /**
+     * Returns the first page of a keyset pagination, see {@link CategoryCursor}.
+     *
+     * @param order the ordering of the pages (by id, or by name and id)
+     * @param limit the maximum number of categories of the page
+     * @return the page, with the cursor of the next page if it exists
+     */
+    @Override
+    public CategoryPage listFirst(CategoryCursor.Order order, int limit) {
+        return listPage(order, null, limit);
+    }
+
+    /**
+     * Returns the page after the given cursor, unlike OFFSET pagination the DB doesn't scan
+     * the previous pages, it seeks the last seen key using the index.
+     *
+     * @param cursor the token obtained with {@link CategoryPage#getNextCursor()}, it contains the ordering
+     * @param limit  the maximum number of categories of the page
+     * @return the page, with the cursor of the next page if it exists. Empty if the cursor is invalid
+     */
+    @Override
+    public CategoryPage listAfter(String cursor, int limit) {
+        try {
+            CategoryCursor after = CategoryCursor.decode(cursor);
+            return listPage(after.getOrder(), after, limit);
+        } catch (IllegalArgumentException ie) {
+            LOGGER.warning(ie.getMessage());
+            return CategoryPage.empty();
+        }
+    }
+
+    private CategoryPage listPage(CategoryCursor.Order order, CategoryCursor after, int limit) {
+        if (order == null) {
+            LOGGER.warning("Order is null");
+            return CategoryPage.empty();
+        }
+        if (limit <= 0) {
+            LOGGER.warning("Limit must be greater than 0");
+            return CategoryPage.empty();
+        }
+
+        String sql = switch (order) {
+            case ID -> (after == null) ? CategoryNativeSql.FIRST_PAGE_BY_ID : CategoryNativeSql.NEXT_PAGE_BY_ID;
+            case NAME_ID -> (after == null) ? CategoryNativeSql.FIRST_PAGE_BY_NAME_ID : CategoryNativeSql.NEXT_PAGE_BY_NAME_ID;
+        };
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            // limit + 1: the extra row tells if there is a next page (not past Integer.MAX_VALUE, it would overflow)
+            NativeQuery<CategoryEntity> query = session
+                    .createNativeQuery(sql, CategoryEntity.class)
+                    .setMaxResults(limit == Integer.MAX_VALUE ? limit : limit + 1);
+
+            if (after != null) {
+                query.setParameter("id", after.getLastId());
+                if (order == CategoryCursor.Order.NAME_ID) query.setParameter("name", after.getLastName());
+            }
+
+            return CategoryPage.of(query.list(), limit, order);
+
+        } catch (Exception e) {
+            LOGGER.severe("Exception in listAfter: " + e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+            return CategoryPage.empty();
+        }
+    }
+
+    private boolean isPersistable(CategoryEntity category) {
+        if (category == null) {
+            LOGGER.warning("Category is null");
+            return false;
+        }
+        if (category.getName() == null) {
+            LOGGER.warning("Category name is null");
+            return false;
+        }
+        if (category.getName().isEmpty()) {
+            LOGGER.warning("Category name is empty");
+            return false;
+        }
+        if (category.getId() != null) {
+            LOGGER.warning("Category id must be null");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Creates a native mutation query that only affects the categories table. <br>
+     * PD: Hibernate can't know which tables a native statement modifies, without the synchronized entity
+     * it invalidates the whole second level cache (all the entity, collection and query regions).
+     *
+     * @param session the session
+     * @param sql     the native statement (INSERT, UPDATE, DELETE) over {@link CategoryEntity#TABLE_NAME}
+     * @return the mutation query
+     */
+    private static MutationQuery mutationQuery(Session session, String sql) {
+        NativeQuery<?> query = (NativeQuery<?>) session.createNativeMutationQuery(sql);
+        return query.addSynchronizedEntityClass(CategoryEntity.class);
+    }
 }
@@ -0,0 +1,97 @@
+package org.example.DAOs.OneToManyToOne_Bidirectional.Category;
+
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Entities.OneToManyToOne_Bidirectional.ProductEntity;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SQL of {@link CategoryDAONative}, built once (the schema, tables and columns are constants of the entities)
+ * instead of a {@code String.format} per call. <br>
+ * The SQL is PostgreSQL: {@code nextval()} and the row value comparison of the keyset pagination.
+ */
+final class CategoryNativeSql {
+    private static final String CATEGORIES = CategoryEntity.SCHEMA_NAME + "." + CategoryEntity.TABLE_NAME;
+    private static final String PRODUCTS = ProductEntity.SCHEMA_NAME + "." + ProductEntity.TABLE_NAME;
+
+    /**
+     * Multi-row inserts by number of rows, see {@link #insert(int)}
+     */
+    private static final Map<Integer, String> INSERTS = new ConcurrentHashMap<>();
+
+    //=============================== Categories ==================================\\
+    static final String SELECT_ALL = "SELECT * FROM " + CATEGORIES;
+    static final String SELECT_BY_ID = SELECT_ALL + " WHERE " + CategoryEntity.ATTR_ID + " = :id";
+    static final String SELECT_BY_NAME = SELECT_ALL + " WHERE " + CategoryEntity.ATTR_NAME + " = :name";
+    // An array parameter (= ANY), not an IN list: a bind parameter whatever the number of ids or names
+    static final String SELECT_BY_IDS = SELECT_ALL + " WHERE " + CategoryEntity.ATTR_ID + " = ANY(:ids)";
+    static final String SELECT_NAMES_IN = "SELECT " + CategoryEntity.ATTR_NAME + " FROM " + CATEGORIES + " WHERE " + CategoryEntity.ATTR_NAME + " = ANY(:names)";
+    static final String DELETE_ALL = "DELETE FROM " + CATEGORIES;
+    static final String DELETE_BY_ID = DELETE_ALL + " WHERE " + CategoryEntity.ATTR_ID + " = :id";
+    // Increment the version, the optimistic merges of the entity must see this update
+    static final String UPDATE_NAME = String.format("UPDATE %s SET %s = :name, %s = %s + 1 WHERE %s = :id",
+            CATEGORIES,
+            CategoryEntity.ATTR_NAME,
+            CategoryEntity.ATTR_VERSION,
+            CategoryEntity.ATTR_VERSION,
+            CategoryEntity.ATTR_ID);
+
+    //=============================== Products ==================================\\
+    static final String SELECT_PRODUCTS_BY_CATEGORY = "SELECT * FROM " + PRODUCTS + " WHERE " + ProductEntity.FIELD_CATEGORY + " = :id";
+    static final String SELECT_PRODUCTS_BY_CATEGORIES = "SELECT * FROM " + PRODUCTS + " WHERE " + ProductEntity.FIELD_CATEGORY + " = ANY(:ids)";
+
+    //=============================== Summaries ==================================\\
+    private static final String SUMMARY = String.format(
+            "SELECT c.%s, c.%s, COUNT(p.%s), MIN(p.%s), MAX(p.%s) FROM %s c LEFT JOIN %s p ON p.%s = c.%s ",
+            CategoryEntity.ATTR_ID, CategoryEntity.ATTR_NAME,
+            ProductEntity.ATTR_ID, ProductEntity.ATTR_PRICE, ProductEntity.ATTR_PRICE,
+            CATEGORIES, PRODUCTS,
+            ProductEntity.FIELD_CATEGORY, CategoryEntity.ATTR_ID);
+    private static final String SUMMARY_GROUP_BY = String.format(" GROUP BY c.%s, c.%s ORDER BY c.%s",
+            CategoryEntity.ATTR_ID, CategoryEntity.ATTR_NAME, CategoryEntity.ATTR_ID);
+    static final String SELECT_SUMMARIES = SUMMARY + SUMMARY_GROUP_BY;
+    static final String SELECT_SUMMARY_BY_ID = SUMMARY + "WHERE c." + CategoryEntity.ATTR_ID + " = :id" + SUMMARY_GROUP_BY;
+
+    //=============================== Keyset pagination ==================================\\
+    static final String FIRST_PAGE_BY_ID = SELECT_ALL + " ORDER BY " + CategoryEntity.ATTR_ID;
+    static final String NEXT_PAGE_BY_ID = SELECT_ALL + " WHERE " + CategoryEntity.ATTR_ID + " > :id ORDER BY " + CategoryEntity.ATTR_ID;
+    // Row value comparison (name, id) > (:name, :id) is resolved with the index of (name, id)
+    static final String FIRST_PAGE_BY_NAME_ID = String.format("%s ORDER BY %s, %s",
+            SELECT_ALL, CategoryEntity.ATTR_NAME, CategoryEntity.ATTR_ID);
+    static final String NEXT_PAGE_BY_NAME_ID = String.format("%s WHERE (%s, %s) > (:name, :id) ORDER BY %s, %s",
+            SELECT_ALL, CategoryEntity.ATTR_NAME, CategoryEntity.ATTR_ID, CategoryEntity.ATTR_NAME, CategoryEntity.ATTR_ID);
+
+    private CategoryNativeSql() {
+    }
+
+    /**
+     * INSERT INTO tienda.categories (id, name, version) VALUES (nextval('tienda.categories_id_seq'), ?, 0), ... <br>
+     * The ids come from the same sequence used by Hibernate (a nextval() per row never collides with its pools),
+     * they are returned with the generated keys (PostgreSQL JDBC: {@code RETURNING id}). <br>
+     * Built once per number of rows (usually the batch size and the remainder of the last batch).
+     *
+     * @param rows number of rows of the statement, a JDBC parameter (name) per row
+     * @return the multi-row insert
+     */
+    static String insert(int rows) {
+        return INSERTS.computeIfAbsent(rows, CategoryNativeSql::buildInsert);
+    }
+
+    private static String buildInsert(int rows) {
+        if (rows < 1) throw new IllegalArgumentException("rows must be greater than 0");
+
+        String values = String.format("(nextval('%s.%s'), ?, 0)", CategoryEntity.SCHEMA_NAME, CategoryEntity.SEQUENCE_NAME);
+        StringBuilder sql = new StringBuilder(String.format("INSERT INTO %s (%s, %s, %s) VALUES ",
+                CATEGORIES,
+                CategoryEntity.ATTR_ID,
+                CategoryEntity.ATTR_NAME,
+                CategoryEntity.ATTR_VERSION));
+
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(values);
+        }
+        return sql.toString();
+    }
+}
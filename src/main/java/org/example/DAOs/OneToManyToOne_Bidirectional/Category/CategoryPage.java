@@ -0,0 +1,52 @@
+package org.example.DAOs.OneToManyToOne_Bidirectional.Category;
+
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+
+import java.util.List;
+
+/**
+ * A page of a keyset pagination, see {@link CategoryCursor}.
+ */
+public class CategoryPage {
+    private final List<CategoryEntity> categories;
+    private final String nextCursor;
+
+    public CategoryPage(List<CategoryEntity> categories, String nextCursor) {
+        this.categories = categories;
+        this.nextCursor = nextCursor;
+    }
+
+    public static CategoryPage empty() {
+        return new CategoryPage(List.of(), null);
+    }
+
+    /**
+     * Builds the page from a result fetched with {@code limit + 1} rows, the extra row only tells if there is a next page.
+     *
+     * @param rows  the rows fetched (at most {@code limit + 1})
+     * @param limit the size of the page
+     * @param order the ordering used, stored in the next cursor
+     * @return the page with at most {@code limit} categories
+     */
+    public static CategoryPage of(List<CategoryEntity> rows, int limit, CategoryCursor.Order order) {
+        if (rows.size() <= limit) return new CategoryPage(rows, null);
+
+        List<CategoryEntity> categories = rows.subList(0, limit);
+        return new CategoryPage(categories, CategoryCursor.after(order, categories.get(limit - 1)).encode());
+    }
+
+    public List<CategoryEntity> getCategories() {
+        return categories;
+    }
+
+    /**
+     * @return the token for {@link CategoryDAO#listAfter(String, int)}, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
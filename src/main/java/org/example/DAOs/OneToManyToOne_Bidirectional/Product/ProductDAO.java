@@ -1,7 +1,26 @@
 package org.example.DAOs.OneToManyToOne_Bidirectional.Product;
+import org.example.Entities.DTOs.ProductDTOBasic;
+import org.example.Entities.DTOs.ProductSummary;
 import org.example.Entities.OneToManyToOne_Bidirectional.ProductEntity;
+import org.example.Util.BulkResult;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductDAO {
     void save(ProductEntity product);
+    int upsertAll(Collection<ProductEntity> products);
+    BulkResult insertAll(Collection<ProductEntity> products);
+    BulkResult updateAll(Collection<ProductEntity> products);
+    BulkResult deleteAll(Collection<ProductEntity> products);
     void merge(ProductEntity product);
+    List<ProductEntity> listAll();
+    List<ProductEntity> listAll(ProductFetchPlan plan);
+    Optional<ProductEntity> findById(Long id, ProductFetchPlan plan);
+    List<ProductEntity> find10Cheapest(ProductFetchPlan plan);
+    Stream<ProductEntity> streamAll(int fetchSize);
+    List<ProductDTOBasic> listAllDTOBasic();
+    List<ProductSummary> listSummaries();
 }
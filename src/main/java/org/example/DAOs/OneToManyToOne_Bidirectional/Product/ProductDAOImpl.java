@@ -2,60 +2,203 @@ package org.example.DAOs.OneToManyToOne_Bidirectional.Product;
 
 import org.example.DAOs.OneToManyToOne_Bidirectional.Product.Exceptions.ProductAlreadyExistException;
 import org.example.Entities.DTOs.ProductDTOBasic;
+import org.example.Entities.DTOs.ProductSummary;
 import org.example.Entities.OneToManyToOne_Bidirectional.ProductEntity;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.BulkResult;
 import org.example.Util.HibernateUtil;
+import org.example.Util.SessionFactoryWarmup;
+import org.example.Util.Metrics.DAOMetrics;
+import org.example.Util.Metrics.StatementBudget;
+import org.example.Util.StatelessBulk;
+import org.example.Util.StreamUtil;
+import org.example.Util.UnitOfWork;
+import org.example.Util.Upsert;
 import org.hibernate.Session;
 
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 public class ProductDAOImpl implements ProductDAO {
     public static final Logger LOGGER = Logger.getLogger(ProductDAOImpl.class.getName());
+    // The category isn't inserted, the products are saved without category
+    private static final Upsert UPSERT = Upsert.into(ProductEntity.SCHEMA_NAME + "." + ProductEntity.TABLE_NAME)
+            .id(ProductEntity.ATTR_ID, ProductEntity.SCHEMA_NAME + "." + ProductEntity.SEQUENCE_NAME)
+            .onConflict(ProductEntity.ATTR_NAME)
+            .column(ProductEntity.ATTR_NAME, Types.VARCHAR)
+            .column(ProductEntity.ATTR_DESCRIPTION, Types.VARCHAR)
+            .column(ProductEntity.ATTR_PRICE, Types.NUMERIC)
+            .constant(ProductEntity.ATTR_VERSION, "0");
 
+    //====== HQL of the DAO ======\\
+    private static final String LIST_ALL_HQL = "FROM ProductEntity";
+    private static final String FIND_BY_ID_HQL = "FROM ProductEntity p WHERE p.id = :id";
+    private static final String LIST_DTO_BASIC_HQL = "SELECT new org.example.Entities.DTOs.ProductDTOBasic(p.name, p.price) FROM ProductEntity p";
+    private static final String LIST_SUMMARIES_HQL = "SELECT new org.example.Entities.DTOs.ProductSummary(p.id, p.name, p.price, c.id, c.name) " +
+            "FROM ProductEntity p LEFT JOIN p.category c ORDER BY p.id";
 
+    /**
+     * Queries of the DAO with their result types, parsed by the warm-up of the SessionFactory.
+     */
+    public static final List<SessionFactoryWarmup.Hql> QUERIES = List.of(
+            SessionFactoryWarmup.Hql.select(LIST_ALL_HQL, ProductEntity.class),
+            SessionFactoryWarmup.Hql.select(FIND_BY_ID_HQL, ProductEntity.class),
+            SessionFactoryWarmup.Hql.select(LIST_DTO_BASIC_HQL, ProductDTOBasic.class),
+            SessionFactoryWarmup.Hql.select(LIST_SUMMARIES_HQL, ProductSummary.class));
+
+    /**
+     * Saves the product with a single statement, {@code INSERT ... ON CONFLICT (name) DO NOTHING}
+     * (MERGE in other dialects, see {@link Upsert}), instead of a count of the name before the insert. <br>
+     * If the name already exists nothing is saved ({@link ProductAlreadyExistException}, also when a concurrent save
+     * of the same name wins the race). if was saved successfully the product will have id and version assigned.
+     *
+     * @param product the product to save, without category
+     */
     public void save(ProductEntity product) {
-        if (product == null) {
-            LOGGER.warning("Product is null");
-            return;
-        }
-        if (product.getName() == null) {
-            LOGGER.warning("Product name is null");
-            return;
-        }
-        if (product.getName().isEmpty()) {
-            LOGGER.warning("Product name is empty");
-            return;
-        }
-        if (product.getCategory() != null) {
-            LOGGER.warning("First save the product, then set the category");
-            return;
-        }
+        if (!isSavable(product)) return;
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
-                Integer count = ((Number) session.createQuery("select count(*) from ProductEntity where name = :name")
-                        .setParameter("name", product.getName())
-                        .uniqueResult()).intValue();
-
-                if (count > 0) throw new ProductAlreadyExistException();
-
                 session.beginTransaction();
-                session.persist(product);
+                Long id = UPSERT.execute(session, List.<Object[]>of(toRow(product))).get(0);
+                if (id == null) throw new ProductAlreadyExistException();
                 session.getTransaction().commit();
 
+                product.setId(id);
+                product.setVersion(0L);
+
+            } catch (ProductAlreadyExistException pe) {
+                // Nothing was inserted (DO NOTHING), the unit of work in progress goes on
+                UnitOfWork.rollbackUnchanged(session);
+                throw pe;
             } catch (Exception e) {
                 session.getTransaction().rollback();
+                if (Upsert.isUniqueViolation(e)) throw new ProductAlreadyExistException();
                 throw e;
             }
         } catch (ProductAlreadyExistException pe) {
             LOGGER.warning("Product already exist");
         } catch (Exception e) {
             LOGGER.severe("Error saving product");
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
 
+    /**
+     * Saves the products in a single transaction, with a JDBC batch of upserts per {@code hibernate.jdbc.batch_size}
+     * products (see {@link #save(ProductEntity)}). <br>
+     * The products whose name already exists (in DB or repeated in the collection) are skipped,
+     * the saved ones will have id and version assigned. if the transaction fails nothing is saved.
+     *
+     * @param products the products to save, without category
+     * @return the number of products saved
+     */
+    public int upsertAll(Collection<ProductEntity> products) {
+        if (products == null) {
+            LOGGER.warning("Products is null");
+            return 0;
+        }
+
+        List<ProductEntity> toSave = products.stream().filter(this::isSavable).toList();
+        if (toSave.isEmpty()) return 0;
+
+        int saved = 0;
+        try (Session session = HibernateUtil.openSession()) {
+            List<Long> ids;
+            try {
+                session.beginTransaction();
+                ids = UPSERT.execute(session, toSave.stream().map(ProductDAOImpl::toRow).toList());
+                session.getTransaction().commit();
+
+            } catch (Exception e) {
+                session.getTransaction().rollback();
+                if (Upsert.isUniqueViolation(e)) throw new ProductAlreadyExistException();
+                throw e;
+            }
+
+            for (int i = 0; i < toSave.size(); i++) {
+                if (ids.get(i) == null) {
+                    LOGGER.warning("Product already exist: " + toSave.get(i).getName());
+                    continue;
+                }
+                toSave.get(i).setId(ids.get(i));
+                toSave.get(i).setVersion(0L);
+                saved++;
+            }
+        } catch (ProductAlreadyExistException pe) {
+            LOGGER.warning("Product already exist, saved concurrently");
+        } catch (Exception e) {
+            LOGGER.severe("Error saving products");
+            DAOMetrics.error();
+            e.printStackTrace();
+        }
+
+        return saved;
+    }
+
+    /**
+     * Bulk insert with a StatelessSession and JDBC batching ({@link StatelessBulk}): unlike {@link #save(ProductEntity)}
+     * and {@link #upsertAll(Collection)} there is no persistence context nor check of the name, a repeated name
+     * fails the whole transaction (nothing is saved). <br>
+     * The products can have a saved category (only its id is written), products without name, with id or with an
+     * unsaved category are skipped.
+     *
+     * @param products the products to insert, each one will have id and version assigned
+     * @return rows inserted and rows per second
+     */
+    public BulkResult insertAll(Collection<ProductEntity> products) {
+        return evictCategoryProducts(StatelessBulk.insertAll(ProductEntity.class, products,
+                product -> product.getId() == null && hasName(product) && hasSavedOrNoCategory(product)));
+    }
+
+    /**
+     * Bulk update with a StatelessSession and JDBC batching ({@link StatelessBulk}), instead of a
+     * {@link #merge(ProductEntity)} per product: no load of the current state, every column is updated
+     * and the version is checked (a stale product fails the whole transaction). <br>
+     * Products without id, version or name, or with an unsaved category, are skipped.
+     *
+     * @param products detached products, each one will have the new version
+     * @return rows updated and rows per second
+     */
+    public BulkResult updateAll(Collection<ProductEntity> products) {
+        return evictCategoryProducts(StatelessBulk.updateAll(ProductEntity.class, products,
+                product -> product.getId() != null && product.getVersion() != null && hasName(product) && hasSavedOrNoCategory(product)));
+    }
+
+    /**
+     * Bulk delete with a StatelessSession and JDBC batching ({@link StatelessBulk}), the version is checked. <br>
+     * Products without id or version are skipped.
+     *
+     * @param products detached products
+     * @return rows deleted and rows per second
+     */
+    public BulkResult deleteAll(Collection<ProductEntity> products) {
+        return evictCategoryProducts(StatelessBulk.deleteAll(ProductEntity.class, products,
+                product -> product.getId() != null && product.getVersion() != null));
+    }
+
+    /**
+     * The StatelessSession doesn't maintain the cached collections, the products of the categories are evicted.
+     */
+    private static BulkResult evictCategoryProducts(BulkResult result) {
+        if (result.rows() > 0) HibernateUtil.getSessionFactory().getCache().evictRegion(CategoryEntity.PRODUCTS_CACHE_REGION);
+        return result;
+    }
+
+    private static boolean hasName(ProductEntity product) {
+        return product.getName() != null && !product.getName().isEmpty();
+    }
+
+    private static boolean hasSavedOrNoCategory(ProductEntity product) {
+        return product.getCategory() == null || product.getCategory().getId() != null;
+    }
+
     public void merge(ProductEntity product) {
         if (product == null) {
             LOGGER.warning("Product is null");
@@ -74,11 +217,19 @@ public class ProductDAOImpl implements ProductDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
-                session.merge(product);
+                // Without version Hibernate considers it a new product, it's merged over the current version
+                if (product.getVersion() == null) {
+                    ProductEntity current = session.get(ProductEntity.class, product.getId());
+                    if (current != null) product.setVersion(current.getVersion());
+                }
+
+                // UPDATE ... WHERE id = ? AND version = ?, fails with OptimisticLockException if the product is stale
+                ProductEntity merged = session.merge(product);
                 session.getTransaction().commit();
+                product.setVersion(merged.getVersion());
 
             } catch (Exception e) {
                 session.getTransaction().rollback();
@@ -86,34 +237,167 @@ public class ProductDAOImpl implements ProductDAO {
             }
         } catch (Exception e) {
             LOGGER.severe("Error merging product");
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
 
+    /**
+     * Returns all products with the {@link ProductFetchPlan#BASIC} plan (without their categories).
+     */
+    @StatementBudget(1)
     public List<ProductEntity> listAll() {
-        List<ProductEntity> list = new ArrayList();
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            list = session.createQuery("FROM ProductEntity").list();
+        return listAll(ProductFetchPlan.BASIC);
+    }
+
+    /**
+     * Returns all products in a single query, whatever the plan.
+     *
+     * @param plan the data loaded with each product
+     * @return a list of all products in the database, empty if an error occurs
+     */
+    @StatementBudget(1)
+    public List<ProductEntity> listAll(ProductFetchPlan plan) {
+        List<ProductEntity> list = new ArrayList<>();
+        try (Session session = HibernateUtil.openReadSession()) {
+            list = plan.apply(session, session.createSelectionQuery(LIST_ALL_HQL, ProductEntity.class)).list();
         } catch (Exception e) {
             LOGGER.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
         return list;
     }
 
+    /**
+     * @param id   id of the product
+     * @param plan the data loaded with the product
+     * @return the product, empty if it doesn't exist or an error occurs
+     */
+    @StatementBudget(1)
+    public Optional<ProductEntity> findById(Long id, ProductFetchPlan plan) {
+        if (id == null) {
+            LOGGER.warning("Id can't be null");
+            return Optional.empty();
+        }
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            return plan.apply(session, session.createSelectionQuery(FIND_BY_ID_HQL, ProductEntity.class))
+                    .setParameter("id", id)
+                    .uniqueResultOptional();
+        } catch (Exception e) {
+            LOGGER.severe(e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Named query {@link ProductEntity#QUERY_FIND_10_CHEAPEST}.
+     *
+     * @param plan the data loaded with each product
+     * @return the 10 cheapest products ordered by price, empty if an error occurs
+     */
+    @StatementBudget(1)
+    public List<ProductEntity> find10Cheapest(ProductFetchPlan plan) {
+        List<ProductEntity> list = new ArrayList<>();
+        try (Session session = HibernateUtil.openReadSession()) {
+            list = plan.apply(session, session.createNamedSelectionQuery(ProductEntity.QUERY_FIND_10_CHEAPEST, ProductEntity.class)).list();
+        } catch (Exception e) {
+            LOGGER.severe(e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+        }
+
+        return list;
+    }
+
+    /**
+     * Streams all products in the database without loading them in memory, see {@link StreamUtil}. <br>
+     * The products are read-only and detached, the stream must be closed (try-with-resources).
+     *
+     * @param fetchSize rows fetched per round-trip, the persistence context is cleared every {@code fetchSize} rows
+     * @return a stream of all products in the database, empty if an error occurs
+     */
+    public Stream<ProductEntity> streamAll(int fetchSize) {
+        Session session = HibernateUtil.openReadSession();
+        try {
+            StreamUtil.beginReadOnly(session);
+            return StreamUtil.stream(session, session.createQuery(LIST_ALL_HQL, ProductEntity.class), fetchSize);
+
+        } catch (Exception e) {
+            session.close();
+            LOGGER.severe(e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+            return Stream.empty();
+        }
+    }
+
+    @StatementBudget(1)
     public List<ProductDTOBasic> listAllDTOBasic() {
         List<ProductDTOBasic> list = new ArrayList();
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openReadSession()) {
             list = session
-                    .createQuery("SELECT new org.example.Entities.DTOs.ProductDTOBasic(p.name, p.price) FROM ProductEntity p")
+                    .createQuery(LIST_DTO_BASIC_HQL, ProductDTOBasic.class)
                     .list();
         } catch (Exception e) {
             LOGGER.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
         return list;
     }
+
+    /**
+     * Returns a summary of each product with the name of its category, in a single query (LEFT JOIN),
+     * without hydrating ProductEntity/CategoryEntity (no persistence context, no EAGER category loading).
+     *
+     * @return the summaries ordered by id, empty if an error occurs
+     */
+    @StatementBudget(1)
+    public List<ProductSummary> listSummaries() {
+        List<ProductSummary> list = new ArrayList<>();
+
+        try (Session session = HibernateUtil.openReadSession()) {
+            list = session
+                    .createQuery(LIST_SUMMARIES_HQL, ProductSummary.class)
+                    .list();
+        } catch (Exception e) {
+            LOGGER.severe(e.getMessage());
+            DAOMetrics.error();
+            e.printStackTrace();
+        }
+
+        return list;
+    }
+
+    private static Object[] toRow(ProductEntity product) {
+        return new Object[]{product.getName(), product.getDescription(), product.getPrice()};
+    }
+
+    private boolean isSavable(ProductEntity product) {
+        if (product == null) {
+            LOGGER.warning("Product is null");
+            return false;
+        }
+        if (product.getName() == null) {
+            LOGGER.warning("Product name is null");
+            return false;
+        }
+        if (product.getName().isEmpty()) {
+            LOGGER.warning("Product name is empty");
+            return false;
+        }
+        if (product.getCategory() != null) {
+            LOGGER.warning("First save the product, then set the category");
+            return false;
+        }
+        return true;
+    }
 }
@@ -0,0 +1,39 @@
+package org.example.DAOs.OneToManyToOne_Bidirectional.Product;
+
+import org.example.Entities.OneToManyToOne_Bidirectional.ProductEntity;
+import org.hibernate.Session;
+import org.hibernate.jpa.SpecHints;
+import org.hibernate.query.SelectionQuery;
+
+/**
+ * Data loaded with the products by the DAO, backed by the {@code @NamedEntityGraph} of {@link ProductEntity}
+ * (applied as fetch graph: the attributes outside the graph are LAZY):
+ * <ul>
+ *     <li>{@link #BASIC}: only the columns of the product, the category is a proxy with its id
+ *     (accessing other attribute of a detached product throws LazyInitializationException).</li>
+ *     <li>{@link #WITH_CATEGORY}: the product and its category in the same query (LEFT JOIN), usable after the session is closed.</li>
+ * </ul>
+ */
+public enum ProductFetchPlan {
+    BASIC(ProductEntity.GRAPH_BASIC),
+    WITH_CATEGORY(ProductEntity.GRAPH_WITH_CATEGORY);
+
+    private final String graphName;
+
+    ProductFetchPlan(String graphName) {
+        this.graphName = graphName;
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+
+    /**
+     * @param session session of the query
+     * @param query   query of products
+     * @return the same query, with the entity graph of the plan
+     */
+    <T> SelectionQuery<T> apply(Session session, SelectionQuery<T> query) {
+        return query.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, session.getEntityGraph(graphName));
+    }
+}
@@ -2,6 +2,7 @@ package org.example.DAOs.OneToMany_Unidirectional.Category;
 
 import org.example.Entities.OneToManyToOne_Unidirectional.CategoryEntity;
 import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.DAOMetrics;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 
@@ -34,13 +35,14 @@ public class CategoryDAOImpl implements CategoryDAO {
     public List<CategoryEntity> listAll() {
         List<CategoryEntity> categories = new ArrayList();
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             categories = session
                     .createQuery("from CategoryEntity", CategoryEntity.class)
                     .list();
 
         } catch (Exception he) {
             logger.severe("Error in listAll: " + he.getMessage());
+            DAOMetrics.error();
         }
         return categories;
     }
@@ -55,13 +57,14 @@ public class CategoryDAOImpl implements CategoryDAO {
     public Optional<CategoryEntity> findById(Long id) {
         Optional<CategoryEntity> category = Optional.empty();
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             category = Optional.ofNullable(session.get(CategoryEntity.class, id));
 
         } catch (IllegalArgumentException ie) {
             logger.warning("Invalid id: " + id);
         } catch (Exception e) {
             logger.severe("Error in findById: " + e.getMessage());
+            DAOMetrics.error();
         }
 
         return category;
@@ -77,7 +80,7 @@ public class CategoryDAOImpl implements CategoryDAO {
     public Optional<CategoryEntity> findByName(String name) {
         Optional<CategoryEntity> category = Optional.empty();
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             category = session
                     .createQuery("FROM CategoryEntity ce WHERE ce.name = :name", CategoryEntity.class)
                     .setParameter("name", name)
@@ -87,6 +90,7 @@ public class CategoryDAOImpl implements CategoryDAO {
             logger.warning("Invalid name: " + name);
         } catch (Exception e) {
             logger.severe("Error in findByName: " + e.getMessage());
+            DAOMetrics.error();
         }
 
         return category;
@@ -121,7 +125,7 @@ public class CategoryDAOImpl implements CategoryDAO {
         }
 
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 session.persist(category);
@@ -132,6 +136,7 @@ public class CategoryDAOImpl implements CategoryDAO {
             }
         } catch (Exception e) {
             logger.severe("Error in persist: " + e.getMessage());
+            DAOMetrics.error();
         }
     }
 
@@ -162,7 +167,7 @@ public class CategoryDAOImpl implements CategoryDAO {
             return false;
         }
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 category = session.merge(category);
@@ -173,6 +178,7 @@ public class CategoryDAOImpl implements CategoryDAO {
             }
         } catch (Exception e) {
             logger.severe("Error in merge: " + e.getMessage());
+            DAOMetrics.error();
         }
 
         return true;
@@ -192,7 +198,7 @@ public class CategoryDAOImpl implements CategoryDAO {
 
         int affectedRows = 0;
 
-        try (Session session = sessionFactory.openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 affectedRows = session
@@ -207,6 +213,7 @@ public class CategoryDAOImpl implements CategoryDAO {
             }
         } catch (Exception e) {
             logger.severe("Error in deleteById: " + e.getMessage());
+            DAOMetrics.error();
 
         }
 
@@ -1,11 +1,13 @@
 package org.example.DAOs.OneToMany_Unidirectional.Product;
 import org.example.Entities.OneToManyToOne_Unidirectional.ProductEntity;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductDAO {
     void persist(ProductEntity product);
+    int upsertAll(Collection<ProductEntity> products);
     void merge(ProductEntity product);
     boolean deleteById(Long product);
     Optional<ProductEntity> findById(Long id);
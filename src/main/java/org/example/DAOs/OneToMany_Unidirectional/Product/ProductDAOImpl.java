@@ -3,57 +3,111 @@ package org.example.DAOs.OneToMany_Unidirectional.Product;
 import org.example.DAOs.OneToMany_Unidirectional.Product.Exceptions.ProductAlreadyExistException;
 import org.example.Entities.OneToManyToOne_Unidirectional.ProductEntity;
 import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.DAOMetrics;
+import org.example.Util.Upsert;
 import org.hibernate.Session;
 
+import java.sql.Types;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
 
 public class ProductDAOImpl implements ProductDAO {
     public static final Logger LOGGER = Logger.getLogger(ProductDAOImpl.class.getName());
+    // IDENTITY id, the products are saved without category
+    private static final Upsert UPSERT = Upsert.into(ProductEntity.SCHEMA_NAME + "." + ProductEntity.TABLE_NAME)
+            .id("id", null)
+            .onConflict("name")
+            .column("name", Types.VARCHAR)
+            .column("description", Types.VARCHAR)
+            .column("price", Types.NUMERIC);
 
+    /**
+     * Saves the product with a single statement, {@code INSERT ... ON CONFLICT (name) DO NOTHING}
+     * (MERGE in other dialects, see {@link Upsert}), instead of a count of the name before the insert. <br>
+     * If the name already exists nothing is saved ({@link ProductAlreadyExistException}),
+     * if was saved successfully the product will have id assigned.
+     *
+     * @param product the product to save, without category
+     */
     @Override
     public void persist(ProductEntity product) {
-        if (product == null) {
-            LOGGER.warning("Product is null");
-            return;
-        }
-        if (product.getName() == null) {
-            LOGGER.warning("Product name is null");
-            return;
-        }
-        if (product.getName().isEmpty()) {
-            LOGGER.warning("Product name is empty");
-            return;
-        }
-        if (product.getCategory() != null) {
-            LOGGER.warning("First save the product, then set the category");
-            return;
-        }
+        if (!isPersistable(product)) return;
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
-                Integer count = ((Number) session
-                        .createQuery("select count(*) from ProductEntity where name = :name")
-                        .setParameter("name", product.getName())
-                        .uniqueResult()).intValue();
-
-                if (count > 0) throw new ProductAlreadyExistException();
-
                 session.beginTransaction();
-                session.persist(product);
+                Long id = UPSERT.execute(session, List.<Object[]>of(toRow(product))).get(0);
+                if (id == null) throw new ProductAlreadyExistException();
                 session.getTransaction().commit();
 
+                product.setId(id);
+
             } catch (Exception e) {
                 session.getTransaction().rollback();
+                if (Upsert.isUniqueViolation(e)) throw new ProductAlreadyExistException();
                 throw e;
             }
         } catch (ProductAlreadyExistException pe) {
             LOGGER.warning("Product already exist");
         } catch (Exception e) {
             LOGGER.severe("Error saving product");
+            DAOMetrics.error();
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Saves the products in a single transaction, with a JDBC batch of upserts per {@code hibernate.jdbc.batch_size}
+     * products (see {@link #persist(ProductEntity)}). <br>
+     * The products whose name already exists (in DB or repeated in the collection) are skipped,
+     * the saved ones will have id assigned. if the transaction fails nothing is saved.
+     *
+     * @param products the products to save, without category
+     * @return the number of products saved
+     */
+    @Override
+    public int upsertAll(Collection<ProductEntity> products) {
+        if (products == null) {
+            LOGGER.warning("Products is null");
+            return 0;
+        }
+
+        List<ProductEntity> toPersist = products.stream().filter(this::isPersistable).toList();
+        if (toPersist.isEmpty()) return 0;
+
+        int persisted = 0;
+        try (Session session = HibernateUtil.openSession()) {
+            List<Long> ids;
+            try {
+                session.beginTransaction();
+                ids = UPSERT.execute(session, toPersist.stream().map(ProductDAOImpl::toRow).toList());
+                session.getTransaction().commit();
+
+            } catch (Exception e) {
+                session.getTransaction().rollback();
+                if (Upsert.isUniqueViolation(e)) throw new ProductAlreadyExistException();
+                throw e;
+            }
+
+            for (int i = 0; i < toPersist.size(); i++) {
+                if (ids.get(i) == null) {
+                    LOGGER.warning("Product already exist: " + toPersist.get(i).getName());
+                    continue;
+                }
+                toPersist.get(i).setId(ids.get(i));
+                persisted++;
+            }
+        } catch (ProductAlreadyExistException pe) {
+            LOGGER.warning("Product already exist, saved concurrently");
+        } catch (Exception e) {
+            LOGGER.severe("Error saving products");
+            DAOMetrics.error();
             e.printStackTrace();
         }
+
+        return persisted;
     }
 
     public void merge(ProductEntity product) {
@@ -74,7 +128,7 @@ public class ProductDAOImpl implements ProductDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 session.merge(product);
@@ -86,6 +140,7 @@ public class ProductDAOImpl implements ProductDAO {
             }
         } catch (Exception e) {
             LOGGER.severe("Error merging product");
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
@@ -98,7 +153,7 @@ public class ProductDAOImpl implements ProductDAO {
         }
 
         int affectedRows = 0;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 affectedRows = session
@@ -113,6 +168,7 @@ public class ProductDAOImpl implements ProductDAO {
             }
         } catch (Exception e) {
             LOGGER.severe("Error deleting product");
+            DAOMetrics.error();
             e.printStackTrace();
             return false;
         }
@@ -128,12 +184,13 @@ public class ProductDAOImpl implements ProductDAO {
         }
         Optional<ProductEntity> product;
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             product = Optional.ofNullable(
                     session.find(ProductEntity.class, id)
             );
         } catch (Exception e) {
             LOGGER.severe("Error finding product by id");
+            DAOMetrics.error();
             e.printStackTrace();
             return Optional.empty();
         }
@@ -145,12 +202,13 @@ public class ProductDAOImpl implements ProductDAO {
     public List<ProductEntity> listAll() {
         List<ProductEntity> products;
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             products = session
                     .createQuery("from ProductEntity", ProductEntity.class)
                     .list();
         } catch (Exception e) {
             LOGGER.severe("Error listing all products");
+            DAOMetrics.error();
             e.printStackTrace();
             return List.of();
         }
@@ -166,7 +224,7 @@ public class ProductDAOImpl implements ProductDAO {
         }
         Optional<ProductEntity> product;
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             product = Optional.ofNullable(
                     session.createQuery("select p from ProductEntity p join fetch p.category where p.id = :id", ProductEntity.class)
                             .setParameter("id", id)
@@ -174,10 +232,35 @@ public class ProductDAOImpl implements ProductDAO {
 
         } catch (Exception e) {
             LOGGER.severe("Error finding product by id Eager");
+            DAOMetrics.error();
             e.printStackTrace();
             return Optional.empty();
         }
 
         return product;
     }
+
+    private static Object[] toRow(ProductEntity product) {
+        return new Object[]{product.getName(), product.getDescription(), product.getPrice()};
+    }
+
+    private boolean isPersistable(ProductEntity product) {
+        if (product == null) {
+            LOGGER.warning("Product is null");
+            return false;
+        }
+        if (product.getName() == null) {
+            LOGGER.warning("Product name is null");
+            return false;
+        }
+        if (product.getName().isEmpty()) {
+            LOGGER.warning("Product name is empty");
+            return false;
+        }
+        if (product.getCategory() != null) {
+            LOGGER.warning("First save the product, then set the category");
+            return false;
+        }
+        return true;
+    }
 }
@@ -2,6 +2,7 @@ package org.example.DAOs.OneToOne_Bidirectional;
 
 import org.example.Entities.OneToOne_Bidirectional.AddressEntity;
 import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.DAOMetrics;
 import org.hibernate.Session;
 
 import java.util.Optional;
@@ -18,11 +19,12 @@ public class AddressDAOImpl implements AddressDAO {
         }
 
         Optional<AddressEntity> addressEntityOp = Optional.empty();
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             addressEntityOp = Optional.ofNullable(session.get(AddressEntity.class, id));
 
         } catch (Exception e) {
             logger.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -37,13 +39,14 @@ public class AddressDAOImpl implements AddressDAO {
         }
 
         Optional<AddressEntity> addressEntityOp = Optional.empty();
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             addressEntityOp = session
                     .createQuery("FROM AddressEntity a JOIN FETCH a.userEntity WHERE a.id = :id", AddressEntity.class)
                     .uniqueResultOptional();
 
         } catch (Exception e) {
             logger.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -59,7 +62,7 @@ public class AddressDAOImpl implements AddressDAO {
         }
 
         int affectedRows = 0;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 affectedRows = session
@@ -74,6 +77,7 @@ public class AddressDAOImpl implements AddressDAO {
 
         } catch (Exception e) {
             logger.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -92,7 +96,7 @@ public class AddressDAOImpl implements AddressDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
 
                 session.beginTransaction();
@@ -105,6 +109,7 @@ public class AddressDAOImpl implements AddressDAO {
 
         } catch (Exception e) {
             logger.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
@@ -120,7 +125,7 @@ public class AddressDAOImpl implements AddressDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 addressEntity = session.merge(addressEntity);
@@ -132,6 +137,7 @@ public class AddressDAOImpl implements AddressDAO {
 
         } catch (Exception e) {
             logger.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
@@ -147,7 +153,7 @@ public class AddressDAOImpl implements AddressDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 session.refresh(addressEntity);
@@ -159,6 +165,7 @@ public class AddressDAOImpl implements AddressDAO {
 
         } catch (Exception e) {
             logger.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
@@ -178,7 +185,7 @@ public class AddressDAOImpl implements AddressDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 session.detach(addressEntity);
@@ -190,6 +197,7 @@ public class AddressDAOImpl implements AddressDAO {
 
         } catch (Exception e) {
             logger.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
 
         }
@@ -2,6 +2,7 @@ package org.example.DAOs.OneToOne_Bidirectional;
 
 import org.example.Entities.OneToOne_Bidirectional.UserEntity;
 import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.DAOMetrics;
 import org.hibernate.Session;
 
 import java.util.Optional;
@@ -18,10 +19,11 @@ public class UserDAOImpl implements UserDAO {
         }
 
         Optional<UserEntity> userEntityOptional = Optional.empty();
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             userEntityOptional = Optional.ofNullable(session.find(UserEntity.class, id));
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
         return userEntityOptional;
@@ -35,13 +37,14 @@ public class UserDAOImpl implements UserDAO {
         }
 
         Optional<UserEntity> userEntityOptional = Optional.empty();
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             userEntityOptional = session
                     .createQuery("FROM UserEntity u JOIN FETCH u.address WHERE u.id = :id", UserEntity.class)
                     .setParameter("id", id)
                     .uniqueResultOptional();
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -68,12 +71,13 @@ public class UserDAOImpl implements UserDAO {
         }
 
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.beginTransaction();
             session.persist(userEntity);
             session.getTransaction().commit();
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -98,12 +102,13 @@ public class UserDAOImpl implements UserDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.beginTransaction();
             userEntity = session.merge(userEntity);
             session.getTransaction().commit();
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
@@ -115,7 +120,7 @@ public class UserDAOImpl implements UserDAO {
             return false;
         }
         int affectedRows = 0;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.beginTransaction();
             affectedRows = session
                     .createMutationQuery("DELETE FROM UserEntity ue WHERE ue.id = :id")
@@ -125,6 +130,7 @@ public class UserDAOImpl implements UserDAO {
             session.getTransaction().commit();
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -139,10 +145,11 @@ public class UserDAOImpl implements UserDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.refresh(userEntity);
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
@@ -154,10 +161,11 @@ public class UserDAOImpl implements UserDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.detach(userEntity);
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
@@ -2,6 +2,7 @@ package org.example.DAOs.OneToOne_Unidirectional;
 
 import org.example.Entities.OneToOne_Unidirectional.AddressEntity;
 import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.DAOMetrics;
 import org.hibernate.Session;
 
 import java.util.Optional;
@@ -18,11 +19,12 @@ public class AddressDAOImpl implements AddressDAO {
         }
 
         Optional<AddressEntity> addressEntityOp = Optional.empty();
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             addressEntityOp = Optional.ofNullable(session.get(AddressEntity.class, id));
 
         } catch (Exception e) {
             logger.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -37,7 +39,7 @@ public class AddressDAOImpl implements AddressDAO {
 //        }
 //
 //        Optional<AddressEntity> addressEntityOp = Optional.empty();
-//        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+//        try (Session session = HibernateUtil.openSession()) {
 //            addressEntityOp = session
 //                    .createQuery("FROM AddressEntity a JOIN FETCH a.userEntity WHERE a.id = :id", AddressEntity.class)
 //                    .uniqueResultOptional();
@@ -59,7 +61,7 @@ public class AddressDAOImpl implements AddressDAO {
         }
 
         int affectedRows = 0;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 affectedRows = session
@@ -74,6 +76,7 @@ public class AddressDAOImpl implements AddressDAO {
 
         } catch (Exception e) {
             logger.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -92,7 +95,7 @@ public class AddressDAOImpl implements AddressDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
 
                 session.beginTransaction();
@@ -105,6 +108,7 @@ public class AddressDAOImpl implements AddressDAO {
 
         } catch (Exception e) {
             logger.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
@@ -120,7 +124,7 @@ public class AddressDAOImpl implements AddressDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 addressEntity = session.merge(addressEntity);
@@ -132,6 +136,7 @@ public class AddressDAOImpl implements AddressDAO {
 
         } catch (Exception e) {
             logger.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
@@ -147,7 +152,7 @@ public class AddressDAOImpl implements AddressDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 session.refresh(addressEntity);
@@ -159,6 +164,7 @@ public class AddressDAOImpl implements AddressDAO {
 
         } catch (Exception e) {
             logger.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
@@ -178,7 +184,7 @@ public class AddressDAOImpl implements AddressDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             try {
                 session.beginTransaction();
                 session.detach(addressEntity);
@@ -190,6 +196,7 @@ public class AddressDAOImpl implements AddressDAO {
 
         } catch (Exception e) {
             logger.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
 
         }
@@ -3,6 +3,7 @@ package org.example.DAOs.OneToOne_Unidirectional;
 import org.example.DAOs.OneToOne_Unidirectional.UserDAO;
 import org.example.Entities.OneToOne_Unidirectional.UserEntity;
 import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.DAOMetrics;
 import org.hibernate.Session;
 
 import java.util.Optional;
@@ -20,10 +21,11 @@ public class UserDAOImpl implements UserDAO {
         }
 
         Optional<UserEntity> userEntityOptional = Optional.empty();
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             userEntityOptional = Optional.ofNullable(session.find(UserEntity.class, id));
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
         return userEntityOptional;
@@ -37,13 +39,14 @@ public class UserDAOImpl implements UserDAO {
         }
 
         Optional<UserEntity> userEntityOptional = Optional.empty();
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             userEntityOptional = session
                     .createQuery("FROM UserEntity u JOIN FETCH u.address WHERE u.id = :id", UserEntity.class)
                     .setParameter("id", id)
                     .uniqueResultOptional();
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -70,12 +73,13 @@ public class UserDAOImpl implements UserDAO {
         }
 
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.beginTransaction();
             session.persist(userEntity);
             session.getTransaction().commit();
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -100,12 +104,13 @@ public class UserDAOImpl implements UserDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.beginTransaction();
             userEntity = session.merge(userEntity);
             session.getTransaction().commit();
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
@@ -117,7 +122,7 @@ public class UserDAOImpl implements UserDAO {
             return false;
         }
         int affectedRows = 0;
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.beginTransaction();
             affectedRows = session
                     .createMutationQuery("DELETE FROM UserEntity ue WHERE ue.id = :id")
@@ -127,6 +132,7 @@ public class UserDAOImpl implements UserDAO {
             session.getTransaction().commit();
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
 
@@ -141,10 +147,11 @@ public class UserDAOImpl implements UserDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.refresh(userEntity);
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
@@ -156,10 +163,11 @@ public class UserDAOImpl implements UserDAO {
             return;
         }
 
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+        try (Session session = HibernateUtil.openSession()) {
             session.detach(userEntity);
         } catch (Exception e) {
             LOG.severe(e.getMessage());
+            DAOMetrics.error();
             e.printStackTrace();
         }
     }
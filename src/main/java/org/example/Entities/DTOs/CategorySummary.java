@@ -0,0 +1,17 @@
+package org.example.Entities.DTOs;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of a category with the aggregates of its products, computed by the DB (GROUP BY). <br>
+ * Unlike the entities, it isn't registered in the persistence context (no snapshot, no dirty checking, no proxies),
+ * see {@code CategoryDAO.listSummaries()}.
+ *
+ * @param id           id of the category
+ * @param name         name of the category
+ * @param productCount number of products of the category (0 if it hasn't products)
+ * @param minPrice     lowest price of its products, null if it hasn't products (or prices)
+ * @param maxPrice     highest price of its products, null if it hasn't products (or prices)
+ */
+public record CategorySummary(Long id, String name, long productCount, BigDecimal minPrice, BigDecimal maxPrice) {
+}
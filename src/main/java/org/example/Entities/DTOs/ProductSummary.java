@@ -0,0 +1,16 @@
+package org.example.Entities.DTOs;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of a product with the name of its category (single query, without loading the CategoryEntity),
+ * see {@code ProductDAOImpl.listSummaries()}.
+ *
+ * @param id           id of the product
+ * @param name         name of the product
+ * @param price        price of the product
+ * @param categoryId   id of its category, null if it hasn't category
+ * @param categoryName name of its category, null if it hasn't category
+ */
+public record ProductSummary(Long id, String name, BigDecimal price, Long categoryId, String categoryName) {
+}
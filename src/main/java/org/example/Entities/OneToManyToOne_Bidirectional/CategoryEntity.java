@@ -1,6 +1,15 @@
 package org.example.Entities.OneToManyToOne_Bidirectional;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import org.hibernate.envers.Audited;
 import org.hibernate.envers.NotAudited;
 import org.hibernate.envers.RelationTargetAuditMode;
@@ -11,24 +20,48 @@ import java.util.*;
 import static org.example.Entities.OneToManyToOne_Bidirectional.ProductEntity.ATTR_ID;
 
 @Entity
-@Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CategoryEntity.CACHE_REGION)
+// (name, id) index: keyset pagination ordered by name, see CategoryCursor
+@Table(name = "categories", indexes = @Index(name = "categories_name_id_idx", columnList = "name, id"))
 public class CategoryEntity {
     public static final String ATTR_ID = "id";
     public static final String ATTR_NAME = "name";
     public static final String ATTR_PRODUCTS = "products";
+    public static final String ATTR_VERSION = "version";
     public static final String TABLE_NAME = "categories";
     public static final String SCHEMA_NAME = "tienda";
-
+    public static final String SEQUENCE_NAME = "categories_id_seq";
+    public static final int ALLOCATION_SIZE = 50;
+    // Second level cache regions (ehcache.xml)
+    public static final String CACHE_REGION = "tienda.categories";
+    public static final String PRODUCTS_CACHE_REGION = "tienda.categories.products";
+    public static final String QUERY_BY_NAME_CACHE_REGION = "tienda.query.categoryByName";
+    // Collections of products initialized per query of the categories loaded by id
+    public static final int PRODUCTS_BATCH_SIZE = 100;
+
+    // IDENTITY disables the JDBC batching (each INSERT is executed immediately to get the id),
+    // with a pooled sequence Hibernate reserves `allocation_size` ids in a single round-trip
     @Id
-//    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_id_seq")
-//    @SequenceGenerator(name = "categories_id_seq", sequenceName = "categories_id_seq", allocationSize = 50)
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = CategoryIdGenerator.NAME)
+    @GenericGenerator(name = CategoryIdGenerator.NAME, type = CategoryIdGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = CategoryEntity.SEQUENCE_NAME),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "" + CategoryEntity.ALLOCATION_SIZE)
+    })
     private java.lang.Long id;
 
 
     @Column(length = 100, nullable = false, unique = true)
     private String name;
 
+    // Optimistic locking: UPDATE ... SET version = version + 1 WHERE id = ? AND version = ?
+    // if no row is updated, someone else modified it -> OptimisticLockException
+    // (default 0: rows inserted with native SQL)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private java.lang.Long version;
+
 
 
 
@@ -55,6 +88,13 @@ public class CategoryEntity {
 
 
 
+    // Initializing the products of a category also initializes the products of the other categories of the session
+    // in the same query instead of a query per category (N+1):
+    // - loaded by a query: the products of all of them, the query is repeated as a subselect ("WHERE category_id IN (SELECT ...)")
+    // - loaded by id: the products of up to PRODUCTS_BATCH_SIZE categories, "WHERE category_id = any(?)"
+    @Fetch(FetchMode.SUBSELECT)
+    @BatchSize(size = CategoryEntity.PRODUCTS_BATCH_SIZE)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CategoryEntity.PRODUCTS_CACHE_REGION)
     @OneToMany(/*cascade = {CascadeType.ALL},*/fetch = FetchType.LAZY, mappedBy = "category", orphanRemoval = true, targetEntity = ProductEntity.class)
     private List<ProductEntity> products = new ArrayList<>();
 
@@ -91,6 +131,14 @@ public class CategoryEntity {
         this.name = name;
     }
 
+    public java.lang.Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(java.lang.Long version) {
+        this.version = version;
+    }
+
     public List<ProductEntity> getProducts() {
         return products;
     }
@@ -0,0 +1,43 @@
+package org.example.Entities.OneToManyToOne_Bidirectional;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.OptimizableGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator of {@link CategoryEntity} ids. <br>
+ * Same as {@link SequenceStyleGenerator}, but the allocation size (increment of the sequence) can be overridden
+ * in <b>hibernate.cfg.xml</b> without recompiling the entity:
+ * <pre>
+ * {@code
+ * <property name="tienda.categories.allocation_size">100</property>
+ * <!-- pooled (default) or pooled-lo -->
+ * <property name="hibernate.id.optimizer.pooled.preferred">pooled-lo</property>
+ * }
+ * </pre>
+ * PD: The DDL of the sequence uses the same value, if the DB already exists (hbm2ddl != create) the sequence
+ * must be altered manually: {@code ALTER SEQUENCE tienda.categories_id_seq INCREMENT BY 100;}
+ */
+public class CategoryIdGenerator extends SequenceStyleGenerator {
+    public static final String NAME = "categories_id_generator";
+    public static final String ALLOCATION_SIZE_SETTING = "tienda.categories.allocation_size";
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        Object allocationSize = serviceRegistry
+                .getService(ConfigurationService.class)
+                .getSettings()
+                .get(ALLOCATION_SIZE_SETTING);
+
+        if (allocationSize != null) {
+            parameters.put(OptimizableGenerator.INCREMENT_PARAM, allocationSize.toString().trim());
+        }
+
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
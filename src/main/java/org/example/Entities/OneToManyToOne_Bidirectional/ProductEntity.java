@@ -1,27 +1,48 @@
 package org.example.Entities.OneToManyToOne_Bidirectional;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.envers.Audited;
 import org.hibernate.envers.RelationTargetAuditMode;
 
 import java.math.BigDecimal;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ProductEntity.CACHE_REGION)
 @Table(name = "products")
-@NamedQuery(name = "ProductEntity.find10Cheapest", query = "SELECT p FROM ProductEntity p ORDER BY p.price ASC LIMIT 10")
+@NamedQuery(name = ProductEntity.QUERY_FIND_10_CHEAPEST, query = "SELECT p FROM ProductEntity p ORDER BY p.price ASC LIMIT 10")
+// Fetch plans of the DAOs (see ProductFetchPlan), the attributes that aren't in the graph are LAZY
+@NamedEntityGraph(name = ProductEntity.GRAPH_BASIC, attributeNodes = {
+        @NamedAttributeNode(ProductEntity.ATTR_NAME),
+        @NamedAttributeNode(ProductEntity.ATTR_DESCRIPTION),
+        @NamedAttributeNode(ProductEntity.ATTR_PRICE)})
+@NamedEntityGraph(name = ProductEntity.GRAPH_WITH_CATEGORY, attributeNodes = {
+        @NamedAttributeNode(ProductEntity.ATTR_NAME),
+        @NamedAttributeNode(ProductEntity.ATTR_DESCRIPTION),
+        @NamedAttributeNode(ProductEntity.ATTR_PRICE),
+        @NamedAttributeNode(ProductEntity.ATTR_CATEGORY)})
 public class ProductEntity {
     public static final String ATTR_ID = "id";
     public static final String ATTR_NAME = "name";
     public static final String ATTR_DESCRIPTION = "description";
     public static final String ATTR_PRICE = "price";
     public static final String ATTR_CATEGORY = "category";
+    public static final String ATTR_VERSION = "version";
     public static final String FIELD_CATEGORY = "category_id";
     public static final String TABLE_NAME = "products";
     public static final String SCHEMA_NAME = "tienda";
+    public static final String SEQUENCE_NAME = "name_of_sequence_in_db";
+    public static final String CACHE_REGION = "tienda.products";
+    public static final String QUERY_FIND_10_CHEAPEST = "ProductEntity.find10Cheapest";
+    public static final String GRAPH_BASIC = "product.basic";
+    public static final String GRAPH_WITH_CATEGORY = "product.withCategory";
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "name_for_reference")
-    @SequenceGenerator(name = "name_for_reference", sequenceName = "name_of_sequence_in_db", allocationSize = 100)
+    @SequenceGenerator(name = "name_for_reference", sequenceName = ProductEntity.SEQUENCE_NAME, allocationSize = 100)
     private java.lang.Long id;
 
     @Column(length = 100, nullable = false, unique = true)
@@ -33,10 +54,18 @@ public class ProductEntity {
     @Column(precision = 7, scale = 2)
     private BigDecimal price;
 
+    // Optimistic locking, see CategoryEntity.version
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private java.lang.Long version;
+
     //=================== One to many ||| bidirectional ===================\\
     // - Many is the owner of the relationship (have the @JoinColumn), Relationship is inverse
     // - Must add "MANY" entity explicitly in the "ONE" entity, when "ONE" is set (this can also be done in the "ONE")
-    @ManyToOne(/*cascade = {CascadeType.ALL},*/ fetch = FetchType.EAGER, targetEntity = CategoryEntity.class, optional = true)
+    // - LAZY: a product load doesn't join/select its category (EAGER did it in every query, N+1 in listAll),
+    //   the category is a proxy (its id is available) unless it's fetched with GRAPH_WITH_CATEGORY or a JOIN FETCH
+    @ManyToOne(/*cascade = {CascadeType.ALL},*/ fetch = FetchType.LAZY, targetEntity = CategoryEntity.class, optional = true)
     @JoinColumn(name = "category_id")
     private CategoryEntity category;
 
@@ -97,6 +126,14 @@ public class ProductEntity {
         return category;
     }
 
+    public java.lang.Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(java.lang.Long version) {
+        this.version = version;
+    }
+
 
     @Override
     public String toString() {
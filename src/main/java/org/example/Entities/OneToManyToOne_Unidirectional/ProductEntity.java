@@ -5,8 +5,10 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "products")
+@Table(name = ProductEntity.TABLE_NAME)
 public class ProductEntity {
+    public static final String TABLE_NAME = "products";
+    public static final String SCHEMA_NAME = "tienda";
 
     @Id
 //    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_id_seq")
@@ -0,0 +1,336 @@
+package org.example.Load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOCriteria;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.DAOMetrics;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Closed-loop load generator of the {@link CategoryDAO}: N threads (platform or virtual) execute operations of a
+ * weighted {@link Mix} one after another, without think time, for a fixed duration.
+ * <ol>
+ *     <li>Inserts {@code rows} categories (named {@code load-<run>-<n>}), the targets of findById, findByName and merge.
+ *     If not all of them are inserted the run fails.</li>
+ *     <li>Warmup: the mix is executed but nothing is recorded (JIT, caches, connection pool).</li>
+ *     <li>Measurement: latency of each operation (HdrHistogram), errors ({@link DAOMetrics}: exceptions thrown or caught
+ *     by the DAO), lock waits of the database ({@link LockWaitSampler}) and monitor contention of the threads.</li>
+ *     <li>Deletes the categories of the run.</li>
+ * </ol>
+ * deleteById deletes the categories inserted by persist during the run, if there is none it's skipped (counted in the report). <br>
+ * merge renames a random category (adding/removing a {@code ~}), it's a pessimistic merge in CategoryDAOImpl:
+ * concurrent merges of the same row wait for its lock, fewer {@code rows} means more contention. <br>
+ * CategoryDAONative doesn't implement listPagination: it's removed from the default mix and rejected in a given one.
+ * <p>
+ * PD: Closed loop, when the database is slow the threads send fewer requests (coordinated omission),
+ * the latencies are the ones of the requests that were sent, not the ones of a constant arrival rate.
+ */
+public class LoadGenerator {
+    private static final Logger LOGGER = Logger.getLogger(LoadGenerator.class.getName());
+    private static final String NAME_PREFIX = "load-";
+    private static final Duration LOCK_SAMPLE_INTERVAL = Duration.ofMillis(20);
+
+    private final Options options;
+    private final SessionFactory sessionFactory;
+    private final CategoryDAO categoryDAO;
+    private final String runPrefix = NAME_PREFIX + UUID.randomUUID().toString().substring(0, 8) + "-";
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Measurement
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder blockedCount = new LongAdder();
+    private final LongAdder blockedMillis = new LongAdder();
+
+    private List<CategoryEntity> categories;
+    private final Queue<Long> inserted = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Configuration of a run, see {@link #parse(String[])} for the arguments of Main.
+     *
+     * @param threads        number of threads executing operations
+     * @param virtualThreads virtual threads instead of platform threads
+     * @param duration       duration of the measurement
+     * @param warmup         duration of the warmup, before the measurement
+     * @param mix            weighted operations
+     * @param implementation CategoryDAO implementation: Impl (HQL), Native (SQL) or Criteria
+     * @param rows           categories inserted before the run
+     * @param pageSize       results per page of listPagination
+     */
+    public record Options(int threads, boolean virtualThreads, Duration duration, Duration warmup, Mix mix,
+                          String implementation, int rows, int pageSize) {
+        public static final String USAGE = """
+                Arguments (all optional):
+                  --threads=N          threads executing operations (default 8)
+                  --virtual            virtual threads instead of platform threads
+                  --duration=30s       duration of the measurement (ms, s or m)
+                  --warmup=5s          duration of the warmup, not measured
+                  --mix=findById:40,findByName:20,listPagination:20,persist:10,merge:5,deleteById:5
+                  --dao=Impl           CategoryDAO implementation: Impl, Native (without listPagination) or Criteria
+                  --rows=1000          categories inserted before the run (fewer rows, more lock contention)
+                  --page-size=20       results per page of listPagination
+                The connection is the one of hibernate.cfg.xml, overridable with -Dhibernate.connection.url=...""";
+
+        public Options {
+            if (threads < 1) throw new IllegalArgumentException("threads must be > 0");
+            if (duration.isNegative() || duration.isZero()) throw new IllegalArgumentException("duration must be > 0");
+            if (warmup.isNegative()) throw new IllegalArgumentException("warmup can't be negative");
+            if (rows < 1) throw new IllegalArgumentException("rows must be > 0");
+            if (pageSize < 1) throw new IllegalArgumentException("page size must be > 0");
+            if (implementation.equals("Native") && mix.getWeights().containsKey(Operation.LIST_PAGINATION)) {
+                if (mix != Mix.DEFAULT) throw new IllegalArgumentException("listPagination isn't implemented by the Native DAO");
+                mix = mix.without(Operation.LIST_PAGINATION);
+            }
+        }
+
+        /**
+         * @param args {@code --name=value} arguments, see {@link #USAGE}
+         * @return the options, with the defaults for the missing arguments
+         * @throws IllegalArgumentException if an argument is unknown or invalid
+         */
+        public static Options parse(String[] args) {
+            int threads = 8;
+            boolean virtualThreads = false;
+            Duration duration = Duration.ofSeconds(30);
+            Duration warmup = Duration.ofSeconds(5);
+            Mix mix = Mix.DEFAULT;
+            String implementation = "Impl";
+            int rows = 1000;
+            int pageSize = 20;
+
+            for (String arg : args) {
+                String[] parts = arg.split("=", 2);
+                String value = (parts.length == 2) ? parts[1] : null;
+                switch (parts[0]) {
+                    case "--threads" -> threads = Integer.parseInt(required(parts[0], value));
+                    case "--virtual" -> virtualThreads = (value == null) || Boolean.parseBoolean(value);
+                    case "--duration" -> duration = duration(required(parts[0], value));
+                    case "--warmup" -> warmup = duration(required(parts[0], value));
+                    case "--mix" -> mix = Mix.parse(required(parts[0], value));
+                    case "--dao" -> implementation = required(parts[0], value);
+                    case "--rows" -> rows = Integer.parseInt(required(parts[0], value));
+                    case "--page-size" -> pageSize = Integer.parseInt(required(parts[0], value));
+                    default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+                }
+            }
+            return new Options(threads, virtualThreads, duration, warmup, mix, implementation, rows, pageSize);
+        }
+
+        private static String required(String name, String value) {
+            if (value == null || value.isBlank()) throw new IllegalArgumentException(name + " needs a value");
+            return value;
+        }
+
+        /**
+         * @param value {@code 500ms}, {@code 30s}, {@code 2m} or seconds without unit
+         */
+        static Duration duration(String value) {
+            if (value.endsWith("ms")) return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+            if (value.endsWith("s")) return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+            if (value.endsWith("m")) return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+            return Duration.ofSeconds(Long.parseLong(value));
+        }
+    }
+
+    public LoadGenerator(Options options) {
+        this.options = options;
+        this.sessionFactory = HibernateUtil.getSessionFactory();
+        this.categoryDAO = DAOMetrics.instrument(CategoryDAO.class, switch (options.implementation()) {
+            case "Impl" -> new CategoryDAOImpl();
+            case "Native" -> new CategoryDAONative();
+            case "Criteria" -> new CategoryDAOCriteria();
+            default -> throw new IllegalArgumentException("Unknown implementation: " + options.implementation());
+        });
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(TimeUnit.HOURS.toNanos(1), 3));
+        }
+    }
+
+    /**
+     * Executes the run: insert the categories, warmup, measurement and cleanup.
+     *
+     * @return throughput, latencies, errors and lock waits of the measurement
+     * @throws InterruptedException if the thread is interrupted while waiting the workers
+     */
+    public LoadReport run() throws InterruptedException {
+        insertCategories();
+        LockWaitSampler lockWaitSampler = new LockWaitSampler(sessionFactory, LOCK_SAMPLE_INTERVAL);
+        Thread sampler = null;
+        if (lockWaitSampler.isSupported()) sampler = Thread.ofPlatform().daemon().name("load-lock-sampler").start(lockWaitSampler);
+
+        try {
+            long start = System.nanoTime();
+            long measureStart = start + options.warmup().toNanos();
+            long end = measureStart + options.duration().toNanos();
+
+            ThreadFactory factory = options.virtualThreads()
+                    ? Thread.ofVirtual().name("load-", 0).factory()
+                    : Thread.ofPlatform().name("load-", 0).factory();
+            List<Thread> workers = new ArrayList<>(options.threads());
+            for (int i = 0; i < options.threads(); i++) {
+                Thread worker = factory.newThread(() -> work(measureStart, end));
+                workers.add(worker);
+                worker.start();
+            }
+
+            // Warmup, then the DAO metrics are reset so they only have the measurement
+            sleepUntil(measureStart);
+            DAOMetrics.reset();
+            sessionFactory.getStatistics().clear();
+            lockWaitSampler.startMeasuring();
+
+            for (Thread worker : workers) worker.join();
+            long measuredNanos = Math.max(System.nanoTime() - measureStart, 1);
+
+            return new LoadReport(options, measuredNanos, latencies, errors(), skipped.sum(),
+                    lockWaitSampler.toString(),
+                    options.virtualThreads() ? -1 : blockedCount.sum(), blockedMillis.sum(),
+                    DAOMetrics.dump());
+        } finally {
+            lockWaitSampler.stop();
+            if (sampler != null) sampler.join();
+            deleteCategories();
+        }
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) TimeUnit.NANOSECONDS.sleep(remaining);
+    }
+
+    private void work(long measureStart, long end) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        ThreadInfo startInfo = null;
+
+        for (long now = System.nanoTime(); now < end; now = System.nanoTime()) {
+            boolean measuring = now >= measureStart;
+            // Monitor contention of the platform thread (null for virtual threads), since the start of the measurement
+            if (measuring && startInfo == null && !options.virtualThreads()) startInfo = threads.getThreadInfo(Thread.currentThread().threadId());
+
+            Operation operation = options.mix().next();
+            long start = System.nanoTime();
+            boolean executed;
+            try {
+                executed = execute(operation);
+            } catch (RuntimeException e) {
+                // Counted as error by DAOMetrics, the worker goes on
+                executed = true;
+            }
+            if (!measuring) continue;
+
+            if (executed) latencies.get(operation).recordValue(Math.min(System.nanoTime() - start, TimeUnit.HOURS.toNanos(1)));
+            else skipped.increment();
+        }
+
+        if (startInfo != null) {
+            ThreadInfo endInfo = threads.getThreadInfo(Thread.currentThread().threadId());
+            blockedCount.add(endInfo.getBlockedCount() - startInfo.getBlockedCount());
+            if (startInfo.getBlockedTime() >= 0) blockedMillis.add(endInfo.getBlockedTime() - startInfo.getBlockedTime());
+        }
+    }
+
+    /**
+     * @return false if the operation couldn't be executed (deleteById without inserted categories)
+     */
+    private boolean execute(Operation operation) {
+        switch (operation) {
+            case FIND_BY_ID -> categoryDAO.findById(randomCategory().getId());
+            case FIND_BY_NAME -> categoryDAO.findByName(randomCategory().getName());
+            case LIST_PAGINATION -> {
+                int pages = Math.max(options.rows() / options.pageSize(), 1);
+                categoryDAO.listPagination(ThreadLocalRandom.current().nextInt(pages) + 1, options.pageSize());
+            }
+            case PERSIST -> {
+                CategoryEntity category = new CategoryEntity(null, runPrefix + "new-" + sequence.incrementAndGet());
+                categoryDAO.persist(category);
+                if (category.getId() != null) inserted.add(category.getId());
+            }
+            case MERGE -> {
+                categoryDAO.findById(randomCategory().getId()).ifPresent(category -> {
+                    String name = category.getName();
+                    category.setName(name.endsWith("~") ? name.substring(0, name.length() - 1) : name + "~");
+                    categoryDAO.merge(category);
+                });
+            }
+            case DELETE_BY_ID -> {
+                Long id = inserted.poll();
+                if (id == null) return false;
+                categoryDAO.deleteById(id);
+            }
+        }
+        return true;
+    }
+
+    private CategoryEntity randomCategory() {
+        return categories.get(ThreadLocalRandom.current().nextInt(categories.size()));
+    }
+
+    private Map<Operation, Long> errors() {
+        String dao = daoName();
+        Map<Operation, Long> errors = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            errors.put(operation, DAOMetrics.get(dao, operation.getMethod()).getErrors());
+        }
+        return errors;
+    }
+
+    private String daoName() {
+        return switch (options.implementation()) {
+            case "Native" -> CategoryDAONative.class.getSimpleName();
+            case "Criteria" -> CategoryDAOCriteria.class.getSimpleName();
+            default -> CategoryDAOImpl.class.getSimpleName();
+        };
+    }
+
+    private void insertCategories() {
+        categories = IntStream.range(0, options.rows())
+                .mapToObj(i -> new CategoryEntity(null, runPrefix + i))
+                .toList();
+        int persisted = new CategoryDAOImpl().persistAll(categories);
+        if (persisted != options.rows()) {
+            deleteCategories();
+            throw new IllegalStateException("Only " + persisted + " of " + options.rows() + " categories inserted " + runPrefix + "*");
+        }
+        LOGGER.info("Inserted " + categories.size() + " categories " + runPrefix + "*");
+    }
+
+    private void deleteCategories() {
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            int deleted = session.createMutationQuery("DELETE FROM CategoryEntity c WHERE c.name LIKE :prefix")
+                    .setParameter("prefix", runPrefix + "%")
+                    .executeUpdate();
+            session.getTransaction().commit();
+            sessionFactory.getCache().evictEntityData(CategoryEntity.class);
+            sessionFactory.getCache().evictQueryRegions();
+            LOGGER.info("Deleted " + deleted + " categories " + runPrefix + "*");
+        } catch (Exception e) {
+            LOGGER.warning("Categories " + runPrefix + "* not deleted: " + e.getMessage());
+        }
+    }
+}
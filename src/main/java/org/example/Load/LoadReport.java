@@ -0,0 +1,129 @@
+package org.example.Load;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a {@link LoadGenerator} run, {@link #toString()} is the report printed by Main:
+ * a line per operation with its throughput, error rate and latency percentiles (ms), the total,
+ * the lock waits and the {@link org.example.Util.Metrics.DAOMetrics} of the measurement (JDBC, hydration and flush time).
+ */
+public class LoadReport {
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadGenerator.Options options;
+    private final long measuredNanos;
+    private final Map<Operation, Histogram> latencies;
+    private final Map<Operation, Long> errors;
+    private final Histogram total;
+    private final long skipped;
+    private final String databaseLockWaits;
+    private final long blockedCount;
+    private final long blockedMillis;
+    private final String daoMetrics;
+
+    /**
+     * @param blockedCount times the threads were blocked on a monitor, -1 if it isn't available (virtual threads)
+     */
+    LoadReport(LoadGenerator.Options options, long measuredNanos, Map<Operation, Histogram> latencies,
+               Map<Operation, Long> errors, long skipped, String databaseLockWaits,
+               long blockedCount, long blockedMillis, String daoMetrics) {
+        this.options = options;
+        this.measuredNanos = measuredNanos;
+        this.latencies = new EnumMap<>(latencies);
+        this.errors = new EnumMap<>(errors);
+        this.skipped = skipped;
+        this.databaseLockWaits = databaseLockWaits;
+        this.blockedCount = blockedCount;
+        this.blockedMillis = blockedMillis;
+        this.daoMetrics = daoMetrics;
+
+        Histogram histogram = null;
+        for (Histogram latency : latencies.values()) {
+            if (histogram == null) histogram = latency.copy();
+            else histogram.add(latency);
+        }
+        this.total = histogram;
+    }
+
+    public long getOperations(Operation operation) {
+        return latencies.get(operation).getTotalCount();
+    }
+
+    public long getOperations() {
+        return total.getTotalCount();
+    }
+
+    public long getErrors(Operation operation) {
+        return errors.get(operation);
+    }
+
+    public long getErrors() {
+        return errors.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * @return deleteById executed when there weren't categories inserted by the run
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * @return operations per second of the measurement
+     */
+    public double getThroughput() {
+        return getOperations() / seconds();
+    }
+
+    /**
+     * @param percentile e.g. 99.9
+     * @return latency of all the operations at the percentile, in milliseconds
+     */
+    public double getLatencyMillis(double percentile) {
+        return millis(total.getValueAtPercentile(percentile));
+    }
+
+    private double seconds() {
+        return measuredNanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private String line(String name, Histogram histogram, long errors) {
+        long count = histogram.getTotalCount();
+        StringBuilder sb = new StringBuilder(String.format("%-16s %10d %10.1f %8d %7.2f%%",
+                name, count, count / seconds(), errors, (count == 0) ? 0.0 : 100.0 * errors / count));
+        for (double percentile : PERCENTILES) sb.append(String.format(" %9.3f", millis(histogram.getValueAtPercentile(percentile))));
+        sb.append(String.format(" %9.3f%n", millis(histogram.getMaxValue())));
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Load: %d %s threads, %.1f s measured (warmup %d s), %s, %d rows, mix %s%n",
+                options.threads(), options.virtualThreads() ? "virtual" : "platform", seconds(),
+                options.warmup().toSeconds(), options.implementation(), options.rows(), options.mix()));
+        sb.append(String.format("%-16s %10s %10s %8s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "ops", "ops/s", "errors", "err", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Operation operation : options.mix().getWeights().keySet()) {
+            sb.append(line(operation.getMethod(), latencies.get(operation), errors.get(operation)));
+        }
+        sb.append(line("total", total, getErrors()));
+        if (skipped > 0) sb.append("deleteById skipped (no inserted categories): ").append(skipped).append('\n');
+
+        sb.append("Lock waits (database): ").append(databaseLockWaits).append('\n');
+        sb.append("Lock waits (JVM monitors): ")
+                .append((blockedCount < 0) ? "not available for virtual threads"
+                        : String.format("%d blocked, %d ms", blockedCount, blockedMillis))
+                .append('\n');
+        sb.append(daoMetrics);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.Load;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.logging.Logger;
+
+/**
+ * Samples periodically the sessions of the database that are waiting for a lock (row locks of
+ * {@code SELECT ... FOR UPDATE}, unique index checks of concurrent INSERTs...):
+ * <ul>
+ *     <li>PostgreSQL: {@code pg_stat_activity} with {@code wait_event_type = 'Lock'}.</li>
+ *     <li>H2: {@code INFORMATION_SCHEMA.SESSIONS} with a {@code BLOCKER_ID}.</li>
+ * </ul>
+ * The waiting time is estimated as {@code waiters * interval} of each sample. <br>
+ * PD: Other databases aren't sampled ({@link #isSupported()} false). The samples include every session of the database,
+ * not only the ones of the load generator.
+ */
+final class LockWaitSampler implements Runnable {
+    private static final Logger LOGGER = Logger.getLogger(LockWaitSampler.class.getName());
+
+    private final SessionFactory sessionFactory;
+    private final Duration interval;
+    private final String sql;
+    private volatile boolean running = true;
+    private volatile boolean measuring;
+
+    private long samples;
+    private long samplesWithWaiters;
+    private long waiters;
+    private long maxWaiters;
+
+    LockWaitSampler(SessionFactory sessionFactory, Duration interval) {
+        this.sessionFactory = sessionFactory;
+        this.interval = interval;
+        this.sql = sql(sessionFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect());
+    }
+
+    private static String sql(Dialect dialect) {
+        if (dialect instanceof PostgreSQLDialect) {
+            return "SELECT count(*) FROM pg_stat_activity WHERE datname = current_database() AND wait_event_type = 'Lock'";
+        }
+        if (dialect instanceof H2Dialect) {
+            return "SELECT count(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID IS NOT NULL";
+        }
+        return null;
+    }
+
+    boolean isSupported() {
+        return sql != null;
+    }
+
+    /**
+     * The samples taken before (warmup) aren't counted
+     */
+    void startMeasuring() {
+        measuring = true;
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                long count = count();
+                if (measuring) record(count);
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOGGER.warning("Lock wait sampling stopped: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private long count() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql);
+                     ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getLong(1);
+                }
+            });
+        }
+    }
+
+    private synchronized void record(long count) {
+        samples++;
+        waiters += count;
+        maxWaiters = Math.max(maxWaiters, count);
+        if (count > 0) samplesWithWaiters++;
+    }
+
+    /**
+     * @return line with the samples with waiters, the maximum waiters and the estimated waiting time
+     */
+    @Override
+    public synchronized String toString() {
+        if (!isSupported()) return "not sampled (database not supported)";
+        if (samples == 0) return "no samples";
+        return String.format("%.1f%% of %d samples with waiters, max %d waiting, ~%.1f ms waiting (every %d ms)",
+                100.0 * samplesWithWaiters / samples, samples, maxWaiters,
+                (double) waiters * interval.toNanos() / 1_000_000.0, interval.toMillis());
+    }
+}
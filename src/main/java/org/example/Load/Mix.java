@@ -0,0 +1,99 @@
+package org.example.Load;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Weighted mix of operations, e.g. {@code findById:40,findByName:20,listPagination:20,persist:10,merge:5,deleteById:5}
+ * (the weights are relative, they don't have to add up to 100). <br>
+ * Each call of {@link #next()} picks an operation with probability {@code weight / total}.
+ */
+public final class Mix {
+    public static final Mix DEFAULT = parse("findById:40,findByName:20,listPagination:20,persist:10,merge:5,deleteById:5");
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    // Cumulative weights of operations, next() searches a random number in [0, total)
+    private final int[] cumulative;
+    private final int total;
+
+    private Mix(Map<Operation, Integer> weights) {
+        this.weights = Collections.unmodifiableMap(weights);
+        this.operations = weights.keySet().toArray(Operation[]::new);
+        this.cumulative = new int[operations.length];
+
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += weights.get(operations[i]);
+            cumulative[i] = sum;
+        }
+        this.total = sum;
+    }
+
+    /**
+     * @param mix comma separated {@code operation:weight}, operations not present (or with weight 0) aren't executed
+     * @return the mix
+     * @throws IllegalArgumentException if an operation is unknown or repeated, a weight isn't a positive number or all are 0
+     */
+    public static Mix parse(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) throw new IllegalArgumentException("Expected operation:weight, found: " + entry);
+
+            Operation operation = Operation.of(parts[0].trim());
+            int weight;
+            try {
+                weight = Integer.parseInt(parts[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Weight of " + operation.getMethod() + " isn't a number: " + parts[1]);
+            }
+            if (weight < 0) throw new IllegalArgumentException("Weight of " + operation.getMethod() + " can't be negative");
+            if (weights.containsKey(operation)) throw new IllegalArgumentException("Repeated operation: " + operation.getMethod());
+            if (weight > 0) weights.put(operation, weight);
+        }
+        if (weights.isEmpty()) throw new IllegalArgumentException("The mix needs at least one operation with weight > 0");
+        return new Mix(weights);
+    }
+
+    /**
+     * @return a random operation of the mix, thread-safe
+     */
+    public Operation next() {
+        int value = ThreadLocalRandom.current().nextInt(total);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (value < cumulative[i]) return operations[i];
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * @param operation operation to remove
+     * @return the mix without the operation, with the same weights for the others
+     * @throws IllegalArgumentException if it's the only operation of the mix
+     */
+    public Mix without(Operation operation) {
+        Map<Operation, Integer> remaining = new EnumMap<>(Operation.class);
+        remaining.putAll(weights);
+        remaining.remove(operation);
+        if (remaining.isEmpty()) throw new IllegalArgumentException("The mix needs at least one operation with weight > 0");
+        return new Mix(remaining);
+    }
+
+    /**
+     * @return weight of each operation of the mix
+     */
+    public Map<Operation, Integer> getWeights() {
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return weights.entrySet().stream()
+                .map(entry -> entry.getKey().getMethod() + ":" + entry.getValue())
+                .collect(Collectors.joining(","));
+    }
+}
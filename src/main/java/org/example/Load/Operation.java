@@ -0,0 +1,43 @@
+package org.example.Load;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Operations of the load generator, each one is a call of the {@link org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO}
+ * method with the same name (merge also loads the category with findById first).
+ */
+public enum Operation {
+    FIND_BY_ID("findById"),
+    FIND_BY_NAME("findByName"),
+    LIST_PAGINATION("listPagination"),
+    PERSIST("persist"),
+    MERGE("merge"),
+    DELETE_BY_ID("deleteById");
+
+    private final String method;
+
+    Operation(String method) {
+        this.method = method;
+    }
+
+    /**
+     * @return name of the DAO method, used in the mix ({@code findById:40,...}) and in the report
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @param method name of the DAO method, e.g. {@code findById}
+     * @return the operation of the method
+     * @throws IllegalArgumentException if there is no operation with that name
+     */
+    public static Operation of(String method) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.method.equalsIgnoreCase(method))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation: " + method + ", expected one of "
+                        + Arrays.stream(values()).map(Operation::getMethod).collect(Collectors.joining(", "))));
+    }
+}
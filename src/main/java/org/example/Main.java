@@ -1,10 +1,32 @@
 package org.example;
 
+import org.example.Load.LoadGenerator;
+import org.example.Load.LoadReport;
 import org.example.Util.HibernateUtil;
-import org.hibernate.SessionFactory;
 
+/**
+ * Load generator of the CategoryDAO against the database of hibernate.cfg.xml, see {@link LoadGenerator}. <br>
+ * {@code mvn compile exec:java -Dexec.mainClass=org.example.Main -Dexec.args="--threads=32 --virtual --duration=60s"}
+ */
 public class Main {
-    public static void main(String[] args) {
-        System.out.println("Hello world!");
+    public static void main(String[] args) throws InterruptedException {
+        LoadGenerator.Options options;
+        try {
+            options = LoadGenerator.Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadGenerator.Options.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try {
+            // Bootstrap and warm-up before the load, the first operations don't measure them
+            HibernateUtil.start();
+            LoadReport report = new LoadGenerator(options).run();
+            System.out.println(report);
+        } finally {
+            HibernateUtil.shutdown();
+        }
     }
-}
\ No newline at end of file
+}
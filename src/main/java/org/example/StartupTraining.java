@@ -0,0 +1,135 @@
+package org.example;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductFetchPlan;
+import org.example.Load.LoadGenerator;
+import org.example.Util.HibernateUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Training run of the application class-data-sharing (AppCDS) archive: the classes loaded by this run
+ * (Hibernate, pgjdbc, HikariCP, the entities and the DAOs) are dumped to the archive at exit
+ * ({@code -XX:ArchiveClassesAtExit}), the next JVMs with {@code -XX:SharedArchiveFile} map them instead of loading,
+ * verifying and linking them again.
+ * <ol>
+ *     <li>Bootstrap of {@link HibernateUtil} (with the warm-up) and the first query, its time since the JVM started
+ *     is printed ("time to first query").</li>
+ *     <li>A short load of every CategoryDAO implementation ({@link LoadGenerator}, the mix of {@link Main}).</li>
+ *     <li>The ProductDAO queries with both fetch plans.</li>
+ * </ol>
+ * Run by the build: {@code mvn package -Pcds -DskipTests}, see the cds profile of pom.xml. <br>
+ * With {@code --first-query} it stops after the first query. {@code --compare=N --archive=<jsa>} measures the time
+ * to first query of N new JVMs without the archive and N with it (the same classpath and settings), prints the medians.
+ * <p>
+ * PD: the archive is only used with the same JDK and the same classpath of the training (a different one is
+ * ignored with a warning) and it only accepts jars: the profile runs the jar of the project, its dependencies
+ * are in target/lib (Class-Path of the manifest).
+ */
+public class StartupTraining {
+    private static final String LOAD_DURATION = "2s";
+    private static final String FIRST_QUERY = "Time to first query: ";
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        boolean firstQueryOnly = false;
+        int compare = 0;
+        String archive = null;
+        for (String arg : args) {
+            if (arg.equals("--first-query")) firstQueryOnly = true;
+            else if (arg.startsWith("--compare=")) compare = Integer.parseInt(arg.substring("--compare=".length()));
+            else if (arg.startsWith("--archive=")) archive = arg.substring("--archive=".length());
+            else throw new IllegalArgumentException("Unknown argument: " + arg);
+        }
+        if (compare > 0) {
+            if (archive == null) throw new IllegalArgumentException("--compare needs --archive");
+            compare(compare, archive);
+            return;
+        }
+        train(firstQueryOnly);
+    }
+
+    private static void train(boolean firstQueryOnly) throws InterruptedException {
+        try {
+            HibernateUtil.start();
+            new CategoryDAONative().findById(1L);
+            long firstQuery = ManagementFactory.getRuntimeMXBean().getUptime();
+            System.out.println(FIRST_QUERY + firstQuery + " ms");
+            if (firstQueryOnly) return;
+
+            for (String implementation : new String[]{"Impl", "Native", "Criteria"}) {
+                LoadGenerator.Options options = LoadGenerator.Options.parse(new String[]{
+                        "--dao=" + implementation, "--threads=2", "--rows=100", "--warmup=0s", "--duration=" + LOAD_DURATION});
+                System.out.println(new LoadGenerator(options).run());
+            }
+
+            ProductDAO productDAO = new ProductDAOImpl();
+            for (ProductFetchPlan plan : ProductFetchPlan.values()) {
+                productDAO.listAll(plan);
+                productDAO.find10Cheapest(plan);
+            }
+            productDAO.listSummaries();
+            productDAO.listAllDTOBasic();
+        } finally {
+            HibernateUtil.shutdown();
+        }
+    }
+
+    /**
+     * Alternates the runs without and with the archive (the page cache and the database are warm for both).
+     */
+    private static void compare(int runs, String archive) throws IOException, InterruptedException {
+        List<Long> without = new ArrayList<>();
+        List<Long> with = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            without.add(firstQuery(null));
+            with.add(firstQuery(archive));
+        }
+        System.out.printf("Time to first query (median of %d JVMs): %d ms without AppCDS, %d ms with %s%n",
+                runs, median(without), median(with), archive);
+    }
+
+    /**
+     * @param archive AppCDS archive, null for the default CDS archive of the JDK only
+     * @return time to first query of a new JVM, in ms
+     */
+    private static long firstQuery(String archive) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (archive != null) command.add("-XX:SharedArchiveFile=" + archive);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        // The same settings of this JVM (e.g. -Dhibernate.connection.url=...)
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(HibernateUtil.OVERRIDE_PREFIX) || name.startsWith(HibernateUtil.APPLICATION_OVERRIDE_PREFIX))
+                .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+        command.add(StartupTraining.class.getName());
+        command.add("--first-query");
+
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        Long time = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(FIRST_QUERY)) time = Long.parseLong(line.substring(FIRST_QUERY.length()).replace(" ms", ""));
+            }
+        }
+        if (process.waitFor() != 0 || time == null) throw new IllegalStateException("The first query failed: " + command);
+        return time;
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = values.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+}
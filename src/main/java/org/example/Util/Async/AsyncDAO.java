@@ -0,0 +1,55 @@
+package org.example.Util.Async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Async facade of a blocking DAO (CategoryDAO, ProductDAO...), created by {@link AsyncDAOExecutor#wrap(Object)}:
+ * every call runs in a virtual thread of the executor.
+ * <pre>
+ * {@code
+ * CompletableFuture<Optional<CategoryEntity>> category = categories.call(dao -> dao.findById(id));
+ * CompletableFuture<Void> saved = categories.run(dao -> dao.persist(newCategory));
+ * }
+ * </pre>
+ * PD: the methods that return a Stream (streamAll) keep a session open until the stream is closed,
+ * the stream must be consumed and closed inside the call.
+ *
+ * @param <D> interface of the DAO
+ */
+public final class AsyncDAO<D> {
+    private final D dao;
+    private final AsyncDAOExecutor executor;
+
+    AsyncDAO(D dao, AsyncDAOExecutor executor) {
+        this.dao = dao;
+        this.executor = executor;
+    }
+
+    /**
+     * @param operation call of the DAO, e.g. {@code dao -> dao.findById(id)}
+     * @return result of the call
+     */
+    public <R> CompletableFuture<R> call(Function<? super D, ? extends R> operation) {
+        return executor.submit(() -> operation.apply(dao));
+    }
+
+    /**
+     * @param operation call of the DAO without result, e.g. {@code dao -> dao.persist(category)}
+     * @return completed when the call ends
+     */
+    public CompletableFuture<Void> run(Consumer<? super D> operation) {
+        return executor.submit(() -> {
+            operation.accept(dao);
+            return null;
+        });
+    }
+
+    /**
+     * @return the blocking DAO
+     */
+    public D getDAO() {
+        return dao;
+    }
+}
@@ -0,0 +1,199 @@
+package org.example.Util.Async;
+
+import org.example.Util.HibernateUtil;
+import org.example.Util.Pool.PoolMetrics;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Runs the DAO calls asynchronously, each one in a new virtual thread, and returns a CompletableFuture
+ * (see {@link AsyncDAO}). <br>
+ * The calls that run at the same time are limited by a semaphore with a permit per connection of the pool
+ * ({@link PoolMetrics#getMaxSize()}, or {@code hibernate.connection.pool_size} of the built-in pool):
+ * the virtual threads are cheap but the connections aren't, thousands of calls would wait in the pool
+ * until its acquire timeout. A call waits for its permit in its virtual thread (it doesn't block any platform thread).
+ * Settings of hibernate.cfg.xml:
+ * <ul>
+ *     <li>{@value #MAX_CONCURRENCY_SETTING}: permits of the semaphore instead of the size of the pool.</li>
+ *     <li>{@value #PINNING_DIAGNOSTICS_SETTING} / {@value #PINNING_THRESHOLD_SETTING}: starts a {@link PinningMonitor},
+ *     pinnings of the carrier threads longer than the threshold (inside the JDBC driver or not).</li>
+ * </ul>
+ * <pre>
+ * {@code
+ * try (AsyncDAOExecutor executor = AsyncDAOExecutor.create()) {
+ *     AsyncDAO<CategoryDAO> categories = executor.wrap(new CategoryDAOImpl());
+ *     AsyncDAO<ProductDAO> products = executor.wrap(new ProductDAOImpl());
+ *     var category = categories.call(dao -> dao.getByIdEager(id));
+ *     var cheapest = products.call(dao -> dao.find10Cheapest(ProductFetchPlan.BASIC));
+ *     CompletableFuture.allOf(category, cheapest).join();
+ * }
+ * }
+ * </pre>
+ * PD: the call runs in another thread, it doesn't join the {@code UnitOfWork} of the caller (a transaction per call).
+ * With read replicas the permits are still the connections of the primary.
+ */
+public final class AsyncDAOExecutor implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(AsyncDAOExecutor.class.getName());
+    public static final String MAX_CONCURRENCY_SETTING = "tienda.async.max_concurrency";
+    public static final String PINNING_DIAGNOSTICS_SETTING = "tienda.async.pinning_diagnostics";
+    public static final String PINNING_THRESHOLD_SETTING = "tienda.async.pinning_threshold_ms";
+    // Default pool_size of DriverManagerConnectionProviderImpl
+    public static final int DEFAULT_BUILTIN_POOL_SIZE = 20;
+    public static final long DEFAULT_PINNING_THRESHOLD_MS = 20;
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dao-async-", 0).factory());
+    private final int maxConcurrency;
+    private final Semaphore permits;
+    private final PinningMonitor pinningMonitor;
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * @param maxConcurrency   calls running at the same time
+     * @param pinningThreshold threshold of the {@link PinningMonitor}, null without it
+     */
+    public AsyncDAOExecutor(int maxConcurrency, Duration pinningThreshold) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be > 0");
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency);
+        this.pinningMonitor = (pinningThreshold == null) ? null : new PinningMonitor(pinningThreshold);
+    }
+
+    /**
+     * @return executor of the SessionFactory of HibernateUtil, configured with its settings
+     */
+    public static AsyncDAOExecutor create() {
+        return create(HibernateUtil.getSessionFactory());
+    }
+
+    public static AsyncDAOExecutor create(SessionFactory sessionFactory) {
+        Map<String, Object> settings = sessionFactory.getProperties();
+        int maxConcurrency = maxConcurrency(sessionFactory);
+        Duration pinningThreshold = Boolean.parseBoolean(String.valueOf(settings.get(PINNING_DIAGNOSTICS_SETTING)).trim())
+                ? Duration.ofMillis(parse(settings.get(PINNING_THRESHOLD_SETTING), DEFAULT_PINNING_THRESHOLD_MS))
+                : null;
+        LOGGER.info("Async DAO executor: virtual threads, " + maxConcurrency + " concurrent calls");
+        return new AsyncDAOExecutor(maxConcurrency, pinningThreshold);
+    }
+
+    /**
+     * @return {@value #MAX_CONCURRENCY_SETTING}, the maximum size of the pool without it
+     */
+    public static int maxConcurrency(SessionFactory sessionFactory) {
+        Map<String, Object> settings = sessionFactory.getProperties();
+        if (settings.get(MAX_CONCURRENCY_SETTING) != null) return (int) parse(settings.get(MAX_CONCURRENCY_SETTING), 0);
+        return PoolMetrics.of(sessionFactory)
+                .map(PoolMetrics::getMaxSize)
+                .orElseGet(() -> (int) parse(settings.get(AvailableSettings.POOL_SIZE), DEFAULT_BUILTIN_POOL_SIZE));
+    }
+
+    private static long parse(Object value, long defaultValue) {
+        return (value == null || value.toString().isBlank()) ? defaultValue : Long.parseLong(value.toString().trim());
+    }
+
+    /**
+     * @param dao the DAO (CategoryDAO, ProductDAO...)
+     * @return the async facade of the DAO, its calls run in this executor
+     */
+    public <D> AsyncDAO<D> wrap(D dao) {
+        return new AsyncDAO<>(dao, this);
+    }
+
+    /**
+     * @param call blocking call, runs in a new virtual thread once it has a permit
+     * @return the result of the call, completed exceptionally if it throws
+     * @throws java.util.concurrent.RejectedExecutionException if the executor is closed
+     */
+    public <R> CompletableFuture<R> submit(Supplier<? extends R> call) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        submitted.increment();
+        executor.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.increment();
+                future.completeExceptionally(e);
+                return;
+            }
+            R result;
+            try {
+                result = call.get();
+            } catch (Throwable e) {
+                permits.release();
+                failed.increment();
+                future.completeExceptionally(e);
+                return;
+            }
+            // Released before completing: the dependent stages that run in this thread don't hold the permit
+            permits.release();
+            future.complete(result);
+        });
+        return future;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return calls running (with a permit)
+     */
+    public int getRunning() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * @return calls waiting for a permit
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * @return calls completed exceptionally
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * @return the pinning monitor, empty if {@value #PINNING_DIAGNOSTICS_SETTING} is disabled
+     */
+    public Optional<PinningMonitor> getPinningMonitor() {
+        return Optional.ofNullable(pinningMonitor);
+    }
+
+    /**
+     * Waits for the calls submitted before and stops the pinning monitor.
+     */
+    @Override
+    public void close() {
+        executor.close();
+        if (pinningMonitor != null) {
+            LOGGER.info(pinningMonitor.toString());
+            pinningMonitor.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AsyncDAOExecutor: maxConcurrency=%d running=%d waiting=%d submitted=%d failed=%d",
+                maxConcurrency, getRunning(), getWaiting(), getSubmitted(), getFailed());
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.Util.Async;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Carrier thread pinning of the virtual threads: a virtual thread that blocks inside a {@code synchronized} block
+ * (or a native frame) can't unmount, it blocks its carrier thread (the ForkJoinPool has as many carriers as cores).
+ * The JDBC drivers are the usual suspects: H2 synchronizes every statement on the session, old pgjdbc versions
+ * synchronized the socket I/O (42.6.0 replaced them with ReentrantLock). <br>
+ * Listens to the JFR event {@value #EVENT} (pinned longer than the threshold) in this JVM, every pinning is attributed
+ * to the first frame of a JDBC driver of its stack trace ("outside the driver" if there isn't any):
+ * the first pinning of a frame is logged with its stack trace, the next ones only counted.
+ * <p>
+ * PD: JFR delivers the events asynchronously (about once per second). Without this monitor,
+ * {@code -Djdk.tracePinnedThreads=short} prints the stack of every pinned thread to stdout.
+ */
+public final class PinningMonitor implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(PinningMonitor.class.getName());
+    public static final String EVENT = "jdk.VirtualThreadPinned";
+    public static final String OUTSIDE_DRIVER = "outside the driver";
+    // Packages of the JDBC drivers of the application (PostgreSQL, H2 in the tests and benchmarks)
+    private static final List<String> DRIVER_PACKAGES = List.of("org.postgresql.", "org.h2.");
+    private static final int LOGGED_FRAMES = 12;
+
+    private final RecordingStream stream;
+    private final LongAdder pinned = new LongAdder();
+    private final LongAdder pinnedInDriver = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final Map<String, LongAdder> byFrame = new ConcurrentHashMap<>();
+
+    /**
+     * @param threshold minimum time pinned of the recorded events
+     */
+    public PinningMonitor(Duration threshold) {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::record);
+        stream.startAsync();
+        LOGGER.info("Virtual thread pinning monitor started, threshold " + threshold.toMillis() + " ms");
+    }
+
+    private void record(RecordedEvent event) {
+        String frame = driverFrame(event.getStackTrace());
+        LongAdder count = byFrame.computeIfAbsent(frame, f -> new LongAdder());
+        count.increment();
+        if (count.sum() == 1) {
+            LOGGER.warning("Virtual thread pinned " + event.getDuration().toMillis() + " ms, " + frame + ":\n" + stack(event.getStackTrace()));
+        }
+
+        maxNanos.accumulateAndGet(event.getDuration().toNanos(), Math::max);
+        if (!frame.equals(OUTSIDE_DRIVER)) pinnedInDriver.increment();
+        // The last one: a reader that sees the pinning also sees its frame and duration
+        pinned.increment();
+    }
+
+    /**
+     * @return first frame of a JDBC driver (class.method), {@link #OUTSIDE_DRIVER} if there isn't any
+     */
+    private static String driverFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) return OUTSIDE_DRIVER;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (!frame.isJavaFrame()) continue;
+            String type = frame.getMethod().getType().getName();
+            if (DRIVER_PACKAGES.stream().anyMatch(type::startsWith)) return type + "." + frame.getMethod().getName();
+        }
+        return OUTSIDE_DRIVER;
+    }
+
+    private static String stack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) return "    (no stack trace)";
+        StringBuilder sb = new StringBuilder();
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (int i = 0; i < Math.min(frames.size(), LOGGED_FRAMES); i++) {
+            RecordedFrame frame = frames.get(i);
+            sb.append("    at ").append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return pinned virtual threads (longer than the threshold)
+     */
+    public long getPinned() {
+        return pinned.sum();
+    }
+
+    /**
+     * @return pinned virtual threads with a JDBC driver frame in their stack
+     */
+    public long getPinnedInDriver() {
+        return pinnedInDriver.sum();
+    }
+
+    public long getMaxPinnedMillis() {
+        return Duration.ofNanos(maxNanos.get()).toMillis();
+    }
+
+    /**
+     * @return pinnings by frame of the JDBC driver (class.method) or {@link #OUTSIDE_DRIVER}
+     */
+    public Map<String, Long> getPinnedByFrame() {
+        Map<String, Long> counts = new TreeMap<>();
+        byFrame.forEach((frame, count) -> counts.put(frame, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Pinning: pinned=%d inDriver=%d max=%dms byFrame=%s",
+                getPinned(), getPinnedInDriver(), getMaxPinnedMillis(), getPinnedByFrame());
+    }
+}
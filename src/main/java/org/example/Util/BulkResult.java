@@ -0,0 +1,32 @@
+package org.example.Util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a bulk operation of {@link StatelessBulk}: rows written and throughput.
+ *
+ * @param operation    INSERT, UPDATE or DELETE
+ * @param entity       name of the entity
+ * @param rows         rows written, 0 if the transaction was rolled back
+ * @param skipped      invalid entities that weren't sent
+ * @param elapsedNanos time of the transaction (from the session opened to the commit)
+ */
+public record BulkResult(String operation, String entity, int rows, int skipped, long elapsedNanos) {
+
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * @return rows written per second, 0 without rows
+     */
+    public double rowsPerSecond() {
+        return (rows == 0 || elapsedNanos == 0) ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Bulk %s %s: %d rows (%d skipped) in %d ms, %.0f rows/s",
+                operation, entity, rows, skipped, elapsedMillis(), rowsPerSecond());
+    }
+}
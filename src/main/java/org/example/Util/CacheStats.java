@@ -0,0 +1,123 @@
+package org.example.Util;
+
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Entities.OneToManyToOne_Bidirectional.ProductEntity;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.List;
+
+/**
+ * Hit/miss counters of the second level cache regions (ehcache.xml), per region. <br>
+ * Requires {@code hibernate.generate_statistics = true} (hibernate.cfg.xml), otherwise all the counters are 0.
+ * <pre>
+ * {@code
+ * long hits = CacheStats.hits(CategoryEntity.CACHE_REGION);
+ * System.out.println(CacheStats.dump());
+ * }
+ * </pre>
+ */
+public class CacheStats {
+    /**
+     * Regions of the entities and collections
+     */
+    public static final List<String> DOMAIN_REGIONS = List.of(
+            CategoryEntity.CACHE_REGION,
+            CategoryEntity.PRODUCTS_CACHE_REGION,
+            ProductEntity.CACHE_REGION
+    );
+
+    /**
+     * Regions of the query cache
+     */
+    public static final List<String> QUERY_REGIONS = List.of(
+            CategoryEntity.QUERY_BY_NAME_CACHE_REGION
+    );
+
+    private CacheStats() {
+    }
+
+    /**
+     * Get the statistics of a region (entity, collection or query region).
+     *
+     * @param region name of the region
+     * @return the statistics, or null if the region doesn't exist
+     */
+    public static CacheRegionStatistics region(String region) {
+        Statistics statistics = getStatistics();
+        return QUERY_REGIONS.contains(region)
+                ? statistics.getQueryRegionStatistics(region)
+                : statistics.getDomainDataRegionStatistics(region);
+    }
+
+    public static long hits(String region) {
+        CacheRegionStatistics statistics = region(region);
+        return (statistics == null) ? 0 : statistics.getHitCount();
+    }
+
+    public static long misses(String region) {
+        CacheRegionStatistics statistics = region(region);
+        return (statistics == null) ? 0 : statistics.getMissCount();
+    }
+
+    public static long puts(String region) {
+        CacheRegionStatistics statistics = region(region);
+        return (statistics == null) ? 0 : statistics.getPutCount();
+    }
+
+    /**
+     * @param region name of the region
+     * @return hits / (hits + misses), 0 if the region wasn't accessed
+     */
+    public static double hitRatio(String region) {
+        long hits = hits(region);
+        long total = hits + misses(region);
+        return (total == 0) ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Reset all the statistics of the SessionFactory (not only the cache ones).
+     */
+    public static void reset() {
+        getStatistics().clear();
+    }
+
+    /**
+     * @return a line per region with its hits, misses, puts, hit ratio and entries in memory
+     */
+    public static String dump() {
+        StringBuilder sb = new StringBuilder("Second level cache:\n");
+        DOMAIN_REGIONS.forEach(region -> appendRegion(sb, region));
+        QUERY_REGIONS.forEach(region -> appendRegion(sb, region));
+
+        Statistics statistics = getStatistics();
+        sb.append(String.format("  %-30s hits=%d misses=%d puts=%d%n", "(query cache total)",
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount()));
+
+        return sb.toString();
+    }
+
+    private static void appendRegion(StringBuilder sb, String region) {
+        CacheRegionStatistics statistics = region(region);
+        if (statistics == null) {
+            sb.append(String.format("  %-30s (not found)%n", region));
+            return;
+        }
+
+        sb.append(String.format("  %-30s hits=%d misses=%d puts=%d ratio=%.2f inMemory=%d%n",
+                region,
+                statistics.getHitCount(),
+                statistics.getMissCount(),
+                statistics.getPutCount(),
+                hitRatio(region),
+                statistics.getElementCountInMemory()));
+    }
+
+    private static Statistics getStatistics() {
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+        return sessionFactory.getStatistics();
+    }
+}
@@ -1,44 +1,207 @@
 package org.example.Util;
 
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductDAOImpl;
+import org.example.Util.Metrics.SlowQueryConnectionProvider;
+import org.example.Util.Metrics.DAOStatementInspector;
+import org.example.Util.Metrics.SlowQueryLog;
+import org.example.Util.Pool.PooledConnectionProvider;
+import org.example.Util.Routing.ReadWriteRouter;
+import org.hibernate.FlushMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
 import org.hibernate.boot.Metadata;
 import org.hibernate.boot.MetadataSources;
 import org.hibernate.boot.registry.StandardServiceRegistry;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 public class HibernateUtil {
     private static StandardServiceRegistry registry;
-    private static SessionFactory sessionFactory;
+    // volatile: a thread that sees it non-null sees the SessionFactory fully built (and warmed up)
+    private static volatile SessionFactory sessionFactory;
+    // Read replicas of the SessionFactory, null without replicas (see ReadWriteRouter)
+    private static volatile ReadWriteRouter router;
+    public static final int DEFAULT_BATCH_SIZE = 50;
+    /**
+     * System properties with this prefix override hibernate.cfg.xml (e.g. {@code -Dhibernate.connection.url=...}),
+     * the same configuration can run against another database (benchmarks with an embedded database).
+     */
+    public static final String OVERRIDE_PREFIX = "hibernate.";
+    /**
+     * System properties with this prefix override the settings of the application (e.g. {@code -Dtienda.pool.enabled=true}).
+     */
+    public static final String APPLICATION_OVERRIDE_PREFIX = "tienda.";
 
     /**
-     * Get the Hibernate SessionFactory
+     * Get the Hibernate SessionFactory, built by {@link #start()} on the first access if it wasn't started before.
      *
-     * @return SessionFactory object
+     * @return SessionFactory object, null if the bootstrap failed
      */
     public static SessionFactory getSessionFactory() {
-        if (sessionFactory == null) {
-            try {
-                // Create registry
-                registry = new StandardServiceRegistryBuilder().configure().build();
-                // Create MetadataSources
-                MetadataSources sources = new MetadataSources(registry);
-                // Create Metadata
-                Metadata metadata = sources.getMetadataBuilder().build();
-                // Create SessionFactory
-                sessionFactory = metadata.getSessionFactoryBuilder()
-//                        .applyInterceptor(new CategoryInterceptor())
-                        .build();
-
-            } catch (Exception e) {
-                handleException(e);
-                closeRegistry();
+        SessionFactory factory = sessionFactory;
+        return (factory != null) ? factory : start();
+    }
+
+    /**
+     * Builds the SessionFactory once, the concurrent callers wait for it instead of building their own registry
+     * and metadata. With {@code tienda.warmup.enabled} it's warmed up before it's published (see {@link SessionFactoryWarmup}):
+     * call it at startup, before the traffic arrives, and the first request doesn't pay the bootstrap. <br>
+     * After {@link #shutdown()} it builds a new one (e.g. a benchmark with other settings).
+     * <p>
+     * With {@code tienda.replica.urls} it also builds the read replicas (see {@link ReadWriteRouter}).
+     * <p>
+     * PD: not an initialization-on-demand holder, the SessionFactory can be shut down and built again.
+     *
+     * @return the SessionFactory, null if the bootstrap failed
+     */
+    public static synchronized SessionFactory start() {
+        if (sessionFactory != null) return sessionFactory;
+
+        SessionFactory factory = null;
+        List<ReadWriteRouter.Replica> replicas = new ArrayList<>();
+        try {
+            // Create registry
+            StandardServiceRegistryBuilder registryBuilder = registryBuilder();
+            Map<String, Object> settings = registryBuilder.getSettings();
+            // Snapshot of a previous bootstrap with the same configuration (see MetadataSnapshot), written if there isn't one
+            MetadataSnapshot snapshot = MetadataSnapshot.of(registryBuilder);
+            boolean fromSnapshot = snapshot != null && snapshot.apply(registryBuilder);
+            registry = registryBuilder.build();
+            factory = buildSessionFactory(registry);
+            if (snapshot != null && !fromSnapshot) snapshot.write(registry);
+            // Named queries, DAO queries and connections ready before the first request
+            if (SessionFactoryWarmup.isEnabled(settings)) {
+                SessionFactoryWarmup.run(factory, daoQueries(), SessionFactoryWarmup.connections(settings));
+            }
+
+            // Read replicas: the same configuration with the connection of the replica
+            List<String> replicaUrls = ReadWriteRouter.replicaUrls(settings);
+            for (int i = 0; i < replicaUrls.size(); i++) {
+                StandardServiceRegistryBuilder replicaBuilder = registryBuilder();
+                replicaBuilder.applySettings(ReadWriteRouter.replicaSettings(settings, replicaUrls.get(i)));
+                StandardServiceRegistry replicaRegistry = replicaBuilder.build();
+                SessionFactory replica;
+                try {
+                    replica = buildSessionFactory(replicaRegistry);
+                } catch (RuntimeException e) {
+                    StandardServiceRegistryBuilder.destroy(replicaRegistry);
+                    throw e;
+                }
+                replicas.add(new ReadWriteRouter.Replica("replica-" + (i + 1), replica, replicaRegistry));
+                if (SessionFactoryWarmup.isEnabled(settings)) {
+                    SessionFactoryWarmup.run(replica, daoQueries(), SessionFactoryWarmup.connections(settings));
+                }
             }
+            router = replicas.isEmpty() ? null : new ReadWriteRouter(factory, replicas, settings);
+            sessionFactory = factory;
+
+        } catch (Exception e) {
+            handleException(e);
+            replicas.forEach(ReadWriteRouter.Replica::close);
+            if (factory != null) factory.close();
+            closeRegistry();
         }
 
         return sessionFactory;
     }
 
+    /**
+     * @return registry builder with hibernate.cfg.xml, the system property overrides and the services of the application
+     */
+    private static StandardServiceRegistryBuilder registryBuilder() {
+        StandardServiceRegistryBuilder registryBuilder = new StandardServiceRegistryBuilder().configure();
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(OVERRIDE_PREFIX) || name.startsWith(APPLICATION_OVERRIDE_PREFIX))
+                .forEach(name -> registryBuilder.applySetting(name, System.getProperty(name)));
+        // Statements tagged with the DAO method and recorded for the statement budgets (see StatementRecorder)
+        registryBuilder.applySetting(AvailableSettings.STATEMENT_INSPECTOR, DAOStatementInspector.class.getName());
+        // Slow query log: JDBC timing of the statements, only the slow ones are logged (see SlowQueryLog)
+        boolean slowQueryLog = SlowQueryLog.configure(registryBuilder.getSettings());
+        // Connection pool (HikariCP) with its metrics, it also wraps the connections for the slow query log
+        if (PooledConnectionProvider.isEnabled(registryBuilder.getSettings())) {
+            registryBuilder.applySetting(AvailableSettings.CONNECTION_PROVIDER, PooledConnectionProvider.class.getName());
+        } else if (slowQueryLog) {
+            registryBuilder.applySetting(AvailableSettings.CONNECTION_PROVIDER, SlowQueryConnectionProvider.class.getName());
+        }
+        return registryBuilder;
+    }
+
+    private static SessionFactory buildSessionFactory(StandardServiceRegistry registry) {
+        // Create MetadataSources
+        MetadataSources sources = new MetadataSources(registry);
+        // Create Metadata
+        Metadata metadata = sources.getMetadataBuilder().build();
+        // Create SessionFactory
+        return metadata.getSessionFactoryBuilder()
+//                .applyInterceptor(new CategoryInterceptor())
+                .build();
+    }
+
+    /**
+     * @return the HQL queries of the DAOs, parsed by the warm-up
+     */
+    private static List<SessionFactoryWarmup.Hql> daoQueries() {
+        List<SessionFactoryWarmup.Hql> queries = new ArrayList<>(CategoryDAOImpl.QUERIES);
+        queries.addAll(ProductDAOImpl.QUERIES);
+        return queries;
+    }
+
+    /**
+     * Session of a DAO call: the session of the {@link UnitOfWork} bound to the thread if there is one
+     * (the DAO joins its transaction), a new session otherwise. The DAO closes it as always (try-with-resources).
+     *
+     * @return Session object
+     * @throws IllegalStateException if the unit of work of the thread is rollback-only
+     */
+    public static Session openSession() {
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        return (unitOfWork == null) ? getSessionFactory().openSession() : unitOfWork.join();
+    }
+
+    /**
+     * Read-only session of a DAO method that doesn't write ({@link #asReadOnly(Session)}): with read replicas
+     * it's opened in a replica ({@link ReadWriteRouter}), in the unit of work of the thread it's its session (primary).
+     *
+     * @return Session object
+     * @throws IllegalStateException if the unit of work of the thread is rollback-only
+     */
+    public static Session openReadSession() {
+        if (UnitOfWork.current() != null) return asReadOnly(openSession());
+        // The router is published before the SessionFactory
+        SessionFactory factory = getSessionFactory();
+        ReadWriteRouter readWriteRouter = router;
+        return asReadOnly((readWriteRouter == null) ? factory.openSession() : readWriteRouter.openReadSession());
+    }
+
+    /**
+     * StatelessSession of the bulk operations ({@link StatelessBulk}) in the primary, with the JDBC batch size of
+     * {@link #getJdbcBatchSize()}: no persistence context, every insert/update/delete is added to the JDBC batch at once.
+     * It doesn't join the {@link UnitOfWork} of the thread.
+     *
+     * @return a new StatelessSession, closed by the caller
+     */
+    public static StatelessSession openStatelessSession() {
+        StatelessSession session = getSessionFactory().openStatelessSession();
+        session.setJdbcBatchSize(getJdbcBatchSize());
+        return session;
+    }
+
+    /**
+     * @return the router of the reads, empty without read replicas
+     */
+    public static Optional<ReadWriteRouter> getRouter() {
+        getSessionFactory();
+        return Optional.ofNullable(router);
+    }
+
     public static Session getCurrentSession() {
         Session session = null;
         try {
@@ -50,11 +213,51 @@ public class HibernateUtil {
         return (session == null) ? (getSessionFactory().openSession()) : session;
     }
 
+    /**
+     * Configures a Session for read only operations:
+     * <ul>
+     *     <li>Entities are loaded read-only, Hibernate doesn't keep the snapshot for dirty checking.</li>
+     *     <li>{@link FlushMode#MANUAL}, the Session is never flushed (there is nothing to write).</li>
+     * </ul>
+     * The queries executed with it mustn't take row locks (e.g. {@code PESSIMISTIC_READ} = {@code SELECT ... FOR SHARE}),
+     * PostgreSQL MVCC returns a consistent snapshot without blocking the concurrent writers.
+     * <pre>
+     * {@code
+     * try (Session session = HibernateUtil.asReadOnly(sessionFactory.openSession())) { ... }
+     * }
+     * </pre>
+     *
+     * @param session the session to configure
+     * @return the same session
+     */
+    public static Session asReadOnly(Session session) {
+        session.setDefaultReadOnly(true);
+        session.setHibernateFlushMode(FlushMode.MANUAL);
+        return session;
+    }
+
+    /**
+     * Get the JDBC batch size configured in hibernate.cfg.xml ({@code hibernate.jdbc.batch_size}),
+     * used by the bulk operations for flush/clear the persistence context periodically.
+     *
+     * @return the configured batch size, or {@link #DEFAULT_BATCH_SIZE} if batching is disabled
+     */
+    public static int getJdbcBatchSize() {
+        int batchSize = getSessionFactory().unwrap(SessionFactoryImplementor.class).getSessionFactoryOptions().getJdbcBatchSize();
+        return (batchSize > 0) ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+
 
     /**
-     * Shutdown the SessionFactory
+     * Shutdown the SessionFactory, the next {@link #getSessionFactory()} builds a new one.
      */
-    public static void shutdown() {
+    public static synchronized void shutdown() {
+        SessionFactory factory = sessionFactory;
+        ReadWriteRouter readWriteRouter = router;
+        sessionFactory = null;
+        router = null;
+        if (readWriteRouter != null) readWriteRouter.close();
+        if (factory != null) factory.close();
         closeRegistry();
     }
 
@@ -74,6 +277,7 @@ public class HibernateUtil {
     private static void closeRegistry() {
         if (registry != null) {
             StandardServiceRegistryBuilder.destroy(registry);
+            registry = null;
         }
     }
 }
@@ -0,0 +1,308 @@
+package org.example.Util;
+
+import org.hibernate.Version;
+import org.hibernate.boot.cfgxml.spi.LoadedConfig;
+import org.hibernate.boot.cfgxml.spi.MappingReference;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.tool.schema.SourceType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Snapshot of the boot of the SessionFactory, written by the first bootstrap (or at build time, {@link #main(String[])})
+ * and loaded by the next ones while it's valid. What it saves is the work around the boot model, not the model:
+ * <ul>
+ *     <li>Database: product name and version, the bootstrap doesn't open a connection to read the JDBC metadata
+ *     (dialect version, sequences, keywords).</li>
+ *     <li>Schema: the DDL of hbm2ddl (create and drop scripts), executed as is instead of generated from the
+ *     mappings.</li>
+ * </ul>
+ * The Metadata is still built from scratch in every bootstrap (the annotations of the entities are processed and
+ * the mappings bound as always): it isn't serialized, in Hibernate 6 it references the BootstrapContext
+ * (class loaders, the service registry) that can't be serialized. <br>
+ * The snapshot is keyed by a checksum of the Hibernate version, the settings (hibernate.cfg.xml and the system
+ * property overrides) and the entity index (the mapped classes of hibernate.cfg.xml with the digest of their
+ * bytecode): a changed entity or setting (e.g. the connection URL) is a different checksum, the snapshot is ignored
+ * (full bootstrap) and written again. <br>
+ * Disabled by default, enabled with {@value #DIR_SETTING} (directory of the snapshot, better an absolute path:
+ * a relative one depends on the working directory of the process).
+ * <p>
+ * PD: the database itself isn't part of the checksum, reading its version would need the connection the snapshot
+ * avoids. After an upgrade of the database server with the same settings delete the directory (the next bootstrap
+ * writes it again), else the dialect keeps the version of the snapshot.
+ */
+public final class MetadataSnapshot {
+    private static final Logger LOGGER = Logger.getLogger(MetadataSnapshot.class.getName());
+    public static final String DIR_SETTING = "tienda.metadata_snapshot.dir";
+    // Read by the JdbcEnvironmentInitiator of Hibernate 6.4, false: the database is described by the settings
+    static final String USE_JDBC_METADATA_SETTING = "hibernate.temp.use_jdbc_metadata_defaults";
+    private static final String INDEX_FILE = "snapshot.properties";
+    private static final String CREATE_FILE = "create.sql";
+    private static final String DROP_FILE = "drop.sql";
+    private static final String CHECKSUM = "checksum";
+    private static final String DATABASE_NAME = "database.name";
+    private static final String DATABASE_VERSION = "database.version";
+    private static final String DATABASE_MAJOR = "database.major";
+    private static final String DATABASE_MINOR = "database.minor";
+    private static final String ENTITY_PREFIX = "entity.";
+    private static final Pattern DML = Pattern.compile("\\s*(INSERT|UPDATE|DELETE|MERGE)\\s", Pattern.CASE_INSENSITIVE);
+    // The settings also have all the system properties of the JVM, only these ones describe the SessionFactory
+    private static final List<String> CHECKSUM_PREFIXES = List.of("hibernate.", "jakarta.persistence.", "javax.persistence.", "tienda.");
+
+    private final Path dir;
+    private final String checksum;
+    private final Map<String, String> entities;
+    private Properties loaded;
+    // Scripts of the full bootstrap, before they're moved to the snapshot
+    private Path tmp;
+
+    private MetadataSnapshot(Path dir, String checksum, Map<String, String> entities) {
+        this.dir = dir;
+        this.checksum = checksum;
+        this.entities = entities;
+    }
+
+    /**
+     * Computes the checksum of the configuration, before the settings of the snapshot are applied.
+     *
+     * @param registryBuilder registry with hibernate.cfg.xml and the overrides applied
+     * @return the snapshot, null if it's disabled ({@value #DIR_SETTING} not set)
+     */
+    public static MetadataSnapshot of(StandardServiceRegistryBuilder registryBuilder) {
+        Object dir = registryBuilder.getSettings().get(DIR_SETTING);
+        if (dir == null || dir.toString().isBlank()) return null;
+
+        Map<String, String> entities = entityIndex(registryBuilder.getAggregatedCfgXml());
+        MessageDigest digest = sha256();
+        update(digest, Version.getVersionString());
+        new TreeMap<>(registryBuilder.getSettings()).forEach((name, value) -> {
+            if (CHECKSUM_PREFIXES.stream().anyMatch(name::startsWith)) update(digest, name + "=" + value);
+        });
+        entities.forEach((entity, classDigest) -> update(digest, entity + "=" + classDigest));
+        return new MetadataSnapshot(Path.of(dir.toString().trim()).toAbsolutePath(), HexFormat.of().formatHex(digest.digest()), entities);
+    }
+
+    public Path getDir() {
+        return dir;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * @return mapped class -> SHA-256 of its bytecode
+     */
+    public Map<String, String> getEntities() {
+        return entities;
+    }
+
+    /**
+     * @return true if the snapshot of the directory was written with the same checksum
+     */
+    public boolean isValid() {
+        Properties index = load();
+        return index != null && checksum.equals(index.getProperty(CHECKSUM))
+                && Files.isRegularFile(dir.resolve(CREATE_FILE)) && Files.isRegularFile(dir.resolve(DROP_FILE));
+    }
+
+    /**
+     * If it's valid, configures the registry with the snapshot: database from the settings (no JDBC metadata
+     * on boot) and hbm2ddl from the scripts. If it isn't, the full bootstrap also writes the scripts of hbm2ddl
+     * in a temporary directory, {@link #write(ServiceRegistry)} completes the snapshot.
+     *
+     * @return true if the snapshot was applied, false if the bootstrap must be the full one (and write it)
+     */
+    public boolean apply(StandardServiceRegistryBuilder registryBuilder) {
+        if (!isValid()) {
+            LOGGER.info("Metadata snapshot not valid in " + dir + ", full bootstrap");
+            prepareScripts(registryBuilder);
+            return false;
+        }
+        Properties index = load();
+        registryBuilder.applySetting(USE_JDBC_METADATA_SETTING, "false");
+        registryBuilder.applySetting(AvailableSettings.JAKARTA_HBM2DDL_DB_NAME, index.getProperty(DATABASE_NAME));
+        registryBuilder.applySetting(AvailableSettings.JAKARTA_HBM2DDL_DB_VERSION, index.getProperty(DATABASE_VERSION));
+        registryBuilder.applySetting(AvailableSettings.JAKARTA_HBM2DDL_DB_MAJOR_VERSION, index.getProperty(DATABASE_MAJOR));
+        registryBuilder.applySetting(AvailableSettings.JAKARTA_HBM2DDL_DB_MINOR_VERSION, index.getProperty(DATABASE_MINOR));
+        registryBuilder.applySetting(AvailableSettings.JAKARTA_HBM2DDL_CREATE_SOURCE, SourceType.SCRIPT.name().toLowerCase());
+        registryBuilder.applySetting(AvailableSettings.JAKARTA_HBM2DDL_DROP_SOURCE, SourceType.SCRIPT.name().toLowerCase());
+        registryBuilder.applySetting(AvailableSettings.JAKARTA_HBM2DDL_CREATE_SCRIPT_SOURCE, dir.resolve(CREATE_FILE).toAbsolutePath().toString());
+        registryBuilder.applySetting(AvailableSettings.JAKARTA_HBM2DDL_DROP_SCRIPT_SOURCE, dir.resolve(DROP_FILE).toAbsolutePath().toString());
+        LOGGER.info("Metadata snapshot " + checksum.substring(0, 12) + " loaded from " + dir);
+        return true;
+    }
+
+    /**
+     * Writes the snapshot of a full bootstrap, in a temporary directory moved at the end (a concurrent bootstrap
+     * never reads a half-written snapshot).
+     *
+     * @param registry registry of the SessionFactory, its connections describe the database
+     */
+    public void write(ServiceRegistry registry) {
+        if (tmp == null) return;
+        try {
+            if (!Files.isRegularFile(tmp.resolve(CREATE_FILE)) || !Files.isRegularFile(tmp.resolve(DROP_FILE))) {
+                throw new IOException("hbm2ddl didn't write the scripts");
+            }
+            onlySchema(tmp.resolve(CREATE_FILE));
+
+            Properties index = new Properties();
+            index.setProperty(CHECKSUM, checksum);
+            database(registry.requireService(ConnectionProvider.class), index);
+            entities.forEach((entity, classDigest) -> index.setProperty(ENTITY_PREFIX + entity, classDigest));
+            try (OutputStream out = Files.newOutputStream(tmp.resolve(INDEX_FILE))) {
+                index.store(out, "Metadata snapshot, see " + MetadataSnapshot.class.getName());
+            }
+
+            for (String file : List.of(CREATE_FILE, DROP_FILE, INDEX_FILE)) {
+                Files.move(tmp.resolve(file), dir.resolve(file), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            Files.delete(tmp);
+            tmp = null;
+            loaded = null;
+            LOGGER.info("Metadata snapshot " + checksum.substring(0, 12) + " written to " + dir);
+        } catch (IOException | SQLException | RuntimeException e) {
+            // The next bootstrap is a full one again
+            LOGGER.warning("Metadata snapshot not written to " + dir + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the snapshot at build time (e.g. {@code exec:java} after the compilation), a full bootstrap
+     * with the settings of hibernate.cfg.xml and the system properties.
+     */
+    public static void main(String[] args) {
+        try {
+            if (HibernateUtil.start() == null) System.exit(1);
+        } finally {
+            HibernateUtil.shutdown();
+        }
+    }
+
+    /**
+     * hbm2ddl writes its scripts (the same DDL it executes) while the SessionFactory is built.
+     */
+    private void prepareScripts(StandardServiceRegistryBuilder registryBuilder) {
+        try {
+            Files.createDirectories(dir);
+            tmp = Files.createTempDirectory(dir, "tmp-");
+        } catch (IOException e) {
+            LOGGER.warning("Metadata snapshot not writable in " + dir + ": " + e.getMessage());
+            return;
+        }
+        // With a JPA action Hibernate ignores hbm2ddl.auto, the database action must be explicit too
+        Map<String, Object> settings = registryBuilder.getSettings();
+        Object auto = settings.get(AvailableSettings.HBM2DDL_AUTO);
+        if (auto != null && !settings.containsKey(AvailableSettings.JAKARTA_HBM2DDL_DATABASE_ACTION)) {
+            registryBuilder.applySetting(AvailableSettings.JAKARTA_HBM2DDL_DATABASE_ACTION, auto);
+        }
+        registryBuilder.applySetting(AvailableSettings.JAKARTA_HBM2DDL_SCRIPTS_ACTION, "drop-and-create");
+        registryBuilder.applySetting(AvailableSettings.JAKARTA_HBM2DDL_SCRIPTS_CREATE_TARGET, tmp.resolve(CREATE_FILE).toString());
+        registryBuilder.applySetting(AvailableSettings.JAKARTA_HBM2DDL_SCRIPTS_DROP_TARGET, tmp.resolve(DROP_FILE).toString());
+        registryBuilder.applySetting(AvailableSettings.HBM2DDL_SCRIPTS_CREATE_APPEND, "false");
+        registryBuilder.applySetting(AvailableSettings.HBM2DDL_DELIMITER, ";");
+    }
+
+    /**
+     * The create script of hbm2ddl also has the statements of the import files (hbm2ddl.import_files), they're executed in every bootstrap
+     * (also from the snapshot), the snapshot only keeps the DDL.
+     */
+    private static void onlySchema(Path script) throws IOException {
+        List<String> ddl = Files.readAllLines(script, StandardCharsets.UTF_8).stream()
+                .filter(line -> !DML.matcher(line).lookingAt())
+                .toList();
+        Files.write(script, ddl, StandardCharsets.UTF_8);
+    }
+
+    private static void database(ConnectionProvider provider, Properties index) throws SQLException {
+        Connection connection = provider.getConnection();
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            index.setProperty(DATABASE_NAME, metaData.getDatabaseProductName());
+            index.setProperty(DATABASE_VERSION, metaData.getDatabaseProductVersion());
+            index.setProperty(DATABASE_MAJOR, String.valueOf(metaData.getDatabaseMajorVersion()));
+            index.setProperty(DATABASE_MINOR, String.valueOf(metaData.getDatabaseMinorVersion()));
+        } finally {
+            provider.closeConnection(connection);
+        }
+    }
+
+    private Properties load() {
+        if (loaded != null) return loaded;
+        Path file = dir.resolve(INDEX_FILE);
+        if (!Files.isRegularFile(file)) return null;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            Properties index = new Properties();
+            index.load(reader);
+            loaded = index;
+            return index;
+        } catch (IOException e) {
+            LOGGER.warning("Metadata snapshot not readable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the mapped classes of hibernate.cfg.xml with the SHA-256 of their bytecode, sorted by name
+     */
+    private static Map<String, String> entityIndex(LoadedConfig config) {
+        Map<String, String> entities = new TreeMap<>();
+        List<MappingReference> mappings = (config == null) ? new ArrayList<>() : config.getMappingReferences();
+        for (MappingReference mapping : mappings) {
+            String reference = mapping.getReference();
+            String resource = (mapping.getType() == MappingReference.Type.CLASS)
+                    ? reference.replace('.', '/') + ".class"
+                    : reference;
+            entities.put(reference, resourceDigest(resource));
+        }
+        return entities;
+    }
+
+    private static String resourceDigest(String resource) {
+        try (InputStream in = MetadataSnapshot.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) return "missing";
+            MessageDigest digest = sha256();
+            digest.update(in.readAllBytes());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            return "unreadable";
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.Util.Metrics;
+
+import org.example.Util.HibernateUtil;
+import org.hibernate.stat.Statistics;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Registry of the metrics of the DAO methods ({@link MethodMetrics}), the DAOs are instrumented with a proxy of their
+ * interface, without changing them:
+ * <pre>
+ * {@code
+ * CategoryDAO categoryDAO = DAOMetrics.instrument(CategoryDAO.class, new CategoryDAOImpl());
+ * categoryDAO.findById(1L);
+ * System.out.println(DAOMetrics.dump());
+ * }
+ * </pre>
+ * <ul>
+ *     <li>JDBC and flush time: {@link MetricsSessionListener} ({@code hibernate.session.events.auto} in hibernate.cfg.xml),
+ *     the sessions opened by the DAO in the thread of the call are attributed to the call.
+ *     The {@link Statistics} of Hibernate are shared by all the threads, they're only used for the totals of the dump.</li>
+ *     <li>Errors: an exception thrown by the call, or {@link #error()} in the catch blocks of the DAOs that log
+ *     the exception and return a default (empty, false...) instead of throwing it.</li>
+ *     <li>Statement budgets: the methods of the DAO annotated with {@link StatementBudget} record their statements
+ *     ({@link StatementRecorder}), a warning is logged when a call sends more than the budget.</li>
+ *     <li>JMX: a {@link MethodMetricsMXBean} per method, registered the first time the method is called.</li>
+ * </ul>
+ */
+public final class DAOMetrics {
+    public static final String JMX_DOMAIN = "org.example.DAOs";
+    private static final Logger LOGGER = Logger.getLogger(DAOMetrics.class.getName());
+
+    // Key: DAO class + method, shared by all the instrumented instances of the same DAO
+    private static final Map<String, MethodMetrics> METRICS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Call> CURRENT = new ThreadLocal<>();
+    private static final int NO_BUDGET = -1;
+
+    /**
+     * Time and outcome of the call in progress in the thread, filled by {@link MetricsSessionListener}
+     */
+    static final class Call {
+        final String method;
+        long jdbcNanos;
+        long flushNanos;
+        boolean error;
+
+        Call(String method) {
+            this.method = method;
+        }
+    }
+
+    private DAOMetrics() {
+    }
+
+    /**
+     * Wraps a DAO in a proxy that records the calls of the methods of the interface.
+     *
+     * @param daoInterface interface of the DAO (CategoryDAO, ProductDAO, UserDAO, AddressDAO...)
+     * @param dao          the DAO to instrument
+     * @return the instrumented DAO
+     */
+    public static <T> T instrument(Class<T> daoInterface, T dao) {
+        String daoName = dao.getClass().getSimpleName();
+        Map<Method, MethodMetrics> byMethod = new ConcurrentHashMap<>();
+        Map<Method, Integer> budgets = new ConcurrentHashMap<>();
+
+        Object proxy = Proxy.newProxyInstance(daoInterface.getClassLoader(), new Class<?>[]{daoInterface}, (instance, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) return method.invoke(dao, args);
+
+            MethodMetrics metrics = byMethod.computeIfAbsent(method, m -> get(daoName, m.getName()));
+            int budget = budgets.computeIfAbsent(method, m -> budget(dao.getClass(), m));
+            Call previous = CURRENT.get();
+            Call call = new Call(metrics.getName());
+            CURRENT.set(call);
+            StatementRecorder.Recording recording = (budget == NO_BUDGET) ? null : StatementRecorder.start();
+
+            long start = System.nanoTime();
+            try {
+                return method.invoke(dao, args);
+            } catch (InvocationTargetException e) {
+                call.error = true;
+                throw e.getCause();
+            } finally {
+                metrics.record(System.nanoTime() - start, call);
+                if (recording != null) {
+                    recording.close();
+                    if (StatementRecorder.checkBudget(metrics.getName(), budget, recording)) metrics.overBudget();
+                }
+                if (previous == null) CURRENT.remove();
+                else CURRENT.set(previous);
+            }
+        });
+
+        return daoInterface.cast(proxy);
+    }
+
+    /**
+     * @return the {@link StatementBudget} of the method in the DAO class (or in the interface), {@link #NO_BUDGET} if none
+     */
+    private static int budget(Class<?> daoClass, Method method) {
+        StatementBudget budget = method.getAnnotation(StatementBudget.class);
+        try {
+            StatementBudget implementation = daoClass.getMethod(method.getName(), method.getParameterTypes()).getAnnotation(StatementBudget.class);
+            if (implementation != null) budget = implementation;
+        } catch (NoSuchMethodException e) {
+            // The interface method is enough
+        }
+        return (budget == null) ? NO_BUDGET : budget.value();
+    }
+
+    /**
+     * @param dao    simple name of the DAO class
+     * @param method name of the method
+     * @return the metrics of the method, created (and registered in JMX) the first time
+     */
+    public static MethodMetrics get(String dao, String method) {
+        return METRICS.computeIfAbsent(dao + "." + method, key -> register(new MethodMetrics(dao, method)));
+    }
+
+    /**
+     * Reset the counters and histograms of all the methods.
+     */
+    public static void reset() {
+        METRICS.values().forEach(MethodMetrics::reset);
+    }
+
+    /**
+     * @return a line per method (latencies in microseconds, p50/p99/p999) and the totals of the Hibernate statistics
+     */
+    public static String dump() {
+        StringBuilder sb = new StringBuilder("DAO metrics (micros, p50/p99/p999):\n");
+        new TreeMap<>(METRICS).values().forEach(metrics -> sb.append("  ").append(metrics).append('\n'));
+
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        if (statistics.isStatisticsEnabled()) {
+            sb.append(String.format("  Hibernate: statements=%d queries=%d entityLoads=%d entityFetches=%d collectionFetches=%d flushes=%d%n",
+                    statistics.getPrepareStatementCount(),
+                    statistics.getQueryExecutionCount(),
+                    statistics.getEntityLoadCount(),
+                    statistics.getEntityFetchCount(),
+                    statistics.getCollectionFetchCount(),
+                    statistics.getFlushCount()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Marks the call in progress in the current thread as error: for the exceptions the DAO catches instead of
+     * throwing them. Without an instrumented call in the thread it does nothing.
+     */
+    public static void error() {
+        Call call = CURRENT.get();
+        if (call != null) call.error = true;
+    }
+
+    /**
+     * @return the call in progress in the current thread, null if the thread isn't in an instrumented DAO method
+     */
+    static Call current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return DAO class and method ({@code CategoryDAOImpl.findById}) of the call in progress in the current thread,
+     * null if the thread isn't in an instrumented DAO method
+     */
+    public static String currentMethod() {
+        Call call = CURRENT.get();
+        return (call == null) ? null : call.method;
+    }
+
+    public static ObjectName objectName(String dao, String method) throws Exception {
+        return new ObjectName(String.format("%s:type=DAOMetrics,dao=%s,method=%s", JMX_DOMAIN, dao, method));
+    }
+
+    private static MethodMetrics register(MethodMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = objectName(metrics.getDao(), metrics.getMethod());
+            if (!server.isRegistered(name)) server.registerMBean(metrics, name);
+        } catch (Exception e) {
+            LOGGER.warning("Metrics of " + metrics.getDao() + "." + metrics.getMethod() + " not registered in JMX: " + e.getMessage());
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.Util.Metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Sees every statement of Hibernate before it's prepared, installed for all the sessions by the bootstrap of HibernateUtil:
+ * <ul>
+ *     <li>Records the statement in the {@link StatementRecorder} recordings of the thread (statement budgets).</li>
+ *     <li>Prefixes it with the instrumented DAO method that executes it
+ *     ({@code /* CategoryDAOImpl.findById *}{@code / select ...}), see {@link SlowQueryLog}.</li>
+ * </ul>
+ * Outside an instrumented DAO method and without recordings the statement isn't changed (two {@code ThreadLocal} reads).
+ */
+public class DAOStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        String method = DAOMetrics.currentMethod();
+        StatementRecorder.record(method, sql);
+        return (method == null) ? sql : "/* " + method + " */ " + sql;
+    }
+}
@@ -0,0 +1,200 @@
+package org.example.Util.Metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calls, errors and latency histograms of a DAO method, recorded by {@link DAOMetrics}. <br>
+ * Each call is recorded in 4 histograms (nanoseconds, 3 significant digits, up to 1 hour):
+ * <ul>
+ *     <li>total: the whole call.</li>
+ *     <li>jdbc: prepare and execution of the statements (including the ones sent by a flush).</li>
+ *     <li>flush: dirty checking and action queue of the flushes, without their JDBC time.</li>
+ *     <li>hydration: the rest, reading the ResultSets, building the entities, second level cache and the DAO code.</li>
+ * </ul>
+ * PD: The statements executed with {@code session.doWork} (plain JDBC) don't notify the session listener,
+ * their time is counted as hydration.
+ */
+public class MethodMetrics implements MethodMetricsMXBean {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final String dao;
+    private final String method;
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+    private final Histogram total = newHistogram();
+    private final Histogram jdbc = newHistogram();
+    private final Histogram hydration = newHistogram();
+    private final Histogram flush = newHistogram();
+
+    MethodMetrics(String dao, String method) {
+        this.dao = dao;
+        this.method = method;
+        this.name = dao + "." + method;
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * @param totalNanos duration of the call
+     * @param call       JDBC/flush time and error of the call
+     */
+    void record(long totalNanos, DAOMetrics.Call call) {
+        calls.increment();
+        if (call.error) errors.increment();
+
+        record(total, totalNanos);
+        record(jdbc, call.jdbcNanos);
+        record(flush, call.flushNanos);
+        record(hydration, totalNanos - call.jdbcNanos - call.flushNanos);
+    }
+
+    /**
+     * The call sent more statements than its {@link StatementBudget}
+     */
+    void overBudget() {
+        overBudget.increment();
+    }
+
+    private static void record(Histogram histogram, long nanos) {
+        histogram.recordValue(Math.min(Math.max(nanos, 0), HIGHEST_TRACKABLE_NANOS));
+    }
+
+    private static double micros(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    @Override
+    public String getDao() {
+        return dao;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return DAO class and method, e.g. {@code CategoryDAOImpl.findById}
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getOverBudget() {
+        return overBudget.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return total.getMean() / 1_000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return micros(total, 50);
+    }
+
+    @Override
+    public double getP99Micros() {
+        return micros(total, 99);
+    }
+
+    @Override
+    public double getP999Micros() {
+        return micros(total, 99.9);
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return total.getMaxValue() / 1_000.0;
+    }
+
+    @Override
+    public double getJdbcP50Micros() {
+        return micros(jdbc, 50);
+    }
+
+    @Override
+    public double getJdbcP99Micros() {
+        return micros(jdbc, 99);
+    }
+
+    @Override
+    public double getJdbcP999Micros() {
+        return micros(jdbc, 99.9);
+    }
+
+    @Override
+    public double getHydrationP50Micros() {
+        return micros(hydration, 50);
+    }
+
+    @Override
+    public double getHydrationP99Micros() {
+        return micros(hydration, 99);
+    }
+
+    @Override
+    public double getHydrationP999Micros() {
+        return micros(hydration, 99.9);
+    }
+
+    @Override
+    public double getFlushP50Micros() {
+        return micros(flush, 50);
+    }
+
+    @Override
+    public double getFlushP99Micros() {
+        return micros(flush, 99);
+    }
+
+    @Override
+    public double getFlushP999Micros() {
+        return micros(flush, 99.9);
+    }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        overBudget.reset();
+        total.reset();
+        jdbc.reset();
+        hydration.reset();
+        flush.reset();
+    }
+
+    /**
+     * @return a line with the counters and the p50/p99/p999 of each histogram, in microseconds
+     */
+    @Override
+    public String toString() {
+        return String.format("%-45s calls=%d errors=%d overBudget=%d total=%.1f/%.1f/%.1f max=%.1f jdbc=%.1f/%.1f/%.1f hydration=%.1f/%.1f/%.1f flush=%.1f/%.1f/%.1f",
+                name, getCalls(), getErrors(), getOverBudget(),
+                getP50Micros(), getP99Micros(), getP999Micros(), getMaxMicros(),
+                getJdbcP50Micros(), getJdbcP99Micros(), getJdbcP999Micros(),
+                getHydrationP50Micros(), getHydrationP99Micros(), getHydrationP999Micros(),
+                getFlushP50Micros(), getFlushP99Micros(), getFlushP999Micros());
+    }
+}
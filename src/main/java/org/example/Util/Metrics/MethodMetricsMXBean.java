@@ -0,0 +1,54 @@
+package org.example.Util.Metrics;
+
+/**
+ * JMX view of the metrics of a DAO method ({@link MethodMetrics}),
+ * registered as {@code org.example.DAOs:type=DAOMetrics,dao=<DAO class>,method=<method>}. <br>
+ * The latencies are in microseconds.
+ */
+public interface MethodMetricsMXBean {
+    String getDao();
+
+    String getMethod();
+
+    long getCalls();
+
+    /**
+     * @return calls that threw an exception or logged a SEVERE error (the DAOs catch their exceptions)
+     */
+    long getErrors();
+
+    /**
+     * @return calls that sent more SQL statements than the {@link StatementBudget} of the method
+     */
+    long getOverBudget();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    double getJdbcP50Micros();
+
+    double getJdbcP99Micros();
+
+    double getJdbcP999Micros();
+
+    double getHydrationP50Micros();
+
+    double getHydrationP99Micros();
+
+    double getHydrationP999Micros();
+
+    double getFlushP50Micros();
+
+    double getFlushP99Micros();
+
+    double getFlushP999Micros();
+
+    void reset();
+}
@@ -0,0 +1,89 @@
+package org.example.Util.Metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Measures the JDBC and flush time of a session and adds it to the DAO call in progress in the thread
+ * ({@link DAOMetrics}), registered for all the sessions with {@code hibernate.session.events.auto}. <br>
+ * Outside an instrumented DAO method it does nothing (a {@code ThreadLocal} read per event).
+ * <p>
+ * PD: Hibernate creates a listener per session, the sessions aren't shared between threads.
+ */
+public class MetricsSessionListener implements SessionEventListener {
+    private long prepareStart;
+    private long executeStart;
+    private long batchStart;
+    private long flushStart;
+    private long flushJdbcStart;
+    private long partialFlushStart;
+    private long partialFlushJdbcStart;
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        prepareStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        addJdbc(prepareStart);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        addJdbc(executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        addJdbc(batchStart);
+    }
+
+    @Override
+    public void flushStart() {
+        DAOMetrics.Call call = DAOMetrics.current();
+        if (call == null) return;
+        flushStart = System.nanoTime();
+        flushJdbcStart = call.jdbcNanos;
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        addFlush(flushStart, flushJdbcStart);
+    }
+
+    @Override
+    public void partialFlushStart() {
+        DAOMetrics.Call call = DAOMetrics.current();
+        if (call == null) return;
+        partialFlushStart = System.nanoTime();
+        partialFlushJdbcStart = call.jdbcNanos;
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        addFlush(partialFlushStart, partialFlushJdbcStart);
+    }
+
+    private static void addJdbc(long start) {
+        DAOMetrics.Call call = DAOMetrics.current();
+        if (call != null && start != 0) call.jdbcNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * The statements sent by the flush are already counted as JDBC time
+     */
+    private static void addFlush(long start, long jdbcStart) {
+        DAOMetrics.Call call = DAOMetrics.current();
+        if (call != null && start != 0) call.flushNanos += (System.nanoTime() - start) - (call.jdbcNanos - jdbcStart);
+    }
+}
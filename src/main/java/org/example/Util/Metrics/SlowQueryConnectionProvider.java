@@ -0,0 +1,27 @@
+package org.example.Util.Metrics;
+
+import org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Connection pool of Hibernate (the default one, configured with the {@code connection.*} settings) whose connections
+ * measure the time of their statements, see {@link SlowQueryLog}. <br>
+ * Installed by the bootstrap of HibernateUtil when the slow query log is enabled.
+ */
+public class SlowQueryConnectionProvider extends DriverManagerConnectionProviderImpl {
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return TimedJdbc.wrap(super.getConnection());
+    }
+
+    /**
+     * The pool keeps the real connections, a connection is wrapped again when it's acquired.
+     */
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        super.closeConnection(TimedJdbc.unwrap(connection));
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.Util.Metrics;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Log of the slow statements, replaces {@code show_sql}/{@code format_sql} (every statement printed synchronously
+ * to stdout). Only the statements slower than the threshold are logged, with their parameters, rows and DAO method:
+ * <pre>
+ * {@code
+ * <!-- hibernate.cfg.xml, milliseconds (0: all the statements, -1: disabled) -->
+ * <property name="tienda.slow_query.threshold_ms">100</property>
+ * <property name="tienda.slow_query.buffer_size">1024</property>
+ * }
+ * </pre>
+ * <ul>
+ *     <li>Timing: the JDBC connections are wrapped by {@link SlowQueryConnectionProvider} (plain delegates, no reflection),
+ *     it measures the executions of each statement and the fetch of its rows, a single time per result set from the end
+ *     of the execution until it's closed (the rows are counted, not timed one by one). It includes the plain JDBC
+ *     of {@code session.doWork}.</li>
+ *     <li>DAO method: the instrumented call in progress ({@link DAOMetrics}), otherwise it's searched in the stack
+ *     (only for the slow ones). {@link DAOStatementInspector} also adds it as SQL comment to the statements of Hibernate,
+ *     the logs of the database ({@code log_min_duration_statement}, {@code pg_stat_statements}) see it too.</li>
+ *     <li>The entries are logged by a daemon thread, the threads of the queries only add them to a bounded buffer.
+ *     If the buffer is full the entry is discarded and counted ({@link #dropped()}), a query never waits for the log.</li>
+ * </ul>
+ * The settings are read in the bootstrap of HibernateUtil.
+ */
+public final class SlowQueryLog {
+    public static final String THRESHOLD_SETTING = "tienda.slow_query.threshold_ms";
+    public static final String BUFFER_SIZE_SETTING = "tienda.slow_query.buffer_size";
+    public static final long DEFAULT_THRESHOLD_MS = 100;
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    private static final Logger LOGGER = Logger.getLogger(SlowQueryLog.class.getName());
+
+    private static volatile long thresholdNanos = -1;
+    private static volatile BlockingQueue<Entry> buffer;
+    // Offered and not logged yet, see awaitDrained
+    private static final AtomicLong pending = new AtomicLong();
+    private static final LongAdder dropped = new LongAdder();
+
+    /**
+     * A slow statement
+     *
+     * @param sql        SQL of the statement (the last one of a batch or of a plain Statement)
+     * @param parameters JDBC parameters of the statement
+     * @param rows       rows fetched (queries) or affected (updates and batches)
+     * @param caller     DAO class and method, null if it wasn't called by a DAO
+     * @param nanos      execution and fetch time
+     */
+    public record Entry(String sql, int parameters, long rows, String caller, long nanos) {
+        @Override
+        public String toString() {
+            return String.format("Slow query %.3f ms, %d rows, %d parameters, %s: %s",
+                    nanos / 1_000_000.0, rows, parameters, (caller == null) ? "(no DAO)" : caller, sql);
+        }
+    }
+
+    private SlowQueryLog() {
+    }
+
+    /**
+     * Reads the settings and starts the thread of the log.
+     *
+     * @param settings settings of hibernate.cfg.xml
+     * @return true if the log is enabled (threshold >= 0)
+     */
+    public static synchronized boolean configure(Map<?, ?> settings) {
+        long thresholdMs = parse(settings.get(THRESHOLD_SETTING), DEFAULT_THRESHOLD_MS);
+        int bufferSize = (int) parse(settings.get(BUFFER_SIZE_SETTING), DEFAULT_BUFFER_SIZE);
+        if (thresholdMs < 0) return false;
+
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        if (buffer == null) {
+            buffer = new ArrayBlockingQueue<>(Math.max(bufferSize, 1));
+            Thread writer = new Thread(SlowQueryLog::write, "slow-query-log");
+            writer.setDaemon(true);
+            writer.start();
+        }
+        return true;
+    }
+
+    public static boolean isEnabled() {
+        return buffer != null && thresholdNanos >= 0;
+    }
+
+    /**
+     * Changes the threshold at runtime (only if the log was enabled in the bootstrap).
+     *
+     * @param threshold minimum duration of the logged statements, zero logs all of them
+     */
+    public static void setThreshold(Duration threshold) {
+        thresholdNanos = threshold.toNanos();
+    }
+
+    public static Duration getThreshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    /**
+     * @return entries discarded because the buffer was full
+     */
+    public static long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Waits until all the offered entries are logged (for testing purposes).
+     *
+     * @return true if the buffer was drained before the timeout
+     */
+    public static boolean awaitDrained(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pending.get() > 0) {
+            if (System.nanoTime() > deadline) return false;
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    /**
+     * Wraps a connection of a pool so that its statements are measured (see {@link SlowQueryConnectionProvider}).
+     *
+     * @return the connection that Hibernate uses
+     */
+    public static Connection wrap(Connection connection) {
+        return TimedJdbc.wrap(connection);
+    }
+
+    /**
+     * @return the connection of the pool of a connection returned by {@link #wrap(Connection)}
+     */
+    public static Connection unwrap(Connection connection) {
+        return TimedJdbc.unwrap(connection);
+    }
+
+    static boolean isSlow(long nanos) {
+        long threshold = thresholdNanos;
+        return threshold >= 0 && nanos >= threshold;
+    }
+
+    /**
+     * Adds the entry to the buffer without blocking, discarded if the buffer is full.
+     */
+    static void offer(Entry entry) {
+        BlockingQueue<Entry> queue = buffer;
+        if (queue == null) return;
+
+        pending.incrementAndGet();
+        if (!queue.offer(entry)) {
+            pending.decrementAndGet();
+            dropped.increment();
+        }
+    }
+
+    private static void write() {
+        while (true) {
+            try {
+                Entry entry = buffer.take();
+                try {
+                    LOGGER.warning(entry.toString());
+                } finally {
+                    pending.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // The log must survive a failing handler
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static long parse(Object value, long defaultValue) {
+        return (value == null) ? defaultValue : Long.parseLong(value.toString().trim());
+    }
+}
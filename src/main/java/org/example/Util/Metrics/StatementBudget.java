@@ -0,0 +1,31 @@
+package org.example.Util.Metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a DAO method may send to the database, in all the sessions it opens. <br>
+ * Checked by {@link DAOMetrics} in the instrumented DAOs: when a call exceeds it, a warning is logged with the statements
+ * of the call and it's counted in {@link MethodMetricsMXBean#getOverBudget()}. The tests assert the exact number of
+ * statements with {@link StatementRecorder#record(Runnable)}.
+ * <pre>
+ * {@code
+ * @StatementBudget(1)
+ * public Optional<CategoryEntity> getByIdEager(Long id) { ... }
+ * }
+ * </pre>
+ * PD: Only the statements of Hibernate are counted ({@link DAOStatementInspector}),
+ * the plain JDBC ones of {@code session.doWork} aren't.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface StatementBudget {
+    /**
+     * @return maximum statements of a call
+     */
+    int value();
+}
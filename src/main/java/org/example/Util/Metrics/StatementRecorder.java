@@ -0,0 +1,117 @@
+package org.example.Util.Metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Records the SQL statements sent by the current thread, tagged with the instrumented DAO method that sends them,
+ * to detect N+1 selects (EAGER associations, lazy collections initialized one by one...):
+ * <pre>
+ * {@code
+ * List<StatementRecorder.Statement> statements = StatementRecorder.record(() -> categoryDAO.getByIdEager(id));
+ * assertEquals(1, statements.size(), statements.toString());
+ * }
+ * </pre>
+ * The recordings can be nested (a test around an instrumented DAO with a {@link StatementBudget}),
+ * each statement is added to all the recordings open in the thread. <br>
+ * The DAOs open and close their sessions in the thread of the call, so a recording covers all of them.
+ */
+public final class StatementRecorder {
+    private static final Logger LOGGER = Logger.getLogger(StatementRecorder.class.getName());
+    private static final ThreadLocal<List<Recording>> ACTIVE = new ThreadLocal<>();
+
+    /**
+     * @param method DAO method that sent the statement ({@code CategoryDAOImpl.findById}), null outside an instrumented DAO
+     * @param sql    the statement
+     */
+    public record Statement(String method, String sql) {
+        @Override
+        public String toString() {
+            return (method == null) ? sql : method + ": " + sql;
+        }
+    }
+
+    /**
+     * Statements recorded since {@link #start()} until it's closed
+     */
+    public static final class Recording implements AutoCloseable {
+        private final List<Statement> statements = new ArrayList<>();
+
+        private Recording() {
+        }
+
+        public List<Statement> getStatements() {
+            return Collections.unmodifiableList(statements);
+        }
+
+        public int count() {
+            return statements.size();
+        }
+
+        @Override
+        public void close() {
+            List<Recording> recordings = ACTIVE.get();
+            if (recordings == null) return;
+            recordings.remove(this);
+            if (recordings.isEmpty()) ACTIVE.remove();
+        }
+
+        @Override
+        public String toString() {
+            return statements.stream().map(Statement::toString).collect(Collectors.joining("\n  ", "  ", ""));
+        }
+    }
+
+    private StatementRecorder() {
+    }
+
+    /**
+     * Starts a recording of the statements of the current thread, must be closed in the same thread.
+     */
+    public static Recording start() {
+        List<Recording> recordings = ACTIVE.get();
+        if (recordings == null) {
+            recordings = new ArrayList<>(2);
+            ACTIVE.set(recordings);
+        }
+        Recording recording = new Recording();
+        recordings.add(recording);
+        return recording;
+    }
+
+    /**
+     * @param action DAO calls to record
+     * @return the statements sent by the action, in order
+     */
+    public static List<Statement> record(Runnable action) {
+        try (Recording recording = start()) {
+            action.run();
+            return recording.getStatements();
+        }
+    }
+
+    /**
+     * Adds a statement to the recordings of the current thread (nothing if there is none)
+     */
+    static void record(String method, String sql) {
+        List<Recording> recordings = ACTIVE.get();
+        if (recordings == null) return;
+
+        Statement statement = new Statement(method, sql);
+        for (Recording recording : recordings) recording.statements.add(statement);
+    }
+
+    /**
+     * Logs a warning with the statements of the call if it exceeded its budget.
+     *
+     * @return true if the budget was exceeded
+     */
+    static boolean checkBudget(String method, int budget, Recording recording) {
+        if (recording.count() <= budget) return false;
+        LOGGER.warning(String.format("%s sent %d statements, budget %d:%n%s", method, recording.count(), budget, recording));
+        return true;
+    }
+}
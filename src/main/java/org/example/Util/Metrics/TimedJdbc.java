@@ -0,0 +1,67 @@
+package org.example.Util.Metrics;
+
+import java.sql.Connection;
+import java.util.Optional;
+
+/**
+ * JDBC wrappers of {@link SlowQueryConnectionProvider}: plain delegates ({@link TimedConnection}, {@link TimedStatement},
+ * {@link TimedResultSet}) without reflection. A statement measures its executions and a single fetch time per result set,
+ * when the statement is closed it's offered to {@link SlowQueryLog} if it was slow. <br>
+ * Per statement it's a few {@code System.nanoTime()} and counters, per row a counter, the SQL isn't formatted unless it's slow.
+ */
+final class TimedJdbc {
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final String DAOS_PACKAGE = "org.example.DAOs.";
+
+    private TimedJdbc() {
+    }
+
+    static Connection wrap(Connection connection) {
+        return new TimedConnection(connection);
+    }
+
+    /**
+     * @return the real connection of a wrapped connection, the same connection otherwise
+     */
+    static Connection unwrap(Connection connection) {
+        return (connection instanceof TimedConnection timed) ? timed.connection : connection;
+    }
+
+    /**
+     * @return number of JDBC parameters ({@code ?} outside of the literals and comments)
+     */
+    static int parameters(String sql) {
+        if (sql == null) return 0;
+
+        int parameters = 0;
+        boolean literal = false;
+        boolean comment = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (comment) {
+                if (c == '*' && i + 1 < sql.length() && sql.charAt(i + 1) == '/') comment = false;
+            } else if (c == '\'') {
+                literal = !literal;
+            } else if (!literal && c == '/' && i + 1 < sql.length() && sql.charAt(i + 1) == '*') {
+                comment = true;
+            } else if (!literal && c == '?') {
+                parameters++;
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * @return the instrumented DAO method in progress, or the first DAO method in the stack (only for slow statements)
+     */
+    static String caller() {
+        String method = DAOMetrics.currentMethod();
+        if (method != null) return method;
+
+        Optional<String> frame = STACK_WALKER.walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(DAOS_PACKAGE))
+                .findFirst()
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName()));
+        return frame.orElse(null);
+    }
+}
@@ -0,0 +1,397 @@
+package org.example.Util.Metrics;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+
+/**
+ * Statement of a {@link TimedConnection}, a plain delegate that measures the time of the statement:
+ * its executions ({@code execute*}) and, once per result set, the time from the end of the execution until the result set
+ * is closed (the fetch of the rows, without a {@code System.nanoTime()} per row). When the statement is closed
+ * it's offered to {@link SlowQueryLog} if it was slow. <br>
+ * Not thread-safe, like the statements of the drivers.
+ *
+ * @param <S> type of the statement of the driver
+ */
+class TimedStatement<S extends Statement> implements Statement {
+    final S statement;
+    private final Connection connection;
+    // SQL of the prepared statement, or the last one of a plain statement
+    private String sql;
+    private long nanos;
+    private long rows;
+    // Result set of the last execution, until it's closed
+    private TimedResultSet resultSet;
+
+    /**
+     * Execution of the statement of the driver.
+     */
+    @FunctionalInterface
+    interface Execution<T> {
+        T execute() throws SQLException;
+    }
+
+    /**
+     * @param statement  statement of the driver
+     * @param connection the wrapped connection that created it
+     * @param sql        SQL of a prepared statement, null in a plain statement
+     */
+    TimedStatement(S statement, Connection connection, String sql) {
+        this.statement = statement;
+        this.connection = connection;
+        this.sql = sql;
+    }
+
+    /**
+     * @param sql SQL of a plain statement, null if it's the one of the prepared statement
+     * @return the result of the execution, its time is added to the statement
+     */
+    final <T> T timed(String sql, Execution<T> execution) throws SQLException {
+        fetched();
+        if (sql != null) this.sql = sql;
+        long start = System.nanoTime();
+        try {
+            return execution.execute();
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * @return the result set of an execution, it adds its fetch to the statement when it's closed
+     */
+    final ResultSet query(ResultSet resultSet) {
+        if (resultSet == null) return null;
+        this.resultSet = new TimedResultSet(resultSet, this);
+        return this.resultSet;
+    }
+
+    final int updated(int count) {
+        if (count > 0) rows += count;
+        return count;
+    }
+
+    final long updated(long count) {
+        if (count > 0) rows += count;
+        return count;
+    }
+
+    final int[] updated(int[] counts) {
+        for (int count : counts) updated(count);
+        return counts;
+    }
+
+    final long[] updated(long[] counts) {
+        for (long count : counts) updated(count);
+        return counts;
+    }
+
+    /**
+     * Called by the result set when it's closed.
+     */
+    final void fetched(TimedResultSet resultSet, long nanos, long rows) {
+        this.nanos += nanos;
+        this.rows += rows;
+        if (this.resultSet == resultSet) this.resultSet = null;
+    }
+
+    /**
+     * The result set still open is closed by the driver (a new execution, getMoreResults or close), its fetch ends now.
+     */
+    private void fetched() {
+        if (resultSet != null) resultSet.fetched();
+    }
+
+    private void report() {
+        long elapsed = nanos;
+        nanos = 0;
+        if (elapsed == 0 || !SlowQueryLog.isSlow(elapsed)) return;
+        SlowQueryLog.offer(new SlowQueryLog.Entry(sql, TimedJdbc.parameters(sql), rows, TimedJdbc.caller(), elapsed));
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        return query(timed(sql, () -> statement.executeQuery(sql)));
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        return updated(timed(sql, () -> statement.executeUpdate(sql)));
+    }
+
+    @Override
+    public void close() throws SQLException {
+        fetched();
+        report();
+        statement.close();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return statement.getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        statement.setMaxFieldSize(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return statement.getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        statement.setMaxRows(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        statement.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return statement.getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        statement.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        statement.cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return statement.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        statement.clearWarnings();
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        statement.setCursorName(name);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        return timed(sql, () -> statement.execute(sql));
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        ResultSet current = statement.getResultSet();
+        if (resultSet != null && resultSet.wraps(current)) return resultSet;
+        return query(current);
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return statement.getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return timed(null, () -> statement.getMoreResults());
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        statement.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return statement.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        statement.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return statement.getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return statement.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return statement.getResultSetType();
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        statement.addBatch(sql);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        statement.clearBatch();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        return updated(timed(null, () -> statement.executeBatch()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection;
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return timed(null, () -> statement.getMoreResults(current));
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return statement.getGeneratedKeys();
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return updated(timed(sql, () -> statement.executeUpdate(sql, autoGeneratedKeys)));
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return updated(timed(sql, () -> statement.executeUpdate(sql, columnIndexes)));
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        return updated(timed(sql, () -> statement.executeUpdate(sql, columnNames)));
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        return timed(sql, () -> statement.execute(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        return timed(sql, () -> statement.execute(sql, columnIndexes));
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        return timed(sql, () -> statement.execute(sql, columnNames));
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return statement.getResultSetHoldability();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return statement.isClosed();
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        statement.setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return statement.isPoolable();
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        statement.closeOnCompletion();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return statement.isCloseOnCompletion();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return statement.getLargeUpdateCount();
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        statement.setLargeMaxRows(max);
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return statement.getLargeMaxRows();
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        return updated(timed(null, () -> statement.executeLargeBatch()));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        return updated(timed(sql, () -> statement.executeLargeUpdate(sql)));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return updated(timed(sql, () -> statement.executeLargeUpdate(sql, autoGeneratedKeys)));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return updated(timed(sql, () -> statement.executeLargeUpdate(sql, columnIndexes)));
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        return updated(timed(sql, () -> statement.executeLargeUpdate(sql, columnNames)));
+    }
+
+    @Override
+    public String enquoteLiteral(String val) throws SQLException {
+        return statement.enquoteLiteral(val);
+    }
+
+    @Override
+    public String enquoteIdentifier(String identifier, boolean alwaysQuote) throws SQLException {
+        return statement.enquoteIdentifier(identifier, alwaysQuote);
+    }
+
+    @Override
+    public boolean isSimpleIdentifier(String identifier) throws SQLException {
+        return statement.isSimpleIdentifier(identifier);
+    }
+
+    @Override
+    public String enquoteNCharLiteral(String val) throws SQLException {
+        return statement.enquoteNCharLiteral(val);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return statement.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return statement.isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.Util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the optimistic merges (thread-safe), for compare them against the pessimistic ones under contention:
+ * <ul>
+ *     <li>{@code merges}: merges that were committed.</li>
+ *     <li>{@code conflicts}: attempts that failed because another transaction updated the row first.</li>
+ *     <li>{@code retries}: attempts executed after a conflict.</li>
+ *     <li>{@code failures}: merges abandoned because the {@link RetryPolicy} ran out of attempts.</li>
+ * </ul>
+ */
+public class OptimisticLockStats {
+    private final LongAdder merges = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public void merged() {
+        merges.increment();
+    }
+
+    public void conflict() {
+        conflicts.increment();
+    }
+
+    public void retry() {
+        retries.increment();
+    }
+
+    public void failure() {
+        failures.increment();
+    }
+
+    public long getMerges() {
+        return merges.sum();
+    }
+
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public void reset() {
+        merges.reset();
+        conflicts.reset();
+        retries.reset();
+        failures.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "OptimisticLockStats{" +
+                "merges=" + getMerges() +
+                ", conflicts=" + getConflicts() +
+                ", retries=" + getRetries() +
+                ", failures=" + getFailures() +
+                '}';
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.Util.Pool;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.example.Util.Metrics.DAOMetrics;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Metrics of the connection pool of {@link PooledConnectionProvider}:
+ * <ul>
+ *     <li>State: active, idle, total and pending (threads waiting for a connection), read from the pool when they're asked.</li>
+ *     <li>Acquisition time histogram (nanoseconds, 3 significant digits): the wait of a session for its connection,
+ *     it grows when the pool is too small for the concurrency.</li>
+ *     <li>Usage time histogram (milliseconds): how long the sessions hold their connections.</li>
+ *     <li>Timeouts and created connections.</li>
+ * </ul>
+ * Recorded by HikariCP through the {@link MetricsTrackerFactory} of the pool.
+ */
+public class PoolMetrics implements PoolMetricsMXBean, MetricsTrackerFactory {
+    private static final Logger LOGGER = Logger.getLogger(PoolMetrics.class.getName());
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+    private static final long HIGHEST_TRACKABLE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final String poolName;
+    private final int maxSize;
+    private final Histogram acquire = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    private final Histogram usage = new ConcurrentHistogram(HIGHEST_TRACKABLE_MILLIS, SIGNIFICANT_DIGITS);
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private volatile HikariPoolMXBean pool;
+
+    PoolMetrics(String poolName, int maxSize) {
+        this.poolName = poolName;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the metrics of the pool of the SessionFactory, empty if it doesn't use {@link PooledConnectionProvider}
+     */
+    public static Optional<PoolMetrics> of(SessionFactory sessionFactory) {
+        ConnectionProvider provider = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(ConnectionProvider.class);
+        if (provider == null || !provider.isUnwrappableAs(PooledConnectionProvider.class)) return Optional.empty();
+        return Optional.ofNullable(provider.unwrap(PooledConnectionProvider.class).getMetrics());
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                created.increment();
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquire.recordValue(Math.min(Math.max(elapsedAcquiredNanos, 0), HIGHEST_TRACKABLE_NANOS));
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usage.recordValue(Math.min(Math.max(elapsedBorrowedMillis, 0), HIGHEST_TRACKABLE_MILLIS));
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    /**
+     * @param pool the pool, once it's started
+     */
+    void bind(HikariPoolMXBean pool) {
+        this.pool = pool;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = objectName(poolName);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(this, name);
+        } catch (Exception e) {
+            LOGGER.warning("Metrics of the pool " + poolName + " not registered in JMX: " + e.getMessage());
+        }
+    }
+
+    void unbind() {
+        pool = null;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = objectName(poolName);
+            if (server.isRegistered(name)) server.unregisterMBean(name);
+        } catch (Exception e) {
+            LOGGER.warning("Metrics of the pool " + poolName + " not unregistered from JMX: " + e.getMessage());
+        }
+    }
+
+    public static ObjectName objectName(String poolName) throws Exception {
+        return new ObjectName(String.format("%s:type=ConnectionPool,name=%s", DAOMetrics.JMX_DOMAIN, poolName));
+    }
+
+    @Override
+    public int getActive() {
+        HikariPoolMXBean pool = this.pool;
+        return (pool == null) ? 0 : pool.getActiveConnections();
+    }
+
+    @Override
+    public int getIdle() {
+        HikariPoolMXBean pool = this.pool;
+        return (pool == null) ? 0 : pool.getIdleConnections();
+    }
+
+    @Override
+    public int getTotal() {
+        HikariPoolMXBean pool = this.pool;
+        return (pool == null) ? 0 : pool.getTotalConnections();
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int getPending() {
+        HikariPoolMXBean pool = this.pool;
+        return (pool == null) ? 0 : pool.getThreadsAwaitingConnection();
+    }
+
+    @Override
+    public long getAcquired() {
+        return acquire.getTotalCount();
+    }
+
+    @Override
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public long getCreated() {
+        return created.sum();
+    }
+
+    @Override
+    public double getAcquireP50Micros() {
+        return acquire.getValueAtPercentile(50) / 1_000.0;
+    }
+
+    @Override
+    public double getAcquireP99Micros() {
+        return acquire.getValueAtPercentile(99) / 1_000.0;
+    }
+
+    @Override
+    public double getAcquireP999Micros() {
+        return acquire.getValueAtPercentile(99.9) / 1_000.0;
+    }
+
+    @Override
+    public double getAcquireMaxMicros() {
+        return acquire.getMaxValue() / 1_000.0;
+    }
+
+    @Override
+    public double getUsageP99Millis() {
+        return usage.getValueAtPercentile(99);
+    }
+
+    @Override
+    public void reset() {
+        acquire.reset();
+        usage.reset();
+        timeouts.reset();
+        created.reset();
+    }
+
+    /**
+     * @return a line with the state of the pool and the acquisition time (microseconds, p50/p99/p999)
+     */
+    @Override
+    public String toString() {
+        return String.format("Pool %s: active=%d idle=%d total=%d/%d pending=%d acquired=%d timeouts=%d created=%d acquire=%.1f/%.1f/%.1f max=%.1f usageP99=%.0fms",
+                poolName, getActive(), getIdle(), getTotal(), getMaxSize(), getPending(), getAcquired(), getTimeouts(), getCreated(),
+                getAcquireP50Micros(), getAcquireP99Micros(), getAcquireP999Micros(), getAcquireMaxMicros(), getUsageP99Millis());
+    }
+}
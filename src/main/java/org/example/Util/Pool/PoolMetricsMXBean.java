@@ -0,0 +1,50 @@
+package org.example.Util.Pool;
+
+/**
+ * JMX view of the connection pool of the SessionFactory ({@link PoolMetrics}),
+ * registered as {@code org.example.DAOs:type=ConnectionPool,name=<pool>}.
+ */
+public interface PoolMetricsMXBean {
+    /**
+     * @return connections in use by a session
+     */
+    int getActive();
+
+    int getIdle();
+
+    int getTotal();
+
+    int getMaxSize();
+
+    /**
+     * @return threads waiting for a connection
+     */
+    int getPending();
+
+    /**
+     * @return connections acquired from the pool
+     */
+    long getAcquired();
+
+    /**
+     * @return acquisitions that failed because no connection was free before the acquisition timeout
+     */
+    long getTimeouts();
+
+    long getCreated();
+
+    double getAcquireP50Micros();
+
+    double getAcquireP99Micros();
+
+    double getAcquireP999Micros();
+
+    double getAcquireMaxMicros();
+
+    /**
+     * @return time a connection is held by a session (from acquisition to close), p99
+     */
+    double getUsageP99Millis();
+
+    void reset();
+}
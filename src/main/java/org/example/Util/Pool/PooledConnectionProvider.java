@@ -0,0 +1,176 @@
+package org.example.Util.Pool;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.Util.Metrics.SlowQueryLog;
+import org.hibernate.HibernateException;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Connection pool of the SessionFactory (HikariCP) instead of the built-in pool of Hibernate
+ * (DriverManagerConnectionProviderImpl, "not intended for production use"). <br>
+ * Connection settings: {@code jakarta.persistence.jdbc.url}, {@code .driver}, {@code .user} and {@code .password},
+ * or the legacy {@code connection.url}, {@code connection.driver_class}, {@code connection.username}
+ * and {@code connection.password} of hibernate.cfg.xml. Pool settings:
+ * <ul>
+ *     <li>{@value #MIN_IDLE_SETTING} / {@value #MAX_SIZE_SETTING}: connections kept idle and maximum connections.
+ *     More connections than cores x 2 don't increase the throughput of the database, the sessions wait in the pool
+ *     instead of in the database.</li>
+ *     <li>{@value #ACQUIRE_TIMEOUT_SETTING}: maximum wait for a connection, then the session fails with SQLTransientConnectionException.</li>
+ *     <li>{@value #LEAK_DETECTION_SETTING}: a connection held longer than this is logged with the stack trace of
+ *     the code that acquired it (a session not closed), 0 disables it.</li>
+ *     <li>{@value #STATEMENT_CACHE_SETTING}: prepared statements cached by each connection (server-side prepared
+ *     statements of the PostgreSQL driver, {@code preparedStatementCacheQueries}), 0 disables it.
+ *     Ignored with other drivers.</li>
+ * </ul>
+ * Enabled with {@value #ENABLED_SETTING}, installed by the bootstrap of HibernateUtil. The metrics of the pool
+ * (active, idle, pending and acquisition time) are in {@link PoolMetrics}.
+ * <p>
+ * PD: the statements are measured by the slow query log as with the built-in pool, the pooled connection is wrapped
+ * when it's acquired.
+ */
+public class PooledConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+    private static final Logger LOGGER = Logger.getLogger(PooledConnectionProvider.class.getName());
+    private static final AtomicInteger POOLS = new AtomicInteger();
+
+    public static final String ENABLED_SETTING = "tienda.pool.enabled";
+    public static final String MIN_IDLE_SETTING = "tienda.pool.min_idle";
+    public static final String MAX_SIZE_SETTING = "tienda.pool.max_size";
+    public static final String ACQUIRE_TIMEOUT_SETTING = "tienda.pool.acquire_timeout_ms";
+    public static final String LEAK_DETECTION_SETTING = "tienda.pool.leak_detection_ms";
+    public static final String STATEMENT_CACHE_SETTING = "tienda.pool.statement_cache_size";
+    public static final int DEFAULT_MIN_IDLE = 2;
+    public static final int DEFAULT_MAX_SIZE = 10;
+    public static final long DEFAULT_ACQUIRE_TIMEOUT_MS = 5_000;
+    public static final long DEFAULT_LEAK_DETECTION_MS = 0;
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 256;
+    // Legacy names of the connection settings (the deprecated JdbcSettings.URL, DRIVER, USER and PASS)
+    public static final String LEGACY_URL = "hibernate.connection.url";
+    public static final String LEGACY_DRIVER = "hibernate.connection.driver_class";
+    public static final String LEGACY_USER = "hibernate.connection.username";
+    public static final String LEGACY_PASS = "hibernate.connection.password";
+
+    private HikariDataSource dataSource;
+    private PoolMetrics metrics;
+
+    /**
+     * @param settings settings of hibernate.cfg.xml
+     * @return true if the pool is enabled ({@value #ENABLED_SETTING})
+     */
+    public static boolean isEnabled(Map<?, ?> settings) {
+        Object enabled = settings.get(ENABLED_SETTING);
+        return enabled != null && Boolean.parseBoolean(enabled.toString().trim());
+    }
+
+    @Override
+    public void configure(Map<String, Object> settings) {
+        String url = string(settings, AvailableSettings.JAKARTA_JDBC_URL, LEGACY_URL);
+        if (url == null) throw new HibernateException("The pool needs " + AvailableSettings.JAKARTA_JDBC_URL + " or " + LEGACY_URL);
+
+        HikariConfig config = new HikariConfig();
+        String poolName = "tienda-" + POOLS.incrementAndGet();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(url);
+        String driver = string(settings, AvailableSettings.JAKARTA_JDBC_DRIVER, LEGACY_DRIVER);
+        if (driver != null) config.setDriverClassName(driver);
+        String user = string(settings, AvailableSettings.JAKARTA_JDBC_USER, LEGACY_USER);
+        if (user != null) config.setUsername(user);
+        String password = string(settings, AvailableSettings.JAKARTA_JDBC_PASSWORD, LEGACY_PASS);
+        if (password != null) config.setPassword(password);
+        // As the built-in pool: Hibernate begins and ends the transactions
+        config.setAutoCommit(false);
+
+        int maxSize = (int) parse(settings.get(MAX_SIZE_SETTING), DEFAULT_MAX_SIZE);
+        config.setMaximumPoolSize(Math.max(maxSize, 1));
+        config.setMinimumIdle(Math.min((int) parse(settings.get(MIN_IDLE_SETTING), DEFAULT_MIN_IDLE), config.getMaximumPoolSize()));
+        config.setConnectionTimeout(parse(settings.get(ACQUIRE_TIMEOUT_SETTING), DEFAULT_ACQUIRE_TIMEOUT_MS));
+        config.setLeakDetectionThreshold(parse(settings.get(LEAK_DETECTION_SETTING), DEFAULT_LEAK_DETECTION_MS));
+        int statementCacheSize = (int) parse(settings.get(STATEMENT_CACHE_SETTING), DEFAULT_STATEMENT_CACHE_SIZE);
+        if (url.startsWith("jdbc:postgresql:")) {
+            config.addDataSourceProperty("preparedStatementCacheQueries", Math.max(statementCacheSize, 0));
+            // 0 disables the cache: the statements are never prepared on the server
+            if (statementCacheSize <= 0) config.addDataSourceProperty("prepareThreshold", 0);
+        }
+
+        metrics = new PoolMetrics(poolName, config.getMaximumPoolSize());
+        config.setMetricsTrackerFactory(metrics);
+        dataSource = new HikariDataSource(config);
+        metrics.bind(dataSource.getHikariPoolMXBean());
+        LOGGER.info(String.format("Connection pool %s: min idle=%d, max size=%d, acquire timeout=%dms, leak detection=%dms",
+                poolName, config.getMinimumIdle(), config.getMaximumPoolSize(), config.getConnectionTimeout(),
+                config.getLeakDetectionThreshold()));
+    }
+
+    public PoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        return SlowQueryLog.isEnabled() ? SlowQueryLog.wrap(connection) : connection;
+    }
+
+    /**
+     * Returns the connection to the pool.
+     */
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        SlowQueryLog.unwrap(connection).close();
+    }
+
+    /**
+     * The connection is kept by the session until it's closed, the pool isn't asked after every statement.
+     */
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isAssignableFrom(PooledConnectionProvider.class) || unwrapType.isAssignableFrom(DataSource.class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isAssignableFrom(PooledConnectionProvider.class)) return (T) this;
+        if (unwrapType.isAssignableFrom(DataSource.class)) return (T) dataSource;
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+
+    @Override
+    public void stop() {
+        if (metrics != null) metrics.unbind();
+        if (dataSource != null) dataSource.close();
+    }
+
+    private static String string(Map<String, Object> settings, String name) {
+        Object value = settings.get(name);
+        return (value == null || value.toString().isBlank()) ? null : value.toString().trim();
+    }
+
+    /**
+     * @return the JPA setting, the legacy one of Hibernate without it (the JPA one wins, as in Hibernate)
+     */
+    private static String string(Map<String, Object> settings, String name, String legacyName) {
+        String value = string(settings, name);
+        return (value != null) ? value : string(settings, legacyName);
+    }
+
+    private static long parse(Object value, long defaultValue) {
+        return (value == null) ? defaultValue : Long.parseLong(value.toString().trim());
+    }
+}
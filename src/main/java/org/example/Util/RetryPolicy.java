@@ -0,0 +1,93 @@
+package org.example.Util;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How many times an operation is retried and how long to wait between attempts,
+ * used by the optimistic merges when another transaction updated the same row (OptimisticLockException). <br>
+ * The wait grows exponentially: {@code initialBackoff * multiplier^(attempt - 1)}, limited by {@code maxBackoff},
+ * with a random jitter of +-50% to avoid that the conflicting threads retry at the same time.
+ */
+public class RetryPolicy {
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final double multiplier;
+    private final Duration maxBackoff;
+
+    /**
+     * @param maxAttempts    total attempts, including the first one (1 = no retries)
+     * @param initialBackoff wait before the first retry
+     * @param multiplier     factor applied to the wait after each retry
+     * @param maxBackoff     maximum wait between attempts
+     */
+    public RetryPolicy(int maxAttempts, Duration initialBackoff, double multiplier, Duration maxBackoff) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be greater than 0");
+        if (initialBackoff.isNegative() || maxBackoff.isNegative()) throw new IllegalArgumentException("backoff can't be negative");
+        if (multiplier < 1) throw new IllegalArgumentException("multiplier must be greater or equal than 1");
+
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.multiplier = multiplier;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * @return 5 attempts, waiting 10ms, 20ms, 40ms, 80ms (+-50%)
+     */
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(5, Duration.ofMillis(10), 2, Duration.ofMillis(500));
+    }
+
+    /**
+     * @return a policy with a single attempt
+     */
+    public static RetryPolicy noRetries() {
+        return new RetryPolicy(1, Duration.ZERO, 1, Duration.ZERO);
+    }
+
+    /**
+     * @param attempt the attempt that failed (starting at 1)
+     * @return true if another attempt is allowed
+     */
+    public boolean canRetry(int attempt) {
+        return attempt < maxAttempts;
+    }
+
+    /**
+     * @param attempt the attempt that failed (starting at 1)
+     * @return the wait in milliseconds before the next attempt
+     */
+    public long backoffMillis(int attempt) {
+        double backoff = initialBackoff.toMillis() * Math.pow(multiplier, attempt - 1);
+        long capped = (long) Math.min(backoff, maxBackoff.toMillis());
+        if (capped <= 0) return 0;
+
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped + 1);
+    }
+
+    /**
+     * Sleeps the backoff of the given attempt.
+     *
+     * @param attempt the attempt that failed (starting at 1)
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void backoff(int attempt) throws InterruptedException {
+        long millis = backoffMillis(attempt);
+        if (millis > 0) Thread.sleep(millis);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+                "maxAttempts=" + maxAttempts +
+                ", initialBackoff=" + initialBackoff +
+                ", multiplier=" + multiplier +
+                ", maxBackoff=" + maxBackoff +
+                '}';
+    }
+}
@@ -0,0 +1,311 @@
+package org.example.Util.Routing;
+
+import org.example.Util.Pool.PoolMetrics;
+import org.example.Util.Pool.PooledConnectionProvider;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Routing of the DAO sessions between the primary SessionFactory and the read replicas:
+ * <ul>
+ *     <li>Writes (and every session of a {@code UnitOfWork}) go to the primary, {@code HibernateUtil.openSession()}.</li>
+ *     <li>Reads go to a replica, {@code HibernateUtil.openReadSession()}: the DAO methods that only read
+ *     (find*, list*, count, streams) open their session with it.</li>
+ *     <li>A replica with more replication lag than {@value #MAX_LAG_SETTING} (or that can't be reached) isn't used
+ *     until its next check ({@link ReplicationLagProbe}), without any replica the read goes to the primary.
+ *     The lags are checked every {@value #LAG_CHECK_SETTING} ms by a daemon thread of the router, the reads only
+ *     read the last lag (a slow or unreachable replica doesn't delay them). Until its first check a replica isn't used.</li>
+ *     <li>The replica of a read is chosen by the {@link ReplicaLoadBalancer}.</li>
+ * </ul>
+ * Settings (hibernate.cfg.xml or system properties):
+ * <ul>
+ *     <li>{@value #URLS_SETTING}: JDBC URLs of the replicas separated by commas, without it there is no routing.</li>
+ *     <li>{@value #USERNAME_SETTING} / {@value #PASSWORD_SETTING}: credentials of the replicas, those of the primary by default.</li>
+ *     <li>{@value #LOAD_BALANCER_SETTING}, {@value #LAG_PROBE_SETTING}, {@value #MAX_LAG_SETTING} and {@value #LAG_CHECK_SETTING}.</li>
+ *     <li>{@value #HBM2DDL_SETTING}: hbm2ddl of the replicas, {@code none} by default (the schema is replicated),
+ *     {@code create-drop} with embedded databases.</li>
+ * </ul>
+ * Every replica is a SessionFactory with the configuration of the primary and its own connection pool,
+ * built by {@code HibernateUtil.start()}.
+ * <p>
+ * PD: the replicas don't have the second level cache nor the query cache, the writes only evict the caches of the
+ * primary and a replica would serve stale entities after the replication. A read after a write of the same thread
+ * can miss it (replication lag), read it in a {@code UnitOfWork} (primary).
+ */
+public final class ReadWriteRouter {
+    private static final Logger LOGGER = Logger.getLogger(ReadWriteRouter.class.getName());
+    public static final String URLS_SETTING = "tienda.replica.urls";
+    public static final String USERNAME_SETTING = "tienda.replica.username";
+    public static final String PASSWORD_SETTING = "tienda.replica.password";
+    public static final String LOAD_BALANCER_SETTING = "tienda.replica.load_balancer";
+    public static final String LAG_PROBE_SETTING = "tienda.replica.lag_probe";
+    public static final String MAX_LAG_SETTING = "tienda.replica.max_lag_ms";
+    public static final String LAG_CHECK_SETTING = "tienda.replica.lag_check_ms";
+    public static final String HBM2DDL_SETTING = "tienda.replica.hbm2ddl.auto";
+    public static final String DEFAULT_LOAD_BALANCER = "round_robin";
+    public static final String DEFAULT_LAG_PROBE = "postgresql";
+    public static final long DEFAULT_MAX_LAG_MS = 1_000;
+    public static final long DEFAULT_LAG_CHECK_MS = 500;
+    public static final String DEFAULT_HBM2DDL = "none";
+    // Lag of a replica that couldn't be checked
+    private static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final SessionFactory primary;
+    private final List<Replica> replicas;
+    private final ReplicaLoadBalancer loadBalancer;
+    private final ReplicationLagProbe lagProbe;
+    private final long maxLagMillis;
+    private final ScheduledExecutorService lagChecker;
+    private final LongAdder primaryReads = new LongAdder();
+
+    /**
+     * A read replica: its SessionFactory, the last replication lag checked and the reads routed to it.
+     */
+    public static final class Replica {
+        private final String name;
+        private final SessionFactory sessionFactory;
+        private final StandardServiceRegistry registry;
+        private final LongAdder reads = new LongAdder();
+        private volatile long lagMillis = UNREACHABLE;
+        private boolean checked;
+
+        public Replica(String name, SessionFactory sessionFactory, StandardServiceRegistry registry) {
+            this.name = name;
+            this.sessionFactory = sessionFactory;
+            this.registry = registry;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public SessionFactory getSessionFactory() {
+            return sessionFactory;
+        }
+
+        /**
+         * @return replication lag of the last check in ms, {@link Long#MAX_VALUE} if it couldn't be checked
+         */
+        public long getLagMillis() {
+            return lagMillis;
+        }
+
+        public long getReads() {
+            return reads.sum();
+        }
+
+        /**
+         * @return connections of the replica in use, 0 without {@link PoolMetrics}
+         */
+        public int getActiveConnections() {
+            return PoolMetrics.of(sessionFactory).map(PoolMetrics::getActive).orElse(0);
+        }
+
+        /**
+         * Checks the lag with the probe, called by {@link ReadWriteRouter#checkLags()} (one check at a time).
+         */
+        void checkLag(ReplicationLagProbe probe, long maxLagMillis) {
+            // Only a replica lagging behind after its first check is logged
+            boolean wasAvailable = !checked || lagMillis <= maxLagMillis;
+            lagMillis = lag(probe);
+            checked = true;
+            if (wasAvailable && lagMillis > maxLagMillis) {
+                LOGGER.warning("Replica " + name + " not used, lag " + (lagMillis == UNREACHABLE ? "unknown" : lagMillis + " ms") + " > " + maxLagMillis + " ms");
+            } else if (!wasAvailable && lagMillis <= maxLagMillis) {
+                LOGGER.info("Replica " + name + " available again, lag " + lagMillis + " ms");
+            }
+        }
+
+        private long lag(ReplicationLagProbe probe) {
+            ConnectionProvider provider = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry().requireService(ConnectionProvider.class);
+            try {
+                Connection connection = provider.getConnection();
+                try {
+                    return Math.max(0, probe.lag(connection).toMillis());
+                } finally {
+                    provider.closeConnection(connection);
+                }
+            } catch (SQLException | RuntimeException e) {
+                LOGGER.warning("Replication lag of " + name + " not checked: " + e.getMessage());
+                return UNREACHABLE;
+            }
+        }
+
+        /**
+         * Closes the SessionFactory of the replica and destroys its registry.
+         */
+        public void close() {
+            sessionFactory.close();
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+
+        @Override
+        public String toString() {
+            return name + " (lag=" + (lagMillis == UNREACHABLE ? "unknown" : lagMillis + " ms") + ", reads=" + getReads() + ")";
+        }
+    }
+
+    /**
+     * @param primary  SessionFactory of the writes
+     * @param replicas SessionFactories of the reads, at least one
+     * @param settings settings of hibernate.cfg.xml (load balancer, lag probe and limits)
+     */
+    public ReadWriteRouter(SessionFactory primary, List<Replica> replicas, Map<?, ?> settings) {
+        if (replicas.isEmpty()) throw new IllegalArgumentException("The router needs a replica");
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.loadBalancer = ReplicaLoadBalancer.of(string(settings, LOAD_BALANCER_SETTING, DEFAULT_LOAD_BALANCER));
+        this.lagProbe = ReplicationLagProbe.of(string(settings, LAG_PROBE_SETTING, DEFAULT_LAG_PROBE));
+        this.maxLagMillis = Long.parseLong(string(settings, MAX_LAG_SETTING, String.valueOf(DEFAULT_MAX_LAG_MS)));
+        long lagCheckMillis = Long.parseLong(string(settings, LAG_CHECK_SETTING, String.valueOf(DEFAULT_LAG_CHECK_MS)));
+        if (lagCheckMillis < 1) throw new IllegalArgumentException(LAG_CHECK_SETTING + " must be > 0");
+        this.lagChecker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("replica-lag-check").factory());
+        lagChecker.scheduleWithFixedDelay(this::checkLags, 0, lagCheckMillis, TimeUnit.MILLISECONDS);
+        LOGGER.info("Read/write routing: " + replicas.size() + " replicas, max lag " + maxLagMillis + " ms, checked every " + lagCheckMillis + " ms");
+    }
+
+    /**
+     * @param settings settings of hibernate.cfg.xml
+     * @return JDBC URLs of the replicas ({@value #URLS_SETTING}), empty without replicas
+     */
+    public static List<String> replicaUrls(Map<?, ?> settings) {
+        String urls = string(settings, URLS_SETTING, "");
+        return Arrays.stream(urls.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+
+    /**
+     * @param settings settings of the primary
+     * @param url      JDBC URL of the replica
+     * @return settings that turn the configuration of the primary into the one of the replica
+     */
+    public static Map<String, Object> replicaSettings(Map<?, ?> settings, String url) {
+        Map<String, Object> replica = new HashMap<>();
+        // Both the JPA and the legacy names: the JPA one wins, overriding only the legacy one connects to the primary
+        replica.put(AvailableSettings.JAKARTA_JDBC_URL, url);
+        replica.put(PooledConnectionProvider.LEGACY_URL, url);
+        if (settings.get(USERNAME_SETTING) != null) {
+            replica.put(AvailableSettings.JAKARTA_JDBC_USER, settings.get(USERNAME_SETTING));
+            replica.put(PooledConnectionProvider.LEGACY_USER, settings.get(USERNAME_SETTING));
+        }
+        if (settings.get(PASSWORD_SETTING) != null) {
+            replica.put(AvailableSettings.JAKARTA_JDBC_PASSWORD, settings.get(PASSWORD_SETTING));
+            replica.put(PooledConnectionProvider.LEGACY_PASS, settings.get(PASSWORD_SETTING));
+        }
+        replica.put(AvailableSettings.HBM2DDL_AUTO, string(settings, HBM2DDL_SETTING, DEFAULT_HBM2DDL));
+        replica.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+        replica.put(AvailableSettings.USE_QUERY_CACHE, "false");
+        return replica;
+    }
+
+    /**
+     * Checks the replication lag of every replica now, the daemon thread of the router calls it
+     * every {@value #LAG_CHECK_SETTING} ms.
+     */
+    public synchronized void checkLags() {
+        for (Replica replica : replicas) {
+            try {
+                replica.checkLag(lagProbe, maxLagMillis);
+            } catch (RuntimeException e) {
+                // An exception would cancel the next checks of the scheduler
+                LOGGER.warning("Error checking the lag of the replica " + replica.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Session of a read: a replica within the lag limit (of its last check) chosen by the load balancer,
+     * the primary if there isn't any.
+     *
+     * @return a new Session, closed by the caller
+     */
+    public Session openReadSession() {
+        List<Replica> available = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.getLagMillis() <= maxLagMillis) available.add(replica);
+        }
+        if (available.isEmpty()) {
+            primaryReads.increment();
+            return primary.openSession();
+        }
+
+        Replica replica = loadBalancer.choose(available);
+        replica.reads.increment();
+        return replica.getSessionFactory().openSession();
+    }
+
+    public SessionFactory getPrimary() {
+        return primary;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * @return reads sent to the primary because no replica was within the lag limit
+     */
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    /**
+     * Stops the lag checks and closes the replicas, the primary is closed by HibernateUtil.
+     */
+    public void close() {
+        lagChecker.shutdownNow();
+        try {
+            // A check in progress uses a connection of the replica
+            lagChecker.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Replica replica : replicas) {
+            try {
+                replica.close();
+            } catch (RuntimeException e) {
+                LOGGER.warning("Error closing the replica " + replica.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ReadWriteRouter{replicas=" + replicas + ", primaryReads=" + getPrimaryReads() + "}";
+    }
+
+    private static String string(Map<?, ?> settings, String name, String defaultValue) {
+        Object value = settings.get(name);
+        return (value == null || value.toString().isBlank()) ? defaultValue : value.toString().trim();
+    }
+
+    static <T> T instantiate(String className, Class<T> type) {
+        try {
+            return type.cast(Class.forName(className).getConstructor().newInstance());
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new HibernateException("Invalid " + type.getSimpleName() + ": " + className, e);
+        }
+    }
+}
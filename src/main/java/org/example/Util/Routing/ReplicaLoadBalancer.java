@@ -0,0 +1,60 @@
+package org.example.Util.Routing;
+
+import org.hibernate.HibernateException;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chooses the replica of a read among the replicas within the replication lag limit ({@link ReadWriteRouter}). <br>
+ * Configured with {@value ReadWriteRouter#LOAD_BALANCER_SETTING}: {@code round_robin} (default), {@code random},
+ * {@code least_active} or the name of a class that implements it (public constructor without arguments).
+ */
+@FunctionalInterface
+public interface ReplicaLoadBalancer {
+    /**
+     * @param replicas replicas available for the read, never empty
+     * @return the replica of the read, one of {@code replicas}
+     */
+    ReadWriteRouter.Replica choose(List<ReadWriteRouter.Replica> replicas);
+
+    /**
+     * @return the replicas in turn, the same number of reads to every replica
+     */
+    static ReplicaLoadBalancer roundRobin() {
+        AtomicInteger next = new AtomicInteger();
+        return replicas -> replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    /**
+     * @return a random replica, without shared state between the threads
+     */
+    static ReplicaLoadBalancer random() {
+        return replicas -> replicas.get(ThreadLocalRandom.current().nextInt(replicas.size()));
+    }
+
+    /**
+     * @return the replica with fewer connections in use (the slow replicas receive fewer reads)
+     */
+    static ReplicaLoadBalancer leastActive() {
+        return replicas -> replicas.stream()
+                .min(Comparator.comparingInt(ReadWriteRouter.Replica::getActiveConnections))
+                .orElseThrow();
+    }
+
+    /**
+     * @param name {@code round_robin}, {@code random}, {@code least_active} or a class name
+     * @return the load balancer
+     * @throws HibernateException if the class can't be instantiated
+     */
+    static ReplicaLoadBalancer of(String name) {
+        return switch (name.trim()) {
+            case "round_robin" -> roundRobin();
+            case "random" -> random();
+            case "least_active" -> leastActive();
+            default -> ReadWriteRouter.instantiate(name.trim(), ReplicaLoadBalancer.class);
+        };
+    }
+}
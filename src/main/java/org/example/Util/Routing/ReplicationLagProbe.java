@@ -0,0 +1,63 @@
+package org.example.Util.Routing;
+
+import org.hibernate.HibernateException;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Replication lag of a replica, read with a connection of the replica every {@value ReadWriteRouter#LAG_CHECK_SETTING}
+ * by the daemon thread of the router (never by a read). <br>
+ * Configured with {@value ReadWriteRouter#LAG_PROBE_SETTING}: {@code postgresql} (default), {@code none}
+ * or the name of a class that implements it (public constructor without arguments).
+ */
+@FunctionalInterface
+public interface ReplicationLagProbe {
+    /**
+     * Streaming replication of PostgreSQL: time since the last transaction replayed by the standby, zero when it has
+     * replayed all the WAL received (an idle primary doesn't mean a lagging standby) or when it isn't a standby.
+     */
+    String POSTGRESQL_LAG_SQL = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END""";
+
+    /**
+     * @param connection connection of the replica, closed by the caller
+     * @return replication lag of the replica
+     * @throws SQLException if the replica can't be queried, the replica isn't used until the next check
+     */
+    Duration lag(Connection connection) throws SQLException;
+
+    static ReplicationLagProbe postgresql() {
+        return connection -> {
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(POSTGRESQL_LAG_SQL)) {
+                resultSet.next();
+                return Duration.ofMillis((long) resultSet.getDouble(1));
+            }
+        };
+    }
+
+    /**
+     * @return always zero lag, e.g. replicas with synchronous replication or embedded databases
+     */
+    static ReplicationLagProbe none() {
+        return connection -> Duration.ZERO;
+    }
+
+    /**
+     * @param name {@code postgresql}, {@code none} or a class name
+     * @return the probe
+     * @throws HibernateException if the class can't be instantiated
+     */
+    static ReplicationLagProbe of(String name) {
+        return switch (name.trim()) {
+            case "postgresql" -> postgresql();
+            case "none" -> none();
+            default -> ReadWriteRouter.instantiate(name.trim(), ReplicationLagProbe.class);
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.Util;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.spi.QueryEngine;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Warm-up of a new SessionFactory, before it receives traffic (the first requests don't pay the startup cost):
+ * <ol>
+ *     <li>Named queries ({@code @NamedQuery}, e.g. {@code ProductEntity.find10Cheapest}): all of them are checked,
+ *     an invalid one fails the bootstrap with all the errors.</li>
+ *     <li>HQL of the DAOs: parsed into the HQL interpretation cache of Hibernate (the "query plan cache"), a DAO call
+ *     doesn't parse its query again. The key of the cache is the HQL and the result type,
+ *     they must be the same as in the DAO. The SQL of a query is generated (and cached) by its first execution,
+ *     it depends on the parameters and the limits of the call.</li>
+ *     <li>Connections: {@code connections} connections are opened and validated at the same time, the pool doesn't
+ *     create them while the first requests wait.</li>
+ * </ol>
+ * Run by {@link HibernateUtil#start()} when {@value #ENABLED_SETTING} is true.
+ */
+public final class SessionFactoryWarmup {
+    private static final Logger LOGGER = Logger.getLogger(SessionFactoryWarmup.class.getName());
+    public static final String ENABLED_SETTING = "tienda.warmup.enabled";
+    public static final String CONNECTIONS_SETTING = "tienda.warmup.connections";
+    public static final int DEFAULT_CONNECTIONS = 2;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    /**
+     * HQL query of a DAO.
+     *
+     * @param query      HQL, exactly as the DAO creates it
+     * @param resultType result type of the DAO query, null for a mutation (DELETE/UPDATE/INSERT)
+     */
+    public record Hql(String query, Class<?> resultType) {
+        public static Hql select(String query, Class<?> resultType) {
+            return new Hql(query, resultType);
+        }
+
+        public static Hql mutation(String query) {
+            return new Hql(query, null);
+        }
+    }
+
+    /**
+     * @param namedQueries named queries checked
+     * @param hqlQueries   DAO queries parsed
+     * @param connections  connections opened and validated
+     * @param duration     time of the warm-up
+     */
+    public record Report(int namedQueries, int hqlQueries, int connections, Duration duration) {
+        @Override
+        public String toString() {
+            return String.format("Warm-up: %d named queries, %d HQL queries, %d connections in %d ms",
+                    namedQueries, hqlQueries, connections, duration.toMillis());
+        }
+    }
+
+    private SessionFactoryWarmup() {
+    }
+
+    /**
+     * @param settings settings of hibernate.cfg.xml
+     * @return true if the warm-up is enabled ({@value #ENABLED_SETTING})
+     */
+    public static boolean isEnabled(Map<?, ?> settings) {
+        Object enabled = settings.get(ENABLED_SETTING);
+        return enabled != null && Boolean.parseBoolean(enabled.toString().trim());
+    }
+
+    /**
+     * @param settings settings of hibernate.cfg.xml
+     * @return connections to open in the warm-up ({@value #CONNECTIONS_SETTING})
+     */
+    public static int connections(Map<?, ?> settings) {
+        Object connections = settings.get(CONNECTIONS_SETTING);
+        return (connections == null) ? DEFAULT_CONNECTIONS : Integer.parseInt(connections.toString().trim());
+    }
+
+    /**
+     * @param sessionFactory the new SessionFactory
+     * @param queries        HQL queries of the DAOs
+     * @param connections    connections to open and validate, 0 doesn't open any
+     * @return what was warmed up
+     * @throws HibernateException if a named query or a DAO query is invalid
+     */
+    public static Report run(SessionFactory sessionFactory, Collection<Hql> queries, int connections) {
+        long start = System.nanoTime();
+        SessionFactoryImplementor factory = sessionFactory.unwrap(SessionFactoryImplementor.class);
+
+        int namedQueries = checkNamedQueries(factory.getQueryEngine());
+        parse(sessionFactory, queries);
+        int opened = openConnections(factory.getServiceRegistry().getService(ConnectionProvider.class), connections);
+
+        Report report = new Report(namedQueries, queries.size(), opened, Duration.ofNanos(System.nanoTime() - start));
+        LOGGER.info(report.toString());
+        return report;
+    }
+
+    /**
+     * @return number of named queries
+     * @throws HibernateException with the errors of all the invalid named queries
+     */
+    private static int checkNamedQueries(QueryEngine queryEngine) {
+        Map<String, HibernateException> errors = queryEngine.getNamedObjectRepository().checkNamedQueries(queryEngine);
+        if (!errors.isEmpty()) {
+            String detail = errors.entrySet().stream()
+                    .map(error -> error.getKey() + ": " + error.getValue().getMessage())
+                    .collect(Collectors.joining("; "));
+            throw new HibernateException("Invalid named queries: " + detail);
+        }
+
+        List<String> names = new ArrayList<>();
+        queryEngine.getNamedObjectRepository().visitSqmQueryMementos(memento -> names.add(memento.getRegistrationName()));
+        queryEngine.getNamedObjectRepository().visitNativeQueryMementos(memento -> names.add(memento.getRegistrationName()));
+        return names.size();
+    }
+
+    /**
+     * Creating the query parses it and caches its interpretation, the queries aren't executed.
+     */
+    private static void parse(SessionFactory sessionFactory, Collection<Hql> queries) {
+        try (Session session = sessionFactory.openSession()) {
+            for (Hql hql : queries) {
+                try {
+                    if (hql.resultType() == null) session.createMutationQuery(hql.query());
+                    else session.createQuery(hql.query(), hql.resultType());
+                } catch (RuntimeException e) {
+                    throw new HibernateException("Invalid DAO query: " + hql.query(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens the connections at the same time (the pool can't return the same connection twice) and validates them.
+     *
+     * @return connections opened
+     */
+    private static int openConnections(ConnectionProvider provider, int connections) {
+        List<Connection> opened = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection connection = provider.getConnection();
+                opened.add(connection);
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new HibernateException("Invalid connection after " + TimeUnit.SECONDS.toMillis(VALIDATION_TIMEOUT_SECONDS) + " ms");
+                }
+            }
+        } catch (SQLException e) {
+            throw new HibernateException("The connections couldn't be opened: " + e.getMessage(), e);
+        } finally {
+            for (Connection connection : opened) {
+                try {
+                    provider.closeConnection(connection);
+                } catch (SQLException e) {
+                    LOGGER.warning("Error closing a connection of the warm-up: " + e.getMessage());
+                }
+            }
+        }
+        return opened.size();
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.Util;
+
+import org.example.Util.Metrics.DAOMetrics;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Bulk insert/update/delete of entities with a {@link StatelessSession} ({@link HibernateUtil#openStatelessSession()}):
+ * <ul>
+ *     <li>No persistence context: the entities aren't kept in memory, there is no dirty checking nor snapshot,
+ *     no flush/clear every batch as in {@code persistAll}.</li>
+ *     <li>Every statement is added to a JDBC batch of {@code hibernate.jdbc.batch_size} statements.</li>
+ *     <li>No cascades, no interceptors nor events, the collections ({@code @OneToMany}) are ignored.</li>
+ *     <li>The version is still checked and incremented by the updates and deletes
+ *     (a stale entity fails the batch: {@code StaleStateException}).</li>
+ * </ul>
+ * All the entities are written in a single transaction, if it fails nothing is written (rows = 0) and the entities
+ * get back the id and version they had before the call (the inserts assign the ids and the updates increment the
+ * versions before the commit), the same call can be retried.
+ * The result ({@link BulkResult}, rows per second) is logged.
+ * <pre>
+ * {@code
+ * BulkResult result = StatelessBulk.insertAll(ProductEntity.class, products, product -> product.getName() != null);
+ * }
+ * </pre>
+ * PD: the StatelessSession doesn't use the second level cache, the updated and deleted entities are evicted from it and
+ * the query cache regions are evicted after the commit (the other regions, e.g. collections, are evicted by the DAO). <br>
+ * PD2: the writes go to the primary and don't join the {@code UnitOfWork} of the thread.
+ */
+public final class StatelessBulk {
+    private static final Logger LOGGER = Logger.getLogger(StatelessBulk.class.getName());
+
+    private StatelessBulk() {
+    }
+
+    /**
+     * @param type     entity class
+     * @param entities entities without id, each one will have id (and version) assigned
+     * @param valid    entities that can be inserted, the others are skipped
+     */
+    public static <T> BulkResult insertAll(Class<T> type, Collection<? extends T> entities, Predicate<? super T> valid) {
+        return execute("INSERT", type, entities, valid, StatelessSession::insert);
+    }
+
+    /**
+     * @param type     entity class
+     * @param entities detached entities with id and version, each one will have the new version
+     * @param valid    entities that can be updated, the others are skipped
+     */
+    public static <T> BulkResult updateAll(Class<T> type, Collection<? extends T> entities, Predicate<? super T> valid) {
+        return execute("UPDATE", type, entities, valid, StatelessSession::update);
+    }
+
+    /**
+     * @param type     entity class
+     * @param entities detached entities with id and version
+     * @param valid    entities that can be deleted, the others are skipped
+     */
+    public static <T> BulkResult deleteAll(Class<T> type, Collection<? extends T> entities, Predicate<? super T> valid) {
+        return execute("DELETE", type, entities, valid, StatelessSession::delete);
+    }
+
+    private static <T> BulkResult execute(String operation, Class<T> type, Collection<? extends T> entities,
+                                          Predicate<? super T> valid, BiConsumer<StatelessSession, Object> statement) {
+        if (entities == null) {
+            LOGGER.warning(type.getSimpleName() + " collection is null");
+            return new BulkResult(operation, type.getSimpleName(), 0, 0, 0);
+        }
+
+        List<T> toWrite = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            if (entity != null && valid.test(entity)) toWrite.add(entity);
+        }
+        int skipped = entities.size() - toWrite.size();
+        if (toWrite.isEmpty()) return new BulkResult(operation, type.getSimpleName(), 0, skipped, 0);
+
+        long start = System.nanoTime();
+        int rows = 0;
+        try (StatelessSession session = HibernateUtil.openStatelessSession()) {
+            SharedSessionContractImplementor implementor = (SharedSessionContractImplementor) session;
+            EntityPersister persister = implementor.getFactory().getMappingMetamodel().getEntityDescriptor(type);
+            Object[] ids = new Object[toWrite.size()];
+            Object[] versions = new Object[toWrite.size()];
+            for (int i = 0; i < toWrite.size(); i++) {
+                ids[i] = persister.getIdentifier(toWrite.get(i), implementor);
+                if (persister.isVersioned()) versions[i] = persister.getVersion(toWrite.get(i));
+            }
+
+            try {
+                session.beginTransaction();
+                for (T entity : toWrite) statement.accept(session, entity);
+                // The last batch is executed by the commit
+                session.getTransaction().commit();
+                rows = toWrite.size();
+
+            } catch (Exception e) {
+                session.getTransaction().rollback();
+                restore(persister, implementor, toWrite, ids, versions);
+                throw e;
+            }
+        } catch (Exception e) {
+            LOGGER.severe("Error in bulk " + operation + " of " + type.getSimpleName() + ": " + e.getMessage());
+            DAOMetrics.error();
+        }
+
+        BulkResult result = new BulkResult(operation, type.getSimpleName(), rows, skipped, System.nanoTime() - start);
+        if (rows > 0) evict(operation, type, toWrite);
+        LOGGER.info(result.toString());
+        return result;
+    }
+
+    /**
+     * The entities get back the id and version they had before the rolled back transaction.
+     */
+    private static <T> void restore(EntityPersister persister, SharedSessionContractImplementor session,
+                                    List<T> entities, Object[] ids, Object[] versions) {
+        for (int i = 0; i < entities.size(); i++) {
+            persister.setIdentifier(entities.get(i), ids[i], session);
+            if (persister.isVersioned()) persister.getVersionMapping().getVersionAttribute().setValue(entities.get(i), versions[i]);
+        }
+    }
+
+    private static <T> void evict(String operation, Class<T> type, List<T> written) {
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+        if (!operation.equals("INSERT")) {
+            for (T entity : written) {
+                sessionFactory.getCache().evictEntityData(type, sessionFactory.getPersistenceUnitUtil().getIdentifier(entity));
+            }
+        }
+        sessionFactory.getCache().evictQueryRegions();
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.Util;
+
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.SelectionQuery;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams the result of a query with {@link ScrollableResults}, the rows are read from the JDBC
+ * {@link java.sql.ResultSet} in chunks of {@code fetchSize} rows instead of loading the whole table in a List. <br>
+ * The returned {@link Stream} owns the {@link Session}, it must be closed:
+ * <pre>
+ * {@code
+ * try (Stream<CategoryEntity> categories = categoryDAO.streamAll(500)) {
+ *     categories.forEach(...);
+ * }
+ * }
+ * </pre>
+ */
+public class StreamUtil {
+    public static final int DEFAULT_FETCH_SIZE = 500;
+    private static final Logger LOGGER = Logger.getLogger(StreamUtil.class.getName());
+
+    private StreamUtil() {
+    }
+
+    /**
+     * Prepares a session for streaming: entities are loaded read-only (see {@link HibernateUtil#asReadOnly(Session)})
+     * and a transaction is started, PostgreSQL only uses a cursor (fetch size) when auto-commit is off.
+     *
+     * @param session the session that will be owned by the stream
+     */
+    public static void beginReadOnly(Session session) {
+        HibernateUtil.asReadOnly(session);
+        session.setCacheMode(CacheMode.IGNORE);
+        session.beginTransaction();
+    }
+
+    /**
+     * @param session   session prepared with {@link #beginReadOnly(Session)}, closed when the stream is closed
+     * @param query     the query to stream
+     * @param fetchSize rows fetched per round-trip, the persistence context is cleared every {@code fetchSize} rows
+     *                  (except in a {@link UnitOfWork}, see {@link UnitOfWork#isJoined(Session)})
+     * @return a sequential stream of detached, read-only entities
+     */
+    public static <T> Stream<T> stream(Session session, SelectionQuery<T> query, int fetchSize) {
+        int size = (fetchSize > 0) ? fetchSize : DEFAULT_FETCH_SIZE;
+
+        ScrollableResults<T> results = query
+                .setReadOnly(true)
+                .setFetchSize(size)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private long rows = 0;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                // Keep the memory bounded, the already consumed entities are detached (not the ones of a unit of work)
+                if (rows > 0 && rows % size == 0 && !UnitOfWork.isJoined(session)) session.clear();
+
+                if (!results.next()) return false;
+                rows++;
+
+                action.accept(results.get());
+                return true;
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> close(session, results));
+    }
+
+    private static void close(Session session, ScrollableResults<?> results) {
+        try {
+            results.close();
+            if (session.getTransaction().isActive()) session.getTransaction().commit();
+        } catch (Exception e) {
+            LOGGER.severe("Error closing stream: " + e.getMessage());
+        } finally {
+            session.close();
+        }
+    }
+}
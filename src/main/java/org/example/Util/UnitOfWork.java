@@ -0,0 +1,292 @@
+package org.example.Util;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * One Session and one transaction bound to the current thread (platform or virtual) for a whole operation,
+ * the DAOs join it transparently: {@link HibernateUtil#openSession()} returns the bound session instead of a new one,
+ * several DAO calls use a single connection and commit (or roll back) together.
+ * <pre>
+ * {@code
+ * try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+ *     categoryDAO.persist(category);
+ *     productDAO.save(product);
+ *     unitOfWork.commit();
+ * } // without commit(): rollback
+ *
+ * UnitOfWork.run(() -> { categoryDAO.persist(category); productDAO.save(product); });
+ * }
+ * </pre>
+ * Inside a unit of work the session that a DAO gets:
+ * <ul>
+ *     <li>{@code close()} does nothing, the unit of work closes the session.</li>
+ *     <li>{@code beginTransaction()} doesn't begin another transaction, {@code commit()} only flushes
+ *     (the ids and the constraint violations are seen by the DAO as before) and {@code rollback()} marks the unit of work
+ *     rollback-only (its {@link #commit()} rolls back and throws). The DAO calls that end without changes
+ *     (nothing found, a name that already exists) use {@link #rollbackUnchanged(Session)} instead,
+ *     they don't make the unit of work roll back.</li>
+ *     <li>The side effects of a DAO that need the committed rows (e.g. evicting a query cache region) are registered
+ *     with {@link #afterCommit(Runnable)}, they run after the commit of the unit of work.</li>
+ *     <li>{@code setDefaultReadOnly}, {@code setHibernateFlushMode} and {@code setCacheMode} are ignored,
+ *     the read-only settings of a DAO mustn't change the session of the other DAOs.</li>
+ * </ul>
+ * A nested {@link #begin()} joins the unit of work in progress: only the outermost one commits, a nested one closed
+ * without commit (e.g. an exception) makes the whole unit of work roll back.
+ * Once it's rollback-only, a DAO can't join it anymore ({@link IllegalStateException}, logged by the DAO as error).
+ * <p>
+ * PD: {@code current_session_context_class=thread} (getCurrentSession) isn't used, its session is closed by the first
+ * commit, and every DAO commits its own transaction. The DAOs that clear the persistence context (persistAll, streams)
+ * don't clear the session of a unit of work ({@link #isJoined(Session)}): its memory grows with the rows of the call.
+ */
+public final class UnitOfWork implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(UnitOfWork.class.getName());
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final Session session;
+    private final Session joinedSession;
+    private final Transaction joinedTransaction;
+    private final Thread thread = Thread.currentThread();
+    // null in the outermost unit of work, the one that owns the session and the transaction
+    private final UnitOfWork outer;
+    // Only in the outermost unit of work, discarded if it rolls back
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private boolean rollbackOnly;
+    private boolean committed;
+    private boolean closed;
+
+    private UnitOfWork(SessionFactory sessionFactory) {
+        this.outer = null;
+        this.session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+        } catch (RuntimeException e) {
+            session.close();
+            throw e;
+        }
+        this.joinedTransaction = (Transaction) Proxy.newProxyInstance(UnitOfWork.class.getClassLoader(),
+                new Class<?>[]{Transaction.class}, (proxy, method, args) -> joinedTransaction(method, args));
+        this.joinedSession = (Session) Proxy.newProxyInstance(UnitOfWork.class.getClassLoader(),
+                new Class<?>[]{Session.class}, (proxy, method, args) -> joinedSession(proxy, method, args));
+    }
+
+    private UnitOfWork(UnitOfWork outer) {
+        this.outer = outer;
+        this.session = outer.session;
+        this.joinedSession = outer.joinedSession;
+        this.joinedTransaction = outer.joinedTransaction;
+    }
+
+    /**
+     * Binds a new unit of work to the current thread, or joins the one in progress.
+     *
+     * @return the unit of work, must be closed in the same thread (try-with-resources)
+     */
+    public static UnitOfWork begin() {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) return new UnitOfWork(current);
+
+        UnitOfWork unitOfWork = new UnitOfWork(HibernateUtil.getSessionFactory());
+        CURRENT.set(unitOfWork);
+        return unitOfWork;
+    }
+
+    /**
+     * Executes the action in a unit of work, committed if it ends normally and rolled back if it throws.
+     */
+    public static void run(Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * @param action operation with DAO calls
+     * @return the result of the action, once the unit of work is committed
+     */
+    public static <T> T call(Supplier<T> action) {
+        try (UnitOfWork unitOfWork = begin()) {
+            T result = action.get();
+            unitOfWork.commit();
+            return result;
+        }
+    }
+
+    /**
+     * @return the unit of work bound to the current thread, null if there is none
+     */
+    public static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Ends the transaction of a DAO call that didn't change anything (e.g. the category to update doesn't exist,
+     * the name to insert already exists and nothing was inserted): it's rolled back, but if the session is the one of
+     * the unit of work in progress the unit of work goes on as is, a benign outcome isn't a failed call. <br>
+     * After an exception the DAOs still call {@code session.getTransaction().rollback()}, rollback-only.
+     *
+     * @param session the session of the DAO call
+     */
+    public static void rollbackUnchanged(Session session) {
+        if (isJoined(session)) return;
+        session.getTransaction().rollback();
+    }
+
+    /**
+     * The DAOs that clear the persistence context to bound its memory (persistAll, streams) don't clear a joined
+     * session: it would also detach the entities loaded before in the unit of work, their later changes would be lost.
+     *
+     * @param session the session of the DAO call
+     * @return true if it's the session of the unit of work in progress
+     */
+    public static boolean isJoined(Session session) {
+        UnitOfWork current = CURRENT.get();
+        return current != null && session == current.joinedSession;
+    }
+
+    /**
+     * Runs the action once the changes of the DAO call are committed: after the commit of the unit of work
+     * in progress (not at all if it rolls back), right away if there is none (the DAO committed its own transaction).
+     * An exception of the action is logged, the transaction is already committed.
+     *
+     * @param action e.g. the eviction of a cache region that the DAO call made stale
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) current.afterCommit.add(action);
+        else action.run();
+    }
+
+    /**
+     * @return the session the DAOs get in this unit of work
+     * @throws IllegalStateException if it's rollback-only
+     */
+    Session join() {
+        if (rollbackOnly) throw new IllegalStateException("The unit of work is rollback-only, a previous DAO call failed");
+        return joinedSession;
+    }
+
+    /**
+     * Commits the transaction and runs the {@link #afterCommit(Runnable)} actions,
+     * in a nested unit of work it only marks it as completed (the outermost one commits).
+     *
+     * @throws IllegalStateException if it's rollback-only, the transaction is rolled back
+     */
+    public void commit() {
+        checkThread();
+        if (outer != null) {
+            committed = true;
+            return;
+        }
+        if (rollbackOnly) {
+            rollback();
+            throw new IllegalStateException("The unit of work was rolled back, a DAO call failed");
+        }
+        try {
+            session.getTransaction().commit();
+            committed = true;
+        } catch (RuntimeException e) {
+            rollback();
+            throw e;
+        }
+        for (Runnable action : afterCommit) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                LOGGER.warning("Error in an after commit action of the unit of work: " + e.getMessage());
+            }
+        }
+        afterCommit.clear();
+    }
+
+    /**
+     * The transaction will be rolled back when the outermost unit of work is closed.
+     */
+    public void setRollbackOnly() {
+        if (outer != null) outer.setRollbackOnly();
+        else rollbackOnly = true;
+    }
+
+    public boolean isRollbackOnly() {
+        return (outer != null) ? outer.isRollbackOnly() : rollbackOnly;
+    }
+
+    /**
+     * A nested unit of work closed without commit marks the outermost one rollback-only. <br>
+     * The outermost one rolls back (if it wasn't committed), closes the session and unbinds it from the thread.
+     */
+    @Override
+    public void close() {
+        checkThread();
+        if (closed) return;
+        closed = true;
+        if (outer != null) {
+            if (!committed) outer.setRollbackOnly();
+            return;
+        }
+        try {
+            if (!committed) rollback();
+        } finally {
+            CURRENT.remove();
+            session.close();
+        }
+    }
+
+    private void rollback() {
+        rollbackOnly = true;
+        afterCommit.clear();
+        try {
+            if (session.getTransaction().isActive()) session.getTransaction().rollback();
+        } catch (RuntimeException e) {
+            LOGGER.warning("Error rolling back the unit of work: " + e.getMessage());
+        }
+    }
+
+    private void checkThread() {
+        if (Thread.currentThread() != thread) throw new IllegalStateException("The unit of work belongs to " + thread);
+    }
+
+    private Object joinedSession(Object proxy, Method method, Object[] args) throws Throwable {
+        return switch (method.getName()) {
+            case "close", "setDefaultReadOnly", "setHibernateFlushMode", "setFlushMode", "setCacheMode" -> null;
+            case "beginTransaction", "getTransaction" -> joinedTransaction;
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> invoke(session, method, args);
+        };
+    }
+
+    private Object joinedTransaction(Method method, Object[] args) throws Throwable {
+        return switch (method.getName()) {
+            case "begin" -> null;
+            case "commit" -> {
+                session.flush();
+                yield null;
+            }
+            case "rollback", "markRollbackOnly", "setRollbackOnly" -> {
+                rollbackOnly = true;
+                yield null;
+            }
+            case "getRollbackOnly" -> rollbackOnly;
+            default -> invoke(session.getTransaction(), method, args);
+        };
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package org.example.Util;
+
+import org.hibernate.JDBCException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Insert-or-ignore of rows with a unique column, in a single statement per row (no "SELECT count(*) ... WHERE name"
+ * before the insert, no race between the check and the insert):
+ * <ul>
+ *     <li>PostgreSQL: {@code INSERT INTO t (...) VALUES (...) ON CONFLICT (name) DO NOTHING}</li>
+ *     <li>Other dialects: {@code MERGE INTO t USING (VALUES (?)) s (name) ON t.name = s.name WHEN NOT MATCHED THEN INSERT ...}</li>
+ * </ul>
+ * The rows are sent in JDBC batches ({@code hibernate.jdbc.batch_size}), the update count of each row tells if it was
+ * inserted (1) or its unique column already existed (0), the ids are returned with the generated keys. <br>
+ * The statement is built once per dialect.
+ * <pre>
+ * {@code
+ * static final Upsert PRODUCTS = Upsert.into("tienda.products")
+ *         .id("id", "tienda.products_seq")
+ *         .onConflict("name")
+ *         .column("name", Types.VARCHAR)
+ *         .column("price", Types.NUMERIC)
+ *         .constant("version", "0");
+ *
+ * List<Long> ids = PRODUCTS.execute(session, rows); // null: the name already exists
+ * }
+ * </pre>
+ * PD: The MERGE isn't atomic in all the databases, two concurrent MERGE of the same name can fail with a unique violation,
+ * see {@link #isUniqueViolation(Throwable)}. <br>
+ * PD2: The rows are inserted with JDBC, the caches of Hibernate (second level and query cache) don't see them.
+ */
+public final class Upsert {
+    /**
+     * SQLState of the unique violations (PostgreSQL, H2, DB2...)
+     */
+    public static final String UNIQUE_VIOLATION = "23505";
+
+    private final String table;
+    private String idColumn;
+    private String idSequence;
+    private String conflictColumn;
+    private final Map<String, Integer> columns = new LinkedHashMap<>();
+    private final Map<String, String> constants = new LinkedHashMap<>();
+    private final Map<Dialect, Sql> sqlByDialect = new ConcurrentHashMap<>();
+
+    /**
+     * @param merge true if it's the MERGE form, the unique value is bound twice
+     */
+    private record Sql(String text, boolean merge) {
+    }
+
+    private Upsert(String table) {
+        this.table = table;
+    }
+
+    /**
+     * @param table qualified name of the table (schema.table), the JDBC statements don't use {@code default_schema}
+     */
+    public static Upsert into(String table) {
+        return new Upsert(table);
+    }
+
+    /**
+     * @param column   id column, returned with the generated keys
+     * @param sequence qualified name of the sequence of the id, null if the column is IDENTITY
+     */
+    public Upsert id(String column, String sequence) {
+        this.idColumn = column;
+        this.idSequence = sequence;
+        return this;
+    }
+
+    /**
+     * @param column unique column, must be also a {@link #column(String, int)}
+     */
+    public Upsert onConflict(String column) {
+        this.conflictColumn = column;
+        return this;
+    }
+
+    /**
+     * @param column  column with a value per row, in the same order of the values of {@link #execute(Session, List)}
+     * @param sqlType {@link java.sql.Types} of the column, used to bind nulls
+     */
+    public Upsert column(String column, int sqlType) {
+        columns.put(column, sqlType);
+        return this;
+    }
+
+    /**
+     * @param column column with the same value in all the rows
+     * @param sql    SQL literal of the value (e.g. {@code "0"})
+     */
+    public Upsert constant(String column, String sql) {
+        constants.put(column, sql);
+        return this;
+    }
+
+    /**
+     * Inserts the rows whose unique column doesn't exist, in the current transaction of the session. <br>
+     * A JDBC batch per {@code hibernate.jdbc.batch_size} rows.
+     *
+     * @param session session with an active transaction
+     * @param rows    the values of each row, in the order of the columns
+     * @return the id of each row in the same order, null if the row wasn't inserted (conflict)
+     * @throws JDBCException if the statement fails, e.g. a concurrent MERGE with the same unique value ({@link #isUniqueViolation(Throwable)})
+     */
+    public List<Long> execute(Session session, List<Object[]> rows) {
+        Sql sql = prepare(session.getSessionFactory());
+        int batchSize = HibernateUtil.getJdbcBatchSize();
+        Long[] ids = new Long[rows.size()];
+
+        session.doWork(connection -> {
+            // The generated keys make the driver return the ids (PostgreSQL: RETURNING "id")
+            try (PreparedStatement statement = connection.prepareStatement(sql.text(), new String[]{idColumn})) {
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    int to = Math.min(from + batchSize, rows.size());
+                    for (int i = from; i < to; i++) {
+                        bind(statement, sql, rows.get(i));
+                        statement.addBatch();
+                    }
+                    int[] counts = statement.executeBatch();
+
+                    // Only the inserted rows return a key, in the same order of the rows
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (int i = 0; i < counts.length; i++) {
+                            if (counts[i] == 0) continue;
+                            if (counts[i] != Statement.SUCCESS_NO_INFO && counts[i] < 0) throw new SQLException("Batch row " + (from + i) + " failed");
+                            if (!keys.next()) throw new SQLException("Missing generated id of batch row " + (from + i));
+                            ids[from + i] = keys.getLong(1);
+                        }
+                    }
+                }
+            }
+        });
+
+        return Arrays.asList(ids);
+    }
+
+    /**
+     * @return the statement for the dialect of the SessionFactory
+     */
+    public String sql(SessionFactory sessionFactory) {
+        return prepare(sessionFactory).text();
+    }
+
+    /**
+     * @param e exception thrown by {@link #execute(Session, List)} (or one of its causes)
+     * @return true if it's a violation of a unique constraint
+     */
+    public static boolean isUniqueViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JDBCException jdbc && UNIQUE_VIOLATION.equals(jdbc.getSQLState())) return true;
+            if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) return true;
+        }
+        return false;
+    }
+
+    private Sql prepare(SessionFactory sessionFactory) {
+        Dialect dialect = sessionFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        return sqlByDialect.computeIfAbsent(dialect, this::build);
+    }
+
+    private void bind(PreparedStatement statement, Sql sql, Object[] values) throws SQLException {
+        if (values.length != columns.size()) throw new SQLException("Expected " + columns.size() + " values, got " + values.length);
+
+        List<Integer> types = new ArrayList<>(columns.values());
+        int parameter = 1;
+        // MERGE: the unique value is bound first in USING (VALUES (?))
+        if (sql.merge()) {
+            int conflictIndex = new ArrayList<>(columns.keySet()).indexOf(conflictColumn);
+            statement.setObject(parameter++, values[conflictIndex], types.get(conflictIndex));
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) statement.setNull(parameter++, types.get(i));
+            else statement.setObject(parameter++, values[i], types.get(i));
+        }
+    }
+
+    private Sql build(Dialect dialect) {
+        if (idColumn == null || conflictColumn == null || !columns.containsKey(conflictColumn)) {
+            throw new IllegalStateException("Upsert of " + table + " requires id, onConflict and the conflict column");
+        }
+
+        List<String> insertColumns = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        if (idSequence != null) {
+            insertColumns.add(idColumn);
+            values.add(dialect.getSequenceSupport().getSelectSequenceNextValString(idSequence));
+        }
+        columns.keySet().forEach(column -> {
+            insertColumns.add(column);
+            values.add("?");
+        });
+        constants.forEach((column, value) -> {
+            insertColumns.add(column);
+            values.add(value);
+        });
+        String into = String.format("(%s) VALUES (%s)", String.join(", ", insertColumns), String.join(", ", values));
+
+        if (dialect instanceof PostgreSQLDialect) {
+            return new Sql(String.format("INSERT INTO %s %s ON CONFLICT (%s) DO NOTHING", table, into, conflictColumn), false);
+        }
+        return new Sql(String.format("MERGE INTO %s t USING (VALUES (?)) s (%s) ON t.%s = s.%s WHEN NOT MATCHED THEN INSERT %s",
+                table, conflictColumn, conflictColumn, conflictColumn, into), true);
+    }
+}
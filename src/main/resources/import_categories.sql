@@ -1,37 +1,37 @@
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY1');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY2');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY3');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY4');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY5');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY6');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY7');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY8');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY9');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY10');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY11');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY12');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY13');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY14');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY15');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY16');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY17');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY18');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY19');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY20');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY21');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY22');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY23');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY24');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY25');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY26');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY27');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY28');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY29');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY30');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY31');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY32');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY33');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY34');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY35');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY36');
-INSERT INTO tienda.categories(name) VALUES ('CATEGORY37');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY1');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY2');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY3');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY4');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY5');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY6');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY7');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY8');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY9');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY10');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY11');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY12');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY13');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY14');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY15');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY16');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY17');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY18');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY19');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY20');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY21');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY22');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY23');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY24');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY25');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY26');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY27');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY28');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY29');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY30');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY31');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY32');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY33');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY34');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY35');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY36');
+INSERT INTO tienda.categories(id, name) VALUES (nextval('tienda.categories_id_seq'), 'CATEGORY37');
@@ -0,0 +1,124 @@
+package org.example.Benchmarks;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.Async.AsyncDAO;
+import org.example.Util.Async.AsyncDAOExecutor;
+import org.example.Util.HibernateUtil;
+import org.example.Util.Pool.PoolMetrics;
+import org.example.Util.Pool.PooledConnectionProvider;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Fan-out of {@code fanOut} DAO calls per operation (e.g. a page that loads several categories at once) from 8 threads,
+ * waiting for all of them:
+ * <ul>
+ *     <li>{@code virtual}: {@link AsyncDAOExecutor}, a virtual thread per call limited by a semaphore with a permit per
+ *     connection of the pool.</li>
+ *     <li>{@code platform}: {@link CompletableFuture#supplyAsync} in a fixed pool of platform threads, a thread
+ *     per connection of the pool (the usual sizing of a blocking JDBC executor).</li>
+ * </ul>
+ * Native implementation (every call reaches the database) against an embedded H2 ({@link EmbeddedDatabase}). <br>
+ * Run: {@code mvn test-compile exec:exec -Pbench -Dbench=AsyncDAOBenchmark},
+ * with the pinning diagnostics: {@code -Dbench="AsyncDAOBenchmark -jvmArgsAppend -Dtienda.async.pinning_diagnostics=true"}.
+ * <p>
+ * PD: both are limited by the same connections, the virtual threads don't make the database faster; they save the
+ * platform threads (memory, context switches) and the queue of the executor. The embedded H2 has no network latency,
+ * with PostgreSQL a call spends most of its time waiting for the socket, where the virtual thread unmounts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class AsyncDAOBenchmark {
+    private static final String NAME_PREFIX = "bench-async-";
+    private static final int TABLE_SIZE = 1000;
+
+    @Param({"virtual", "platform"})
+    public String executor;
+
+    @Param({"8"})
+    public int fanOut;
+
+    @Param({"10"})
+    public int poolSize;
+
+    private List<CategoryEntity> categories;
+    private AsyncDAOExecutor asyncExecutor;
+    private AsyncDAO<CategoryDAO> asyncCategories;
+    private ExecutorService platformExecutor;
+    private CategoryDAO categoryDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EmbeddedDatabase.use();
+        System.setProperty(PooledConnectionProvider.MAX_SIZE_SETTING, String.valueOf(poolSize));
+        System.setProperty(PooledConnectionProvider.MIN_IDLE_SETTING, String.valueOf(poolSize));
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.beginTransaction();
+            session.createMutationQuery("DELETE FROM ProductEntity").executeUpdate();
+            session.createMutationQuery("DELETE FROM CategoryEntity").executeUpdate();
+            session.getTransaction().commit();
+        }
+
+        String batchId = UUID.randomUUID().toString();
+        categories = IntStream.range(0, TABLE_SIZE)
+                .mapToObj(i -> new CategoryEntity(null, NAME_PREFIX + batchId + "-" + i))
+                .toList();
+        categoryDAO = new CategoryDAONative();
+        categoryDAO.persistAll(categories);
+
+        if (executor.equals("virtual")) {
+            asyncExecutor = AsyncDAOExecutor.create();
+            asyncCategories = asyncExecutor.wrap(categoryDAO);
+        } else {
+            platformExecutor = Executors.newFixedThreadPool(AsyncDAOExecutor.maxConcurrency(HibernateUtil.getSessionFactory()));
+        }
+        PoolMetrics.of(HibernateUtil.getSessionFactory()).ifPresent(PoolMetrics::reset);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (asyncExecutor != null) {
+            System.out.println(asyncExecutor);
+            asyncExecutor.close();
+        }
+        if (platformExecutor != null) platformExecutor.close();
+        PoolMetrics.of(HibernateUtil.getSessionFactory()).ifPresent(System.out::println);
+        HibernateUtil.shutdown();
+        System.clearProperty(PooledConnectionProvider.MAX_SIZE_SETTING);
+        System.clearProperty(PooledConnectionProvider.MIN_IDLE_SETTING);
+    }
+
+    private Long randomId() {
+        return categories.get(ThreadLocalRandom.current().nextInt(categories.size())).getId();
+    }
+
+    private CompletableFuture<Optional<CategoryEntity>> findById(Long id) {
+        return asyncCategories != null
+                ? asyncCategories.call(dao -> dao.findById(id))
+                : CompletableFuture.supplyAsync(() -> categoryDAO.findById(id), platformExecutor);
+    }
+
+    @Benchmark
+    public Object fanOutFindById() {
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[fanOut];
+        for (int i = 0; i < fanOut; i++) calls[i] = findById(randomId());
+        return CompletableFuture.allOf(calls).join();
+    }
+}
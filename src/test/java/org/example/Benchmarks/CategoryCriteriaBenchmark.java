@@ -0,0 +1,89 @@
+package org.example.Benchmarks;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOCriteria;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Criteria queries built on every call (CriteriaBuilder/CriteriaQuery/Root/Predicate + {@code root.get(String)},
+ * as CategoryDAOCriteria did before) against the precompiled queries reused by {@link CategoryDAOCriteria}. <br>
+ * Both open a read-only session per call, the difference is the construction and the SQM translation of the query
+ * (findByName isn't compared, the precompiled one also uses the query cache). Against an embedded H2 in
+ * PostgreSQL mode ({@link EmbeddedDatabase}). <br>
+ * Run: {@code mvn test-compile exec:exec -Pbench -Dbench=CategoryCriteriaBenchmark},
+ * the gc profiler of the profile reports the allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(4)
+@Fork(1)
+public class CategoryCriteriaBenchmark {
+    private SessionFactory sessionFactory;
+    private CategoryDAOCriteria categoryDAO;
+    private CategoryEntity category;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EmbeddedDatabase.use();
+        sessionFactory = HibernateUtil.getSessionFactory();
+        categoryDAO = new CategoryDAOCriteria();
+        category = new CategoryEntity(null, "bench-criteria-" + UUID.randomUUID());
+        categoryDAO.persist(category);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        categoryDAO.deleteById(category.getId());
+        HibernateUtil.shutdown();
+    }
+
+    // ----------------------------- Before: built per call -----------------------------\\
+    @Benchmark
+    public Optional<CategoryEntity> perCallFindById() {
+        try (Session session = HibernateUtil.asReadOnly(sessionFactory.openSession())) {
+            CriteriaBuilder builder = session.getCriteriaBuilder();
+            CriteriaQuery<CategoryEntity> criteriaQuery = builder.createQuery(CategoryEntity.class);
+            Root<CategoryEntity> root = criteriaQuery.from(CategoryEntity.class);
+            Predicate predicate = builder.equal(root.get(CategoryEntity.ATTR_ID), category.getId());
+            return session.createQuery(criteriaQuery.where(predicate)).uniqueResultOptional();
+        }
+    }
+
+    @Benchmark
+    public Optional<CategoryEntity> perCallGetByIdEager() {
+        try (Session session = HibernateUtil.asReadOnly(sessionFactory.openSession())) {
+            CriteriaBuilder builder = session.getCriteriaBuilder();
+            CriteriaQuery<CategoryEntity> criteriaQuery = builder.createQuery(CategoryEntity.class);
+            Root<CategoryEntity> root = criteriaQuery.from(CategoryEntity.class);
+            root.fetch(CategoryEntity.ATTR_PRODUCTS, JoinType.LEFT);
+            Predicate predicate = builder.equal(root.get(CategoryEntity.ATTR_ID), category.getId());
+            return session.createQuery(criteriaQuery.where(predicate)).uniqueResultOptional();
+        }
+    }
+
+    // ----------------------------- After: precompiled -----------------------------\\
+    @Benchmark
+    public Optional<CategoryEntity> precompiledFindById() {
+        return categoryDAO.findById(category.getId());
+    }
+
+    @Benchmark
+    public Optional<CategoryEntity> precompiledGetByIdEager() {
+        return categoryDAO.getByIdEager(category.getId());
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.Benchmarks;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryCursor;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOCriteria;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryPage;
+import org.example.Entities.DTOs.CategorySummary;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.HibernateUtil;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Every method of {@link CategoryDAO} with the 3 implementations (HQL: Impl, SQL: Native, Criteria),
+ * against an embedded H2 in PostgreSQL mode ({@link EmbeddedDatabase}) with {@code tableSize} categories. <br>
+ * Reports throughput (ops/ms), average time (ms/op) and, with the gc profiler of the bench profile,
+ * the allocation per operation ({@code gc.alloc.rate.norm}). <br>
+ * Run: {@code mvn test-compile exec:exec -Pbench -Dbench=CategoryDAOBenchmark},
+ * a single method: {@code -Dbench=CategoryDAOBenchmark.findById}.
+ * <p>
+ * PD: findByName uses the query cache, the Impl findById the second level cache (the lookups after the first one
+ * don't reach the database). The write benchmarks (persist, persistAll, merge) undo their changes in the same operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryDAOBenchmark {
+    private static final String NAME_PREFIX = "bench-dao-";
+    private static final int PAGE_SIZE = 20;
+    private static final int IDS_PER_LOOKUP = 10;
+
+    @Param({"Impl", "Native", "Criteria"})
+    public String implementation;
+
+    @Param({"100", "1000", "10000"})
+    public int tableSize;
+
+    private CategoryDAO categoryDAO;
+    private List<CategoryEntity> categories;
+    private String secondPageCursor;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EmbeddedDatabase.use();
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.beginTransaction();
+            session.createMutationQuery("DELETE FROM ProductEntity").executeUpdate();
+            session.createMutationQuery("DELETE FROM CategoryEntity").executeUpdate();
+            session.getTransaction().commit();
+        }
+
+        String batchId = UUID.randomUUID().toString();
+        categories = IntStream.range(0, tableSize)
+                .mapToObj(i -> new CategoryEntity(null, NAME_PREFIX + batchId + "-" + i))
+                .toList();
+        new CategoryDAOImpl().persistAll(categories);
+
+        categoryDAO = switch (implementation) {
+            case "Impl" -> new CategoryDAOImpl();
+            case "Native" -> new CategoryDAONative();
+            case "Criteria" -> new CategoryDAOCriteria();
+            default -> throw new IllegalArgumentException("Unknown implementation: " + implementation);
+        };
+        secondPageCursor = categoryDAO.listFirst(CategoryCursor.Order.ID, PAGE_SIZE).getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    private CategoryEntity randomCategory() {
+        return categories.get(ThreadLocalRandom.current().nextInt(categories.size()));
+    }
+
+    private List<Long> randomIds() {
+        List<Long> ids = new ArrayList<>(IDS_PER_LOOKUP);
+        for (int i = 0; i < IDS_PER_LOOKUP; i++) ids.add(randomCategory().getId());
+        return ids;
+    }
+
+    // ----------------------------- Lookups -----------------------------\\
+    @Benchmark
+    public Optional<CategoryEntity> findById() {
+        return categoryDAO.findById(randomCategory().getId());
+    }
+
+    @Benchmark
+    public Optional<CategoryEntity> findByName() {
+        return categoryDAO.findByName(randomCategory().getName());
+    }
+
+    @Benchmark
+    public Optional<CategoryEntity> getByIdEager() {
+        return categoryDAO.getByIdEager(randomCategory().getId());
+    }
+
+    @Benchmark
+    public List<CategoryEntity> getByIdsEager() {
+        return categoryDAO.getByIdsEager(randomIds());
+    }
+
+    @Benchmark
+    public Optional<CategorySummary> findSummaryById() {
+        return categoryDAO.findSummaryById(randomCategory().getId());
+    }
+
+    // ----------------------------- Whole table -----------------------------\\
+    @Benchmark
+    public List<CategoryEntity> listAll() {
+        return categoryDAO.listAll();
+    }
+
+    @Benchmark
+    public long streamAll() {
+        try (Stream<CategoryEntity> stream = categoryDAO.streamAll(PAGE_SIZE * 5)) {
+            return stream.count();
+        }
+    }
+
+    @Benchmark
+    public List<CategorySummary> listSummaries() {
+        return categoryDAO.listSummaries();
+    }
+
+    @Benchmark
+    public List<CategoryEntity> listAllWithEmptyRows() {
+        return categoryDAO.listAllWithEmptyRows();
+    }
+
+    @Benchmark
+    public int count() {
+        return categoryDAO.count();
+    }
+
+    @Benchmark
+    public int countPages() {
+        return categoryDAO.countPages(PAGE_SIZE);
+    }
+
+    // ----------------------------- Pagination -----------------------------\\
+    @Benchmark
+    public List<CategoryEntity> listPagination() {
+        int pages = Math.max(tableSize / PAGE_SIZE, 1);
+        return categoryDAO.listPagination(ThreadLocalRandom.current().nextInt(pages) + 1, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CategoryPage listFirst() {
+        return categoryDAO.listFirst(CategoryCursor.Order.ID, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CategoryPage listAfter() {
+        return categoryDAO.listAfter(secondPageCursor, PAGE_SIZE);
+    }
+
+    // ----------------------------- Writes -----------------------------\\
+    @Benchmark
+    public boolean persistAndDelete() {
+        CategoryEntity category = new CategoryEntity(null, NAME_PREFIX + "new-" + sequence.incrementAndGet());
+        categoryDAO.persist(category);
+        return categoryDAO.deleteById(category.getId());
+    }
+
+    @Benchmark
+    public int persistAllAndDelete() {
+        List<CategoryEntity> batch = IntStream.range(0, IDS_PER_LOOKUP)
+                .mapToObj(i -> new CategoryEntity(null, NAME_PREFIX + "new-" + sequence.incrementAndGet()))
+                .toList();
+        int persisted = categoryDAO.persistAll(batch);
+        batch.forEach(category -> categoryDAO.deleteById(category.getId()));
+        return persisted;
+    }
+
+    @Benchmark
+    public boolean merge() {
+        CategoryEntity category = categoryDAO.findById(randomCategory().getId()).orElseThrow();
+        String name = category.getName();
+        category.setName(name + "-renamed");
+        categoryDAO.merge(category);
+        category.setName(name);
+        return categoryDAO.merge(category);
+    }
+}
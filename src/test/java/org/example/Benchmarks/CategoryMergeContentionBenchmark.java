@@ -0,0 +1,72 @@
+package org.example.Benchmarks;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.HibernateUtil;
+import org.example.Util.RetryPolicy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 8 threads renaming the same (hot) category: pessimistic merge (row lock, waits) against
+ * optimistic merge (version check, retries with backoff on conflict). <br>
+ * The conflicts/retries of the optimistic path are printed at the end of the trial. <br>
+ * Run: {@code mvn test-compile exec:exec -Pbench -Dbench=CategoryMergeContentionBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(8)
+@Fork(1)
+public class CategoryMergeContentionBenchmark {
+    private CategoryDAOImpl categoryDAO;
+    private Long hotCategoryId;
+    private String hotCategoryName;
+    private final AtomicLong renames = new AtomicLong();
+
+    /**
+     * Each thread keeps its own detached copy, like concurrent users editing the same category.
+     */
+    @State(Scope.Thread)
+    public static class Editor {
+        CategoryEntity copy;
+
+        @Setup(Level.Trial)
+        public void load(CategoryMergeContentionBenchmark benchmark) {
+            copy = benchmark.categoryDAO.findById(benchmark.hotCategoryId).orElseThrow();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        categoryDAO = new CategoryDAOImpl(RetryPolicy.defaults());
+        CategoryEntity hotCategory = new CategoryEntity(null, "bench-hot-" + UUID.randomUUID());
+        categoryDAO.persist(hotCategory);
+        hotCategoryId = hotCategory.getId();
+        hotCategoryName = hotCategory.getName();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println("\n" + categoryDAO.getOptimisticLockStats());
+        categoryDAO.deleteById(hotCategoryId);
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public boolean pessimisticMerge(Editor editor) {
+        editor.copy.setName(hotCategoryName + "-" + renames.incrementAndGet());
+        return categoryDAO.merge(editor.copy);
+    }
+
+    @Benchmark
+    public boolean optimisticMerge(Editor editor) {
+        editor.copy.setName(hotCategoryName + "-" + renames.incrementAndGet());
+        return categoryDAO.mergeOptimistic(editor.copy);
+    }
+}
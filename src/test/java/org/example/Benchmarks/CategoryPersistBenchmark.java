@@ -0,0 +1,81 @@
+package org.example.Benchmarks;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.BulkResult;
+import org.example.Util.HibernateUtil;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-row {@link CategoryDAO#persist(CategoryEntity)} (one transaction per row)
+ * against the batched {@link CategoryDAO#persistAll(java.util.Collection)} (persistence context flushed and cleared every batch)
+ * and the StatelessSession {@link CategoryDAO#insertAll(java.util.Collection)} (JDBC batches without persistence context). <br>
+ * Uses the DB configured in hibernate.cfg.xml, run: {@code mvn test-compile exec:exec -Pbench -Dbench=CategoryPersistBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CategoryPersistBenchmark {
+    private static final String NAME_PREFIX = "bench-persist-";
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private CategoryDAO categoryDAO;
+    private List<CategoryEntity> categories;
+
+    @Setup(Level.Trial)
+    public void setUpDAO() {
+        categoryDAO = new CategoryDAOImpl();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpCategories() {
+        String batchId = UUID.randomUUID().toString();
+        categories = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            categories.add(new CategoryEntity(null, NAME_PREFIX + batchId + "-" + i));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteCategories() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.beginTransaction();
+            session.createMutationQuery("DELETE FROM CategoryEntity c WHERE c.name LIKE :prefix")
+                    .setParameter("prefix", NAME_PREFIX + "%")
+                    .executeUpdate();
+            session.getTransaction().commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        HibernateUtil.shutdown();
+    }
+
+    @Benchmark
+    public void perRowPersist() {
+        categories.forEach(categoryDAO::persist);
+    }
+
+    @Benchmark
+    public int batchedPersistAll() {
+        return categoryDAO.persistAll(categories);
+    }
+
+    @Benchmark
+    public BulkResult statelessInsertAll() {
+        return categoryDAO.insertAll(categories);
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.Benchmarks;
+
+import jakarta.persistence.LockModeType;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.HibernateUtil;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Readers (listAll) and writers (merge of a hot category) running at the same time. <br>
+ * {@code locking}: the readers take {@code PESSIMISTIC_READ} (SELECT ... FOR SHARE) in a transaction, as listAll did before. <br>
+ * {@code readOnly}: the readers use the read-only query mode (no row locks, MVCC snapshot). <br>
+ * Run: {@code mvn test-compile exec:exec -Pbench -Dbench=CategoryReadWriteBenchmark}, compare the ops/s of each thread group.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class CategoryReadWriteBenchmark {
+    private CategoryDAO categoryDAO;
+    private CategoryEntity hotCategory;
+    private final AtomicLong renames = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        categoryDAO = new CategoryDAOImpl();
+        hotCategory = new CategoryEntity(null, "bench-hot-" + UUID.randomUUID());
+        categoryDAO.persist(hotCategory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        categoryDAO.deleteById(hotCategory.getId());
+        HibernateUtil.shutdown();
+    }
+
+    // ----------------------------- Before: locking readers -----------------------------\\
+    @Benchmark
+    @Group("locking")
+    @GroupThreads(4)
+    public List<CategoryEntity> lockingReader() {
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            try {
+                session.beginTransaction();
+                List<CategoryEntity> categories = session
+                        .createQuery("from CategoryEntity", CategoryEntity.class)
+                        .setLockMode(LockModeType.PESSIMISTIC_READ)
+                        .list();
+                session.getTransaction().commit();
+                return categories;
+            } catch (Exception e) {
+                session.getTransaction().rollback();
+                throw e;
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("locking")
+    @GroupThreads(2)
+    public boolean lockingWriter() {
+        return rename();
+    }
+
+    // ----------------------------- After: read-only readers -----------------------------\\
+    @Benchmark
+    @Group("readOnly")
+    @GroupThreads(4)
+    public List<CategoryEntity> readOnlyReader() {
+        return categoryDAO.listAll();
+    }
+
+    @Benchmark
+    @Group("readOnly")
+    @GroupThreads(2)
+    public boolean readOnlyWriter() {
+        return rename();
+    }
+
+    private boolean rename() {
+        CategoryEntity category = new CategoryEntity(hotCategory.getId(), hotCategory.getName() + "-" + renames.incrementAndGet());
+        return categoryDAO.merge(category);
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.Benchmarks;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
+import org.example.Entities.DTOs.CategorySummary;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.HibernateUtil;
+import org.example.Util.Pool.PoolMetrics;
+import org.example.Util.Pool.PooledConnectionProvider;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * DAO throughput with 16 concurrent threads, with the connection pool ({@link PooledConnectionProvider}, HikariCP)
+ * and without it (the built-in pool of Hibernate, DriverManagerConnectionProviderImpl: a synchronized queue
+ * of connections, a new connection through DriverManager when it's empty). <br>
+ * Native implementation (SQL, no second level cache nor query cache in these lookups): every call reaches the database. Against an embedded H2
+ * in PostgreSQL mode ({@link EmbeddedDatabase}), {@code poolSize} is the maximum size of both pools. <br>
+ * Run: {@code mvn test-compile exec:exec -Pbench -Dbench=ConnectionPoolBenchmark},
+ * a pool smaller than the threads: {@code -Dbench="ConnectionPoolBenchmark -p provider=hikari -p poolSize=4"}.
+ * <p>
+ * PD: the built-in pool doesn't wait for a free connection, when it's exhausted the session fails
+ * ("The internal connection pool has reached its maximum size"), so by default both pools have a connection per thread.
+ * The acquisition time histogram of the pool is printed at the end of every trial ({@link PoolMetrics}).
+ * With a real database the difference is bigger: opening a connection costs a TCP handshake and an authentication.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+    private static final String NAME_PREFIX = "bench-pool-";
+    private static final int TABLE_SIZE = 1000;
+
+    @Param({"builtin", "hikari"})
+    public String provider;
+
+    @Param({"16"})
+    public int poolSize;
+
+    private CategoryDAO categoryDAO;
+    private List<CategoryEntity> categories;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        EmbeddedDatabase.use();
+        System.setProperty(PooledConnectionProvider.ENABLED_SETTING, String.valueOf(provider.equals("hikari")));
+        System.setProperty(PooledConnectionProvider.MAX_SIZE_SETTING, String.valueOf(poolSize));
+        System.setProperty(PooledConnectionProvider.MIN_IDLE_SETTING, String.valueOf(poolSize));
+        System.setProperty("hibernate.connection.pool_size", String.valueOf(poolSize));
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.beginTransaction();
+            session.createMutationQuery("DELETE FROM ProductEntity").executeUpdate();
+            session.createMutationQuery("DELETE FROM CategoryEntity").executeUpdate();
+            session.getTransaction().commit();
+        }
+
+        String batchId = UUID.randomUUID().toString();
+        categories = IntStream.range(0, TABLE_SIZE)
+                .mapToObj(i -> new CategoryEntity(null, NAME_PREFIX + batchId + "-" + i))
+                .toList();
+        categoryDAO = new CategoryDAONative();
+        categoryDAO.persistAll(categories);
+        PoolMetrics.of(HibernateUtil.getSessionFactory()).ifPresent(PoolMetrics::reset);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        PoolMetrics.of(HibernateUtil.getSessionFactory()).ifPresent(System.out::println);
+        HibernateUtil.shutdown();
+    }
+
+    private CategoryEntity randomCategory() {
+        return categories.get(ThreadLocalRandom.current().nextInt(categories.size()));
+    }
+
+    @Benchmark
+    public Optional<CategoryEntity> findById() {
+        return categoryDAO.findById(randomCategory().getId());
+    }
+
+    @Benchmark
+    public Optional<CategorySummary> findSummaryById() {
+        return categoryDAO.findSummaryById(randomCategory().getId());
+    }
+}
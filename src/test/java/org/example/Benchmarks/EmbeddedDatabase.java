@@ -0,0 +1,41 @@
+package org.example.Benchmarks;
+
+import org.example.Util.HibernateUtil;
+
+/**
+ * In-memory H2 database in PostgreSQL mode for the benchmarks, they don't depend on a running PostgreSQL. <br>
+ * hibernate.cfg.xml is used as is, only the connection and the dialect are overridden with system properties
+ * ({@link HibernateUtil#OVERRIDE_PREFIX}), must be called before the SessionFactory is built.
+ * <p>
+ * PD: H2 only emulates PostgreSQL (MVCC, planner, JDBC driver and network round-trips are different),
+ * the results compare the Java side (Hibernate, mapping, allocation), not the database.
+ */
+public final class EmbeddedDatabase {
+    public static final String DEFAULT_NAME = "bench";
+
+    private EmbeddedDatabase() {
+    }
+
+    /**
+     * @param name name of the in-memory database, kept open until the JVM ends
+     * @return JDBC URL of the database, with the tienda schema created
+     */
+    public static String url(String name) {
+        return "jdbc:h2:mem:" + name
+                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"
+                + ";INIT=CREATE SCHEMA IF NOT EXISTS tienda;DB_CLOSE_DELAY=-1";
+    }
+
+    /**
+     * Use the embedded database {@link #DEFAULT_NAME} in the SessionFactory of {@link HibernateUtil}.
+     */
+    public static void use() {
+        use(DEFAULT_NAME);
+    }
+
+    public static void use(String name) {
+        System.setProperty("hibernate.connection.url", url(name));
+        System.setProperty("hibernate.connection.driver_class", "org.h2.Driver");
+        System.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.Benchmarks;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.HibernateUtil;
+import org.example.Util.MetadataSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup time: bootstrap of the SessionFactory ({@link HibernateUtil#start()}, with the warm-up) and the first query,
+ * in a new JVM every fork (the class loading and the JIT of the bootstrap are part of the time). <br>
+ * {@code full}: without snapshot, JDBC metadata read from the database and DDL generated from the mappings.
+ * {@code snapshot}: with a valid {@link MetadataSnapshot}, written before the trial by another JVM
+ * (like a build step, {@link MetadataSnapshot#main(String[])}). <br>
+ * Against an embedded H2 in PostgreSQL mode ({@link EmbeddedDatabase}). <br>
+ * Run: {@code mvn test-compile exec:exec -Pbench -Dbench=StartupBenchmark}.
+ * <p>
+ * PD: single shot, the result is the average of the forks (one measurement per JVM), more forks with {@code -f}.
+ * With a real database the snapshot saves more: the JDBC metadata are network round-trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+    private static final Path SNAPSHOT_DIR = Path.of("target", "bench-metadata-snapshot");
+
+    @Param({"full", "snapshot"})
+    public String mode;
+
+    private final CategoryDAO categoryDAO = new CategoryDAONative();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        EmbeddedDatabase.use();
+        System.setProperty(MetadataSnapshot.DIR_SETTING, mode.equals("snapshot") ? SNAPSHOT_DIR.toString() : "");
+        if (mode.equals("snapshot")) writeSnapshot();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        HibernateUtil.shutdown();
+    }
+
+    /**
+     * Writes the snapshot in another JVM with the same settings (the same checksum), this JVM stays cold.
+     */
+    private static void writeSnapshot() throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(HibernateUtil.OVERRIDE_PREFIX) || name.startsWith(HibernateUtil.APPLICATION_OVERRIDE_PREFIX))
+                .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+        command.add(MetadataSnapshot.class.getName());
+
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .directory(new File(System.getProperty("user.dir")))
+                .start();
+        if (process.waitFor() != 0) throw new IllegalStateException("The metadata snapshot wasn't written");
+    }
+
+    @Benchmark
+    public Optional<CategoryEntity> startAndFirstQuery() {
+        HibernateUtil.start();
+        return categoryDAO.findById(1L);
+    }
+}
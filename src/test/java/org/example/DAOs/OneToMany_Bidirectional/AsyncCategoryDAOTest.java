@@ -0,0 +1,147 @@
+package org.example.DAOs.OneToMany_Bidirectional;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductDAOImpl;
+import org.example.Entities.DTOs.CategorySummary;
+import org.example.Entities.DTOs.ProductSummary;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.Async.AsyncDAO;
+import org.example.Util.Async.AsyncDAOExecutor;
+import org.example.Util.Async.PinningMonitor;
+import org.example.Util.HibernateUtil;
+import org.example.Util.Pool.PoolMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncCategoryDAOTest {
+    private final CategoryDAO categoryDAO = new CategoryDAONative();
+    private AsyncDAOExecutor executor;
+    private AsyncDAO<CategoryDAO> categories;
+
+    @BeforeEach
+    void setUp() {
+        executor = AsyncDAOExecutor.create();
+        categories = executor.wrap(categoryDAO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    private CategoryEntity persist() {
+        CategoryEntity category = new CategoryEntity(null, "async-" + UUID.randomUUID());
+        categoryDAO.persist(category);
+        return category;
+    }
+
+    @Test
+    @DisplayName("The calls run in virtual threads and complete their futures")
+    void runsInVirtualThreads() {
+        CategoryEntity category = persist();
+
+        CompletableFuture<Boolean> virtual = categories.call(dao -> Thread.currentThread().isVirtual());
+        CompletableFuture<Optional<CategoryEntity>> found = categories.call(dao -> dao.findById(category.getId()));
+        CompletableFuture<Integer> failed = categories.call(dao -> {
+            throw new IllegalStateException("DAO failure");
+        });
+
+        assertTrue(virtual.join());
+        assertEquals(category.getName(), found.join().orElseThrow().getName());
+        CompletionException e = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(1, executor.getFailed());
+    }
+
+    @Test
+    @DisplayName("The concurrent calls are limited to the connections of the pool")
+    void limitedToPoolSize() {
+        PoolMetrics metrics = PoolMetrics.of(HibernateUtil.getSessionFactory()).orElseThrow();
+        assertEquals(metrics.getMaxSize(), executor.getMaxConcurrency());
+        CategoryEntity category = persist();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<CompletableFuture<Optional<CategoryEntity>>> calls = IntStream.range(0, executor.getMaxConcurrency() * 10)
+                .mapToObj(i -> categories.call(dao -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                        return dao.findById(category.getId());
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }))
+                .toList();
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+
+        assertTrue(calls.stream().allMatch(call -> call.join().isPresent()));
+        assertTrue(maxRunning.get() <= executor.getMaxConcurrency(), "Max running " + maxRunning.get());
+        assertTrue(maxRunning.get() > 1, "The calls should run concurrently");
+        assertEquals(0, metrics.getTimeouts(), "No call should wait for a connection until the timeout");
+        assertEquals(0, executor.getRunning());
+    }
+
+    @Test
+    @DisplayName("Fan-out: a category, its products and the product summaries at once")
+    void fanOut() {
+        CategoryEntity category = persist();
+        AsyncDAO<ProductDAO> products = executor.wrap(new ProductDAOImpl());
+
+        CompletableFuture<Optional<CategoryEntity>> eager = categories.call(dao -> dao.getByIdEager(category.getId()));
+        CompletableFuture<Optional<CategorySummary>> summary = categories.call(dao -> dao.findSummaryById(category.getId()));
+        CompletableFuture<List<ProductSummary>> productSummaries = products.call(ProductDAO::listSummaries);
+        CompletableFuture.allOf(eager, summary, productSummaries).join();
+
+        assertTrue(eager.join().orElseThrow().getProducts().isEmpty());
+        assertTrue(summary.join().isPresent());
+        assertNotNull(productSummaries.join());
+        assertEquals(3, executor.getSubmitted());
+    }
+
+    @Test
+    @DisplayName("The pinning monitor records a virtual thread blocked in a synchronized block")
+    void pinningMonitor() throws Exception {
+        Object lock = new Object();
+        try (AsyncDAOExecutor diagnosed = new AsyncDAOExecutor(2, Duration.ofMillis(10))) {
+            PinningMonitor monitor = diagnosed.getPinningMonitor().orElseThrow();
+            diagnosed.submit(() -> {
+                synchronized (lock) {
+                    try {
+                        // Sleeping while holding a monitor pins the carrier thread
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return null;
+            }).join();
+
+            // JFR delivers the events asynchronously
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (monitor.getPinned() == 0 && System.nanoTime() < deadline) Thread.sleep(100);
+
+            assertTrue(monitor.getPinned() > 0, monitor.toString());
+            assertTrue(monitor.getMaxPinnedMillis() >= 10, monitor.toString());
+            assertTrue(monitor.getPinnedByFrame().containsKey(PinningMonitor.OUTSIDE_DRIVER), monitor.toString());
+        }
+        assertTrue(executor.getPinningMonitor().isEmpty(), "Disabled by default");
+    }
+}
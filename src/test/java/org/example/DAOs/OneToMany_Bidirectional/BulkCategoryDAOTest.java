@@ -0,0 +1,153 @@
+package org.example.DAOs.OneToMany_Bidirectional;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductFetchPlan;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Entities.OneToManyToOne_Bidirectional.ProductEntity;
+import org.example.Util.BulkResult;
+import org.example.Util.HibernateUtil;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkCategoryDAOTest {
+    private static final int ROWS = 120;
+
+    private final CategoryDAO categoryDAO = new CategoryDAOImpl();
+    private final ProductDAOImpl productDAO = new ProductDAOImpl();
+
+    private static List<CategoryEntity> newCategories(int count) {
+        String batchId = UUID.randomUUID().toString();
+        return IntStream.range(0, count)
+                .mapToObj(i -> new CategoryEntity(null, "bulk-" + batchId + "-" + i))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("insertAll sends the rows in JDBC batches and reports the rows per second")
+    void insertAll() {
+        List<CategoryEntity> categories = new ArrayList<>(newCategories(ROWS));
+        categories.add(new CategoryEntity(null, ""));
+        categories.add(null);
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        long prepared = statistics.getPrepareStatementCount();
+
+        BulkResult result = categoryDAO.insertAll(categories);
+
+        assertEquals(ROWS, result.rows());
+        assertEquals(2, result.skipped());
+        assertTrue(result.rowsPerSecond() > 0, result.toString());
+        // A single INSERT statement for all the batches, plus the sequence calls (allocation_size)
+        assertTrue(statistics.getPrepareStatementCount() - prepared < 10,
+                "Prepared statements: " + (statistics.getPrepareStatementCount() - prepared));
+        assertTrue(categories.stream().limit(ROWS).allMatch(category -> category.getId() != null && category.getVersion() != null));
+        assertEquals(categories.get(0).getName(), categoryDAO.findById(categories.get(0).getId()).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("updateAll increments the versions and evicts the second level cache")
+    void updateAll() {
+        List<CategoryEntity> categories = newCategories(ROWS);
+        categoryDAO.insertAll(categories);
+        CategoryEntity first = categories.get(0);
+        // Cached in the second level cache
+        categoryDAO.findById(first.getId());
+        long version = first.getVersion();
+
+        categories.forEach(category -> category.setName(category.getName() + "-updated"));
+        BulkResult result = categoryDAO.updateAll(categories);
+
+        assertEquals(ROWS, result.rows());
+        assertEquals(version + 1, first.getVersion());
+        CategoryEntity found = categoryDAO.findById(first.getId()).orElseThrow();
+        assertEquals(first.getName(), found.getName(), "The cached category should be evicted");
+        assertEquals(first.getVersion(), found.getVersion());
+    }
+
+    @Test
+    @DisplayName("A stale version fails the whole bulk update")
+    void staleVersion() {
+        List<CategoryEntity> categories = newCategories(3);
+        categoryDAO.insertAll(categories);
+        String name = categories.get(0).getName();
+        categories.forEach(category -> category.setName(category.getName() + "-updated"));
+        categories.get(2).setVersion(categories.get(2).getVersion() + 10);
+
+        BulkResult result = categoryDAO.updateAll(categories);
+
+        assertEquals(0, result.rows());
+        assertEquals(name, categoryDAO.findById(categories.get(0).getId()).orElseThrow().getName(), "Rolled back");
+        assertEquals(0L, categories.get(0).getVersion(), "The version incremented by the rolled back update is restored");
+        assertEquals(0L, categories.get(1).getVersion(), "The version incremented by the rolled back update is restored");
+
+        categories.get(2).setVersion(0L);
+        assertEquals(3, categoryDAO.updateAll(categories).rows(), "The same update can be retried");
+    }
+
+    @Test
+    @DisplayName("A failed bulk insert leaves the entities without id and version, it can be retried")
+    void failedInsertRestoresIds() {
+        List<CategoryEntity> categories = newCategories(ROWS);
+        String name = categories.get(ROWS - 1).getName();
+        // Longer than the column (100), the last batch fails
+        categories.get(ROWS - 1).setName(name + "x".repeat(100));
+
+        assertEquals(0, categoryDAO.insertAll(categories).rows());
+        assertTrue(categories.stream().allMatch(category -> category.getId() == null && category.getVersion() == null),
+                "The ids and versions of the rolled back inserts should be discarded");
+
+        categories.get(ROWS - 1).setName(name);
+        assertEquals(ROWS, categoryDAO.insertAll(categories).rows(), "The same insert can be retried");
+        assertTrue(categoryDAO.findById(categories.get(0).getId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("deleteAll removes the rows, entities without version are skipped")
+    void deleteAll() {
+        List<CategoryEntity> categories = newCategories(ROWS);
+        categoryDAO.insertAll(categories);
+        CategoryEntity withoutVersion = new CategoryEntity(categories.get(0).getId(), categories.get(0).getName());
+
+        BulkResult result = categoryDAO.deleteAll(categories);
+
+        assertEquals(ROWS, result.rows());
+        assertTrue(categoryDAO.findById(categories.get(0).getId()).isEmpty());
+        assertEquals(1, categoryDAO.deleteAll(List.of(withoutVersion)).skipped());
+    }
+
+    @Test
+    @DisplayName("Bulk products with a saved category: insert, update and delete")
+    void products() {
+        CategoryEntity category = new CategoryEntity(null, "bulk-category-" + UUID.randomUUID());
+        categoryDAO.persist(category);
+        String batchId = UUID.randomUUID().toString();
+        List<ProductEntity> products = IntStream.range(0, ROWS)
+                .mapToObj(i -> {
+                    ProductEntity product = new ProductEntity(null, "bulk-" + batchId + "-" + i, "bulk product", BigDecimal.valueOf(i));
+                    product.setCategory(category);
+                    return product;
+                })
+                .toList();
+
+        assertEquals(ROWS, productDAO.insertAll(products).rows());
+        ProductEntity first = productDAO.findById(products.get(0).getId(), ProductFetchPlan.WITH_CATEGORY).orElseThrow();
+        assertEquals(category.getId(), first.getCategory().getId());
+
+        products.forEach(product -> product.setPrice(product.getPrice().add(BigDecimal.TEN)));
+        assertEquals(ROWS, productDAO.updateAll(products).rows());
+        assertEquals(0, BigDecimal.TEN.compareTo(productDAO.findById(products.get(0).getId(), ProductFetchPlan.BASIC).orElseThrow().getPrice()));
+
+        assertEquals(ROWS, productDAO.deleteAll(products).rows());
+        assertTrue(productDAO.findById(products.get(0).getId(), ProductFetchPlan.BASIC).isEmpty());
+    }
+}
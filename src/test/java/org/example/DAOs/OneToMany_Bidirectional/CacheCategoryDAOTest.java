@@ -0,0 +1,86 @@
+package org.example.DAOs.OneToMany_Bidirectional;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOCriteria;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.CacheStats;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheCategoryDAOTest {
+
+    private CategoryEntity newCategory(CategoryDAO categoryDAO) {
+        CategoryEntity category = new CategoryEntity(null, "cache-" + UUID.randomUUID());
+        categoryDAO.persist(category);
+        assertNotNull(category.getId(), "Category should be saved");
+        return category;
+    }
+
+    @Test
+    @DisplayName("Second findById is served by the entity cache")
+    void findByIdCacheHit() {
+        CategoryDAO categoryDAO = new CategoryDAOImpl();
+        CategoryEntity category = newCategory(categoryDAO);
+
+        categoryDAO.findById(category.getId());
+        long hits = CacheStats.hits(CategoryEntity.CACHE_REGION);
+        assertTrue(categoryDAO.findById(category.getId()).isPresent(), "Category should be found");
+        assertTrue(CacheStats.hits(CategoryEntity.CACHE_REGION) > hits, "Second findById should hit the cache");
+    }
+
+    @Test
+    @DisplayName("Second findByName is served by the query cache")
+    void findByNameCacheHit() {
+        for (CategoryDAO categoryDAO : new CategoryDAO[]{new CategoryDAOImpl(), new CategoryDAOCriteria(), new CategoryDAONative()}) {
+            CategoryEntity category = newCategory(categoryDAO);
+
+            categoryDAO.findByName(category.getName());
+            long hits = CacheStats.hits(CategoryEntity.QUERY_BY_NAME_CACHE_REGION);
+            assertEquals(category.getId(), categoryDAO.findByName(category.getName()).orElseThrow().getId(), "Category should be found");
+            assertTrue(CacheStats.hits(CategoryEntity.QUERY_BY_NAME_CACHE_REGION) > hits,
+                    "Second findByName should hit the query cache: " + categoryDAO.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    @DisplayName("Cached findByName is invalidated after an update")
+    void findByNameInvalidatedOnMerge() {
+        for (CategoryDAO categoryDAO : new CategoryDAO[]{new CategoryDAOImpl(), new CategoryDAOCriteria(), new CategoryDAONative()}) {
+            CategoryEntity category = newCategory(categoryDAO);
+            String oldName = category.getName();
+            categoryDAO.findByName(oldName);
+
+            category.setName(oldName + "-renamed");
+            assertTrue(categoryDAO.merge(category), "Category should be updated");
+            assertTrue(categoryDAO.findByName(oldName).isEmpty(), "Old name shouldn't be found: " + categoryDAO.getClass().getSimpleName());
+            assertTrue(categoryDAO.findByName(category.getName()).isPresent(), "New name should be found: " + categoryDAO.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    @DisplayName("Cached findByName sees the categories saved in batch")
+    void findByNameAfterPersistAll() {
+        CategoryDAO categoryDAO = new CategoryDAONative();
+        String name = "cache-" + UUID.randomUUID();
+        assertTrue(categoryDAO.findByName(name).isEmpty(), "Category shouldn't exist yet");
+
+        assertEquals(1, categoryDAO.persistAll(List.of(new CategoryEntity(null, name))), "Category should be saved");
+        assertTrue(categoryDAO.findByName(name).isPresent(), "Category saved in batch should be found");
+    }
+
+    @Test
+    @DisplayName("Statistics dump contains all the regions")
+    void dumpContainsRegions() {
+        String dump = CacheStats.dump();
+        CacheStats.DOMAIN_REGIONS.forEach(region -> assertTrue(dump.contains(region), "Dump should contain " + region));
+        CacheStats.QUERY_REGIONS.forEach(region -> assertTrue(dump.contains(region), "Dump should contain " + region));
+        assertFalse(dump.contains("not found"), "All the regions should exist:\n" + dump);
+    }
+}
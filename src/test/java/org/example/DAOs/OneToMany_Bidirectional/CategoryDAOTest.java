@@ -2,21 +2,31 @@ package org.example.DAOs.OneToMany_Bidirectional;
 
 import com.anarsoft.vmlens.concurrent.junit.ThreadCount;
 import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryCursor;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOCriteria;
 import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryPage;
 import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductDAOImpl;
+import org.example.Entities.DTOs.CategorySummary;
 import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
 import org.example.Entities.OneToManyToOne_Bidirectional.ProductEntity;
 import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.StatementRecorder;
 import org.hibernate.LazyInitializationException;
 import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -122,6 +132,18 @@ class CategoryDAOTest {
 
     }
 
+    @Test
+    @DisplayName("Stream all categories with small fetch size")
+    void streamAllCategories() {
+        int expected = categoryDAO.listAll().size();
+
+        try (Stream<CategoryEntity> categories = categoryDAO.streamAll(4)) {
+            List<CategoryEntity> streamed = categories.toList();
+            assertEquals(expected, streamed.size(), "Stream should contain all the categories");
+            streamed.forEach(category -> assertNotNull(category.getName(), "Streamed category should be hydrated"));
+        }
+    }
+
     @Test
     @DisplayName("List all PAGINATION")
     void listAllPagination() {
@@ -137,6 +159,64 @@ class CategoryDAOTest {
 
     }
 
+    @Test
+    @DisplayName("List all KEYSET PAGINATION ordered by id")
+    void listAllKeysetPaginationById() {
+        int limit = 7;
+        List<Long> ids = new ArrayList<>();
+
+        CategoryPage page = categoryDAO.listFirst(CategoryCursor.Order.ID, limit);
+        page.getCategories().forEach(category -> ids.add(category.getId()));
+        while (page.hasNext()) {
+            page = categoryDAO.listAfter(page.getNextCursor(), limit);
+            assertFalse(page.getCategories().isEmpty(), "A page with cursor should not be empty");
+            assertTrue(page.getCategories().size() <= limit, "A page shouldn't have more than " + limit + " categories");
+            page.getCategories().forEach(category -> ids.add(category.getId()));
+        }
+
+        assertFalse(ids.isEmpty(), "List of categories should not be empty");
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i), "Ids should be in ascending order without repetitions");
+        }
+    }
+
+    @Test
+    @DisplayName("List all KEYSET PAGINATION ordered by name and id")
+    void listAllKeysetPaginationByName() {
+        int limit = 5;
+        List<String> names = new ArrayList<>();
+
+        CategoryPage page = categoryDAO.listFirst(CategoryCursor.Order.NAME_ID, limit);
+        page.getCategories().forEach(category -> names.add(category.getName()));
+        while (page.hasNext()) {
+            page = categoryDAO.listAfter(page.getNextCursor(), limit);
+            page.getCategories().forEach(category -> names.add(category.getName()));
+        }
+
+        assertFalse(names.isEmpty(), "List of categories should not be empty");
+        for (int i = 1; i < names.size(); i++) {
+            assertTrue(names.get(i - 1).compareTo(names.get(i)) < 0, "Names should be in ascending order without repetitions");
+        }
+    }
+
+    @Test
+    @DisplayName("List KEYSET PAGINATION with the maximum limit")
+    void listKeysetPaginationMaxLimit() {
+        int count = categoryDAO.listAll().size();
+        for (CategoryDAO dao : List.of(categoryDAO, new CategoryDAOCriteria(), new CategoryDAONative())) {
+            CategoryPage page = dao.listFirst(CategoryCursor.Order.ID, Integer.MAX_VALUE);
+            assertEquals(count, page.getCategories().size(), dao.getClass().getSimpleName() + " should return all the categories");
+            assertFalse(page.hasNext(), "A single page shouldn't have a next one");
+        }
+    }
+
+    @Test
+    @DisplayName("List KEYSET PAGINATION with invalid cursor")
+    void listKeysetPaginationInvalidCursor() {
+        assertTrue(categoryDAO.listAfter("not a cursor", 5).getCategories().isEmpty(), "Invalid cursor should return an empty page");
+        assertTrue(categoryDAO.listAfter(null, 5).getCategories().isEmpty(), "Null cursor should return an empty page");
+    }
+
     //=============================== categoryDAO.listAllWithEmptyRows() ===============================\\
 
     @Test
@@ -216,6 +296,103 @@ class CategoryDAOTest {
         assertTrue(categoryOp.isEmpty(), "Category tried save with id mustn't be saved");
     }
 
+    //=============================== categoryDAO.persistAll(Collection<CategoryEntity> categories) ===============================\\
+    @Test
+    @DisplayName("Save all categories with valid names")
+    void saveAllValidNames() {
+        String prefix = "saveAll-" + UUID.randomUUID() + "-";
+        List<CategoryEntity> categories = new ArrayList<>();
+        for (int i = 0; i < 120; i++) categories.add(new CategoryEntity(null, prefix + i));
+
+        int saved = categoryDAO.persistAll(categories);
+        assertEquals(categories.size(), saved, "All categories with valid names should be saved");
+        categories.forEach(category -> assertNotNull(category.getId(), "Saved category should have id assigned"));
+        assertTrue(categoryDAO.findByName(prefix + 119).isPresent(), "Last category of the batch should exist");
+    }
+
+    @Test
+    @DisplayName("Save all categories skipping the invalid ones")
+    void saveAllSkipInvalid() {
+        CategoryEntity valid = new CategoryEntity(null, "saveAll-" + UUID.randomUUID());
+        List<CategoryEntity> categories = Arrays.asList(
+                valid,
+                null,
+                new CategoryEntity(null, ""),
+                new CategoryEntity(9999999L, "saveAllWithId"));
+
+        int saved = categoryDAO.persistAll(categories);
+        assertEquals(1, saved, "Only the valid category should be saved");
+        assertNotNull(valid.getId(), "Saved category should have id assigned");
+    }
+
+    @Test
+    @DisplayName("Save all categories skipping the existing and repeated names")
+    void saveAllSkipDuplicates() {
+        String prefix = "saveAll-" + UUID.randomUUID() + "-";
+        CategoryEntity existing = new CategoryEntity(null, prefix + "existing");
+        categoryDAO.persist(existing);
+        CategoryEntity first = new CategoryEntity(null, prefix + "first");
+        CategoryEntity second = new CategoryEntity(null, prefix + "second");
+        CategoryEntity existingName = new CategoryEntity(null, existing.getName());
+        CategoryEntity repeatedName = new CategoryEntity(null, first.getName());
+
+        int saved = categoryDAO.persistAll(List.of(first, existingName, repeatedName, second));
+        assertEquals(2, saved, "The existing and repeated names should be skipped");
+        assertNotNull(first.getId(), "Saved category should have id assigned");
+        assertNotNull(second.getId(), "Saved category should have id assigned");
+        assertNull(existingName.getId(), "Skipped category shouldn't have id");
+        assertNull(repeatedName.getId(), "Skipped category shouldn't have id");
+    }
+
+    @Test
+    @DisplayName("Save all categories, a failed transaction leaves them without id and version")
+    void saveAllRollback() {
+        CategoryEntity valid = new CategoryEntity(null, "saveAll-" + UUID.randomUUID());
+        // Longer than the column (100), the insert fails
+        CategoryEntity tooLong = new CategoryEntity(null, "saveAll-" + "x".repeat(100));
+
+        assertEquals(0, categoryDAO.persistAll(List.of(valid, tooLong)), "Nothing should be saved");
+        for (CategoryEntity category : List.of(valid, tooLong)) {
+            assertNull(category.getId(), "Rolled back category shouldn't have id");
+            assertNull(category.getVersion(), "Rolled back category shouldn't have version");
+        }
+        assertTrue(categoryDAO.findByName(valid.getName()).isEmpty(), "The valid category should be rolled back");
+        assertEquals(1, categoryDAO.persistAll(List.of(valid)), "The category can be saved again");
+    }
+
+    @Test
+    @DisplayName("Save all categories, more names than the bind parameters of a statement")
+    void saveAllOverBindLimit() {
+        // pgjdbc binds up to 32767 parameters per statement
+        int count = 33_000;
+        String prefix = "saveAll-bind-" + UUID.randomUUID() + "-";
+        List<CategoryEntity> categories = new ArrayList<>(count + 1);
+        for (int i = 0; i < count; i++) categories.add(new CategoryEntity(null, prefix + i));
+        categories.add(new CategoryEntity(null, prefix + 0));
+        try {
+            int[] saved = new int[1];
+            List<StatementRecorder.Statement> statements = StatementRecorder.record(() -> saved[0] = categoryDAO.persistAll(categories));
+
+            assertEquals(count, saved[0], "All the categories but the repeated name should be saved");
+            statements.forEach(statement -> assertTrue(statement.sql().chars().filter(c -> c == '?').count() <= Short.MAX_VALUE,
+                    "Statement over the bind parameters limit: " + statement.sql().length() + " chars"));
+        } finally {
+            try (Session session = HibernateUtil.openSession()) {
+                session.beginTransaction();
+                session.createMutationQuery("DELETE FROM CategoryEntity c WHERE c.name LIKE :prefix")
+                        .setParameter("prefix", prefix + "%")
+                        .executeUpdate();
+                session.getTransaction().commit();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Save all categories with null collection")
+    void saveAllNull() {
+        assertEquals(0, categoryDAO.persistAll(null), "Null collection shouldn't save anything");
+    }
+
     //    @Test
 //    @DisplayName("Save category with valid name and products")
 //    void saveValidNameAndProductsCascadePersist() {
@@ -465,6 +642,109 @@ class CategoryDAOTest {
         assertTrue(category.isEmpty(), "Category with Id " + id + " shouldn't be present");
     }
 
+    //=============================== categoryDAO.getByIdsEager(Collection<Long> ids) ===============================\\
+    @Test
+    @DisplayName("Get by valid Ids Eager, products initialized in a fixed number of queries")
+    void getByIdsEagerValidIds() {
+        List<CategoryEntity> categories = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CategoryEntity category = new CategoryEntity(null, "byIds-" + UUID.randomUUID());
+            categoryDAO.persist(category);
+            assertNotNull(category.getId(), "Category should be saved");
+
+            for (int j = 0; j <= i; j++) {
+                ProductEntity product = new ProductEntity(null, "byIds-" + UUID.randomUUID(), "product " + j, BigDecimal.ONE);
+                productDAO.save(product);
+                product.setCategory(category);
+                productDAO.merge(product);
+            }
+            categories.add(category);
+        }
+
+        // Reversed + repeated + nonexistent ids
+        List<java.lang.Long> ids = new ArrayList<>(Arrays.asList(
+                categories.get(2).getId(), categories.get(1).getId(), categories.get(0).getId(),
+                categories.get(2).getId(), java.lang.Long.MAX_VALUE, null));
+
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        long statements = statistics.getPrepareStatementCount();
+        List<CategoryEntity> result = categoryDAO.getByIdsEager(ids);
+        long executed = statistics.getPrepareStatementCount() - statements;
+
+        assertEquals(3, result.size(), "Only the existing categories should be present, once");
+        for (int i = 0; i < 3; i++) {
+            CategoryEntity category = result.get(i);
+            assertEquals(categories.get(2 - i).getId(), category.getId(), "Categories should be in the order of the ids");
+            assertEquals(3 - i, category.getProducts().size(), "Products should be initialized");
+            assertNotNull(category.getProducts().get(0).getCategory(), "Category of Product shouldn't be null");
+        }
+        assertTrue(executed <= 3, "Categories and products should be loaded in a fixed number of queries, executed: " + executed);
+    }
+
+    @Test
+    @DisplayName("Get by null, empty and nonexistent Ids Eager")
+    void getByIdsEagerInvalidIds() {
+        assertTrue(categoryDAO.getByIdsEager(null).isEmpty(), "Null ids shouldn't return categories");
+        assertTrue(categoryDAO.getByIdsEager(List.of()).isEmpty(), "Empty ids shouldn't return categories");
+        assertTrue(categoryDAO.getByIdsEager(Arrays.asList(null, null)).isEmpty(), "Null ids shouldn't return categories");
+        assertTrue(categoryDAO.getByIdsEager(List.of(java.lang.Long.MAX_VALUE, java.lang.Long.MIN_VALUE)).isEmpty(),
+                "Nonexistent ids shouldn't return categories");
+    }
+
+    //=============================== categoryDAO.listSummaries() / findSummaryById(Long id) ===============================\\
+    @Test
+    @DisplayName("Summary of a category with products, aggregates computed by the DB")
+    void findSummaryWithProducts() {
+        CategoryEntity category = new CategoryEntity(null, "summary-" + UUID.randomUUID());
+        categoryDAO.persist(category);
+        assertNotNull(category.getId(), "Category should be saved");
+
+        for (BigDecimal price : List.of(BigDecimal.valueOf(5), BigDecimal.valueOf(10), BigDecimal.valueOf(7.5))) {
+            ProductEntity product = new ProductEntity(null, "summary-" + UUID.randomUUID(), "summary", price);
+            productDAO.save(product);
+            product.setCategory(category);
+            productDAO.merge(product);
+        }
+
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        long loadedEntities = statistics.getEntityLoadCount();
+        Optional<CategorySummary> summary = categoryDAO.findSummaryById(category.getId());
+        assertEquals(loadedEntities, statistics.getEntityLoadCount(), "Summary shouldn't hydrate entities");
+
+        assertTrue(summary.isPresent(), "Summary of existing category should be present");
+        assertEquals(category.getName(), summary.get().name());
+        assertEquals(3, summary.get().productCount(), "Category should have 3 products");
+        assertEquals(0, BigDecimal.valueOf(5).compareTo(summary.get().minPrice()), "Min price should be 5");
+        assertEquals(0, BigDecimal.valueOf(10).compareTo(summary.get().maxPrice()), "Max price should be 10");
+    }
+
+    @Test
+    @DisplayName("Summary of a category without products")
+    void findSummaryWithoutProducts() {
+        CategoryEntity category = new CategoryEntity(null, "summary-" + UUID.randomUUID());
+        categoryDAO.persist(category);
+
+        Optional<CategorySummary> summary = categoryDAO.findSummaryById(category.getId());
+        assertTrue(summary.isPresent(), "Summary of existing category should be present");
+        assertEquals(0, summary.get().productCount(), "Category shouldn't have products");
+        assertNull(summary.get().minPrice(), "Min price should be null");
+        assertNull(summary.get().maxPrice(), "Max price should be null");
+
+        assertTrue(categoryDAO.findSummaryById(java.lang.Long.MAX_VALUE).isEmpty(), "Summary of nonexistent category shouldn't be present");
+        assertTrue(categoryDAO.findSummaryById(null).isEmpty(), "Summary of null id shouldn't be present");
+    }
+
+    @Test
+    @DisplayName("List summaries of all categories")
+    void listSummaries() {
+        List<CategorySummary> summaries = categoryDAO.listSummaries();
+        assertEquals(categoryDAO.listAll().size(), summaries.size(), "There should be a summary per category");
+        for (int i = 1; i < summaries.size(); i++) {
+            assertTrue(summaries.get(i - 1).id() < summaries.get(i).id(), "Summaries should be ordered by id");
+        }
+    }
+
     @Test
     @DisplayName("BIDIRECTIONAL association, Get Category from a product(element of List) into Category")
     void getCategoryFromProduct() {
@@ -1,6 +1,23 @@
 package org.example.DAOs.OneToMany_Bidirectional;
 
 import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOCriteria;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.HibernateUtil;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.spi.QueryInterpretationCache;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 
 public class CriteriaCategoryDAOTest extends CategoryDAOTest {
@@ -8,4 +25,72 @@ public class CriteriaCategoryDAOTest extends CategoryDAOTest {
         categoryDAO = new CategoryDAOCriteria();
     }
 
+    @Test
+    @DisplayName("Precompiled criteria queries reuse the query plan")
+    void precompiledQueriesReusePlan() {
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        new CategoryDAOCriteria().findById(categoryId);
+
+        QueryInterpretationCache plans = HibernateUtil.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getQueryEngine().getInterpretationCache();
+        int cachedPlans = plans.getNumberOfCachedQueryPlans();
+        long hits = statistics.getQueryPlanCacheHitCount();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        assertTrue(new CategoryDAOCriteria().findById(categoryId).isPresent(), "Category should be found");
+        assertEquals(hits + 1, statistics.getQueryPlanCacheHitCount(), "Second execution should reuse the cached plan");
+        assertEquals(misses, statistics.getQueryPlanCacheMissCount(), "Second execution shouldn't translate the query again");
+        assertEquals(cachedPlans, plans.getNumberOfCachedQueryPlans(), "The shared query is cached once, not per call");
+    }
+
+    @Test
+    @DisplayName("Precompiled criteria queries shared between threads")
+    void precompiledQueriesConcurrent() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            var results = IntStream.range(0, 64)
+                    .mapToObj(i -> executor.submit(() -> categoryDAO.findByName(categoryName).isPresent()
+                            && categoryDAO.findById(categoryId).isPresent()))
+                    .toList();
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(), "Category should be found from every thread");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Upsert skips the existing and repeated names")
+    void upsertAll() {
+        CategoryDAOCriteria dao = new CategoryDAOCriteria();
+        String name = "upsert-" + UUID.randomUUID();
+        List<CategoryEntity> categories = List.of(
+                new CategoryEntity(null, name),
+                new CategoryEntity(null, name),
+                new CategoryEntity(null, categoryName),
+                new CategoryEntity(null, name + "-2"));
+
+        assertEquals(2, dao.upsertAll(categories), "Only the new names should be saved");
+        assertNotNull(categories.get(0).getId(), "Saved category should have id");
+        assertNull(categories.get(1).getId(), "Repeated name shouldn't be saved");
+        assertNull(categories.get(2).getId(), "Existing name shouldn't be saved");
+        assertEquals(categories.get(3).getId(), dao.findByName(name + "-2").orElseThrow().getId(), "Saved id should be the DB id");
+        assertEquals(0L, dao.findById(categories.get(0).getId()).orElseThrow().getVersion(), "Saved category should have version 0");
+    }
+
+    @Test
+    @DisplayName("Concurrent persist of the same name saves it once")
+    void persistConcurrentSameName() throws Exception {
+        String name = "upsert-" + UUID.randomUUID();
+        List<CategoryEntity> categories = IntStream.range(0, 16).mapToObj(i -> new CategoryEntity(null, name)).toList();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            List<Callable<Void>> tasks = categories.stream().<Callable<Void>>map(category -> () -> {
+                categoryDAO.persist(category);
+                return null;
+            }).toList();
+            for (Future<Void> result : executor.invokeAll(tasks)) result.get();
+        }
+
+        assertEquals(1, categories.stream().filter(category -> category.getId() != null).count(), "Only one persist should save the name");
+        assertTrue(categoryDAO.findByName(name).isPresent(), "Category should be saved");
+    }
 }
@@ -0,0 +1,65 @@
+package org.example.DAOs.OneToMany_Bidirectional;
+
+import org.example.Load.LoadGenerator;
+import org.example.Load.LoadReport;
+import org.example.Load.Mix;
+import org.example.Load.Operation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadCategoryDAOTest {
+
+    @Test
+    @DisplayName("The operations of a mix are picked proportionally to their weights")
+    void mixWeights() {
+        Mix mix = Mix.parse("findById:3, persist:1, merge:0");
+        assertEquals(Map.of(Operation.FIND_BY_ID, 3, Operation.PERSIST, 1), mix.getWeights(), "Weight 0 should be excluded");
+
+        Map<Operation, Integer> picked = new EnumMap<>(Operation.class);
+        for (int i = 0; i < 40_000; i++) picked.merge(mix.next(), 1, Integer::sum);
+        assertEquals(2, picked.size(), "Only the operations of the mix should be picked");
+        assertEquals(30_000, picked.get(Operation.FIND_BY_ID), 1_000, "findById should be ~75%");
+    }
+
+    @Test
+    @DisplayName("Invalid mixes and arguments are rejected")
+    void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> Mix.parse("findById:1,unknown:2"));
+        assertThrows(IllegalArgumentException.class, () -> Mix.parse("findById:1,findById:2"));
+        assertThrows(IllegalArgumentException.class, () -> Mix.parse("findById:0"));
+        assertThrows(IllegalArgumentException.class, () -> Mix.parse("findById:-1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.Options.parse(new String[]{"--threads=0"}));
+        assertThrows(IllegalArgumentException.class, () -> LoadGenerator.Options.parse(new String[]{"--unknown=1"}));
+
+        LoadGenerator.Options options = LoadGenerator.Options.parse(new String[]{"--threads=4", "--virtual", "--duration=500ms", "--dao=Native"});
+        assertEquals(4, options.threads());
+        assertTrue(options.virtualThreads());
+        assertEquals(Duration.ofMillis(500), options.duration());
+        assertEquals("Native", options.implementation());
+        assertFalse(options.mix().getWeights().containsKey(Operation.LIST_PAGINATION), "Native doesn't implement listPagination");
+        assertThrows(IllegalArgumentException.class,
+                () -> LoadGenerator.Options.parse(new String[]{"--dao=Native", "--mix=findById:1,listPagination:1"}));
+    }
+
+    @Test
+    @DisplayName("A short run with platform and virtual threads executes the mix without errors")
+    void run() throws InterruptedException {
+        for (String threads : new String[]{"--virtual=false", "--virtual"}) {
+            LoadReport report = new LoadGenerator(LoadGenerator.Options.parse(new String[]{
+                    "--threads=4", threads, "--duration=1s", "--warmup=200ms", "--rows=20"})).run();
+
+            assertTrue(report.getOperations() > 0, "Operations should be executed:\n" + report);
+            assertTrue(report.getOperations(Operation.FIND_BY_ID) > 0, "findById is the most frequent operation:\n" + report);
+            assertEquals(0, report.getErrors(), "There should be no errors:\n" + report);
+            assertTrue(report.getThroughput() > 0);
+            assertTrue(report.getLatencyMillis(99.9) >= report.getLatencyMillis(50), "p999 should be >= p50");
+            assertTrue(report.toString().contains("Lock waits (database)"), report.toString());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.DAOs.OneToMany_Bidirectional;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductDAOImpl;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Entities.OneToManyToOne_Bidirectional.ProductEntity;
+import org.example.Util.Metrics.DAOMetrics;
+import org.example.Util.Metrics.MethodMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsCategoryDAOTest {
+
+    @Test
+    @DisplayName("Calls and latency of an instrumented DAO are recorded")
+    void callsRecorded() {
+        CategoryDAO categoryDAO = DAOMetrics.instrument(CategoryDAO.class, new CategoryDAOImpl());
+        MethodMetrics metrics = DAOMetrics.get(CategoryDAOImpl.class.getSimpleName(), "listAll");
+        long calls = metrics.getCalls();
+
+        for (int i = 0; i < 10; i++) categoryDAO.listAll();
+
+        assertEquals(calls + 10, metrics.getCalls(), "All the calls should be counted");
+        assertTrue(metrics.getP50Micros() > 0, "Latency should be recorded");
+        assertTrue(metrics.getP999Micros() >= metrics.getP50Micros(), "p999 should be >= p50");
+        assertTrue(metrics.getJdbcP50Micros() > 0, "The query should be counted as JDBC time");
+    }
+
+    @Test
+    @DisplayName("Flush time of a persist is recorded")
+    void flushRecorded() {
+        CategoryDAO categoryDAO = DAOMetrics.instrument(CategoryDAO.class, new CategoryDAOImpl());
+        categoryDAO.persist(new CategoryEntity(null, "metrics-" + UUID.randomUUID()));
+
+        MethodMetrics metrics = DAOMetrics.get(CategoryDAOImpl.class.getSimpleName(), "persist");
+        assertTrue(metrics.getCalls() > 0, "Persist should be counted");
+        assertTrue(metrics.getJdbcP99Micros() > 0, "The insert should be counted as JDBC time");
+        assertTrue(metrics.getFlushP99Micros() > 0, "The commit flush should be recorded");
+    }
+
+    static class SevereDAO implements Runnable {
+        @Override
+        public void run() {
+            Logger.getLogger("org.example.DAOs.Test").severe("Error in the DAO");
+        }
+    }
+
+    static class CatchingDAO implements Runnable {
+        @Override
+        public void run() {
+            try {
+                throw new IllegalStateException("Error in the DAO");
+            } catch (IllegalStateException e) {
+                DAOMetrics.error();
+            }
+        }
+    }
+
+    static class ThrowingDAO implements Runnable {
+        @Override
+        public void run() {
+            throw new IllegalStateException("Error in the DAO");
+        }
+    }
+
+    @Test
+    @DisplayName("Thrown and caught exceptions are counted as errors, the logs aren't")
+    void errorsCounted() {
+        DAOMetrics.instrument(Runnable.class, new SevereDAO()).run();
+        DAOMetrics.instrument(Runnable.class, new CatchingDAO()).run();
+        assertThrows(IllegalStateException.class, DAOMetrics.instrument(Runnable.class, new ThrowingDAO())::run,
+                "The exception should be rethrown");
+        DAOMetrics.error();
+
+        assertEquals(0, DAOMetrics.get(SevereDAO.class.getSimpleName(), "run").getErrors(), "A SEVERE log isn't an error");
+        assertTrue(DAOMetrics.get(CatchingDAO.class.getSimpleName(), "run").getErrors() > 0, "Caught exception should be counted as error");
+        assertTrue(DAOMetrics.get(ThrowingDAO.class.getSimpleName(), "run").getErrors() > 0, "Exception should be counted as error");
+    }
+
+    @Test
+    @DisplayName("An exception caught by a real DAO is counted as error")
+    void caughtByDAOCounted() {
+        CategoryDAO categoryDAO = DAOMetrics.instrument(CategoryDAO.class, new CategoryDAOImpl());
+        MethodMetrics merge = DAOMetrics.get(CategoryDAOImpl.class.getSimpleName(), "merge");
+        MethodMetrics findById = DAOMetrics.get(CategoryDAOImpl.class.getSimpleName(), "findById");
+        long mergeErrors = merge.getErrors();
+        long findErrors = findById.getErrors();
+
+        // Name longer than the column: the DAO logs it and returns false
+        assertFalse(categoryDAO.merge(new CategoryEntity(1L, "x".repeat(200))));
+        // Not found isn't an error
+        assertTrue(categoryDAO.findById(Long.MAX_VALUE).isEmpty());
+
+        assertEquals(mergeErrors + 1, merge.getErrors(), "The caught exception should be counted");
+        assertEquals(findErrors, findById.getErrors(), "An empty result isn't an error");
+    }
+
+    @Test
+    @DisplayName("Metrics are registered in JMX and dumped")
+    void jmxAndDump() throws Exception {
+        ProductDAO productDAO = DAOMetrics.instrument(ProductDAO.class, new ProductDAOImpl());
+        productDAO.save(new ProductEntity(null, "metrics-" + UUID.randomUUID(), null, BigDecimal.ONE));
+
+        var name = DAOMetrics.objectName(ProductDAOImpl.class.getSimpleName(), "save");
+        var server = ManagementFactory.getPlatformMBeanServer();
+        assertTrue(server.isRegistered(name), "MBean should be registered");
+        assertTrue((Long) server.getAttribute(name, "Calls") > 0, "MBean should expose the calls");
+
+        String dump = DAOMetrics.dump();
+        assertTrue(dump.contains("ProductDAOImpl.save"), "Dump should contain the method:\n" + dump);
+        assertTrue(dump.contains("Hibernate:"), "Dump should contain the Hibernate statistics:\n" + dump);
+    }
+}
@@ -2,12 +2,19 @@ package org.example.DAOs.OneToMany_Bidirectional;
 
 import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
 import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.HibernateUtil;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
 
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class NativeCategoryDAOTest extends CategoryDAOTest {
     public NativeCategoryDAOTest() {
@@ -31,4 +38,42 @@ public class NativeCategoryDAOTest extends CategoryDAOTest {
         boolean updated2 = categoryDAO.merge(categoryEager);
         assertTrue(updated2, "Category with valid name should be updated Again");
     }
+
+    @Test
+    @DisplayName("Save categories with multi-row inserts, the last one with the remaining rows")
+    void saveAllMultiRowInserts() {
+        // 2 full inserts of the batch size (50) and 1 of 20 rows
+        List<CategoryEntity> categories = IntStream.range(0, 120)
+                .mapToObj(i -> new CategoryEntity(null, "multiRow-" + UUID.randomUUID()))
+                .toList();
+
+        assertEquals(categories.size(), categoryDAO.persistAll(categories), "All the categories should be saved");
+
+        Set<Long> ids = new HashSet<>();
+        for (CategoryEntity category : categories) {
+            assertNotNull(category.getId(), "Saved category should have id");
+            assertEquals(0L, category.getVersion(), "Saved category should have version 0");
+            assertTrue(ids.add(category.getId()), "Ids should be unique");
+            assertEquals(category.getName(), categoryDAO.findById(category.getId()).orElseThrow().getName(),
+                    "Id should belong to the category");
+        }
+    }
+
+    @Test
+    @DisplayName("Get by Ids Eager, 2 queries whatever the number of ids")
+    void getByIdsEagerManyIds() {
+        List<CategoryEntity> categories = IntStream.range(0, 250)
+                .mapToObj(i -> new CategoryEntity(null, "byIds-" + UUID.randomUUID()))
+                .toList();
+        assertEquals(categories.size(), categoryDAO.persistAll(categories), "All the categories should be saved");
+        List<Long> ids = categories.stream().map(CategoryEntity::getId).toList();
+
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        long statements = statistics.getPrepareStatementCount();
+        List<CategoryEntity> result = categoryDAO.getByIdsEager(ids);
+        long executed = statistics.getPrepareStatementCount() - statements;
+
+        assertEquals(ids, result.stream().map(CategoryEntity::getId).toList(), "All the categories in the order of the ids");
+        assertEquals(2, executed, "The categories and their products, an array parameter instead of chunks of ids");
+    }
 }
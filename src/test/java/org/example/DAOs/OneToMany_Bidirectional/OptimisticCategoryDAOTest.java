@@ -0,0 +1,79 @@
+package org.example.DAOs.OneToMany_Bidirectional;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.RetryPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OptimisticCategoryDAOTest {
+
+    private CategoryEntity newCategory(CategoryDAOImpl categoryDAO) {
+        CategoryEntity category = new CategoryEntity(null, "optimistic-" + UUID.randomUUID());
+        categoryDAO.persist(category);
+        assertNotNull(category.getId(), "Category should be saved");
+        assertNotNull(category.getVersion(), "Saved category should have version");
+        return category;
+    }
+
+    @Test
+    @DisplayName("Optimistic merge increments the version")
+    void mergeOptimisticIncrementsVersion() {
+        CategoryDAOImpl categoryDAO = new CategoryDAOImpl();
+        CategoryEntity category = newCategory(categoryDAO);
+        Long version = category.getVersion();
+
+        category.setName(category.getName() + "-updated");
+        assertTrue(categoryDAO.mergeOptimistic(category), "Category should be updated");
+        assertTrue(category.getVersion() > version, "Version should be incremented");
+        assertEquals(0, categoryDAO.getOptimisticLockStats().getConflicts(), "There shouldn't be conflicts");
+
+        // The same instance can be merged again, it has the new version
+        category.setName(category.getName() + "-again");
+        assertTrue(categoryDAO.mergeOptimistic(category), "Category should be updated again");
+    }
+
+    @Test
+    @DisplayName("Optimistic merge of a stale copy retries over the current state")
+    void mergeOptimisticStaleCopyRetries() {
+        CategoryDAOImpl categoryDAO = new CategoryDAOImpl(new RetryPolicy(3, Duration.ZERO, 1, Duration.ZERO));
+        CategoryEntity category = newCategory(categoryDAO);
+        CategoryEntity staleCopy = categoryDAO.findById(category.getId()).orElseThrow();
+
+        category.setName(category.getName() + "-first");
+        assertTrue(categoryDAO.mergeOptimistic(category), "First writer should update");
+
+        staleCopy.setName(staleCopy.getName() + "-second");
+        assertTrue(categoryDAO.mergeOptimistic(staleCopy), "Second writer should update after retry");
+        assertEquals(1, categoryDAO.getOptimisticLockStats().getConflicts(), "Stale copy should produce a conflict");
+        assertEquals(1, categoryDAO.getOptimisticLockStats().getRetries(), "Stale copy should be retried");
+        assertEquals(staleCopy.getName(), categoryDAO.findById(category.getId()).orElseThrow().getName(), "Last writer should win");
+    }
+
+    @Test
+    @DisplayName("Optimistic merge of a stale copy without retries fails")
+    void mergeOptimisticStaleCopyNoRetries() {
+        CategoryDAOImpl categoryDAO = new CategoryDAOImpl(RetryPolicy.noRetries());
+        CategoryEntity category = newCategory(categoryDAO);
+        CategoryEntity staleCopy = categoryDAO.findById(category.getId()).orElseThrow();
+
+        category.setName(category.getName() + "-first");
+        assertTrue(categoryDAO.mergeOptimistic(category), "First writer should update");
+
+        staleCopy.setName(staleCopy.getName() + "-second");
+        assertFalse(categoryDAO.mergeOptimistic(staleCopy), "Stale copy shouldn't be updated without retries");
+        assertEquals(1, categoryDAO.getOptimisticLockStats().getFailures(), "Failure should be counted");
+    }
+
+    @Test
+    @DisplayName("Optimistic merge of a non-existent category")
+    void mergeOptimisticNonExistent() {
+        CategoryDAOImpl categoryDAO = new CategoryDAOImpl();
+        assertFalse(categoryDAO.mergeOptimistic(new CategoryEntity(Long.MAX_VALUE, "nonExistent")), "Non-existent category shouldn't be updated");
+    }
+}
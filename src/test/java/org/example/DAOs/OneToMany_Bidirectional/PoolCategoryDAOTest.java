@@ -0,0 +1,122 @@
+package org.example.DAOs.OneToMany_Bidirectional;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.HibernateUtil;
+import org.example.Util.Pool.PoolMetrics;
+import org.example.Util.Pool.PooledConnectionProvider;
+import org.hibernate.Session;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PoolCategoryDAOTest {
+    private final CategoryDAO categoryDAO = new CategoryDAOImpl();
+    private PoolMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = PoolMetrics.of(HibernateUtil.getSessionFactory())
+                .orElseThrow(() -> new AssertionError("The SessionFactory should use " + PooledConnectionProvider.class.getSimpleName()));
+    }
+
+    @Test
+    @DisplayName("The connections of the DAO calls are acquired from the pool and returned to it")
+    void acquiredAndReturned() {
+        long acquired = metrics.getAcquired();
+        CategoryEntity category = new CategoryEntity(null, "pool-" + UUID.randomUUID());
+        categoryDAO.persist(category);
+        categoryDAO.findByName(category.getName());
+
+        assertTrue(metrics.getAcquired() >= acquired + 2, "Every session acquires a connection");
+        assertEquals(0, metrics.getActive(), "The closed sessions should return their connections");
+        assertTrue(metrics.getIdle() > 0, "The returned connections stay idle in the pool");
+        assertTrue(metrics.getTotal() <= metrics.getMaxSize());
+        assertEquals(0, metrics.getPending());
+    }
+
+    @Test
+    @DisplayName("An open session holds its connection until it's closed")
+    void activeWhileOpen() {
+        try (Session session = HibernateUtil.openSession()) {
+            session.doWork(connection -> assertTrue(connection.isValid(1)));
+            assertEquals(1, metrics.getActive(), "The session holds a connection");
+        }
+        assertEquals(0, metrics.getActive());
+    }
+
+    @Test
+    @DisplayName("Concurrent DAO calls are recorded in the acquisition time histogram")
+    void concurrentAcquisitions() throws Exception {
+        // Native SQL without the second level cache: every call reaches the database
+        CategoryDAO nativeDAO = new CategoryDAONative();
+        List<CategoryEntity> categories = IntStream.range(0, 10)
+                .mapToObj(i -> new CategoryEntity(null, "pool-" + UUID.randomUUID()))
+                .toList();
+        categoryDAO.persistAll(categories);
+        metrics.reset();
+
+        int threads = metrics.getMaxSize() * 2;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> calls = IntStream.range(0, threads * 20)
+                    .<Future<?>>mapToObj(i -> executor.submit(() -> nativeDAO.findById(categories.get(i % categories.size()).getId())))
+                    .toList();
+            for (Future<?> call : calls) call.get();
+        }
+
+        assertTrue(metrics.getAcquired() >= threads * 20, "Every call should acquire a connection");
+        assertEquals(0, metrics.getTimeouts());
+        assertTrue(metrics.getAcquireP99Micros() >= metrics.getAcquireP50Micros(), "p99 should be >= p50");
+        assertTrue(metrics.getAcquireMaxMicros() >= metrics.getAcquireP999Micros(), "max should be >= p999");
+        assertTrue(metrics.getTotal() <= metrics.getMaxSize(), "The pool never exceeds its maximum size");
+        assertEquals(0, metrics.getActive());
+    }
+
+    @Test
+    @DisplayName("The connection settings are read from the JPA names, the legacy ones are the fallback")
+    void jakartaConnectionSettings() throws Exception {
+        // hibernate.cfg.xml with the legacy names moved to the JPA ones
+        Map<String, Object> settings = new HashMap<>(new StandardServiceRegistryBuilder().configure().getSettings());
+        settings.put(AvailableSettings.JAKARTA_JDBC_URL, settings.get("hibernate.connection.url"));
+        settings.put(AvailableSettings.JAKARTA_JDBC_USER, settings.remove("hibernate.connection.username"));
+        settings.put(AvailableSettings.JAKARTA_JDBC_PASSWORD, settings.remove("hibernate.connection.password"));
+        // Ignored, the JPA URL wins
+        settings.put("hibernate.connection.url", "jdbc:unknown:legacy");
+
+        PooledConnectionProvider provider = new PooledConnectionProvider();
+        try {
+            provider.configure(settings);
+            Connection connection = provider.getConnection();
+            assertTrue(connection.isValid(1), "The connection should use the JPA URL");
+            provider.closeConnection(connection);
+        } finally {
+            provider.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("The pool metrics are published in JMX")
+    void publishedInJmx() throws Exception {
+        ObjectName pattern = new ObjectName("org.example.DAOs:type=ConnectionPool,*");
+        assertFalse(ManagementFactory.getPlatformMBeanServer().queryNames(pattern, null).isEmpty());
+        assertTrue(metrics.toString().contains("active="), metrics.toString());
+    }
+}
@@ -1,12 +1,24 @@
 package org.example.DAOs.OneToMany_Bidirectional;
 
 import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductFetchPlan;
 import org.example.Entities.DTOs.ProductDTOBasic;
+import org.example.Entities.DTOs.ProductSummary;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
 import org.example.Entities.OneToManyToOne_Bidirectional.ProductEntity;
+import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.StatementRecorder;
+import org.hibernate.Hibernate;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class ProductDAOTest {
     ProductDAOImpl productDAO;
@@ -25,4 +37,133 @@ public class ProductDAOTest {
         List<ProductDTOBasic> list = productDAO.listAllDTOBasic();
         list.forEach(System.out::println);;
     }
+
+    @Test
+    void listSummaries() {
+        ProductEntity product = new ProductEntity(null, "product444", "product444 description", BigDecimal.valueOf(44.4));
+        productDAO.save(product);
+
+        List<ProductSummary> list = productDAO.listSummaries();
+        assertEquals(productDAO.listAll().size(), list.size());
+
+        ProductSummary summary = list.stream().filter(s -> s.id().equals(product.getId())).findFirst().orElseThrow();
+        assertEquals(product.getName(), summary.name());
+        assertEquals(0, product.getPrice().compareTo(summary.price()));
+        assertNull(summary.categoryId());
+        assertNull(summary.categoryName());
+    }
+
+    @Test
+    void streamAll() {
+        productDAO.save(new ProductEntity(null, "product333", "product333 description", BigDecimal.valueOf(12.5)));
+        int expected = productDAO.listAll().size();
+
+        try (Stream<ProductEntity> products = productDAO.streamAll(1)) {
+            assertEquals(expected, products.count());
+        }
+    }
+
+    @Test
+    void saveExistingName() {
+        String name = "product-" + UUID.randomUUID();
+        ProductEntity product = new ProductEntity(null, name, "description", BigDecimal.valueOf(10.5));
+        ProductEntity repeated = new ProductEntity(null, name, "other description", BigDecimal.valueOf(20.5));
+        productDAO.save(product);
+        productDAO.save(repeated);
+
+        assertNotNull(product.getId());
+        assertEquals(0L, product.getVersion());
+        assertNull(repeated.getId());
+        assertEquals(1, productDAO.listAll().stream().filter(p -> p.getName().equals(name)).count());
+    }
+
+    @Test
+    void upsertAll() {
+        String name = "product-" + UUID.randomUUID();
+        ProductEntity existing = new ProductEntity(null, name, "description", BigDecimal.valueOf(1.5));
+        productDAO.save(existing);
+
+        List<ProductEntity> products = List.of(
+                new ProductEntity(null, name, "description", BigDecimal.valueOf(2.5)),
+                new ProductEntity(null, name + "-2", null, null),
+                new ProductEntity(null, name + "-3", "description", BigDecimal.valueOf(3.5)));
+
+        assertEquals(2, productDAO.upsertAll(products));
+        assertNull(products.get(0).getId());
+        assertNotNull(products.get(1).getId());
+        assertNotNull(products.get(2).getId());
+
+        ProductSummary summary = productDAO.listSummaries().stream()
+                .filter(s -> s.id().equals(products.get(2).getId())).findFirst().orElseThrow();
+        assertEquals(products.get(2).getName(), summary.name());
+        assertEquals(0, products.get(2).getPrice().compareTo(summary.price()));
+    }
+
+    /**
+     * Persists a product with a new category, the caches are evicted (the loads go to the database)
+     */
+    private static ProductEntity productWithCategory(BigDecimal price) {
+        ProductEntity product = new ProductEntity(null, "product-" + UUID.randomUUID(), "description", price);
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            session.beginTransaction();
+            CategoryEntity category = new CategoryEntity(null, "category-" + UUID.randomUUID());
+            session.persist(category);
+            product.setCategory(category);
+            session.persist(product);
+            session.getTransaction().commit();
+        }
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        return product;
+    }
+
+    @Test
+    void listAllFetchPlans() {
+        for (int i = 0; i < 3; i++) productWithCategory(BigDecimal.TEN);
+
+        List<StatementRecorder.Statement> statements = StatementRecorder.record(() -> {
+            List<ProductEntity> products = productDAO.listAll(ProductFetchPlan.BASIC);
+            assertTrue(products.size() >= 3);
+            assertTrue(products.stream().filter(p -> p.getCategory() != null).noneMatch(p -> Hibernate.isInitialized(p.getCategory())),
+                    "BASIC shouldn't load the categories");
+        });
+        assertEquals(1, statements.size(), "BASIC: no select per category:\n" + statements);
+
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        statements = StatementRecorder.record(() -> {
+            List<ProductEntity> products = productDAO.listAll(ProductFetchPlan.WITH_CATEGORY);
+            assertTrue(products.stream().filter(p -> p.getCategory() != null).allMatch(p -> Hibernate.isInitialized(p.getCategory())),
+                    "WITH_CATEGORY should load the categories");
+        });
+        assertEquals(1, statements.size(), "WITH_CATEGORY: categories in the same query:\n" + statements);
+    }
+
+    @Test
+    void findByIdFetchPlans() {
+        ProductEntity product = productWithCategory(BigDecimal.ONE);
+
+        ProductEntity basic = productDAO.findById(product.getId(), ProductFetchPlan.BASIC).orElseThrow();
+        assertEquals(product.getName(), basic.getName());
+        assertEquals(product.getCategory().getId(), basic.getCategory().getId(), "The id of the proxy is available");
+        assertThrows(LazyInitializationException.class, () -> basic.getCategory().getName(),
+                "The category of BASIC isn't loaded");
+
+        ProductEntity withCategory = productDAO.findById(product.getId(), ProductFetchPlan.WITH_CATEGORY).orElseThrow();
+        assertEquals(product.getCategory().getName(), withCategory.getCategory().getName());
+
+        assertTrue(productDAO.findById(-1L, ProductFetchPlan.BASIC).isEmpty());
+    }
+
+    @Test
+    void find10CheapestFetchPlans() {
+        ProductEntity cheapest = productWithCategory(BigDecimal.valueOf(0.01));
+
+        for (ProductFetchPlan plan : ProductFetchPlan.values()) {
+            List<StatementRecorder.Statement> statements = StatementRecorder.record(() -> {
+                List<ProductEntity> products = productDAO.find10Cheapest(plan);
+                assertTrue(products.size() <= 10);
+                assertTrue(products.stream().anyMatch(p -> p.getId().equals(cheapest.getId())), "The cheapest should be in the list");
+            });
+            assertEquals(1, statements.size(), plan + ":\n" + statements);
+        }
+    }
 }
@@ -0,0 +1,215 @@
+package org.example.DAOs.OneToMany_Bidirectional;
+
+import org.example.Benchmarks.EmbeddedDatabase;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.HibernateUtil;
+import org.example.Util.MetadataSnapshot;
+import org.example.Util.Routing.ReadWriteRouter;
+import org.example.Util.Routing.ReplicaLoadBalancer;
+import org.example.Util.Routing.ReplicationLagProbe;
+import org.example.Util.UnitOfWork;
+import org.hibernate.HibernateException;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Primary and two replicas in embedded databases: the replicas aren't replicated, a row written by a DAO
+ * is only found in the primary (a read routed to a replica doesn't find it).
+ */
+public class ReplicaCategoryDAOTest {
+    private static final List<String> PROPERTIES = List.of("hibernate.connection.url", "hibernate.connection.driver_class",
+            "hibernate.dialect", MetadataSnapshot.DIR_SETTING, ReadWriteRouter.URLS_SETTING, ReadWriteRouter.HBM2DDL_SETTING,
+            ReadWriteRouter.LAG_PROBE_SETTING, ReadWriteRouter.LAG_CHECK_SETTING, ReadWriteRouter.MAX_LAG_SETTING);
+
+    private final CategoryDAO categoryDAO = new CategoryDAONative();
+
+    /**
+     * Replication lag set by the tests.
+     */
+    public static class TestLagProbe implements ReplicationLagProbe {
+        static volatile Duration lag = Duration.ZERO;
+        static volatile boolean unreachable;
+        static final AtomicLong checks = new AtomicLong();
+
+        @Override
+        public Duration lag(Connection connection) throws SQLException {
+            checks.incrementAndGet();
+            if (unreachable) throw new SQLException("Replica unreachable");
+            return lag;
+        }
+    }
+
+    @BeforeAll
+    static void setUp() throws InterruptedException {
+        HibernateUtil.shutdown();
+        EmbeddedDatabase.use("primary");
+        System.setProperty(MetadataSnapshot.DIR_SETTING, "");
+        System.setProperty(ReadWriteRouter.URLS_SETTING, EmbeddedDatabase.url("replica1") + "," + EmbeddedDatabase.url("replica2"));
+        System.setProperty(ReadWriteRouter.HBM2DDL_SETTING, "create-drop");
+        System.setProperty(ReadWriteRouter.LAG_PROBE_SETTING, TestLagProbe.class.getName());
+        // The tests check the lag with checkLags(), not the daemon thread
+        System.setProperty(ReadWriteRouter.LAG_CHECK_SETTING, "3600000");
+        System.setProperty(ReadWriteRouter.MAX_LAG_SETTING, "1000");
+        assertNotNull(HibernateUtil.getSessionFactory());
+        // The first check of the daemon thread is done right away
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (router().getReplicas().stream().anyMatch(replica -> replica.getLagMillis() == Long.MAX_VALUE)) {
+            assertTrue(System.nanoTime() < deadline, "The lag of the replicas should be checked at start");
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterAll
+    static void tearDownAll() {
+        HibernateUtil.shutdown();
+        PROPERTIES.forEach(System::clearProperty);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestLagProbe.lag = Duration.ZERO;
+        TestLagProbe.unreachable = false;
+        router().checkLags();
+    }
+
+    private static ReadWriteRouter router() {
+        return HibernateUtil.getRouter().orElseThrow(() -> new AssertionError("The replicas should be configured"));
+    }
+
+    private static long replicaReads() {
+        return router().getReplicas().stream().mapToLong(ReadWriteRouter.Replica::getReads).sum();
+    }
+
+    private CategoryEntity persistInPrimary() {
+        CategoryEntity category = new CategoryEntity(null, "replica-" + UUID.randomUUID());
+        categoryDAO.persist(category);
+        assertNotNull(category.getId());
+        return category;
+    }
+
+    @Test
+    @DisplayName("Writes go to the primary and reads to a replica")
+    void writesToPrimaryReadsToReplica() {
+        CategoryEntity category = persistInPrimary();
+        long replicaReads = replicaReads();
+
+        assertTrue(categoryDAO.findById(category.getId()).isEmpty(), "The replica doesn't have the row of the primary");
+        assertTrue(categoryDAO.findByName("CATEGORY1").isPresent(), "The replica has its own rows (import file)");
+        assertEquals(replicaReads + 2, replicaReads());
+        assertEquals(2, router().getReplicas().size());
+    }
+
+    @Test
+    @DisplayName("Round robin: the reads are spread evenly between the replicas")
+    void roundRobin() {
+        List<ReadWriteRouter.Replica> replicas = router().getReplicas();
+        long first = replicas.get(0).getReads();
+        long second = replicas.get(1).getReads();
+
+        for (int i = 0; i < 10; i++) categoryDAO.listSummaries();
+
+        assertEquals(5, replicas.get(0).getReads() - first);
+        assertEquals(5, replicas.get(1).getReads() - second);
+    }
+
+    @Test
+    @DisplayName("With more replication lag than the limit the reads go to the primary")
+    void lagGuard() {
+        CategoryEntity category = persistInPrimary();
+        long primaryReads = router().getPrimaryReads();
+        long replicaReads = replicaReads();
+
+        TestLagProbe.lag = Duration.ofSeconds(5);
+        router().checkLags();
+        assertTrue(categoryDAO.findById(category.getId()).isPresent(), "Read from the primary");
+        assertEquals(primaryReads + 1, router().getPrimaryReads());
+        assertEquals(replicaReads, replicaReads());
+        assertTrue(router().getReplicas().stream().allMatch(replica -> replica.getLagMillis() == 5_000));
+
+        TestLagProbe.lag = Duration.ofMillis(10);
+        router().checkLags();
+        assertTrue(categoryDAO.findById(category.getId()).isEmpty(), "Read from a replica again");
+        assertEquals(replicaReads + 1, replicaReads());
+    }
+
+    @Test
+    @DisplayName("An unreachable replica isn't used")
+    void unreachableReplica() {
+        CategoryEntity category = persistInPrimary();
+        long primaryReads = router().getPrimaryReads();
+
+        TestLagProbe.unreachable = true;
+        router().checkLags();
+        assertTrue(categoryDAO.findById(category.getId()).isPresent(), "Read from the primary");
+        assertEquals(primaryReads + 1, router().getPrimaryReads());
+    }
+
+    @Test
+    @DisplayName("The reads use the last lag checked, they don't run the lag probe")
+    void readsDontProbe() {
+        long checks = TestLagProbe.checks.get();
+        long replicaReads = replicaReads();
+
+        for (int i = 0; i < 10; i++) categoryDAO.findByName("CATEGORY1");
+
+        assertEquals(replicaReads + 10, replicaReads());
+        assertEquals(checks, TestLagProbe.checks.get(), "The lag is checked by the daemon thread of the router");
+    }
+
+    @Test
+    @DisplayName("The reads of a unit of work use its session in the primary")
+    void unitOfWorkReadsPrimary() {
+        long replicaReads = replicaReads();
+        CategoryEntity category = new CategoryEntity(null, "replica-" + UUID.randomUUID());
+
+        UnitOfWork.run(() -> {
+            categoryDAO.persist(category);
+            assertTrue(categoryDAO.findById(category.getId()).isPresent(), "Read its own write");
+        });
+
+        assertEquals(replicaReads, replicaReads());
+    }
+
+    @Test
+    @DisplayName("The load balancers are chosen by name or by class")
+    void loadBalancers() {
+        List<ReadWriteRouter.Replica> replicas = router().getReplicas();
+        ReplicaLoadBalancer random = ReplicaLoadBalancer.of("random");
+        ReplicaLoadBalancer leastActive = ReplicaLoadBalancer.of("least_active");
+
+        assertTrue(replicas.contains(random.choose(replicas)));
+        assertTrue(replicas.contains(leastActive.choose(replicas)));
+        assertThrows(HibernateException.class, () -> ReplicaLoadBalancer.of("org.example.MissingBalancer"));
+    }
+
+    @Test
+    @DisplayName("The replica overrides the JPA connection settings of the primary")
+    void replicaSettingsOverrideJakarta() {
+        Map<String, Object> primary = Map.of(AvailableSettings.JAKARTA_JDBC_URL, EmbeddedDatabase.url("primary"),
+                ReadWriteRouter.USERNAME_SETTING, "reader");
+        Map<String, Object> replica = ReadWriteRouter.replicaSettings(primary, EmbeddedDatabase.url("replica1"));
+
+        Map<String, Object> merged = new HashMap<>(primary);
+        merged.putAll(replica);
+        assertEquals(EmbeddedDatabase.url("replica1"), merged.get(AvailableSettings.JAKARTA_JDBC_URL));
+        assertEquals(EmbeddedDatabase.url("replica1"), merged.get("hibernate.connection.url"));
+        assertEquals("reader", merged.get(AvailableSettings.JAKARTA_JDBC_USER));
+    }
+}
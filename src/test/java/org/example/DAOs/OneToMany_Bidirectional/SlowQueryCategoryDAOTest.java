@@ -0,0 +1,124 @@
+package org.example.DAOs.OneToMany_Bidirectional;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.DAOMetrics;
+import org.example.Util.Metrics.SlowQueryLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowQueryCategoryDAOTest {
+    private static final Logger SLOW_QUERY_LOGGER = Logger.getLogger(SlowQueryLog.class.getName());
+    private final List<String> logged = new CopyOnWriteArrayList<>();
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            logged.add(record.getMessage());
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+    private Duration threshold;
+
+    @BeforeEach
+    void setUp() {
+        HibernateUtil.getSessionFactory();
+        threshold = SlowQueryLog.getThreshold();
+        SLOW_QUERY_LOGGER.addHandler(handler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SlowQueryLog.setThreshold(threshold);
+        SLOW_QUERY_LOGGER.removeHandler(handler);
+    }
+
+    private List<String> logged(Runnable statements) throws InterruptedException {
+        SlowQueryLog.setThreshold(Duration.ZERO);
+        statements.run();
+        SlowQueryLog.setThreshold(threshold);
+        assertTrue(SlowQueryLog.awaitDrained(Duration.ofSeconds(5)), "The log should be drained");
+        return logged;
+    }
+
+    @Test
+    @DisplayName("Slow query log is enabled by the bootstrap")
+    void enabled() {
+        assertTrue(SlowQueryLog.isEnabled(), "hibernate.cfg.xml enables the slow query log");
+    }
+
+    @Test
+    @DisplayName("Statements over the threshold are logged with rows, parameters and DAO method")
+    void slowStatementLogged() throws InterruptedException {
+        CategoryDAO categoryDAO = DAOMetrics.instrument(CategoryDAO.class, new CategoryDAOImpl());
+        String name = "slow-" + UUID.randomUUID();
+        categoryDAO.persist(new CategoryEntity(null, name));
+        HibernateUtil.getSessionFactory().getCache().evictQueryRegion(CategoryEntity.QUERY_BY_NAME_CACHE_REGION);
+
+        List<String> lines = logged(() -> categoryDAO.findByName(name));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("CategoryDAOImpl.findByName")
+                        && line.contains("1 rows") && line.contains("1 parameters")),
+                "findByName should be logged:\n" + String.join("\n", lines));
+    }
+
+    @Test
+    @DisplayName("The DAO method of plain JDBC statements is found in the stack")
+    void callerFromStack() throws InterruptedException {
+        CategoryDAO categoryDAO = new CategoryDAONative();
+
+        List<String> lines = logged(() -> categoryDAO.persist(new CategoryEntity(null, "slow-" + UUID.randomUUID())));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("CategoryDAONative.") && line.contains("INSERT")),
+                "The insert of CategoryDAONative should be logged:\n" + String.join("\n", lines));
+    }
+
+    @Test
+    @DisplayName("The JDBC objects are plain delegates, not reflection proxies")
+    void plainDelegates() {
+        try (var session = HibernateUtil.getSessionFactory().openSession()) {
+            session.doWork(connection -> {
+                assertFalse(Proxy.isProxyClass(connection.getClass()));
+                try (PreparedStatement statement = connection.prepareStatement("SELECT 1");
+                     ResultSet resultSet = statement.executeQuery()) {
+                    assertFalse(Proxy.isProxyClass(statement.getClass()));
+                    assertFalse(Proxy.isProxyClass(resultSet.getClass()));
+                    assertSame(statement, resultSet.getStatement());
+                    assertTrue(resultSet.next());
+                }
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Statements under the threshold aren't logged")
+    void fastStatementNotLogged() throws InterruptedException {
+        SlowQueryLog.setThreshold(Duration.ofHours(1));
+        new CategoryDAOImpl().listAll();
+
+        assertTrue(SlowQueryLog.awaitDrained(Duration.ofSeconds(5)), "The log should be drained");
+        assertTrue(logged.isEmpty(), "Nothing should be logged:\n" + String.join("\n", logged));
+    }
+}
@@ -0,0 +1,153 @@
+package org.example.DAOs.OneToMany_Bidirectional;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Util.HibernateUtil;
+import org.example.Util.Metrics.DAOMetrics;
+import org.example.Util.Metrics.MethodMetrics;
+import org.example.Util.Metrics.StatementBudget;
+import org.example.Util.Metrics.StatementRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementBudgetCategoryDAOTest {
+    private static final Logger RECORDER_LOGGER = Logger.getLogger(StatementRecorder.class.getName());
+    private final List<String> warnings = new CopyOnWriteArrayList<>();
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            if (record.getLevel() == Level.WARNING) warnings.add(record.getMessage());
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        RECORDER_LOGGER.addHandler(handler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RECORDER_LOGGER.removeHandler(handler);
+    }
+
+    private static CategoryEntity persisted() {
+        CategoryEntity category = new CategoryEntity(null, "budget-" + UUID.randomUUID());
+        new CategoryDAOImpl().persist(category);
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        return category;
+    }
+
+    /**
+     * Sends 2 selects with a budget of 1
+     */
+    public interface OverBudgetDAO {
+        @StatementBudget(1)
+        void findTwice(Long id);
+    }
+
+    public static class TwoSelectsDAO implements OverBudgetDAO {
+        @Override
+        public void findTwice(Long id) {
+            CategoryDAO categoryDAO = new CategoryDAOImpl();
+            categoryDAO.listAll();
+            categoryDAO.listAll();
+        }
+    }
+
+    @Test
+    @DisplayName("getByIdEager must issue exactly 1 query")
+    void getByIdEagerSingleQuery() {
+        CategoryEntity category = persisted();
+        CategoryDAO categoryDAO = new CategoryDAOImpl();
+
+        List<StatementRecorder.Statement> statements = StatementRecorder.record(() -> categoryDAO.getByIdEager(category.getId()));
+        assertEquals(1, statements.size(), "Category and products in a single join:\n" + statements);
+    }
+
+    @Test
+    @DisplayName("getByIdsEager doesn't issue a query per category")
+    void getByIdsEagerNoNPlusOne() {
+        List<Long> ids = IntStream.range(0, 5).mapToObj(i -> persisted().getId()).toList();
+        CategoryDAO categoryDAO = new CategoryDAOImpl();
+
+        List<StatementRecorder.Statement> statements = StatementRecorder.record(() -> categoryDAO.getByIdsEager(ids));
+        assertTrue(statements.size() <= 2, "Categories and their products, not a query per category:\n" + statements);
+    }
+
+    @Test
+    @DisplayName("getByIdsEager stays within its budget with more than 100 ids")
+    void getByIdsEagerBudgetManyIds() {
+        String prefix = "budget-" + UUID.randomUUID() + "-";
+        List<CategoryEntity> categories = IntStream.range(0, 250).mapToObj(i -> new CategoryEntity(null, prefix + i)).toList();
+        assertEquals(categories.size(), new CategoryDAOImpl().persistAll(categories));
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        List<Long> ids = categories.stream().map(CategoryEntity::getId).toList();
+        CategoryDAO categoryDAO = DAOMetrics.instrument(CategoryDAO.class, new CategoryDAOImpl());
+        MethodMetrics metrics = DAOMetrics.get(CategoryDAOImpl.class.getSimpleName(), "getByIdsEager");
+        long overBudget = metrics.getOverBudget();
+
+        List<CategoryEntity> loaded = new CopyOnWriteArrayList<>();
+        List<StatementRecorder.Statement> statements = StatementRecorder.record(() -> loaded.addAll(categoryDAO.getByIdsEager(ids)));
+
+        assertEquals(ids, loaded.stream().map(CategoryEntity::getId).toList(), "All the categories in the order of the ids");
+        assertEquals(2, statements.size(), "The categories and their products whatever the number of ids:\n" + statements);
+        assertEquals(overBudget, metrics.getOverBudget(), "The call shouldn't be over its budget");
+        assertTrue(warnings.isEmpty(), "No budget warning: " + warnings);
+    }
+
+    @Test
+    @DisplayName("Statements are tagged with the instrumented DAO method, second level cache hits issue none")
+    void statementsTagged() {
+        CategoryEntity category = persisted();
+        CategoryDAO categoryDAO = DAOMetrics.instrument(CategoryDAO.class, new CategoryDAOImpl());
+
+        List<StatementRecorder.Statement> statements = StatementRecorder.record(() -> {
+            categoryDAO.findById(category.getId());
+            categoryDAO.findById(category.getId());
+        });
+        assertEquals(1, statements.size(), "The second findById should hit the second level cache:\n" + statements);
+        assertEquals("CategoryDAOImpl.findById", statements.get(0).method());
+        assertTrue(warnings.isEmpty(), "findById is within its budget: " + warnings);
+    }
+
+    @Test
+    @DisplayName("A call over its budget logs a warning with the statements and is counted")
+    void overBudgetWarning() {
+        OverBudgetDAO dao = DAOMetrics.instrument(OverBudgetDAO.class, new TwoSelectsDAO());
+        MethodMetrics metrics = DAOMetrics.get(TwoSelectsDAO.class.getSimpleName(), "findTwice");
+        long overBudget = metrics.getOverBudget();
+
+        try (StatementRecorder.Recording recording = StatementRecorder.start()) {
+            dao.findTwice(1L);
+            assertEquals(2, recording.count(), "The outer recording should see the statements of the call too");
+        }
+
+        assertEquals(overBudget + 1, metrics.getOverBudget(), "The call should be counted as over budget");
+        assertTrue(warnings.stream().anyMatch(warning -> warning.contains("TwoSelectsDAO.findTwice sent 2 statements, budget 1")
+                        && warning.contains("categories")),
+                "The warning should have the statements:\n" + String.join("\n", warnings));
+    }
+}
@@ -0,0 +1,252 @@
+package org.example.DAOs.OneToMany_Bidirectional;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOCriteria;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAONative;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductDAOImpl;
+import org.example.Entities.OneToManyToOne_Bidirectional.CategoryEntity;
+import org.example.Entities.OneToManyToOne_Bidirectional.ProductEntity;
+import org.example.Util.HibernateUtil;
+import org.example.Util.UnitOfWork;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UnitOfWorkCategoryDAOTest {
+    private final CategoryDAO categoryDAO = new CategoryDAOImpl();
+
+    @AfterEach
+    void tearDown() {
+        assertNull(UnitOfWork.current(), "The unit of work should be unbound from the thread");
+    }
+
+    private static CategoryEntity newCategory() {
+        return new CategoryEntity(null, "uow-" + UUID.randomUUID());
+    }
+
+    private static long sessionsOpened(Runnable action) {
+        Statistics statistics = HibernateUtil.getSessionFactory().getStatistics();
+        long opened = statistics.getSessionOpenCount();
+        action.run();
+        return statistics.getSessionOpenCount() - opened;
+    }
+
+    @Test
+    @DisplayName("The DAO calls of a unit of work use a single session and commit together")
+    void singleSession() {
+        CategoryEntity first = newCategory();
+        CategoryEntity second = newCategory();
+
+        long sessions = sessionsOpened(() -> UnitOfWork.run(() -> {
+            categoryDAO.persist(first);
+            categoryDAO.persist(second);
+            assertTrue(categoryDAO.findByName(first.getName()).isPresent(), "The flushed insert should be visible in the unit of work");
+            first.setName(first.getName() + "-renamed");
+            assertTrue(categoryDAO.merge(first));
+        }));
+
+        assertEquals(1, sessions, "A single session for all the DAO calls");
+        assertTrue(categoryDAO.findByName(first.getName()).isPresent(), "Committed with the unit of work");
+        assertTrue(categoryDAO.findById(second.getId()).isPresent(), "Committed with the unit of work");
+    }
+
+    @Test
+    @DisplayName("A unit of work closed without commit rolls back all the DAO calls")
+    void rollbackWithoutCommit() {
+        CategoryEntity category = newCategory();
+        try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+            categoryDAO.persist(category);
+            assertNotNull(category.getId());
+        }
+
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        assertTrue(categoryDAO.findByName(category.getName()).isEmpty(), "The insert should be rolled back");
+    }
+
+    @Test
+    @DisplayName("A failed DAO call makes the unit of work rollback-only")
+    void failedCallRollsBack() {
+        CategoryEntity existing = newCategory();
+        categoryDAO.persist(existing);
+        CategoryEntity category = newCategory();
+
+        try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+            categoryDAO.persist(category);
+            categoryDAO.persist(new CategoryEntity(null, existing.getName()));
+            assertTrue(unitOfWork.isRollbackOnly(), "The duplicated name should mark the unit of work rollback-only");
+            assertTrue(categoryDAO.findById(category.getId()).isEmpty(), "A rollback-only unit of work can't be joined");
+            assertThrows(IllegalStateException.class, unitOfWork::commit);
+        }
+
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        assertTrue(categoryDAO.findByName(category.getName()).isEmpty(), "The first insert should be rolled back too");
+    }
+
+    @Test
+    @DisplayName("The DAO calls that end without changes don't make the unit of work roll back")
+    void benignOutcomesDontRollBack() {
+        CategoryEntity existing = newCategory();
+        categoryDAO.persist(existing);
+        ProductEntity existingProduct = new ProductEntity(null, "uow-" + UUID.randomUUID(), "uow product", BigDecimal.ONE);
+        ProductDAOImpl productDAO = new ProductDAOImpl();
+        productDAO.save(existingProduct);
+        CategoryEntity category = newCategory();
+
+        try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+            categoryDAO.persist(category);
+            assertFalse(categoryDAO.merge(new CategoryEntity(Long.MAX_VALUE, "missing")), "Category not found");
+            assertFalse(((CategoryDAOImpl) categoryDAO).mergeOptimistic(new CategoryEntity(Long.MAX_VALUE, "missing")));
+            CategoryEntity duplicated = new CategoryEntity(null, existing.getName());
+            new CategoryDAOCriteria().persist(duplicated);
+            assertNull(duplicated.getId(), "The name already exists, nothing is inserted");
+            ProductEntity duplicatedProduct = new ProductEntity(null, existingProduct.getName(), "uow product", BigDecimal.ONE);
+            productDAO.save(duplicatedProduct);
+            assertNull(duplicatedProduct.getId(), "The name already exists, nothing is inserted");
+
+            assertFalse(unitOfWork.isRollbackOnly(), "Nothing failed");
+            unitOfWork.commit();
+        }
+
+        assertTrue(categoryDAO.findById(category.getId()).isPresent(), "Committed with the unit of work");
+    }
+
+    @Test
+    @DisplayName("mergeOptimistic doesn't retry a conflict inside a unit of work, the unit of work becomes rollback-only")
+    void optimisticConflictNotRetried() {
+        CategoryDAOImpl dao = new CategoryDAOImpl();
+        CategoryEntity category = newCategory();
+        dao.persist(category);
+        CategoryEntity stale = new CategoryEntity(category.getId(), category.getName());
+        stale.setVersion(category.getVersion());
+        category.setName(category.getName() + "-concurrent");
+        assertTrue(dao.merge(category), "Concurrent update, new version");
+
+        try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+            stale.setName(stale.getName() + "-stale");
+            assertFalse(dao.mergeOptimistic(stale));
+            assertEquals(1, dao.getOptimisticLockStats().getConflicts());
+            assertEquals(0, dao.getOptimisticLockStats().getRetries(), "A single attempt in a unit of work");
+            assertTrue(unitOfWork.isRollbackOnly(), "The failed flush can't be retried alone");
+        }
+
+        assertTrue(dao.findByName(category.getName()).isPresent(), "The concurrent update stays");
+    }
+
+    @Test
+    @DisplayName("The after commit actions run after the commit of the outermost unit of work, not after a rollback")
+    void afterCommit() {
+        List<String> actions = new ArrayList<>();
+        UnitOfWork.afterCommit(() -> actions.add("without unit of work"));
+        assertEquals(List.of("without unit of work"), actions, "Without a unit of work the action runs right away");
+
+        try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+            UnitOfWork.afterCommit(() -> actions.add("rolled back"));
+        }
+        try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+            UnitOfWork.run(() -> UnitOfWork.afterCommit(() -> actions.add("nested")));
+            assertEquals(1, actions.size(), "The nested commit doesn't commit the transaction");
+            unitOfWork.commit();
+        }
+        assertEquals(List.of("without unit of work", "nested"), actions);
+    }
+
+    @Test
+    @DisplayName("The cached findByName is evicted after the commit of the unit of work, not after the flush")
+    void evictionAfterCommit() throws InterruptedException {
+        CategoryDAO nativeDAO = new CategoryDAONative();
+        CategoryEntity category = newCategory();
+        assertTrue(nativeDAO.findByName(category.getName()).isEmpty());
+
+        try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+            nativeDAO.persist(category);
+            assertNotNull(category.getId());
+            // Another transaction caches "not found" again, the insert isn't committed yet
+            Thread reader = Thread.ofVirtual().start(() -> nativeDAO.findByName(category.getName()));
+            reader.join();
+            unitOfWork.commit();
+        }
+
+        assertTrue(nativeDAO.findByName(category.getName()).isPresent(), "The cached \"not found\" should be evicted by the commit");
+    }
+
+    @Test
+    @DisplayName("persistAll doesn't detach the entities loaded before in the unit of work")
+    void persistAllKeepsEntitiesManaged() {
+        for (CategoryDAO dao : List.of(categoryDAO, new CategoryDAOCriteria())) {
+            CategoryEntity existing = newCategory();
+            categoryDAO.persist(existing);
+            String renamed = "uow-renamed-" + UUID.randomUUID();
+            // More than a batch (hibernate.jdbc.batch_size 50), persistAll flushes in the middle
+            List<CategoryEntity> categories = new ArrayList<>();
+            for (int i = 0; i < 120; i++) categories.add(newCategory());
+
+            UnitOfWork.run(() -> {
+                CategoryEntity managed = HibernateUtil.openSession().get(CategoryEntity.class, existing.getId());
+                assertEquals(categories.size(), dao.persistAll(categories));
+                assertTrue(HibernateUtil.openSession().contains(managed), dao.getClass().getSimpleName() + " shouldn't detach it");
+                managed.setName(renamed);
+            });
+
+            assertEquals(renamed, categoryDAO.findById(existing.getId()).orElseThrow().getName(),
+                    "The change after persistAll should be committed with the unit of work");
+        }
+    }
+
+    @Test
+    @DisplayName("A nested unit of work joins the outer one, an exception in it rolls back everything")
+    void nested() {
+        CategoryEntity outer = newCategory();
+        CategoryEntity inner = newCategory();
+
+        assertThrows(IllegalArgumentException.class, () -> UnitOfWork.run(() -> {
+            categoryDAO.persist(outer);
+            UnitOfWork.run(() -> {
+                categoryDAO.persist(inner);
+                throw new IllegalArgumentException("Business rule");
+            });
+        }));
+
+        HibernateUtil.getSessionFactory().getCache().evictAllRegions();
+        assertTrue(categoryDAO.findByName(outer.getName()).isEmpty());
+        assertTrue(categoryDAO.findByName(inner.getName()).isEmpty());
+
+        Optional<CategoryEntity> committed = UnitOfWork.call(() -> {
+            CategoryEntity category = newCategory();
+            UnitOfWork.run(() -> categoryDAO.persist(category));
+            return categoryDAO.findById(category.getId());
+        });
+        assertTrue(committed.isPresent(), "The nested commit is done by the outer unit of work");
+    }
+
+    @Test
+    @DisplayName("The unit of work is bound to its thread, other (virtual) threads don't join it")
+    void boundToThread() throws InterruptedException {
+        AtomicReference<UnitOfWork> other = new AtomicReference<>();
+        UnitOfWork.run(() -> {
+            Thread thread = Thread.ofVirtual().start(() -> other.set(UnitOfWork.current()));
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertNotNull(UnitOfWork.current());
+        });
+        assertNull(other.get(), "The virtual thread shouldn't see the unit of work");
+
+        CategoryEntity category = newCategory();
+        Thread thread = Thread.ofVirtual().start(() -> UnitOfWork.run(() -> categoryDAO.persist(category)));
+        thread.join();
+        assertTrue(categoryDAO.findById(category.getId()).isPresent(), "A unit of work in a virtual thread commits");
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.DAOs.OneToMany_Bidirectional;
+
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryCursor;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAO;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Category.CategoryDAOImpl;
+import org.example.DAOs.OneToManyToOne_Bidirectional.Product.ProductDAOImpl;
+import org.example.Util.HibernateUtil;
+import org.example.Util.SessionFactoryWarmup;
+import org.hibernate.HibernateException;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.spi.QueryInterpretationCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WarmupCategoryDAOTest {
+
+    @Test
+    @DisplayName("Concurrent first accesses build a single SessionFactory")
+    void singleBootstrap() throws Exception {
+        HibernateUtil.shutdown();
+
+        int threads = 8;
+        CountDownLatch ready = new CountDownLatch(threads);
+        List<Future<SessionFactory>> factories = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                factories.add(executor.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    return HibernateUtil.getSessionFactory();
+                }));
+            }
+        }
+
+        Set<SessionFactory> distinct = new HashSet<>();
+        for (Future<SessionFactory> factory : factories) distinct.add(factory.get());
+        assertEquals(1, distinct.size(), "All the threads should get the same SessionFactory");
+        assertNotNull(distinct.iterator().next());
+        assertSame(HibernateUtil.getSessionFactory(), HibernateUtil.start(), "start() of a started SessionFactory returns it");
+    }
+
+    @Test
+    @DisplayName("The warm-up checks the named queries, parses the DAO queries and opens the connections")
+    void warmup() {
+        List<SessionFactoryWarmup.Hql> queries = new ArrayList<>(CategoryDAOImpl.QUERIES);
+        queries.addAll(ProductDAOImpl.QUERIES);
+
+        SessionFactoryWarmup.Report report = SessionFactoryWarmup.run(HibernateUtil.getSessionFactory(), queries, 3);
+
+        assertTrue(report.namedQueries() >= 1, "ProductEntity.find10Cheapest should be checked");
+        assertEquals(queries.size(), report.hqlQueries());
+        assertEquals(3, report.connections());
+    }
+
+    @Test
+    @DisplayName("After the warm-up the DAO queries are found in the HQL interpretation cache")
+    void daoQueriesParsed() {
+        CategoryDAO categoryDAO = new CategoryDAOImpl();
+        QueryInterpretationCache cache = HibernateUtil.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getQueryEngine().getInterpretationCache();
+        int interpretations = cache.getNumberOfCachedHqlInterpretations();
+
+        categoryDAO.listSummaries();
+        categoryDAO.findSummaryById(1L);
+        categoryDAO.getByIdEager(1L);
+        categoryDAO.listFirst(CategoryCursor.Order.NAME_ID, 10);
+        new ProductDAOImpl().listSummaries();
+
+        assertEquals(interpretations, cache.getNumberOfCachedHqlInterpretations(), "The DAO queries shouldn't be parsed again");
+    }
+
+    @Test
+    @DisplayName("An invalid query fails the warm-up")
+    void invalidQuery() {
+        List<SessionFactoryWarmup.Hql> queries = List.of(SessionFactoryWarmup.Hql.select("FROM MissingEntity", Object.class));
+        assertThrows(HibernateException.class, () -> SessionFactoryWarmup.run(HibernateUtil.getSessionFactory(), queries, 0));
+    }
+}